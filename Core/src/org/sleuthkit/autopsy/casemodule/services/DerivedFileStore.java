@@ -0,0 +1,272 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.casemodule.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import javax.xml.bind.DatatypeConverter;
+import org.sleuthkit.autopsy.casemodule.Case;
+import org.sleuthkit.autopsy.coreutils.Logger;
+
+/**
+ * A case-wide content-addressed store for the local copies of derived files,
+ * such as files extracted from archives and email attachments.
+ *
+ * Modules that write a derived file to the case directory pass its path to
+ * store() before adding it to the case. If a file with the same MD5 hash has
+ * already been stored, and a byte by byte comparison shows that the stored
+ * copy still has the same content, the new copy is deleted and the path of
+ * the stored copy is returned, so that only one copy of each unique payload
+ * is kept on disk no matter how many derived files refer to it. Only the
+ * bytes on disk are shared: each derived file is still added to the case and
+ * analyzed as a file of its own.
+ *
+ * The store is kept in memory and lasts as long as the case is open. It holds
+ * the MAX_PAYLOADS most recently stored payloads, older payloads and payloads
+ * stored before the case was closed and reopened are not deduplicated.
+ */
+public class DerivedFileStore implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(DerivedFileStore.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * the number of payloads that are remembered for deduplication
+     */
+    private static final int MAX_PAYLOADS = 100000;
+
+    /**
+     * the path of the stored copy of each payload, relative to the case
+     * directory, by MD5 hash, least recently stored first
+     */
+    private final Map<String, String> pathsByHash = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_PAYLOADS;
+        }
+    };
+
+    DerivedFileStore() {
+    }
+
+    /**
+     * A payload that has been stored.
+     */
+    public static final class StoredPayload {
+
+        private final String localPath;
+        private final String md5Hash;
+        private final boolean duplicate;
+
+        private StoredPayload(String localPath, String md5Hash, boolean duplicate) {
+            this.localPath = localPath;
+            this.md5Hash = md5Hash;
+            this.duplicate = duplicate;
+        }
+
+        /**
+         * @return the path of the stored copy of the payload, relative to the
+         *         case directory, to use as the local path of the derived file
+         */
+        public String getLocalPath() {
+            return localPath;
+        }
+
+        /**
+         * @return the MD5 hash of the payload, or null if it could not be
+         *         calculated
+         */
+        public String getMd5Hash() {
+            return md5Hash;
+        }
+
+        /**
+         * @return true if the payload had already been stored and the given
+         *         copy was deleted
+         */
+        public boolean isDuplicate() {
+            return duplicate;
+        }
+    }
+
+    /**
+     * Store a local file that has just been written, calculating its MD5 hash
+     * by reading it.
+     *
+     * @param localPath the path of the file, relative to the case directory
+     *
+     * @return the stored payload. If the hash cannot be calculated the file is
+     *         kept where it is.
+     */
+    public StoredPayload store(String localPath) {
+        String md5Hash;
+        try {
+            md5Hash = calculateMd5(getAbsolutePath(localPath));
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Error calculating hash of derived file " + localPath, ex); //NON-NLS
+            return new StoredPayload(localPath, null, false);
+        }
+        return store(localPath, md5Hash);
+    }
+
+    /**
+     * Store a local file that has just been written, using an MD5 hash that was
+     * calculated while it was written. The file is only replaced with the
+     * stored copy of a payload with the same hash if the two files have the
+     * same bytes, so neither an MD5 collision nor a stored copy that has been
+     * changed on disk can give the derived file the wrong content.
+     *
+     * @param localPath the path of the file, relative to the case directory
+     * @param md5Hash   the MD5 hash of the file, as a lowercase hex string
+     *
+     * @return the stored payload
+     */
+    public StoredPayload store(String localPath, String md5Hash) {
+        if (md5Hash == null) {
+            return new StoredPayload(localPath, null, false);
+        }
+        String storedPath;
+        synchronized (this) {
+            storedPath = pathsByHash.get(md5Hash);
+        }
+        if (storedPath != null && storedPath.equals(localPath) == false && hasSameContent(storedPath, localPath)) {
+            try {
+                Files.delete(getAbsolutePath(localPath));
+                return new StoredPayload(storedPath, md5Hash, true);
+            } catch (IOException ex) {
+                logger.log(Level.WARNING, "Error deleting duplicate copy of derived file " + localPath, ex); //NON-NLS
+                return new StoredPayload(localPath, md5Hash, false);
+            }
+        }
+        synchronized (this) {
+            pathsByHash.put(md5Hash, localPath);
+        }
+        return new StoredPayload(localPath, md5Hash, false);
+    }
+
+    /**
+     * Calculate the MD5 hash of a local file, reading it as a stream.
+     *
+     * @param path the path of the file
+     *
+     * @return the hash as a lowercase hex string
+     *
+     * @throws IOException if the file cannot be read
+     */
+    private static String calculateMd5(Path path) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("MD5"); //NON-NLS
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+        }
+        return DatatypeConverter.printHexBinary(messageDigest.digest()).toLowerCase();
+    }
+
+    /**
+     * Compare the content of two local files byte by byte.
+     *
+     * @param localPath      the path of one file, relative to the case
+     *                       directory
+     * @param otherLocalPath the path of the other file, relative to the case
+     *                       directory
+     *
+     * @return true if both files could be read and have the same bytes
+     */
+    private static boolean hasSameContent(String localPath, String otherLocalPath) {
+        Path path = getAbsolutePath(localPath);
+        Path otherPath = getAbsolutePath(otherLocalPath);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] otherBuffer = new byte[BUFFER_SIZE];
+        try {
+            if (Files.size(path) != Files.size(otherPath)) {
+                return false;
+            }
+            try (InputStream in = Files.newInputStream(path); InputStream otherIn = Files.newInputStream(otherPath)) {
+                while (true) {
+                    int read = readFully(in, buffer);
+                    int otherRead = readFully(otherIn, otherBuffer);
+                    if (read != otherRead) {
+                        return false;
+                    }
+                    if (read == 0) {
+                        return true;
+                    }
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] != otherBuffer[i]) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            logger.log(Level.INFO, "Error comparing derived file " + otherLocalPath + " with stored copy " + localPath, ex); //NON-NLS
+            return false;
+        }
+    }
+
+    /**
+     * Read from a stream until the buffer is full or the stream ends.
+     *
+     * @param in     the stream
+     * @param buffer the buffer
+     *
+     * @return the number of bytes read, 0 at the end of the stream
+     *
+     * @throws IOException
+     */
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int read = in.read(buffer, total, buffer.length - total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static Path getAbsolutePath(String localPath) {
+        return Paths.get(Case.getCurrentCase().getCaseDirectory(), localPath);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        pathsByHash.clear();
+    }
+}
@@ -22,10 +22,21 @@
  */
 package org.sleuthkit.autopsy.casemodule.services;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import org.openide.util.NbBundle;
 import org.sleuthkit.autopsy.coreutils.Logger;
@@ -51,6 +62,9 @@ public class FileManager implements Closeable {
 
     private SleuthkitCase tskCase;
     private static final Logger logger = Logger.getLogger(FileManager.class.getName());
+    private static final int LOCAL_DIR_LISTING_THREADS = 8;
+    private static final int MAX_PENDING_LOCAL_DIR_LISTINGS = 256;
+    private static final int LOCAL_FILES_PER_TRANSACTION = 10000;
     private volatile int curNumFileSets;  //current number of filesets (root virt dir objects)
 
     public FileManager(SleuthkitCase tskCase) {
@@ -330,6 +344,15 @@ public interface FileAddProgressUpdater {
     /**
      * Add a set of local/logical files and dirs.
      *
+     * The local directories are listed by a pool of threads, while the calling
+     * thread adds the files and dirs that have been listed to the case
+     * database, so that the slow file system (e.g., network share) calls and
+     * the database inserts overlap. The parent of each file is the virtual
+     * directory added for its local dir, which is always added before the dir
+     * is listed. The additions are committed in batches, and a content event
+     * is fired for the file set after each commit so that the added files are
+     * shown as they are added.
+     *
      * @param localAbsPaths      list of absolute paths to local files and dirs
      * @param addProgressUpdater notifier to receive progress notifications on
      *                           folders added, or null if not used
@@ -359,14 +382,16 @@ public synchronized VirtualDirectory addLocalFilesDirs(List<String> localAbsPath
             rootsToAdd.add(localFile);
         }
 
-        CaseDbTransaction trans = tskCase.beginTransaction();
+        LocalFilesAdder adder = new LocalFilesAdder(addProgressUpdater);
         // make a virtual top-level directory for this set of files/dirs
-        final VirtualDirectory fileSetRootDir = addLocalFileSetRootDir(trans);
+        final VirtualDirectory fileSetRootDir = addLocalFileSetRootDir(adder.trans);
+        adder.fileSetRootDir = fileSetRootDir;
 
         try {
-            // recursively add each item in the set
+            // add each item in the set, and then the contents of the dirs
+            List<AbstractFile> localFilesAdded = new ArrayList<>();
             for (java.io.File localRootToAdd : rootsToAdd) {
-                AbstractFile localFileAdded = addLocalDirInt(trans, fileSetRootDir, localRootToAdd, addProgressUpdater);
+                AbstractFile localFileAdded = adder.addLocalFile(fileSetRootDir, localRootToAdd.toPath());
 
                 if (localFileAdded == null) {
                     String msg = NbBundle
@@ -374,19 +399,22 @@ public synchronized VirtualDirectory addLocalFilesDirs(List<String> localAbsPath
                                     localRootToAdd.getAbsolutePath());
                     logger.log(Level.SEVERE, msg);
                     throw new TskCoreException(msg);
-                } else {
-                    //added.add(localFileAdded);
-                    //send new content event
-                    //for now reusing ingest events, in future this will be replaced by datamodel / observer sending out events
-                    // @@@ Is this the right place for this? A directory tree refresh will be triggered, so this may be creating a race condition
-                    // since the transaction is not yet committed.   
-                    IngestServices.getInstance().fireModuleContentEvent(new ModuleContentEvent(localFileAdded));
                 }
+                localFilesAdded.add(localFileAdded);
             }
+            adder.addListedLocalFiles();
+            adder.trans.commit();
 
-            trans.commit();
+            //send new content events, now that the transaction is committed
+            //for now reusing ingest events, in future this will be replaced by datamodel / observer sending out events
+            for (AbstractFile localFileAdded : localFilesAdded) {
+                IngestServices.getInstance().fireModuleContentEvent(new ModuleContentEvent(localFileAdded));
+            }
         } catch (TskCoreException ex) {
-            trans.rollback();
+            logger.log(Level.SEVERE, "Error adding local files and dirs, additions after the last commit rolled back", ex); //NON-NLS
+            adder.trans.rollback();
+        } finally {
+            adder.shutDown();
         }
         return fileSetRootDir;
     }
@@ -420,63 +448,10 @@ private VirtualDirectory addLocalFileSetRootDir(CaseDbTransaction trans) throws
         return created;
     }
 
-    /**
-     * Helper (internal) method to recursively add contents of a folder. Node
-     * passed in can be a file or directory. Children of directories are added.
-     *
-     * @param parentVd           Dir that is the parent of localFile
-     * @param localFile          File/Dir that we are adding
-     * @param addProgressUpdater notifier to receive progress notifications on
-     *                           folders added, or null if not used
-     *
-     * @returns File object of file added or new virtualdirectory for the
-     * directory.
-     * @throws TskCoreException
-     */
-    private AbstractFile addLocalDirInt(CaseDbTransaction trans, VirtualDirectory parentVd,
-            java.io.File localFile, FileAddProgressUpdater addProgressUpdater) throws TskCoreException {
-
-        if (tskCase == null) {
-            throw new TskCoreException(
-                    NbBundle.getMessage(this.getClass(), "FileManager.addLocalDirInt.exception.closed.msg"));
-        }
-
-        //final String localName = localDir.getName();
-        if (!localFile.exists()) {
-            throw new TskCoreException(
-                    NbBundle.getMessage(this.getClass(), "FileManager.addLocalDirInt.exception.doesntExist.msg",
-                            localFile.getAbsolutePath()));
-        }
-        if (!localFile.canRead()) {
-            throw new TskCoreException(
-                    NbBundle.getMessage(this.getClass(), "FileManager.addLocalDirInt.exception.notReadable.msg",
-                            localFile.getAbsolutePath()));
-        }
-
-        if (localFile.isDirectory()) {
-            //create virtual folder (we don't have a notion of a 'local folder')
-            final VirtualDirectory childVd = tskCase.addVirtualDirectory(parentVd.getId(), localFile.getName(), trans);
-            if (childVd != null && addProgressUpdater != null) {
-                addProgressUpdater.fileAdded(childVd);
-            }
-            //add children recursively
-            final java.io.File[] childrenFiles = localFile.listFiles();
-            if (childrenFiles != null) {
-                for (java.io.File childFile : childrenFiles) {
-                    addLocalDirInt(trans, childVd, childFile, addProgressUpdater);
-                }
-            }
-            return childVd;
-        } else {
-            //add leaf file, base case
-            return this.addLocalFileInt(parentVd, localFile, trans);
-        }
-    }
-
     /**
      * Adds a single local/logical file to the case. Adds it to the database.
      * Does not refresh the views of data. Assumes that the local file exists
-     * and can be read. This checking is done by addLocalDirInt().
+     * and can be read. This checking is done by the LocalFilesAdder.
      *
      * @param parentFile parent file object container (such as virtual
      *                   directory, another local file, or fscontent File),
@@ -488,30 +463,221 @@ private AbstractFile addLocalDirInt(CaseDbTransaction trans, VirtualDirectory pa
      *                          due to a critical system error or of the file
      *                          manager has already been closed
      */
-    private synchronized LocalFile addLocalFileInt(AbstractFile parentFile, java.io.File localFile, CaseDbTransaction trans) throws TskCoreException {
+    private synchronized LocalFile addLocalFileInt(AbstractFile parentFile, LocalFileEntry localFile, CaseDbTransaction trans) throws TskCoreException {
 
         if (tskCase == null) {
             throw new TskCoreException(
                     NbBundle.getMessage(this.getClass(), "FileManager.addLocalDirInt2.exception.closed.msg"));
         }
 
-        long size = localFile.length();
-        boolean isFile = localFile.isFile();
-
         long ctime = 0;
         long crtime = 0;
         long atime = 0;
         long mtime = 0;
 
-        String fileName = localFile.getName();
-
-        LocalFile lf = tskCase.addLocalFile(fileName, localFile.getAbsolutePath(), size,
+        LocalFile lf = tskCase.addLocalFile(localFile.name, localFile.path.toAbsolutePath().toString(), localFile.size,
                 ctime, crtime, atime, mtime,
-                isFile, parentFile, trans);
+                localFile.isFile, parentFile, trans);
 
         return lf;
     }
 
+    /**
+     * Reads the attributes of a local file or dir with one file system call,
+     * and checks that it is readable with another.
+     *
+     * @param path The path of the local file or dir.
+     *
+     * @return The local file or dir.
+     *
+     * @throws TskCoreException if the file or dir does not exist or is not
+     *                          readable.
+     */
+    private LocalFileEntry readLocalFileEntry(Path path) throws TskCoreException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            throw new TskCoreException(
+                    NbBundle.getMessage(this.getClass(), "FileManager.addLocalDirInt.exception.doesntExist.msg",
+                            path.toAbsolutePath().toString()));
+        } catch (IOException | SecurityException ex) {
+            throw new TskCoreException(
+                    NbBundle.getMessage(this.getClass(), "FileManager.addLocalDirInt.exception.notReadable.msg",
+                            path.toAbsolutePath().toString()));
+        }
+        if (!Files.isReadable(path)) {
+            throw new TskCoreException(
+                    NbBundle.getMessage(this.getClass(), "FileManager.addLocalDirInt.exception.notReadable.msg",
+                            path.toAbsolutePath().toString()));
+        }
+        Path fileName = path.getFileName();
+        return new LocalFileEntry(path, (fileName != null) ? fileName.toString() : path.toString(),
+                attributes.isDirectory(), attributes.isRegularFile(), attributes.size());
+    }
+
+    /**
+     * A local file or dir, with the attributes needed to add it to the case.
+     */
+    private static final class LocalFileEntry {
+
+        private final Path path;
+        private final String name;
+        private final boolean isDirectory;
+        private final boolean isFile;
+        private final long size;
+
+        LocalFileEntry(Path path, String name, boolean isDirectory, boolean isFile, long size) {
+            this.path = path;
+            this.name = name;
+            this.isDirectory = isDirectory;
+            this.isFile = isFile;
+            this.size = size;
+        }
+    }
+
+    /**
+     * The contents of a local dir, listed by a listing thread, to be added
+     * under the virtual directory that was added for the dir.
+     */
+    private static final class LocalDirListing {
+
+        private final VirtualDirectory parentVd;
+        private final List<LocalFileEntry> entries = new ArrayList<>();
+        private TskCoreException error;
+
+        LocalDirListing(VirtualDirectory parentVd) {
+            this.parentVd = parentVd;
+        }
+    }
+
+    /**
+     * Adds local files and dirs to the case for addLocalFilesDirs(). The dirs
+     * are listed on a pool of threads, and the listings are added to the case
+     * database on the thread that calls addListedLocalFiles(), in transactions
+     * of up to LOCAL_FILES_PER_TRANSACTION files and dirs.
+     */
+    private final class LocalFilesAdder {
+
+        private final FileAddProgressUpdater addProgressUpdater;
+        private final ExecutorService listingExecutor = Executors.newFixedThreadPool(LOCAL_DIR_LISTING_THREADS, new ThreadFactoryBuilder().setNameFormat("local-files-listing-%d").build()); //NON-NLS
+        private final BlockingQueue<LocalDirListing> listings = new ArrayBlockingQueue<>(MAX_PENDING_LOCAL_DIR_LISTINGS);
+        private VirtualDirectory fileSetRootDir;
+        private CaseDbTransaction trans;
+        private int pendingListings;
+        private int filesInTransaction;
+
+        LocalFilesAdder(FileAddProgressUpdater addProgressUpdater) throws TskCoreException {
+            this.addProgressUpdater = addProgressUpdater;
+            this.trans = tskCase.beginTransaction();
+        }
+
+        /**
+         * Adds a local file or dir to the case. The contents of a dir are
+         * listed in the background, to be added by addListedLocalFiles().
+         *
+         * @param parentVd  Dir that is the parent of localFile
+         * @param localPath File/Dir that we are adding
+         *
+         * @return File object of file added or new virtualdirectory for the
+         *         directory.
+         *
+         * @throws TskCoreException
+         */
+        AbstractFile addLocalFile(VirtualDirectory parentVd, Path localPath) throws TskCoreException {
+            if (tskCase == null) {
+                throw new TskCoreException(
+                        NbBundle.getMessage(FileManager.class, "FileManager.addLocalDirInt.exception.closed.msg"));
+            }
+            return addLocalFile(parentVd, readLocalFileEntry(localPath));
+        }
+
+        private AbstractFile addLocalFile(VirtualDirectory parentVd, LocalFileEntry localFile) throws TskCoreException {
+            AbstractFile added;
+            if (localFile.isDirectory) {
+                //create virtual folder (we don't have a notion of a 'local folder')
+                final VirtualDirectory childVd = tskCase.addVirtualDirectory(parentVd.getId(), localFile.name, trans);
+                if (childVd != null && addProgressUpdater != null) {
+                    addProgressUpdater.fileAdded(childVd);
+                }
+                if (childVd != null) {
+                    listLocalDir(childVd, localFile.path);
+                }
+                added = childVd;
+            } else {
+                //add leaf file, base case
+                added = addLocalFileInt(parentVd, localFile, trans);
+            }
+            if (++filesInTransaction >= LOCAL_FILES_PER_TRANSACTION) {
+                trans.commit();
+                trans = tskCase.beginTransaction();
+                filesInTransaction = 0;
+                IngestServices.getInstance().fireModuleContentEvent(new ModuleContentEvent(fileSetRootDir));
+            }
+            return added;
+        }
+
+        /**
+         * Queues a local dir to be listed by a listing thread. A listing is
+         * always queued for the dir, even if the listing thread fails, so that
+         * addListedLocalFiles() does not wait for it forever.
+         */
+        private void listLocalDir(VirtualDirectory dirVd, Path dirPath) {
+            ++pendingListings;
+            listingExecutor.submit(() -> {
+                LocalDirListing listing = new LocalDirListing(dirVd);
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(dirPath)) {
+                    for (Path child : children) {
+                        listing.entries.add(readLocalFileEntry(child));
+                    }
+                } catch (IOException | DirectoryIteratorException | SecurityException ex) {
+                    // The dir contents cannot be listed, add the dir only
+                    logger.log(Level.WARNING, "Unable to list the contents of " + dirPath, ex); //NON-NLS
+                    listing.entries.clear();
+                } catch (TskCoreException ex) {
+                    listing.error = ex;
+                } catch (RuntimeException ex) {
+                    listing.error = new TskCoreException("Error listing the contents of " + dirPath, ex); //NON-NLS
+                } finally {
+                    listings.put(listing);
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Adds the contents of the listed dirs until all of the dirs have been
+         * listed and added.
+         *
+         * @throws TskCoreException if a file or dir cannot be read or added.
+         */
+        void addListedLocalFiles() throws TskCoreException {
+            while (pendingListings > 0) {
+                LocalDirListing listing;
+                try {
+                    listing = listings.take();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new TskCoreException("Interrupted while adding local files and dirs", ex); //NON-NLS
+                }
+                --pendingListings;
+                if (listing.error != null) {
+                    throw listing.error;
+                }
+                for (LocalFileEntry entry : listing.entries) {
+                    addLocalFile(listing.parentVd, entry);
+                }
+            }
+        }
+
+        /**
+         * Stops the listing threads.
+         */
+        void shutDown() {
+            listingExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public synchronized void close() throws IOException {
         tskCase = null;
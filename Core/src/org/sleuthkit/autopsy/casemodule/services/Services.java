@@ -40,6 +40,7 @@ public class Services implements Closeable {
     private final TagsManager tagsManager;
     private final KeywordSearchService keywordSearchService;
     private final Blackboard blackboard;
+    private final DerivedFileStore derivedFileStore;
 
     public Services(SleuthkitCase tskCase) {
         fileManager = new FileManager(tskCase);
@@ -53,6 +54,9 @@ public Services(SleuthkitCase tskCase) {
         
         blackboard = new Blackboard();
         services.add(blackboard);
+
+        derivedFileStore = new DerivedFileStore();
+        services.add(derivedFileStore);
     }
 
     public FileManager getFileManager() {
@@ -71,6 +75,10 @@ public Blackboard getBlackboard() {
         return blackboard;
     }
 
+    public DerivedFileStore getDerivedFileStore() {
+        return derivedFileStore;
+    }
+
     @Override
     public void close() throws IOException {
         for (Closeable service : services) {
@@ -47,6 +47,10 @@ public final class UserPreferences {
     public static final String HIDE_KNOWN_FILES_IN_VIEWS_TREE = "HideKnownFilesInViewsTree"; //NON-NLS 
     public static final String DISPLAY_TIMES_IN_LOCAL_TIME = "DisplayTimesInLocalTime"; //NON-NLS
     public static final String NUMBER_OF_FILE_INGEST_THREADS = "NumberOfFileIngestThreads"; //NON-NLS
+    public static final String NUMBER_OF_DATA_SOURCE_INGEST_THREADS = "NumberOfDataSourceIngestThreads"; //NON-NLS
+    public static final String MAX_NUMBER_OF_EXTERNAL_PROCESSES = "MaxNumberOfExternalProcesses"; //NON-NLS
+    public static final String CONCURRENT_FILE_INGEST_MODULES_ENABLED = "ConcurrentFileIngestModulesEnabled"; //NON-NLS
+    public static final String CONCURRENT_FILE_INGEST_MODULES_MIN_FILE_SIZE_MB = "ConcurrentFileIngestModulesMinFileSizeMB"; //NON-NLS
     public static final String IS_MULTI_USER_MODE_ENABLED = "IsMultiUserModeEnabled"; //NON-NLS
     public static final String EXTERNAL_DATABASE_HOSTNAME_OR_IP = "ExternalDatabaseHostnameOrIp"; //NON-NLS
     public static final String EXTERNAL_DATABASE_PORTNUMBER = "ExternalDatabasePortNumber"; //NON-NLS
@@ -62,6 +66,7 @@ public final class UserPreferences {
     private static final String MESSAGE_SERVICE_PORT = "MessageServicePort"; //NON-NLS
     public static final String PROCESS_TIME_OUT_ENABLED = "ProcessTimeOutEnabled"; //NON-NLS     
     public static final String PROCESS_TIME_OUT_HOURS = "ProcessTimeOutHours"; //NON-NLS  
+    public static final String FILE_INGEST_TASK_SCHEDULING_POLICY = "FileIngestTaskSchedulingPolicy"; //NON-NLS
     private static final int DEFAULT_PROCESS_TIMEOUT_HR = 60;
     private static final String DEFAULT_PORT_STRING = "61616";
     private static final int DEFAULT_PORT_INT = 61616;
@@ -139,6 +144,75 @@ public static void setNumberOfFileIngestThreads(int value) {
         preferences.putInt(NUMBER_OF_FILE_INGEST_THREADS, value);
     }
 
+    public static int numberOfDataSourceIngestThreads() {
+        return preferences.getInt(NUMBER_OF_DATA_SOURCE_INGEST_THREADS, 2);
+    }
+
+    public static void setNumberOfDataSourceIngestThreads(int value) {
+        preferences.putInt(NUMBER_OF_DATA_SOURCE_INGEST_THREADS, value);
+    }
+
+    /**
+     * Get the maximum number of external processes, such as RegRipper or
+     * PhotoRec, that ingest modules may run at the same time.
+     *
+     * @return The maximum number of processes, by default half the number of
+     *         processors.
+     */
+    public static int maxNumberOfExternalProcesses() {
+        return preferences.getInt(MAX_NUMBER_OF_EXTERNAL_PROCESSES, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Set the maximum number of external processes that ingest modules may run
+     * at the same time.
+     *
+     * @param value The maximum number of processes.
+     */
+    public static void setMaxNumberOfExternalProcesses(int value) {
+        preferences.putInt(MAX_NUMBER_OF_EXTERNAL_PROCESSES, value);
+    }
+
+    /**
+     * Get whether or not independent file ingest modules are run at the same
+     * time for large files.
+     *
+     * @return True if enabled, false otherwise (the default).
+     */
+    public static boolean concurrentFileIngestModulesEnabled() {
+        return preferences.getBoolean(CONCURRENT_FILE_INGEST_MODULES_ENABLED, false);
+    }
+
+    /**
+     * Set whether or not independent file ingest modules are run at the same
+     * time for large files.
+     *
+     * @param enabled True to enable, false to disable.
+     */
+    public static void setConcurrentFileIngestModulesEnabled(boolean enabled) {
+        preferences.putBoolean(CONCURRENT_FILE_INGEST_MODULES_ENABLED, enabled);
+    }
+
+    /**
+     * Get the size, in megabytes, from which independent file ingest modules
+     * are run at the same time.
+     *
+     * @return The file size, 256 MB by default.
+     */
+    public static int concurrentFileIngestModulesMinFileSizeMB() {
+        return preferences.getInt(CONCURRENT_FILE_INGEST_MODULES_MIN_FILE_SIZE_MB, 256);
+    }
+
+    /**
+     * Set the size, in megabytes, from which independent file ingest modules
+     * are run at the same time.
+     *
+     * @param value The file size.
+     */
+    public static void setConcurrentFileIngestModulesMinFileSizeMB(int value) {
+        preferences.putInt(CONCURRENT_FILE_INGEST_MODULES_MIN_FILE_SIZE_MB, value);
+    }
+
     /**
      * Reads persisted case database connection info.
      * @return An object encapsulating the database connection info.
@@ -283,6 +357,25 @@ public static boolean getIsTimeOutEnabled() {
     public static void setIsTimeOutEnabled(boolean enabled) {
         preferences.putBoolean(PROCESS_TIME_OUT_ENABLED, enabled);
     }
+
+    /**
+     * Reads the persisted name of the policy used to order file ingest tasks.
+     *
+     * @return The policy name, DIRECTORY_ORDER if it has not been set.
+     */
+    public static String getFileIngestTaskSchedulingPolicy() {
+        return preferences.get(FILE_INGEST_TASK_SCHEDULING_POLICY, "DIRECTORY_ORDER"); //NON-NLS
+    }
+
+    /**
+     * Stores the name of the policy used to order file ingest tasks. The
+     * policy is read when the application starts.
+     *
+     * @param policy The policy name.
+     */
+    public static void setFileIngestTaskSchedulingPolicy(String policy) {
+        preferences.put(FILE_INGEST_TASK_SCHEDULING_POLICY, policy);
+    }
     
     
     /**
@@ -21,6 +21,8 @@
 import java.awt.Cursor;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.dnd.DnDConstants;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
@@ -33,6 +35,7 @@
 import java.util.logging.Level;
 import javax.swing.Action;
 import javax.swing.JTable;
+import javax.swing.JViewport;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
@@ -42,6 +45,7 @@
 import org.netbeans.swing.outline.DefaultOutlineModel;
 import org.openide.explorer.ExplorerManager;
 import org.openide.explorer.view.OutlineView;
+import org.openide.explorer.view.Visualizer;
 import org.openide.nodes.AbstractNode;
 import org.openide.nodes.Children;
 import org.openide.nodes.Node;
@@ -57,6 +61,8 @@
 import org.sleuthkit.autopsy.casemodule.Case;
 import org.sleuthkit.autopsy.corecomponentinterfaces.DataResultViewer;
 import org.sleuthkit.autopsy.coreutils.Logger;
+import org.sleuthkit.autopsy.datamodel.AbstractAbstractFileNode;
+import org.sleuthkit.datamodel.AbstractFile;
 
 /**
  * DataResult sortable table viewer
@@ -73,6 +79,13 @@ public class DataResultViewerTable extends AbstractDataResultViewer {
     private static final String DUMMY_NODE_DISPLAY_NAME = NbBundle.getMessage(DataResultViewerTable.class, "DataResultViewerTable.dummyNodeDisplayName");
     private Node currentRoot;
 
+    /**
+     * The number of child rows that are sampled to find the column headers
+     * and to compute the column widths. Only these rows, and the rows that are
+     * scrolled into view, have their property sheets built.
+     */
+    private static final int SAMPLE_ROW_COUNT = 20;
+
     /**
      * Creates a DataResultViewerTable object that is compatible with node
      * multiple selection actions.
@@ -101,6 +114,10 @@ private void initialize() {
         // don't show the root node
         ov.getOutline().setRootVisible(false);
         ov.getOutline().setDragEnabled(false);
+
+        // load the file columns of the rows that are scrolled into view in bulk,
+        // before the table asks the nodes for them one row at a time
+        ov.getViewport().addChangeListener((ChangeEvent e) -> prefetchVisibleRows());
         
         ov.getOutline().getColumnModel().addColumnModelListener(new TableColumnModelListener() {
             @Override
@@ -277,9 +294,10 @@ private Node.Property[] getAllChildPropertyHeaders(Node parent) {
      */
     private void getAllChildPropertyHeadersRec(Node parent, int rows) {
         Children children = parent.getChildren();
-        int childCount = 0;
-        for (Node child : children.getNodes()) {
-            if (++childCount > rows) {
+        int childCount = Math.min(rows, children.getNodesCount());
+        for (int i = 0; i < childCount; i++) {
+            Node child = children.getNodeAt(i);
+            if (child == null) {
                 return;
             }
             for (PropertySet ps : child.getPropertySets()) {
@@ -359,6 +377,7 @@ private void setupTable(final Node root) {
         
         // set the new root as current
         currentRoot = root;
+        prefetchFileColumns(root.getChildren(), 0, SAMPLE_ROW_COUNT);
         List<Node.Property<?>> props = loadState();
 
         /*
@@ -403,9 +422,9 @@ private void setupTable(final Node root) {
         // Just let the table resize itself.
         ov.getOutline().setAutoResizeMode((props.size() > 0) ? JTable.AUTO_RESIZE_OFF : JTable.AUTO_RESIZE_ALL_COLUMNS);
 
-        // get first 100 rows values for the table
+        // get the values of a sample of the rows to size the columns
         Object[][] content;
-        content = getRowValues(root, 100);
+        content = getRowValues(root, SAMPLE_ROW_COUNT);
 
         if (content != null) {
             // get the fontmetrics
@@ -453,7 +472,7 @@ private void storeState() {
     // Load the state of current root Node if exists. 
     private List<Node.Property<?>> loadState() {
         propertiesAcc.clear();
-        this.getAllChildPropertyHeadersRec(currentRoot, 100);
+        this.getAllChildPropertyHeadersRec(currentRoot, SAMPLE_ROW_COUNT);
         List<Node.Property<?>> props = new ArrayList<>(propertiesAcc);
         
         // If node is not table filter node, use default order for columns
@@ -494,11 +513,13 @@ private String getUniqueColName(Property<?> prop, String type) {
     // Populate a two-dimensional array with rows of property values for up 
     // to maxRows children of the node passed in. 
     private static Object[][] getRowValues(Node node, int maxRows) {
-        int numRows = Math.min(maxRows, node.getChildren().getNodesCount());
+        Children children = node.getChildren();
+        int numRows = Math.min(maxRows, children.getNodesCount());
         Object[][] rowValues = new Object[numRows][];
         int rowCount = 0;
-        for (Node child : node.getChildren().getNodes()) {
-            if (rowCount >= maxRows) {
+        for (int i = 0; i < numRows; i++) {
+            Node child = children.getNodeAt(i);
+            if (child == null) {
                 break;
             }
             // BC: I got this once, I think it was because the table
@@ -526,6 +547,68 @@ private static Object[][] getRowValues(Node node, int maxRows) {
         return rowValues;
     }
 
+    /**
+     * Load the file columns of the rows that are currently visible in the
+     * table in bulk, in the background.
+     */
+    private void prefetchVisibleRows() {
+        if (this.tableScrollPanel == null) {
+            return;
+        }
+        final OutlineView ov = ((OutlineView) this.tableScrollPanel);
+        JViewport viewport = ov.getViewport();
+        Rectangle visible = viewport.getViewRect();
+        int firstRow = ov.getOutline().rowAtPoint(visible.getLocation());
+        if (firstRow < 0) {
+            return;
+        }
+        int lastRow = ov.getOutline().rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (lastRow < 0) {
+            lastRow = ov.getOutline().getRowCount() - 1;
+        }
+
+        List<AbstractFile> files = new ArrayList<>();
+        for (int row = firstRow; row <= lastRow; row++) {
+            Node node = Visualizer.findNode(ov.getOutline().getOutlineModel().getValueAt(ov.getOutline().convertRowIndexToModel(row), 0));
+            addFileToPrefetch(node, files);
+        }
+        AbstractAbstractFileNode.prefetchFileColumns(files);
+    }
+
+    /**
+     * Load the file columns of a range of children in bulk, so that the
+     * column widths are computed from loaded rows.
+     *
+     * @param children the children of the root of the table
+     * @param start    the index of the first child
+     * @param count    the maximum number of children
+     */
+    private void prefetchFileColumns(Children children, int start, int count) {
+        int end = Math.min(start + count, children.getNodesCount());
+        List<AbstractFile> files = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            addFileToPrefetch(children.getNodeAt(i), files);
+        }
+        AbstractAbstractFileNode.loadFileColumns(files);
+    }
+
+    /**
+     * Add the file of a file node to a list of files to load in bulk, if it
+     * has not been loaded already.
+     *
+     * @param node  a node in the table, may be null
+     * @param files the list of files to add to
+     */
+    private void addFileToPrefetch(Node node, List<AbstractFile> files) {
+        if (node == null) {
+            return;
+        }
+        AbstractFile file = node.getLookup().lookup(AbstractFile.class);
+        if (file != null && AbstractAbstractFileNode.isFileColumnsLoaded(file) == false) {
+            files.add(file);
+        }
+    }
+
     @Override
     public String getTitle() {
         return NbBundle.getMessage(this.getClass(), "DataResultViewerTable.title");
@@ -26,6 +26,7 @@
 import java.io.Writer;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import org.sleuthkit.autopsy.core.UserPreferences;
@@ -39,6 +40,14 @@ public final class ExecUtil {
     private static final long DEFAULT_TIMEOUT = 5;
     private static final TimeUnit DEFAULT_TIMEOUT_UNITS = TimeUnit.SECONDS;
 
+    /**
+     * Ingest modules such as RegRipper and PhotoRec run external processes
+     * from several ingest threads at once, so the number of processes that may
+     * run at the same time is limited to keep them from overloading the
+     * processors and disks. A process waits for a permit before it is started.
+     */
+    private static final Semaphore processPermits = new Semaphore(Math.max(1, UserPreferences.maxNumberOfExternalProcesses()), true);
+
     /**
      * The execute() methods do a wait() with a timeout on the executing process
      * and query a process terminator each time the timeout expires to determine
@@ -148,7 +157,10 @@ public static int execute(ProcessBuilder processBuilder, ProcessTerminator termi
     }
 
     /**
-     * Runs a process using a custom terminator.
+     * Runs a process using a custom terminator. If the maximum number of
+     * external processes are already running, waits for one of them to finish
+     * before starting the process, querying the terminator each time the
+     * timeout expires.
      *
      * @param processBuilder A process builder used to configure and construct
      *                       the process to be run.
@@ -156,29 +168,45 @@ public static int execute(ProcessBuilder processBuilder, ProcessTerminator termi
      * @param units          The units for the timeout.
      * @param terminator     The terminator.
      *
-     * @return the exit value of the process
+     * @return the exit value of the process, -1 if the process was terminated
+     *         before it was started
      *
      * @throws SecurityException if a security manager exists and vetoes any
      *                           aspect of running the process.
      * @throws IOException       if an I/o error occurs.
      */
     public static int execute(ProcessBuilder processBuilder, long timeOut, TimeUnit units, ProcessTerminator terminator) throws SecurityException, IOException {
-        Process process = processBuilder.start();
         try {
-            do {
-                process.waitFor(timeOut, units);
-                if (process.isAlive() && terminator.shouldTerminateProcess()) {
-                    killProcess(process);
+            while (!processPermits.tryAcquire(timeOut, units)) {
+                if (terminator.shouldTerminateProcess()) {
+                    return -1;
                 }
-            } while (process.isAlive());
-        } catch (InterruptedException ex) {
-            if (process.isAlive()) {
-                killProcess(process);
             }
-            Logger.getLogger(ExecUtil.class.getName()).log(Level.INFO, "Thread interrupted while running {0}", processBuilder.command().get(0)); // NON-NLS
+        } catch (InterruptedException ex) {
+            Logger.getLogger(ExecUtil.class.getName()).log(Level.INFO, "Thread interrupted while waiting to run {0}", processBuilder.command().get(0)); // NON-NLS
             Thread.currentThread().interrupt();
+            return -1;
+        }
+        try {
+            Process process = processBuilder.start();
+            try {
+                do {
+                    process.waitFor(timeOut, units);
+                    if (process.isAlive() && terminator.shouldTerminateProcess()) {
+                        killProcess(process);
+                    }
+                } while (process.isAlive());
+            } catch (InterruptedException ex) {
+                if (process.isAlive()) {
+                    killProcess(process);
+                }
+                Logger.getLogger(ExecUtil.class.getName()).log(Level.INFO, "Thread interrupted while running {0}", processBuilder.command().get(0)); // NON-NLS
+                Thread.currentThread().interrupt();
+            }
+            return process.exitValue();
+        } finally {
+            processPermits.release();
         }
-        return process.exitValue();
     }
 
     /**
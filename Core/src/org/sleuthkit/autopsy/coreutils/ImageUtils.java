@@ -622,7 +622,38 @@ private static <T> T getImageProperty(AbstractFile file, final String errorTempl
      * @return a new Task that returns a thumbnail as its result.
      */
     public static Task<javafx.scene.image.Image> newGetThumbnailTask(AbstractFile file, int iconSize, boolean defaultOnFailure) {
-        return new GetThumbnailTask(file, iconSize, defaultOnFailure);
+        return new GetThumbnailTask(file, iconSize, defaultOnFailure, true);
+    }
+
+    /**
+     * Generate a thumbnail of the specified size for the given image and save
+     * it to the thumbnail cache, if there is not already a cached thumbnail for
+     * the image.
+     *
+     * Unlike {@link #getThumbnail(org.sleuthkit.datamodel.Content, int)}, the
+     * thumbnail is written to the cache on the calling thread rather than
+     * being queued for the background saver. This keeps the memory used by
+     * bulk generation (e.g. during ingest) bounded by the number of calling
+     * threads.
+     *
+     * @param file     the file to create a thumbnail for
+     * @param iconSize the size of the thumbnail
+     *
+     * @return true if a thumbnail for the file is in the cache when this
+     *         method returns, false if one could not be generated.
+     */
+    public static boolean cacheThumbnail(AbstractFile file, int iconSize) {
+        if (getCachedThumbnailLocation(file.getId()).exists()) {
+            return true;
+        }
+        GetThumbnailTask thumbnailTask = new GetThumbnailTask(file, iconSize, false, false);
+        thumbnailTask.run();
+        try {
+            return nonNull(thumbnailTask.get());
+        } catch (InterruptedException | ExecutionException ex) {
+            LOGGER.log(Level.WARNING, "Failed to cache thumbnail for {0}: " + ex.toString(), getContentPathSafe(file)); //NOI18N
+            return false;
+        }
     }
 
     /**
@@ -635,15 +666,17 @@ static private class GetThumbnailTask extends ReadImageTaskBase {
         private final int iconSize;
         private final File cacheFile;
         private final boolean defaultOnFailure;
+        private final boolean saveInBackground;
 
         @NbBundle.Messages({"# {0} - file name",
             "GetOrGenerateThumbnailTask.loadingThumbnailFor=Loading thumbnail for {0}", "# {0} - file name",
             "GetOrGenerateThumbnailTask.generatingPreviewFor=Generating preview for {0}"})
-        private GetThumbnailTask(AbstractFile file, int iconSize, boolean defaultOnFailure) {
+        private GetThumbnailTask(AbstractFile file, int iconSize, boolean defaultOnFailure, boolean saveInBackground) {
             super(file);
             updateMessage(Bundle.GetOrGenerateThumbnailTask_loadingThumbnailFor(file.getName()));
             this.iconSize = iconSize;
             this.defaultOnFailure = defaultOnFailure;
+            this.saveInBackground = saveInBackground;
             this.cacheFile = getCachedThumbnailLocation(file.getId());
         }
 
@@ -717,22 +750,29 @@ protected javafx.scene.image.Image call() throws Exception {
         }
 
         /**
-         * submit the thumbnail saving to another background thread.
+         * Save the thumbnail to the cache, either by submitting it to the
+         * background saver thread or directly on the current thread.
          *
          * @param thumbnail
          */
         private void saveThumbnail(BufferedImage thumbnail) {
-            imageSaver.execute(() -> {
-                try {
-                    Files.createParentDirs(cacheFile);
-                    if (cacheFile.exists()) {
-                        cacheFile.delete();
-                    }
-                    ImageIO.write(thumbnail, FORMAT, cacheFile);
-                } catch (IllegalArgumentException | IOException ex) {
-                    LOGGER.log(Level.WARNING, "Could not write thumbnail for {0}: " + ex.toString(), ImageUtils.getContentPathSafe(file)); //NOI18N
+            if (saveInBackground) {
+                imageSaver.execute(() -> writeThumbnail(thumbnail));
+            } else {
+                writeThumbnail(thumbnail);
+            }
+        }
+
+        private void writeThumbnail(BufferedImage thumbnail) {
+            try {
+                Files.createParentDirs(cacheFile);
+                if (cacheFile.exists()) {
+                    cacheFile.delete();
                 }
-            });
+                ImageIO.write(thumbnail, FORMAT, cacheFile);
+            } catch (IllegalArgumentException | IOException ex) {
+                LOGGER.log(Level.WARNING, "Could not write thumbnail for {0}: " + ex.toString(), ImageUtils.getContentPathSafe(file)); //NOI18N
+            }
         }
     }
 
@@ -18,19 +18,41 @@
  */
 package org.sleuthkit.autopsy.datamodel;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import org.openide.nodes.Children;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
+import javax.swing.SwingUtilities;
 import org.apache.commons.lang3.StringUtils;
 import org.openide.util.NbBundle;
 import org.sleuthkit.autopsy.casemodule.Case;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.ingest.IngestManager;
 import org.sleuthkit.autopsy.ingest.ModuleContentEvent;
+import org.sleuthkit.autopsy.ingest.ModuleDataEvent;
 import org.sleuthkit.datamodel.AbstractFile;
+import org.sleuthkit.datamodel.BlackboardArtifact;
+import org.sleuthkit.datamodel.BlackboardAttribute;
 import org.sleuthkit.datamodel.Content;
+import org.sleuthkit.datamodel.FsContent;
+import org.sleuthkit.datamodel.SleuthkitCase;
 import org.sleuthkit.datamodel.TskCoreException;
 
 /**
@@ -42,6 +64,57 @@
 
     private static final Logger LOGGER = Logger.getLogger(AbstractAbstractFileNode.class.getName());
 
+    private static final int MAX_FILES_PER_QUERY = 500;
+
+    /**
+     * Location and hash set hits of files loaded in bulk by loadFileColumns(),
+     * by file id. Cleared when the current case changes, and entries are
+     * dropped when hash set hits are posted for their files.
+     */
+    private static final Cache<Long, FileColumns> fileColumnsCache = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .build();
+
+    /**
+     * Files waiting to have their file columns loaded in the background, and
+     * the nodes to refresh once they are. Both are guarded by filesToLoad.
+     */
+    private static final Map<Long, AbstractFile> filesToLoad = new LinkedHashMap<>();
+    private static final Map<Long, List<AbstractAbstractFileNode<?>>> nodesToRefresh = new HashMap<>();
+    private static boolean fileColumnsLoaderScheduled = false;
+
+    private static final ExecutorService fileColumnsExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("AbstractAbstractFileNode-columns-%d").setDaemon(true).build()); //NON-NLS
+
+    static {
+        Case.addPropertyChangeListener((PropertyChangeEvent evt) -> {
+            if (evt.getPropertyName().equals(Case.Events.CURRENT_CASE.toString())) {
+                synchronized (filesToLoad) {
+                    filesToLoad.clear();
+                    nodesToRefresh.clear();
+                    fileColumnsCache.invalidateAll();
+                }
+            }
+        });
+        IngestManager.getInstance().addIngestModuleEventListener((PropertyChangeEvent evt) -> {
+            if (evt.getPropertyName().equals(IngestManager.IngestModuleEvent.DATA_ADDED.toString())
+                    && evt.getOldValue() instanceof ModuleDataEvent) {
+                ModuleDataEvent event = (ModuleDataEvent) evt.getOldValue();
+                if (event.getArtifactType() != BlackboardArtifact.ARTIFACT_TYPE.TSK_HASHSET_HIT) {
+                    return;
+                }
+                Collection<BlackboardArtifact> artifacts = event.getArtifacts();
+                if (artifacts == null || artifacts.isEmpty()) {
+                    fileColumnsCache.invalidateAll();
+                } else {
+                    for (BlackboardArtifact artifact : artifacts) {
+                        fileColumnsCache.invalidate(artifact.getObjectID());
+                    }
+                }
+            }
+        });
+    }
+
     /**
      * @param <T>          type of the AbstractFile data to encapsulate
      * @param abstractFile file to encapsulate
@@ -240,16 +313,43 @@ public String toString() {
      * @param content to extract properties from
      */
     public static void fillPropertyMap(Map<String, Object> map, AbstractFile content) {
+        FileColumns columns = fileColumnsCache.getIfPresent(content.getId());
+        if (columns == null) {
+            columns = loadFileColumns(content);
+        }
+        fillPropertyMap(map, content, columns);
+    }
 
-        String path = "";
-        try {
-            path = content.getUniquePath();
-        } catch (TskCoreException ex) {
-            LOGGER.log(Level.SEVERE, "Except while calling Content.getUniquePath() on {0}", content); //NON-NLS
+    /**
+     * Fill map with the properties of the file of this node. Unlike
+     * fillPropertyMap(Map, AbstractFile), this does not query the case
+     * database on the EDT: if the location and hash set hits of the file are
+     * not loaded yet, they are left empty and loaded in the background, in
+     * bulk with the files of the other nodes being shown, and the sheet of
+     * this node is rebuilt once they are.
+     *
+     * @param map map with preserved ordering, where property names/values are
+     *            put
+     */
+    protected void fillPropertyMap(Map<String, Object> map) {
+        AbstractFile file = getContent();
+        FileColumns columns = fileColumnsCache.getIfPresent(file.getId());
+        if (columns == null) {
+            if (SwingUtilities.isEventDispatchThread()) {
+                columns = FileColumns.NOT_LOADED;
+                if (Case.isCaseOpen()) {
+                    queueFileColumns(file, this);
+                }
+            } else {
+                columns = loadFileColumns(file);
+            }
         }
+        fillPropertyMap(map, file, columns);
+    }
 
+    private static void fillPropertyMap(Map<String, Object> map, AbstractFile content, FileColumns columns) {
         map.put(AbstractFilePropertyType.NAME.toString(), AbstractAbstractFileNode.getContentDisplayName(content));
-        map.put(AbstractFilePropertyType.LOCATION.toString(), path);
+        map.put(AbstractFilePropertyType.LOCATION.toString(), columns.uniquePath);
         map.put(AbstractFilePropertyType.MOD_TIME.toString(), ContentUtils.getStringTime(content.getMtime(), content));
         map.put(AbstractFilePropertyType.CHANGED_TIME.toString(), ContentUtils.getStringTime(content.getCtime(), content));
         map.put(AbstractFilePropertyType.ACCESS_TIME.toString(), ContentUtils.getStringTime(content.getAtime(), content));
@@ -265,7 +365,7 @@ public static void fillPropertyMap(Map<String, Object> map, AbstractFile content
         map.put(AbstractFilePropertyType.TYPE_DIR.toString(), content.getDirType().getLabel());
         map.put(AbstractFilePropertyType.TYPE_META.toString(), content.getMetaType().toString());
         map.put(AbstractFilePropertyType.KNOWN.toString(), content.getKnown().getName());
-        map.put(AbstractFilePropertyType.HASHSETS.toString(), getHashSetHitsForFile(content));
+        map.put(AbstractFilePropertyType.HASHSETS.toString(), columns.hashSetNames);
         map.put(AbstractFilePropertyType.MD5HASH.toString(), content.getMd5Hash() == null ? "" : content.getMd5Hash());
         map.put(AbstractFilePropertyType.ObjectID.toString(), content.getId());
     }
@@ -283,13 +383,261 @@ static String getContentDisplayName(AbstractFile file) {
         }
     }
 
-    @SuppressWarnings("deprecation")
-    private static String getHashSetHitsForFile(AbstractFile content) {
+    /**
+     * Check whether the location and hash set hits of a file are loaded.
+     *
+     * @param file the file
+     *
+     * @return true if the file columns of the file are loaded
+     */
+    public static boolean isFileColumnsLoaded(AbstractFile file) {
+        return fileColumnsCache.getIfPresent(file.getId()) != null;
+    }
+
+    /**
+     * Load the location and hash set hits of the given files in the
+     * background, in bulk. Used by viewers that display many file nodes at
+     * once, for the rows that are about to be shown.
+     *
+     * @param files the files to load the file columns for
+     */
+    public static void prefetchFileColumns(Collection<AbstractFile> files) {
+        for (AbstractFile file : files) {
+            queueFileColumns(file, null);
+        }
+    }
+
+    /**
+     * Queue a file to have its file columns loaded in the background.
+     *
+     * @param file the file
+     * @param node the node to refresh once they are loaded, may be null
+     */
+    private static void queueFileColumns(AbstractFile file, AbstractAbstractFileNode<?> node) {
+        synchronized (filesToLoad) {
+            filesToLoad.put(file.getId(), file);
+            if (node != null) {
+                List<AbstractAbstractFileNode<?>> nodes = nodesToRefresh.get(file.getId());
+                if (nodes == null) {
+                    nodes = new ArrayList<>();
+                    nodesToRefresh.put(file.getId(), nodes);
+                }
+                if (nodes.contains(node) == false) {
+                    nodes.add(node);
+                }
+            }
+            if (fileColumnsLoaderScheduled == false) {
+                fileColumnsLoaderScheduled = true;
+                fileColumnsExecutor.submit(AbstractAbstractFileNode::loadQueuedFileColumns);
+            }
+        }
+    }
+
+    /**
+     * Load the file columns of the queued files, a batch at a time, and
+     * rebuild the sheets of the nodes that were waiting for them.
+     */
+    private static void loadQueuedFileColumns() {
+        boolean done = false;
+        while (done == false) {
+            List<AbstractFile> files = new ArrayList<>();
+            synchronized (filesToLoad) {
+                Iterator<AbstractFile> iterator = filesToLoad.values().iterator();
+                while (iterator.hasNext() && files.size() < MAX_FILES_PER_QUERY) {
+                    AbstractFile file = iterator.next();
+                    iterator.remove();
+                    if (isFileColumnsLoaded(file) == false) {
+                        files.add(file);
+                    }
+                }
+            }
+
+            loadFileColumns(files);
+
+            final List<AbstractAbstractFileNode<?>> nodes = new ArrayList<>();
+            synchronized (filesToLoad) {
+                for (Iterator<Map.Entry<Long, List<AbstractAbstractFileNode<?>>>> iterator = nodesToRefresh.entrySet().iterator(); iterator.hasNext();) {
+                    Map.Entry<Long, List<AbstractAbstractFileNode<?>>> entry = iterator.next();
+                    if (filesToLoad.containsKey(entry.getKey()) == false) {
+                        // nodes whose files could not be loaded, because the
+                        // case was closed, are dropped rather than queued again
+                        if (fileColumnsCache.getIfPresent(entry.getKey()) != null) {
+                            nodes.addAll(entry.getValue());
+                        }
+                        iterator.remove();
+                    }
+                }
+                done = filesToLoad.isEmpty();
+                if (done) {
+                    fileColumnsLoaderScheduled = false;
+                }
+            }
+            if (nodes.isEmpty() == false) {
+                SwingUtilities.invokeLater(() -> {
+                    for (AbstractAbstractFileNode<?> node : nodes) {
+                        node.setSheet(node.createSheet());
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Load the file columns of a single file.
+     *
+     * @param file the file
+     *
+     * @return the file columns, empty if they could not be loaded
+     */
+    private static FileColumns loadFileColumns(AbstractFile file) {
+        loadFileColumns(Collections.singletonList(file));
+        FileColumns columns = fileColumnsCache.getIfPresent(file.getId());
+        return columns != null ? columns : FileColumns.NOT_LOADED;
+    }
+
+    /**
+     * Load the location and hash set hits of the given files with one query
+     * each, instead of querying the case database once per file, and put them
+     * in the cache.
+     *
+     * @param files the files to load the file columns for
+     */
+    public static void loadFileColumns(Collection<AbstractFile> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        final SleuthkitCase skCase;
         try {
-            return StringUtils.join(content.getHashSetNames(), ", ");
-        } catch (TskCoreException tskCoreException) {
-            LOGGER.log(Level.WARNING, "Error getting hashset hits: ", tskCoreException); //NON-NLS
-            return "";
+            skCase = Case.getCurrentCase().getSleuthkitCase();
+        } catch (IllegalStateException ex) {
+            // the case is closed
+            return;
+        }
+
+        StringBuilder ids = new StringBuilder();
+        for (AbstractFile file : files) {
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            ids.append(file.getId());
+        }
+        Map<Long, String> uniquePaths = getUniquePaths(skCase, files, ids.toString());
+        Map<Long, String> hashSetNames = getHashSetNames(skCase, files, ids.toString());
+
+        synchronized (filesToLoad) {
+            // do not cache the results of a case that was closed meanwhile
+            if (Case.isCaseOpen() == false || Case.getCurrentCase().getSleuthkitCase() != skCase) {
+                return;
+            }
+            for (AbstractFile file : files) {
+                fileColumnsCache.put(file.getId(), new FileColumns(uniquePaths.get(file.getId()), hashSetNames.get(file.getId())));
+            }
+        }
+    }
+
+    /**
+     * Get the unique paths of files. The paths of file system files are built
+     * from their parent paths and a prefix computed once per file system,
+     * other files are asked for their unique paths.
+     *
+     * @param skCase the case database
+     * @param files  the files
+     * @param ids    the comma separated ids of the files
+     *
+     * @return the unique paths by file id
+     */
+    private static Map<Long, String> getUniquePaths(SleuthkitCase skCase, Collection<AbstractFile> files, String ids) {
+        Map<Long, Long> fileSystemIds = new HashMap<>();
+        String query = "SELECT obj_id, fs_obj_id FROM tsk_files WHERE obj_id IN (" + ids + ")"; //NON-NLS
+        try (SleuthkitCase.CaseDbQuery dbQuery = skCase.executeQuery(query)) {
+            ResultSet resultSet = dbQuery.getResultSet();
+            while (resultSet.next()) {
+                long fileSystemId = resultSet.getLong("fs_obj_id"); //NON-NLS
+                if (resultSet.wasNull() == false) {
+                    fileSystemIds.put(resultSet.getLong("obj_id"), fileSystemId); //NON-NLS
+                }
+            }
+        } catch (TskCoreException | SQLException ex) {
+            LOGGER.log(Level.WARNING, "Error getting file system ids: ", ex); //NON-NLS
+        }
+
+        Map<Long, String> prefixes = new HashMap<>();
+        Map<Long, String> uniquePaths = new HashMap<>();
+        for (AbstractFile file : files) {
+            Long fileSystemId = fileSystemIds.get(file.getId());
+            String prefix = fileSystemId != null ? prefixes.get(fileSystemId) : null;
+            if (prefix != null && file instanceof FsContent && file.getParentPath() != null) {
+                uniquePaths.put(file.getId(), prefix + file.getParentPath() + file.getName());
+                continue;
+            }
+            String path = "";
+            try {
+                path = file.getUniquePath();
+            } catch (TskCoreException ex) {
+                LOGGER.log(Level.SEVERE, "Except while calling Content.getUniquePath() on {0}", file); //NON-NLS
+            }
+            uniquePaths.put(file.getId(), path);
+            if (fileSystemId != null && file instanceof FsContent && file.getParentPath() != null) {
+                String suffix = file.getParentPath() + file.getName();
+                if (path.endsWith(suffix)) {
+                    prefixes.put(fileSystemId, path.substring(0, path.length() - suffix.length()));
+                }
+            }
+        }
+        return uniquePaths;
+    }
+
+    /**
+     * Get the names of the hash sets that files are in.
+     *
+     * @param skCase the case database
+     * @param files  the files
+     * @param ids    the comma separated ids of the files
+     *
+     * @return the comma separated hash set names by file id
+     */
+    private static Map<Long, String> getHashSetNames(SleuthkitCase skCase, Collection<AbstractFile> files, String ids) {
+        Map<Long, Set<String>> hashSetNames = new HashMap<>();
+        for (AbstractFile file : files) {
+            hashSetNames.put(file.getId(), new LinkedHashSet<>());
+        }
+        String query = "SELECT blackboard_artifacts.obj_id AS obj_id, blackboard_attributes.value_text AS value_text" //NON-NLS
+                + " FROM blackboard_artifacts INNER JOIN blackboard_attributes" //NON-NLS
+                + " ON blackboard_artifacts.artifact_id = blackboard_attributes.artifact_id" //NON-NLS
+                + " WHERE blackboard_artifacts.artifact_type_id = " + BlackboardArtifact.ARTIFACT_TYPE.TSK_HASHSET_HIT.getTypeID() //NON-NLS
+                + " AND blackboard_attributes.attribute_type_id = " + BlackboardAttribute.ATTRIBUTE_TYPE.TSK_SET_NAME.getTypeID() //NON-NLS
+                + " AND blackboard_artifacts.obj_id IN (" + ids + ")"; //NON-NLS
+        try (SleuthkitCase.CaseDbQuery dbQuery = skCase.executeQuery(query)) {
+            ResultSet resultSet = dbQuery.getResultSet();
+            while (resultSet.next()) {
+                Set<String> names = hashSetNames.get(resultSet.getLong("obj_id")); //NON-NLS
+                if (names != null) {
+                    names.add(resultSet.getString("value_text")); //NON-NLS
+                }
+            }
+        } catch (TskCoreException | SQLException ex) {
+            LOGGER.log(Level.WARNING, "Error getting hashset hits: ", ex); //NON-NLS
+        }
+        Map<Long, String> joinedNames = new HashMap<>();
+        for (Map.Entry<Long, Set<String>> entry : hashSetNames.entrySet()) {
+            joinedNames.put(entry.getKey(), StringUtils.join(entry.getValue(), ", "));
+        }
+        return joinedNames;
+    }
+
+    /**
+     * The columns of a file that take extra case database queries to fill.
+     */
+    private static final class FileColumns {
+
+        private static final FileColumns NOT_LOADED = new FileColumns("", "");
+
+        private final String uniquePath;
+        private final String hashSetNames;
+
+        FileColumns(String uniquePath, String hashSetNames) {
+            this.uniquePath = uniquePath != null ? uniquePath : "";
+            this.hashSetNames = hashSetNames != null ? hashSetNames : "";
         }
     }
 }
@@ -70,7 +70,7 @@ protected Sheet createSheet() {
         }
 
         Map<String, Object> map = new LinkedHashMap<String, Object>();
-        AbstractAbstractFileNode.fillPropertyMap(map, content);
+        fillPropertyMap(map);
 
         AbstractFilePropertyType[] fsTypes = AbstractFilePropertyType.values();
         final int FS_PROPS_LEN = fsTypes.length;
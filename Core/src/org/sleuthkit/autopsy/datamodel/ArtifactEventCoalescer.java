@@ -0,0 +1,199 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.datamodel;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.logging.Level;
+import javax.annotation.concurrent.GuardedBy;
+import org.sleuthkit.autopsy.coreutils.Logger;
+import org.sleuthkit.autopsy.ingest.ModuleDataEvent;
+import org.sleuthkit.datamodel.BlackboardArtifact;
+
+/**
+ * Coalesces the ModuleDataEvents for a set of artifact types so that the
+ * results tree is refreshed at a bounded rate during ingest, rather than once
+ * per DATA_ADDED event.
+ *
+ * The first event for one of the types schedules a flush after a fixed delay.
+ * Events that arrive before the flush are merged into it. When the flush runs,
+ * the consumer is given all the artifacts carried by the merged events, so
+ * that it can apply them as a delta. If any of the merged events did not carry
+ * its artifacts (see ModuleDataEvent.getArtifacts()), the consumer is given
+ * null instead and should recompute its results from scratch.
+ *
+ * Events are matched on the artifact type id, so that events for custom
+ * artifact types, which have no ARTIFACT_TYPE, can be coalesced as well.
+ *
+ * Consumers are called on a single shared background thread.
+ */
+final class ArtifactEventCoalescer {
+
+    private static final Logger logger = Logger.getLogger(ArtifactEventCoalescer.class.getName());
+
+    /**
+     * the minimum time between two flushes of the same coalescer
+     */
+    private static final long FLUSH_DELAY_MS = 1000;
+
+    private static final ScheduledExecutorService flushExecutor
+            = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("results-tree-refresh-%d").build()); //NON-NLS
+
+    /**
+     * the type id used for events whose artifact type is not known
+     */
+    static final int UNKNOWN_ARTIFACT_TYPE_ID = -1;
+
+    private final IntPredicate artifactTypeIdFilter;
+
+    private final Consumer<Collection<BlackboardArtifact>> consumer;
+
+    @GuardedBy("this")
+    private List<BlackboardArtifact> pendingArtifacts = new ArrayList<>();
+
+    @GuardedBy("this")
+    private boolean fullUpdatePending = false;
+
+    @GuardedBy("this")
+    private boolean flushScheduled = false;
+
+    /**
+     * @param consumer      called with the coalesced artifacts, or null if a
+     *                      full update is needed
+     * @param artifactTypes the artifact types whose events are coalesced, all
+     *                      other events are ignored
+     */
+    ArtifactEventCoalescer(Consumer<Collection<BlackboardArtifact>> consumer, BlackboardArtifact.ARTIFACT_TYPE... artifactTypes) {
+        Set<Integer> artifactTypeIds = new HashSet<>();
+        for (BlackboardArtifact.ARTIFACT_TYPE artifactType : Arrays.asList(artifactTypes)) {
+            artifactTypeIds.add(artifactType.getTypeID());
+        }
+        this.consumer = consumer;
+        this.artifactTypeIdFilter = artifactTypeIds::contains;
+    }
+
+    /**
+     * @param consumer             called with the coalesced artifacts, or null
+     *                             if a full update is needed
+     * @param artifactTypeIdFilter returns true for the artifact type ids whose
+     *                             events are coalesced, all other events are
+     *                             ignored. Called with
+     *                             UNKNOWN_ARTIFACT_TYPE_ID for events whose
+     *                             artifact type is not known.
+     */
+    ArtifactEventCoalescer(Consumer<Collection<BlackboardArtifact>> consumer, IntPredicate artifactTypeIdFilter) {
+        this.consumer = consumer;
+        this.artifactTypeIdFilter = artifactTypeIdFilter;
+    }
+
+    /**
+     * Add an event to the next flush, if it is for one of the artifact types
+     * of this coalescer.
+     *
+     * @param event the ModuleDataEvent from a DATA_ADDED event, may be null
+     *
+     * @return true if the event was for one of the artifact types of this
+     *         coalescer.
+     */
+    synchronized boolean add(ModuleDataEvent event) {
+        if (null == event || artifactTypeIdFilter.test(getArtifactTypeId(event)) == false) {
+            return false;
+        }
+        Collection<BlackboardArtifact> artifacts = event.getArtifacts();
+        if (artifacts == null) {
+            fullUpdatePending = true;
+            pendingArtifacts.clear();
+        } else if (fullUpdatePending == false) {
+            pendingArtifacts.addAll(artifacts);
+        }
+        scheduleFlush();
+        return true;
+    }
+
+    /**
+     * Get the artifact type id of an event, from its artifact type or, for
+     * custom artifact types, from its artifacts.
+     *
+     * @param event the event
+     *
+     * @return the artifact type id, or UNKNOWN_ARTIFACT_TYPE_ID
+     */
+    private static int getArtifactTypeId(ModuleDataEvent event) {
+        if (event.getArtifactType() != null) {
+            return event.getArtifactType().getTypeID();
+        }
+        Collection<BlackboardArtifact> artifacts = event.getArtifacts();
+        if (artifacts != null && artifacts.isEmpty() == false) {
+            return artifacts.iterator().next().getArtifactTypeID();
+        }
+        return UNKNOWN_ARTIFACT_TYPE_ID;
+    }
+
+    @GuardedBy("this")
+    private void scheduleFlush() {
+        if (flushScheduled == false) {
+            flushScheduled = true;
+            flushExecutor.schedule(this::flush, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        final List<BlackboardArtifact> artifacts;
+        synchronized (this) {
+            artifacts = fullUpdatePending ? null : pendingArtifacts;
+            pendingArtifacts = new ArrayList<>();
+            fullUpdatePending = false;
+            flushScheduled = false;
+        }
+        try {
+            consumer.accept(artifacts);
+        } catch (RuntimeException ex) {
+            logger.log(Level.WARNING, "Error updating results for coalesced events", ex); //NON-NLS
+        }
+    }
+
+    /**
+     * Make a comma separated list of the ids of the given artifacts, suitable
+     * for use in a SQL IN clause.
+     *
+     * @param artifacts
+     *
+     * @return the artifact ids as a comma separated list
+     */
+    static String getArtifactIdList(Collection<BlackboardArtifact> artifacts) {
+        StringBuilder ids = new StringBuilder();
+        for (BlackboardArtifact artifact : artifacts) {
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            ids.append(artifact.getArtifactID());
+        }
+        return ids.toString();
+    }
+}
@@ -23,8 +23,10 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
@@ -72,27 +74,47 @@ public EmailExtracted(SleuthkitCase skCase) {
 
     private final class EmailResults extends Observable {
 
-        private final Map<String, Map<String, List<Long>>> accounts = new LinkedHashMap<>();
+        private Map<String, Map<String, List<Long>>> accounts = new LinkedHashMap<>();
+
+        // merges DATA_ADDED events for email messages into bounded rate updates
+        private final ArtifactEventCoalescer eventCoalescer = new ArtifactEventCoalescer(this::update, BlackboardArtifact.ARTIFACT_TYPE.TSK_EMAIL_MSG);
 
         EmailResults() {
             update();
         }
 
-        public Set<String> getAccounts() {
-            return accounts.keySet();
+        public synchronized Set<String> getAccounts() {
+            return new LinkedHashSet<>(accounts.keySet());
         }
 
-        public Set<String> getFolders(String account) {
-            return accounts.get(account).keySet();
+        public synchronized Set<String> getFolders(String account) {
+            Map<String, List<Long>> folders = accounts.get(account);
+            return folders == null ? new LinkedHashSet<>() : new LinkedHashSet<>(folders.keySet());
         }
 
-        public List<Long> getArtifactIds(String account, String folder) {
-            return accounts.get(account).get(folder);
+        public synchronized List<Long> getArtifactIds(String account, String folder) {
+            Map<String, List<Long>> folders = accounts.get(account);
+            List<Long> messages = folders == null ? null : folders.get(folder);
+            return messages == null ? new ArrayList<>() : new ArrayList<>(messages);
         }
 
-        @SuppressWarnings("deprecation")
         public void update() {
-            accounts.clear();
+            update(null);
+        }
+
+        /**
+         * Add the given email message artifacts to the results, or reload all
+         * of the email messages if newArtifacts is null. The messages are read
+         * into a new map, which is then merged into the results or replaces
+         * them, so readers never see a partly loaded tree.
+         *
+         * @param newArtifacts the new email message artifacts, or null
+         */
+        @SuppressWarnings("deprecation")
+        void update(Collection<BlackboardArtifact> newArtifacts) {
+            if (newArtifacts != null && newArtifacts.isEmpty()) {
+                return;
+            }
             if (skCase == null) {
                 return;
             }
@@ -104,31 +126,55 @@ public void update() {
                     + "attribute_type_id=" + pathAttrId //NON-NLS
                     + " AND blackboard_attributes.artifact_id=blackboard_artifacts.artifact_id" //NON-NLS
                     + " AND blackboard_artifacts.artifact_type_id=" + artId; //NON-NLS
+            if (newArtifacts != null) {
+                query += " AND blackboard_artifacts.artifact_id IN (" + ArtifactEventCoalescer.getArtifactIdList(newArtifacts) + ")"; //NON-NLS
+            }
 
+            Map<String, Map<String, List<Long>>> loaded = new LinkedHashMap<>();
             try (CaseDbQuery dbQuery = skCase.executeQuery(query)) {
                 ResultSet resultSet = dbQuery.getResultSet();
                 while (resultSet.next()) {
                     final String path = resultSet.getString("value_text"); //NON-NLS
                     final long artifactId = resultSet.getLong("artifact_id"); //NON-NLS
                     final Map<String, String> parsedPath = parsePath(path);
-                    final String account = parsedPath.get(MAIL_ACCOUNT);
-                    final String folder = parsedPath.get(MAIL_FOLDER);
-
-                    Map<String, List<Long>> folders = accounts.get(account);
-                    if (folders == null) {
-                        folders = new LinkedHashMap<>();
-                        accounts.put(account, folders);
-                    }
-                    List<Long> messages = folders.get(folder);
-                    if (messages == null) {
-                        messages = new ArrayList<>();
-                        folders.put(folder, messages);
-                    }
-                    messages.add(artifactId);
+                    addMessage(loaded, parsedPath.get(MAIL_ACCOUNT), parsedPath.get(MAIL_FOLDER), artifactId);
                 }
             } catch (TskCoreException | SQLException ex) {
                 logger.log(Level.WARNING, "Cannot initialize email extraction: ", ex); //NON-NLS
             }
+
+            synchronized (this) {
+                if (newArtifacts == null) {
+                    accounts = loaded;
+                } else {
+                    for (Map.Entry<String, Map<String, List<Long>>> account : loaded.entrySet()) {
+                        for (Map.Entry<String, List<Long>> folder : account.getValue().entrySet()) {
+                            for (Long artifactId : folder.getValue()) {
+                                addMessage(accounts, account.getKey(), folder.getKey(), artifactId);
+                            }
+                        }
+                    }
+                }
+            }
+            setChanged();
+            notifyObservers();
+        }
+
+        /**
+         * Add an email message to a map of the messages by account and folder.
+         */
+        private void addMessage(Map<String, Map<String, List<Long>>> messagesByAccount, String account, String folder, long artifactId) {
+            Map<String, List<Long>> folders = messagesByAccount.get(account);
+            if (folders == null) {
+                folders = new LinkedHashMap<>();
+                messagesByAccount.put(account, folders);
+            }
+            List<Long> messages = folders.get(folder);
+            if (messages == null) {
+                messages = new ArrayList<>();
+                folders.put(folder, messages);
+            }
+            messages.add(artifactId);
         }
 
         private Map<String, String> parsePath(String path) {
@@ -226,9 +272,7 @@ public void propertyChange(PropertyChangeEvent evt) {
                          * for the event to have a null oldValue.
                          */
                         ModuleDataEvent eventData = (ModuleDataEvent) evt.getOldValue();
-                        if (null != eventData && eventData.getArtifactType() == BlackboardArtifact.ARTIFACT_TYPE.TSK_EMAIL_MSG) {
-                            emailResults.update();
-                        }
+                        emailResults.eventCoalescer.add(eventData);
                     } catch (IllegalStateException notUsed) {
                         /**
                          * Case is closed, do nothing.
@@ -20,11 +20,15 @@
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Level;
 import org.openide.nodes.ChildFactory;
 import org.openide.nodes.Children;
@@ -146,8 +150,19 @@ public TypeFactory() {
             doNotShow.add(BlackboardArtifact.ARTIFACT_TYPE.TSK_KEYWORD_HIT);
             doNotShow.add(BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_FILE_HIT);
             doNotShow.add(BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_ARTIFACT_HIT);
+
+            Set<Integer> doNotShowIds = new HashSet<>();
+            for (BlackboardArtifact.ARTIFACT_TYPE artifactType : doNotShow) {
+                doNotShowIds.add(artifactType.getTypeID());
+            }
+            // custom artifact types and events of unknown type refresh too
+            eventCoalescer = new ArtifactEventCoalescer(artifacts -> refresh(true),
+                    artifactTypeId -> doNotShowIds.contains(artifactTypeId) == false);
         }
 
+        // merges DATA_ADDED events into bounded rate refreshes of the type nodes
+        private final ArtifactEventCoalescer eventCoalescer;
+
         private final PropertyChangeListener pcl = (PropertyChangeEvent evt) -> {
             String eventType = evt.getPropertyName();
             if (eventType.equals(IngestManager.IngestModuleEvent.DATA_ADDED.toString())) {
@@ -164,9 +179,7 @@ public TypeFactory() {
                      * the event is a remote event.
                      */
                     final ModuleDataEvent event = (ModuleDataEvent) evt.getOldValue();
-                    if (null != event && doNotShow.contains(event.getArtifactType()) == false) {
-                        refresh(true);
-                    }
+                    eventCoalescer.add(event);
                 } catch (IllegalStateException notUsed) {
                     /**
                      * Case is closed, do nothing.
@@ -380,15 +393,31 @@ public String getItemType() {
     }
 
     /**
-     * Creates children for a given artifact type
+     * Creates children for a given artifact type.
+     *
+     * The keys are pages of artifacts, each found with a keyset query after the
+     * end of the previous page, so that the first nodes are shown before all
+     * of the pages have been found. The artifacts of a page are only loaded
+     * when the nodes of the page are created, with no lock held. The nodes
+     * read the attributes of their artifact when they are displayed, so a node
+     * holds no more than its artifact.
      */
-    private class ArtifactFactory extends ChildFactory.Detachable<BlackboardArtifact> {
+    private class ArtifactFactory extends ChildFactory.Detachable<ArtifactFactory.PageKey> {
+
+        /**
+         * the number of artifacts in a page
+         */
+        private static final int PAGE_SIZE = 500;
 
         private BlackboardArtifact.ARTIFACT_TYPE type;
 
+        // merges DATA_ADDED events for the type into bounded rate refreshes
+        private final ArtifactEventCoalescer eventCoalescer;
+
         public ArtifactFactory(BlackboardArtifact.ARTIFACT_TYPE type) {
             super();
             this.type = type;
+            this.eventCoalescer = new ArtifactEventCoalescer(artifacts -> refresh(true), type);
         }
 
         private final PropertyChangeListener pcl = new PropertyChangeListener() {
@@ -411,9 +440,7 @@ public void propertyChange(PropertyChangeEvent evt) {
                          * for the event to have a null oldValue.
                          */
                         final ModuleDataEvent event = (ModuleDataEvent) evt.getOldValue();
-                        if (null != event && event.getArtifactType() == type) {
-                            refresh(true);
-                        }
+                        eventCoalescer.add(event);
                     } catch (IllegalStateException notUsed) {
                         /**
                          * Case is closed, do nothing.
@@ -451,22 +478,108 @@ protected void removeNotify() {
             IngestManager.getInstance().removeIngestModuleEventListener(pcl);
         }
 
+        /**
+         * Add the key of the next page of artifacts to the keys. Each key only
+         * holds the artifact id range of its page, found with a keyset query
+         * after the end of the previous page, so the keys take memory in
+         * proportion to the number of pages rather than artifacts. The list is
+         * empty on the first call after a refresh.
+         *
+         * @return false if there may be more pages to add
+         */
         @Override
-        protected boolean createKeys(List<BlackboardArtifact> list) {
-            if (skCase != null) {
-                try {
-                    List<BlackboardArtifact> arts = skCase.getBlackboardArtifacts(type.getTypeID());
-                    list.addAll(arts);
-                } catch (TskException ex) {
-                    Logger.getLogger(ArtifactFactory.class.getName()).log(Level.SEVERE, "Couldn't get blackboard artifacts from database", ex); //NON-NLS
+        @SuppressWarnings("deprecation")
+        protected boolean createKeys(List<PageKey> list) {
+            if (skCase == null) {
+                return true;
+            }
+            final long afterId = list.isEmpty() ? Long.MIN_VALUE : list.get(list.size() - 1).lastId;
+            String query = "SELECT COUNT(*) AS artifact_count, MAX(artifact_id) AS last_id FROM (" //NON-NLS
+                    + "SELECT artifact_id FROM blackboard_artifacts WHERE artifact_type_id = " + type.getTypeID() //NON-NLS
+                    + " AND artifact_id > " + afterId //NON-NLS
+                    + " ORDER BY artifact_id LIMIT " + PAGE_SIZE + ") AS page"; //NON-NLS
+            int count;
+            long lastId;
+            try (SleuthkitCase.CaseDbQuery dbQuery = skCase.executeQuery(query)) {
+                ResultSet resultSet = dbQuery.getResultSet();
+                if (resultSet.next() == false) {
+                    return true;
                 }
+                count = resultSet.getInt("artifact_count"); //NON-NLS
+                lastId = resultSet.getLong("last_id"); //NON-NLS
+            } catch (TskCoreException | SQLException ex) {
+                Logger.getLogger(ArtifactFactory.class.getName()).log(Level.SEVERE, "Couldn't get blackboard artifacts from database", ex); //NON-NLS
+                return true;
             }
-            return true;
+            if (count == 0) {
+                return true;
+            }
+            list.add(new PageKey(afterId, lastId));
+            return count < PAGE_SIZE;
         }
 
+        /**
+         * Load the artifacts of a page with a single query and create their
+         * nodes.
+         *
+         * @param key the page
+         *
+         * @return the nodes of the artifacts of the page, in artifact id order
+         */
         @Override
-        protected Node createNodeForKey(BlackboardArtifact key) {
-            return new BlackboardArtifactNode(key);
+        protected Node[] createNodesForKey(PageKey key) {
+            if (skCase == null) {
+                return new Node[0];
+            }
+            String whereClause = "artifact_type_id = " + type.getTypeID() //NON-NLS
+                    + " AND artifact_id > " + key.afterId //NON-NLS
+                    + " AND artifact_id <= " + key.lastId; //NON-NLS
+            List<BlackboardArtifact> artifacts;
+            try {
+                artifacts = skCase.getMatchingArtifacts("WHERE " + whereClause + " ORDER BY artifact_id"); //NON-NLS
+            } catch (TskCoreException ex) {
+                Logger.getLogger(ArtifactFactory.class.getName()).log(Level.SEVERE, "Couldn't get blackboard artifacts from database", ex); //NON-NLS
+                return new Node[0];
+            }
+            Node[] nodes = new Node[artifacts.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = new BlackboardArtifactNode(artifacts.get(i));
+            }
+            return nodes;
+        }
+
+        /**
+         * The artifact id range of a page of artifacts. Pages that cover the
+         * same range are equal, so a refresh keeps the nodes of the pages that
+         * have not changed.
+         */
+        private final class PageKey {
+
+            private final long afterId;
+            private final long lastId;
+
+            /**
+             * @param afterId the last artifact id of the previous page
+             * @param lastId  the last artifact id of this page
+             */
+            PageKey(long afterId, long lastId) {
+                this.afterId = afterId;
+                this.lastId = lastId;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if ((obj instanceof PageKey) == false) {
+                    return false;
+                }
+                PageKey other = (PageKey) obj;
+                return afterId == other.afterId && lastId == other.lastId;
+            }
+
+            @Override
+            public int hashCode() {
+                return Long.hashCode(afterId) * 31 + Long.hashCode(lastId);
+            }
         }
     }
 }
@@ -23,6 +23,7 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -79,25 +80,46 @@ private class HashsetResults extends Observable {
 
         // maps hashset name to list of artifacts for that set
 
-        private final Map<String, Set<Long>> hashSetHitsMap = new LinkedHashMap<>();
+        private Map<String, Set<Long>> hashSetHitsMap = new LinkedHashMap<>();
+
+        // merges DATA_ADDED events for hash set hits into bounded rate updates
+        private final ArtifactEventCoalescer eventCoalescer = new ArtifactEventCoalescer(this::update, ARTIFACT_TYPE.TSK_HASHSET_HIT);
 
         HashsetResults() {
             update();
         }
 
-        List<String> getSetNames() {
+        synchronized List<String> getSetNames() {
             List<String> names = new ArrayList<>(hashSetHitsMap.keySet());
             Collections.sort(names);
             return names;
         }
 
-        Set<Long> getArtifactIds(String hashSetName) {
-            return hashSetHitsMap.get(hashSetName);
+        synchronized Set<Long> getArtifactIds(String hashSetName) {
+            Set<Long> artifactIds = hashSetHitsMap.get(hashSetName);
+            return artifactIds == null ? new HashSet<>() : new HashSet<>(artifactIds);
         }
 
-        @SuppressWarnings("deprecation")
+        /**
+         * Reload all of the hash set hits.
+         */
         final void update() {
-            hashSetHitsMap.clear();
+            update(null);
+        }
+
+        /**
+         * Add the given hash set hit artifacts to the results, or reload all of
+         * the hash set hits if newArtifacts is null. The hits are read into a
+         * new map, which is then merged into the results or replaces them, so
+         * readers never see a partly loaded set of hash sets.
+         *
+         * @param newArtifacts the new hash set hit artifacts, or null
+         */
+        @SuppressWarnings("deprecation")
+        void update(Collection<BlackboardArtifact> newArtifacts) {
+            if (newArtifacts != null && newArtifacts.isEmpty()) {
+                return;
+            }
 
             if (skCase == null) {
                 return;
@@ -110,21 +132,38 @@ final void update() {
                     + "attribute_type_id=" + setNameId //NON-NLS
                     + " AND blackboard_attributes.artifact_id=blackboard_artifacts.artifact_id" //NON-NLS
                     + " AND blackboard_artifacts.artifact_type_id=" + artId; //NON-NLS
+            if (newArtifacts != null) {
+                query += " AND blackboard_artifacts.artifact_id IN (" + ArtifactEventCoalescer.getArtifactIdList(newArtifacts) + ")"; //NON-NLS
+            }
 
+            Map<String, Set<Long>> loaded = new LinkedHashMap<>();
             try (CaseDbQuery dbQuery = skCase.executeQuery(query)) {
                 ResultSet resultSet = dbQuery.getResultSet();
                 while (resultSet.next()) {
                     String setName = resultSet.getString("value_text"); //NON-NLS
                     long artifactId = resultSet.getLong("artifact_id"); //NON-NLS
-                    if (!hashSetHitsMap.containsKey(setName)) {
-                        hashSetHitsMap.put(setName, new HashSet<Long>());
+                    if (!loaded.containsKey(setName)) {
+                        loaded.put(setName, new HashSet<Long>());
                     }
-                    hashSetHitsMap.get(setName).add(artifactId);
+                    loaded.get(setName).add(artifactId);
                 }
             } catch (TskCoreException | SQLException ex) {
                 logger.log(Level.WARNING, "SQL Exception occurred: ", ex); //NON-NLS
             }
 
+            synchronized (this) {
+                if (newArtifacts == null) {
+                    hashSetHitsMap = loaded;
+                } else {
+                    for (Map.Entry<String, Set<Long>> entry : loaded.entrySet()) {
+                        if (!hashSetHitsMap.containsKey(entry.getKey())) {
+                            hashSetHitsMap.put(entry.getKey(), new HashSet<Long>());
+                        }
+                        hashSetHitsMap.get(entry.getKey()).addAll(entry.getValue());
+                    }
+                }
+            }
+
             setChanged();
             notifyObservers();
         }
@@ -204,9 +243,7 @@ public void propertyChange(PropertyChangeEvent evt) {
                          * oldValue if the event is a remote event.
                          */
                         ModuleDataEvent eventData = (ModuleDataEvent) evt.getOldValue();
-                        if (null != eventData && eventData.getArtifactType() == ARTIFACT_TYPE.TSK_HASHSET_HIT) {
-                            hashsetResults.update();
-                        }
+                        hashsetResults.eventCoalescer.add(eventData);
                     } catch (IllegalStateException notUsed) {
                         /**
                          * Case is closed, do nothing.
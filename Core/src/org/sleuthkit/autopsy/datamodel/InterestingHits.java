@@ -23,6 +23,7 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -64,32 +65,65 @@ public InterestingHits(SleuthkitCase skCase) {
 
     private class InterestingResults extends Observable {
 
-        private final Map<String, Set<Long>> interestingItemsMap = new LinkedHashMap<>();
+        private Map<String, Set<Long>> interestingItemsMap = new LinkedHashMap<>();
 
-        public List<String> getSetNames() {
+        // merges DATA_ADDED events for interesting items into bounded rate updates
+        private final ArtifactEventCoalescer eventCoalescer = new ArtifactEventCoalescer(this::update,
+                BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_FILE_HIT, BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_ARTIFACT_HIT);
+
+        public synchronized List<String> getSetNames() {
             List<String> setNames = new ArrayList<>(interestingItemsMap.keySet());
             Collections.sort(setNames);
             return setNames;
         }
 
-        public Set<Long> getArtifactIds(String setName) {
-            return interestingItemsMap.get(setName);
+        public synchronized Set<Long> getArtifactIds(String setName) {
+            Set<Long> artifactIds = interestingItemsMap.get(setName);
+            return artifactIds == null ? new HashSet<>() : new HashSet<>(artifactIds);
         }
 
         public void update() {
-            interestingItemsMap.clear();
-            loadArtifacts(BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_FILE_HIT);
-            loadArtifacts(BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_ARTIFACT_HIT);
+            update(null);
+        }
+
+        /**
+         * Add the given interesting item artifacts to the results, or reload
+         * all of the interesting items if newArtifacts is null. The items are
+         * read into a new map, which is then merged into the results or
+         * replaces them, so readers never see a partly loaded set of sets.
+         *
+         * @param newArtifacts the new interesting item artifacts, or null
+         */
+        void update(Collection<BlackboardArtifact> newArtifacts) {
+            if (newArtifacts != null && newArtifacts.isEmpty()) {
+                return;
+            }
+            Map<String, Set<Long>> loaded = new LinkedHashMap<>();
+            loadArtifacts(BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_FILE_HIT, newArtifacts, loaded);
+            loadArtifacts(BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_ARTIFACT_HIT, newArtifacts, loaded);
+            synchronized (this) {
+                if (newArtifacts == null) {
+                    interestingItemsMap = loaded;
+                } else {
+                    for (Map.Entry<String, Set<Long>> entry : loaded.entrySet()) {
+                        if (!interestingItemsMap.containsKey(entry.getKey())) {
+                            interestingItemsMap.put(entry.getKey(), new HashSet<>());
+                        }
+                        interestingItemsMap.get(entry.getKey()).addAll(entry.getValue());
+                    }
+                }
+            }
             setChanged();
             notifyObservers();
         }
 
         /*
          * Reads the artifacts of specified type, grouped by Set, and loads into
-         * the interestingItemsMap
+         * the given map. If newArtifacts is not null, only those artifacts are
+         * read.
          */
         @SuppressWarnings("deprecation")
-        private void loadArtifacts(BlackboardArtifact.ARTIFACT_TYPE artType) {
+        private void loadArtifacts(BlackboardArtifact.ARTIFACT_TYPE artType, Collection<BlackboardArtifact> newArtifacts, Map<String, Set<Long>> loaded) {
             if (skCase == null) {
                 return;
             }
@@ -101,16 +135,19 @@ private void loadArtifacts(BlackboardArtifact.ARTIFACT_TYPE artType) {
                     + "attribute_type_id=" + setNameId //NON-NLS
                     + " AND blackboard_attributes.artifact_id=blackboard_artifacts.artifact_id" //NON-NLS
                     + " AND blackboard_artifacts.artifact_type_id=" + artId; //NON-NLS
+            if (newArtifacts != null) {
+                query += " AND blackboard_artifacts.artifact_id IN (" + ArtifactEventCoalescer.getArtifactIdList(newArtifacts) + ")"; //NON-NLS
+            }
 
             try (CaseDbQuery dbQuery = skCase.executeQuery(query)) {
                 ResultSet resultSet = dbQuery.getResultSet();
                 while (resultSet.next()) {
                     String value = resultSet.getString("value_text"); //NON-NLS
                     long artifactId = resultSet.getLong("artifact_id"); //NON-NLS
-                    if (!interestingItemsMap.containsKey(value)) {
-                        interestingItemsMap.put(value, new HashSet<>());
+                    if (!loaded.containsKey(value)) {
+                        loaded.put(value, new HashSet<>());
                     }
-                    interestingItemsMap.get(value).add(artifactId);
+                    loaded.get(value).add(artifactId);
                 }
             } catch (TskCoreException | SQLException ex) {
                 logger.log(Level.WARNING, "SQL Exception occurred: ", ex); //NON-NLS
@@ -195,10 +232,7 @@ public void propertyChange(PropertyChangeEvent evt) {
                          * for the event to have a null oldValue.
                          */
                         ModuleDataEvent eventData = (ModuleDataEvent) evt.getOldValue();
-                        if (null != eventData && (eventData.getArtifactType() == BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_ARTIFACT_HIT
-                                || eventData.getArtifactType() == BlackboardArtifact.ARTIFACT_TYPE.TSK_INTERESTING_FILE_HIT)) {
-                            interestingResults.update();
-                        }
+                        interestingResults.eventCoalescer.add(eventData);
                     } catch (IllegalStateException notUsed) {
                         /**
                          * Case is closed, do nothing.
@@ -23,6 +23,7 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -73,15 +74,17 @@ public KeywordHits(SleuthkitCase skCase) {
     private final class KeywordResults extends Observable {
 
         // Map from listName/Type to Map of keyword to set of artifact Ids
-
         private final Map<String, Map<String, Set<Long>>> topLevelMap;
 
+        // merges DATA_ADDED events for keyword hits into bounded rate updates
+        private final ArtifactEventCoalescer eventCoalescer = new ArtifactEventCoalescer(this::update, BlackboardArtifact.ARTIFACT_TYPE.TSK_KEYWORD_HIT);
+
         KeywordResults() {
             topLevelMap = new LinkedHashMap<>();
             update();
         }
 
-        List<String> getListNames() {
+        synchronized List<String> getListNames() {
             List<String> names = new ArrayList<>(topLevelMap.keySet());
             // this causes the "Single ..." terms to be in the middle of the results, 
             // which is wierd.  Make a custom comparator or do something else to maek them on top
@@ -89,32 +92,29 @@ List<String> getListNames() {
             return names;
         }
 
-        List<String> getKeywords(String listName) {
+        synchronized List<String> getKeywords(String listName) {
             List<String> keywords = new ArrayList<>(topLevelMap.get(listName).keySet());
             Collections.sort(keywords);
             return keywords;
         }
 
-        Set<Long> getArtifactIds(String listName, String keyword) {
-            return topLevelMap.get(listName).get(keyword);
+        synchronized Set<Long> getArtifactIds(String listName, String keyword) {
+            return new HashSet<>(topLevelMap.get(listName).get(keyword));
         }
 
-        // populate maps based on artifactIds
-        void populateMaps(Map<Long, Map<Long, String>> artifactIds) {
-            topLevelMap.clear();
-
-            // map of list name to keword to artifact IDs
-            Map<String, Map<String, Set<Long>>> listsMap = new LinkedHashMap<>();
+        // add artifactIds to the maps
+        synchronized void addToMaps(Map<Long, Map<Long, String>> artifactIds) {
+            // top-level nodes
+            if (topLevelMap.isEmpty()) {
+                topLevelMap.put(SIMPLE_LITERAL_SEARCH, new LinkedHashMap<>());
+                topLevelMap.put(SIMPLE_REGEX_SEARCH, new LinkedHashMap<>());
+            }
 
             // Map from from literal keyword to artifact IDs
-            Map<String, Set<Long>> literalMap = new LinkedHashMap<>();
+            Map<String, Set<Long>> literalMap = topLevelMap.get(SIMPLE_LITERAL_SEARCH);
 
             // Map from regex keyword artifact IDs
-            Map<String, Set<Long>> regexMap = new LinkedHashMap<>();
-
-            // top-level nodes
-            topLevelMap.put(SIMPLE_LITERAL_SEARCH, literalMap);
-            topLevelMap.put(SIMPLE_REGEX_SEARCH, regexMap);
+            Map<String, Set<Long>> regexMap = topLevelMap.get(SIMPLE_REGEX_SEARCH);
 
             for (Map.Entry<Long, Map<Long, String>> art : artifactIds.entrySet()) {
                 long id = art.getKey();
@@ -127,11 +127,11 @@ void populateMaps(Map<Long, Map<Long, String>> artifactIds) {
 
                 // part of a list
                 if (listName != null) {
-                    if (listsMap.containsKey(listName) == false) {
-                        listsMap.put(listName, new LinkedHashMap<String, Set<Long>>());
+                    if (topLevelMap.containsKey(listName) == false) {
+                        topLevelMap.put(listName, new LinkedHashMap<String, Set<Long>>());
                     }
 
-                    Map<String, Set<Long>> listMap = listsMap.get(listName);
+                    Map<String, Set<Long>> listMap = topLevelMap.get(listName);
                     if (listMap.containsKey(word) == false) {
                         listMap.put(word, new HashSet<Long>());
                     }
@@ -150,20 +150,32 @@ else if (reg != null) {
                     }
                     literalMap.get(word).add(id);
                 }
-                topLevelMap.putAll(listsMap);
             }
+        }
 
-            setChanged();
-            notifyObservers();
+        /**
+         * Reload all of the keyword hits.
+         */
+        public void update() {
+            update(null);
         }
 
+        /**
+         * Add the given keyword hit artifacts to the results, or reload all of
+         * the keyword hits if newArtifacts is null.
+         *
+         * @param newArtifacts the new keyword hit artifacts, or null
+         */
         @SuppressWarnings("deprecation")
-        public void update() {
+        void update(Collection<BlackboardArtifact> newArtifacts) {
             Map<Long, Map<Long, String>> artifactIds = new LinkedHashMap<>();
 
             if (skCase == null) {
                 return;
             }
+            if (newArtifacts != null && newArtifacts.isEmpty()) {
+                return;
+            }
 
             int setId = BlackboardAttribute.ATTRIBUTE_TYPE.TSK_SET_NAME.getTypeID();
             int wordId = BlackboardAttribute.ATTRIBUTE_TYPE.TSK_KEYWORD.getTypeID();
@@ -176,6 +188,9 @@ public void update() {
                     + ") AND (attribute_type_id=" + setId + " OR " //NON-NLS
                     + "attribute_type_id=" + wordId + " OR " //NON-NLS
                     + "attribute_type_id=" + regexId + ")"; //NON-NLS
+            if (newArtifacts != null) {
+                query += " AND blackboard_artifacts.artifact_id IN (" + ArtifactEventCoalescer.getArtifactIdList(newArtifacts) + ")"; //NON-NLS
+            }
 
             try (CaseDbQuery dbQuery = skCase.executeQuery(query)) {
                 ResultSet resultSet = dbQuery.getResultSet();
@@ -194,7 +209,14 @@ public void update() {
                 logger.log(Level.WARNING, "SQL Exception occurred: ", ex); //NON-NLS
             }
 
-            populateMaps(artifactIds);
+            synchronized (this) {
+                if (newArtifacts == null) {
+                    topLevelMap.clear();
+                }
+                addToMaps(artifactIds);
+            }
+            setChanged();
+            notifyObservers();
         }
     }
 
@@ -268,9 +290,7 @@ public void propertyChange(PropertyChangeEvent evt) {
                          * for the event to have a null oldValue.
                          */
                         ModuleDataEvent eventData = (ModuleDataEvent) evt.getOldValue();
-                        if (null != eventData && eventData.getArtifactType() == BlackboardArtifact.ARTIFACT_TYPE.TSK_KEYWORD_HIT) {
-                            keywordResults.update();
-                        }
+                        keywordResults.eventCoalescer.add(eventData);
                     } catch (IllegalStateException notUsed) {
                         /**
                          * Case is closed, do nothing.
@@ -79,7 +79,7 @@ protected Sheet createSheet() {
         }
 
         Map<String, Object> map = new LinkedHashMap<>();
-        fillPropertyMap(map, content);
+        fillPropertyMap(map);
 
         ss.put(new NodeProperty<>(NbBundle.getMessage(this.getClass(), "LayoutFileNode.createSheet.name.name"),
                 NbBundle.getMessage(this.getClass(), "LayoutFileNode.createSheet.name.displayName"),
@@ -124,8 +124,9 @@ public Action[] getActions(boolean context) {
         return actionsList.toArray(new Action[0]);
     }
 
-    private static void fillPropertyMap(Map<String, Object> map, LayoutFile content) {
-        AbstractAbstractFileNode.fillPropertyMap(map, content);
+    @Override
+    protected void fillPropertyMap(Map<String, Object> map) {
+        super.fillPropertyMap(map);
         map.put(LayoutContentPropertyType.PARTS.toString(), content.getNumParts());
     }
 }
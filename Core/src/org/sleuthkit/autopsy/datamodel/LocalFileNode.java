@@ -63,7 +63,7 @@ protected Sheet createSheet() {
         }
 
         Map<String, Object> map = new LinkedHashMap<>();
-        fillPropertyMap(map, content);
+        fillPropertyMap(map);
 
         ss.put(new NodeProperty<>(NbBundle.getMessage(this.getClass(), "LocalFileNode.createSheet.name.name"),
                 NbBundle.getMessage(this.getClass(), "LocalFileNode.createSheet.name.displayName"),
@@ -87,11 +87,12 @@ public Object getSource() {
      * Sets the source type (local or remote). This field is mutable in this way
      * to allow an event to be published both locally and remotely without
      * requiring the construction of two separate objects. It is for use by the
-     * event publishing classes within this package only.
+     * event publishing classes within this package, and by events that are
+     * derived from a remote event on this node.
      *
      * @param sourceType The source type of the event, local or remote.
      */
-    void setSourceType(SourceType sourceType) {
+    protected void setSourceType(SourceType sourceType) {
         this.sourceType = sourceType;
     }
 
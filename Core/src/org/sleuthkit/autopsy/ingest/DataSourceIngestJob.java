@@ -22,6 +22,7 @@
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -280,6 +281,15 @@ long getId() {
         return this.id;
     }
 
+    /**
+     * Gets the time this job was created.
+     *
+     * @return The creation time, in milliseconds since the epoch.
+     */
+    long getCreateTime() {
+        return this.createTime;
+    }
+
     /**
      * Gets the data source to be ingested by this job.
      *
@@ -289,6 +299,22 @@ Content getDataSource() {
         return this.dataSource;
     }
 
+    /**
+     * Gets the processing statistics of the ingest modules of this job, added
+     * up across the file ingest pipelines.
+     *
+     * @return The statistics by module display name.
+     */
+    Map<String, IngestModuleStatistics.Snapshot> getModuleStatistics() {
+        Map<String, IngestModuleStatistics.Snapshot> statistics = new LinkedHashMap<>();
+        IngestModuleStatistics.mergeByModule(statistics, this.firstStageDataSourceIngestPipeline.getModuleStatistics());
+        for (FileIngestPipeline pipeline : this.fileIngestPipelines) {
+            IngestModuleStatistics.mergeByModule(statistics, pipeline.getModuleStatistics());
+        }
+        IngestModuleStatistics.mergeByModule(statistics, this.secondStageDataSourceIngestPipeline.getModuleStatistics());
+        return statistics;
+    }
+
     /**
      * Queries whether or not unallocated space should be processed as part of
      * this job.
@@ -627,6 +653,7 @@ private void finish() {
             }
         }
 
+        IngestModuleMetrics.writeJobSummary(this);
         this.parentJob.dataSourceJobFinished(this);
     }
 
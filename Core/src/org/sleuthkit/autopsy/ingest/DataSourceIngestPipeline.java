@@ -101,6 +101,8 @@ synchronized List<IngestModuleError> process(DataSourceIngestTask task) {
         if (!this.job.isCancelled()) {
             Content dataSource = task.getDataSource();
             for (PipelineModule module : modules) {
+                long startTime = System.nanoTime();
+                boolean failed;
                 try {
                     this.currentModule = module;
                     String displayName = NbBundle.getMessage(this.getClass(),
@@ -110,9 +112,10 @@ synchronized List<IngestModuleError> process(DataSourceIngestTask task) {
                     this.job.switchDataSourceIngestProgressBarToIndeterminate();
                     DataSourceIngestPipeline.ingestManager.setIngestTaskProgress(task, module.getDisplayName());
                     logger.log(Level.INFO, "{0} analysis of {1} (jobId={2}) starting", new Object[]{module.getDisplayName(), this.job.getDataSource().getName(), this.job.getDataSource().getId()});
-                    module.process(dataSource, new DataSourceIngestModuleProgress(this.job));
+                    failed = (module.process(dataSource, new DataSourceIngestModuleProgress(this.job)) == IngestModule.ProcessResult.ERROR);
                     logger.log(Level.INFO, "{0} analysis of {1} (jobId={2}) finished", new Object[]{module.getDisplayName(), this.job.getDataSource().getName(), this.job.getDataSource().getId()});
                 } catch (Throwable ex) { // Catch-all exception firewall
+                    failed = true;
                     errors.add(new IngestModuleError(module.getDisplayName(), ex));
                     String msg = ex.getMessage();
                     // Jython run-time errors don't seem to have a message, but have details in toString.
@@ -121,6 +124,7 @@ synchronized List<IngestModuleError> process(DataSourceIngestTask task) {
                     }
                     MessageNotifyUtil.Notify.error(module.getDisplayName() + " Error", msg);
                 }
+                module.getStatistics().record(System.nanoTime() - startTime, dataSource.getSize(), null, failed);
                 if (this.job.isCancelled()) {
                     break;
                 } else if (this.job.currentDataSourceIngestModuleIsCancelled()) {
@@ -142,19 +146,34 @@ PipelineModule getCurrentlyRunningModule() {
         return this.currentModule;
     }
 
+    /**
+     * Gets the processing statistics of the modules in the pipeline.
+     *
+     * @return A snapshot of the statistics of each module.
+     */
+    List<IngestModuleStatistics.Snapshot> getModuleStatistics() {
+        List<IngestModuleStatistics.Snapshot> statistics = new ArrayList<>();
+        for (PipelineModule module : this.modules) {
+            statistics.add(module.getStatistics().getSnapshot());
+        }
+        return statistics;
+    }
+
     /**
      * This class decorates a data source level ingest module with a display
-     * name and a processing start time.
+     * name, a processing start time and processing statistics.
      */
     static class PipelineModule implements DataSourceIngestModule {
 
         private final DataSourceIngestModule module;
         private final String displayName;
+        private final IngestModuleStatistics statistics;
         private volatile Date processingStartTime;
 
         /**
          * Constructs an object that decorates a data source level ingest module
-         * with a display name and a processing start time.
+         * with a display name, a processing start time and processing
+         * statistics.
          *
          * @param module      The data source level ingest module to be
          *                    decorated.
@@ -163,6 +182,7 @@ static class PipelineModule implements DataSourceIngestModule {
         PipelineModule(DataSourceIngestModule module, String displayName) {
             this.module = module;
             this.displayName = displayName;
+            this.statistics = new IngestModuleStatistics(displayName);
             this.processingStartTime = new Date();
         }
 
@@ -184,6 +204,15 @@ String getDisplayName() {
             return this.displayName;
         }
 
+        /**
+         * Gets the processing statistics of the decorated ingest module.
+         *
+         * @return The statistics.
+         */
+        IngestModuleStatistics getStatistics() {
+            return this.statistics;
+        }
+
         /**
          * Gets the time the decorated ingest module started processing the data
          * source.
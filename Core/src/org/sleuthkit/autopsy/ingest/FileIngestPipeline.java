@@ -18,9 +18,17 @@
  */
 package org.sleuthkit.autopsy.ingest;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import org.sleuthkit.autopsy.core.UserPreferences;
+import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.coreutils.MessageNotifyUtil;
 import org.sleuthkit.datamodel.AbstractFile;
 
@@ -33,9 +41,20 @@
  */
 final class FileIngestPipeline {
 
+    private static final Logger logger = Logger.getLogger(FileIngestPipeline.class.getName());
     private static final IngestManager ingestManager = IngestManager.getInstance();
+
+    /**
+     * Independent modules that run at the same time as other modules run on
+     * threads from this pool. The calling ingest thread runs the first module
+     * of each run of adjacent independent modules itself and waits for the
+     * others, so the pool only grows to the number of file ingest threads
+     * times the number of independent modules, less one.
+     */
+    private static final ExecutorService concurrentModulesExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("IM-file-ingest-module-%d").setDaemon(true).build()); //NON-NLS
     private final DataSourceIngestJob job;
     private final List<PipelineModule> modules = new ArrayList<>();
+    private final long concurrentModulesMinFileSize;
     private Date startTime;
     private volatile boolean running;
 
@@ -56,6 +75,11 @@ final class FileIngestPipeline {
                 modules.add(module);
             }
         }
+        if (UserPreferences.concurrentFileIngestModulesEnabled()) {
+            concurrentModulesMinFileSize = Math.max(0, UserPreferences.concurrentFileIngestModulesMinFileSizeMB()) * 1024L * 1024L;
+        } else {
+            concurrentModulesMinFileSize = Long.MAX_VALUE;
+        }
     }
 
     /**
@@ -106,7 +130,10 @@ synchronized List<IngestModuleError> startUp() {
     }
 
     /**
-     * Runs a file through the ingest modules in sequential order.
+     * Runs a file through the ingest modules in sequential order. If
+     * concurrent modules are enabled and the file is large enough, adjacent
+     * independent modules are run at the same time, and the pipeline moves on
+     * to the next module when all of them are done.
      *
      * @param task A file level ingest task containing a file to be processed.
      *
@@ -116,23 +143,31 @@ synchronized List<IngestModuleError> process(FileIngestTask task) {
         List<IngestModuleError> errors = new ArrayList<>();
         if (!this.job.isCancelled()) {
             AbstractFile file = task.getFile();
-            for (PipelineModule module : this.modules) {
-                try {
+            String fileType = getFileType(file);
+            boolean runConcurrently = (file.getSize() >= this.concurrentModulesMinFileSize);
+            int moduleIndex = 0;
+            while (moduleIndex < this.modules.size()) {
+                int nextModuleIndex = moduleIndex + 1;
+                if (runConcurrently && this.modules.get(moduleIndex).isIndependent()) {
+                    while (nextModuleIndex < this.modules.size() && this.modules.get(nextModuleIndex).isIndependent()) {
+                        ++nextModuleIndex;
+                    }
+                }
+                if (nextModuleIndex - moduleIndex == 1) {
+                    PipelineModule module = this.modules.get(moduleIndex);
                     FileIngestPipeline.ingestManager.setIngestTaskProgress(task, module.getDisplayName());
-                    this.job.setCurrentFileIngestModule(module.getDisplayName(), task.getFile().getName());
-                    module.process(file);
-                } catch (Throwable ex) { // Catch-all exception firewall
-                    errors.add(new IngestModuleError(module.getDisplayName(), ex));
-                    String msg = ex.getMessage();
-                    // Jython run-time errors don't seem to have a message, but have details in toString.
-                    if (msg == null) {
-                        msg = ex.toString();
+                    this.job.setCurrentFileIngestModule(module.getDisplayName(), file.getName());
+                    IngestModuleError error = processFile(module, file, fileType);
+                    if (error != null) {
+                        errors.add(error);
                     }
-                    MessageNotifyUtil.Notify.error(module.getDisplayName() + " Error", msg);
+                } else {
+                    errors.addAll(processFileConcurrently(this.modules.subList(moduleIndex, nextModuleIndex), task, file, fileType));
                 }
                 if (this.job.isCancelled()) {
                     break;
                 }
+                moduleIndex = nextModuleIndex;
             }
             file.close();
             if (!this.job.isCancelled()) {
@@ -143,6 +178,121 @@ synchronized List<IngestModuleError> process(FileIngestTask task) {
         return errors;
     }
 
+    /**
+     * Runs a file through independent ingest modules at the same time. The
+     * first module runs on the calling thread.
+     *
+     * @param independentModules The modules.
+     * @param task               The file level ingest task.
+     * @param file               The file.
+     * @param fileType           The type the file is counted under in the
+     *                           module statistics.
+     *
+     * @return A list of processing errors, possibly empty.
+     */
+    private List<IngestModuleError> processFileConcurrently(List<PipelineModule> independentModules, FileIngestTask task, AbstractFile file, String fileType) {
+        StringBuilder displayNames = new StringBuilder();
+        for (PipelineModule module : independentModules) {
+            displayNames.append((displayNames.length() == 0) ? "" : ", ").append(module.getDisplayName());
+        }
+        FileIngestPipeline.ingestManager.setIngestTaskProgress(task, displayNames.toString());
+        this.job.setCurrentFileIngestModule(displayNames.toString(), file.getName());
+
+        List<Future<IngestModuleError>> results = new ArrayList<>();
+        for (PipelineModule module : independentModules.subList(1, independentModules.size())) {
+            results.add(concurrentModulesExecutor.submit(() -> processFile(module, file, fileType)));
+        }
+        List<IngestModuleError> errors = new ArrayList<>();
+        IngestModuleError error = processFile(independentModules.get(0), file, fileType);
+        if (error != null) {
+            errors.add(error);
+        }
+
+        /*
+         * Wait for all of the modules, even if this thread is interrupted,
+         * since the next modules may use their results.
+         */
+        boolean interrupted = false;
+        for (Future<IngestModuleError> result : results) {
+            while (true) {
+                try {
+                    error = result.get();
+                    if (error != null) {
+                        errors.add(error);
+                    }
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    logger.log(Level.SEVERE, "Unexpected error running concurrent file ingest module", ex); //NON-NLS
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return errors;
+    }
+
+    /**
+     * Runs a file through an ingest module and records the processing
+     * statistics of the module.
+     *
+     * @param module   The module.
+     * @param file     The file.
+     * @param fileType The type the file is counted under in the module
+     *                 statistics.
+     *
+     * @return The processing error, null if the module did not throw.
+     */
+    private static IngestModuleError processFile(PipelineModule module, AbstractFile file, String fileType) {
+        IngestModuleError error = null;
+        long startTime = System.nanoTime();
+        boolean failed;
+        try {
+            failed = (module.process(file) == IngestModule.ProcessResult.ERROR);
+        } catch (Throwable ex) { // Catch-all exception firewall
+            failed = true;
+            error = new IngestModuleError(module.getDisplayName(), ex);
+            String msg = ex.getMessage();
+            // Jython run-time errors don't seem to have a message, but have details in toString.
+            if (msg == null) {
+                msg = ex.toString();
+            }
+            MessageNotifyUtil.Notify.error(module.getDisplayName() + " Error", msg);
+        }
+        module.getStatistics().record(System.nanoTime() - startTime, file.getSize(), fileType, failed);
+        return error;
+    }
+
+    /**
+     * Gets the processing statistics of the modules in the pipeline.
+     *
+     * @return A snapshot of the statistics of each module.
+     */
+    List<IngestModuleStatistics.Snapshot> getModuleStatistics() {
+        List<IngestModuleStatistics.Snapshot> statistics = new ArrayList<>();
+        for (PipelineModule module : this.modules) {
+            statistics.add(module.getStatistics().getSnapshot());
+        }
+        return statistics;
+    }
+
+    /**
+     * Gets the type a file is counted under in the module statistics. The
+     * MIME type is only known once the file type module has posted it to the
+     * blackboard, so the lower case file name extension is used instead.
+     *
+     * @param file The file.
+     *
+     * @return The file type, an empty string if the file has no extension.
+     */
+    private static String getFileType(AbstractFile file) {
+        String extension = file.getNameExtension();
+        return (extension == null) ? "" : extension.toLowerCase();
+    }
+
     /**
      * Shuts down all of the modules in the pipeline.
      *
@@ -170,16 +320,18 @@ synchronized List<IngestModuleError> shutDown() {
     }
 
     /**
-     * This class decorates a file level ingest module with a display name.
+     * This class decorates a file level ingest module with a display name and
+     * processing statistics.
      */
     private static final class PipelineModule implements FileIngestModule {
 
         private final FileIngestModule module;
         private final String displayName;
+        private final IngestModuleStatistics statistics;
 
         /**
          * Constructs an object that decorates a file level ingest module with a
-         * display name.
+         * display name and processing statistics.
          *
          * @param module      The file level ingest module to be decorated.
          * @param displayName The display name.
@@ -187,6 +339,7 @@ private static final class PipelineModule implements FileIngestModule {
         PipelineModule(FileIngestModule module, String displayName) {
             this.module = module;
             this.displayName = displayName;
+            this.statistics = new IngestModuleStatistics(displayName);
         }
 
         /**
@@ -207,6 +360,26 @@ String getDisplayName() {
             return displayName;
         }
 
+        /**
+         * Queries whether or not the decorated ingest module is independent of
+         * the other independent modules, so that it can be run at the same
+         * time as them.
+         *
+         * @return True or false.
+         */
+        boolean isIndependent() {
+            return module instanceof IndependentFileIngestModule;
+        }
+
+        /**
+         * Gets the processing statistics of the decorated ingest module.
+         *
+         * @return The statistics.
+         */
+        IngestModuleStatistics getStatistics() {
+            return statistics;
+        }
+
         /**
          * @inheritDoc
          */
@@ -0,0 +1,232 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.ingest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A blocking queue of the file ingest tasks that are ready to be processed by
+ * the ingest threads, ordered by a scheduling policy. The tasks with the
+ * highest estimated cost are taken first, and tasks with the same cost are
+ * taken last in, first out.
+ * <p>
+ * Ordering by cost alone could leave cheap tasks waiting for as long as
+ * expensive ones keep arriving, so the queue has a fairness bound: after that
+ * many tasks have been taken in cost order, the task that has waited longest is
+ * taken instead. The bound is not used with the directory order policy, which
+ * has no costs.
+ * <p>
+ * This class is thread-safe.
+ */
+final class FileIngestTaskPriorityQueue {
+
+    private final FileIngestTaskSchedulingPolicy policy;
+    private final int fairnessBound;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * The tasks in the queue, in cost order and in the order they were added.
+     * A taken task is marked as such and is left in the other collection until
+     * it reaches the head of it, or until the taken tasks outnumber the tasks
+     * in the queue and are dropped.
+     */
+    private final PriorityQueue<QueuedTask> tasksByCost;
+    private final ArrayDeque<QueuedTask> tasksByAge = new ArrayDeque<>();
+    private long nextSequenceNumber;
+    private int tasksTakenByCost;
+    private int size;
+
+    /**
+     * Constructs a queue of file ingest tasks.
+     *
+     * @param policy        The policy that estimates the cost of the tasks.
+     * @param fairnessBound The number of tasks taken in cost order before the
+     *                      task that has waited longest is taken.
+     */
+    FileIngestTaskPriorityQueue(FileIngestTaskSchedulingPolicy policy, int fairnessBound) {
+        this.policy = policy;
+        this.fairnessBound = (policy == FileIngestTaskSchedulingPolicy.DIRECTORY_ORDER) ? 0 : fairnessBound;
+        this.tasksByCost = new PriorityQueue<>(11, (task, otherTask) -> {
+            if (task.cost != otherTask.cost) {
+                return Long.compare(otherTask.cost, task.cost);
+            }
+            return Long.compare(otherTask.sequenceNumber, task.sequenceNumber);
+        });
+    }
+
+    /**
+     * Gets the policy used to order the tasks.
+     *
+     * @return The policy.
+     */
+    FileIngestTaskSchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Adds a task to the queue.
+     *
+     * @param task The task.
+     */
+    void add(FileIngestTask task) {
+        QueuedTask queuedTask = new QueuedTask(task, policy.getCost(task.getFile()));
+        lock.lock();
+        try {
+            queuedTask.sequenceNumber = nextSequenceNumber++;
+            tasksByCost.add(queuedTask);
+            if (fairnessBound > 0) {
+                tasksByAge.addLast(queuedTask);
+            }
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next task from the queue, waiting for one to be added if the
+     * queue is empty.
+     *
+     * @return The task.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    FileIngestTask take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            QueuedTask next;
+            if (fairnessBound > 0 && tasksTakenByCost >= fairnessBound) {
+                next = pollUntaken(tasksByAge);
+                tasksTakenByCost = 0;
+            } else {
+                next = pollUntaken(tasksByCost);
+                tasksTakenByCost++;
+            }
+            next.taken = true;
+            size--;
+            dropTakenTasks(tasksByCost);
+            dropTakenTasks(tasksByAge);
+            return next.task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes taken tasks from the head of a collection of the tasks, and then
+     * the task that is not taken.
+     */
+    private static QueuedTask pollUntaken(Queue<QueuedTask> tasks) {
+        QueuedTask task = tasks.poll();
+        while (task.taken) {
+            task = tasks.poll();
+        }
+        return task;
+    }
+
+    /**
+     * Removes the taken tasks from a collection of the tasks once they
+     * outnumber the tasks in the queue, so that a share of the taken tasks is
+     * not kept for as long as the queue is not empty. Rebuilding the
+     * collection only then keeps the added cost per take small on average.
+     */
+    private void dropTakenTasks(Queue<QueuedTask> tasks) {
+        if (tasks.size() - size <= size) {
+            return;
+        }
+        List<QueuedTask> untakenTasks = new ArrayList<>(size);
+        for (QueuedTask task : tasks) {
+            if (!task.taken) {
+                untakenTasks.add(task);
+            }
+        }
+        tasks.clear();
+        tasks.addAll(untakenTasks);
+    }
+
+    /**
+     * Gets the number of tasks in the queue.
+     *
+     * @return The number of tasks.
+     */
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queries whether or not the queue is empty.
+     *
+     * @return True or false.
+     */
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Gets the tasks in the queue, in no particular order.
+     *
+     * @return A copy of the tasks.
+     */
+    List<FileIngestTask> getTasks() {
+        lock.lock();
+        try {
+            List<FileIngestTask> tasks = new ArrayList<>(size);
+            for (QueuedTask queuedTask : tasksByCost) {
+                if (!queuedTask.taken) {
+                    tasks.add(queuedTask.task);
+                }
+            }
+            return tasks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A task in the queue, with its cost and the order it was added in.
+     */
+    private static final class QueuedTask {
+
+        private final FileIngestTask task;
+        private final long cost;
+        private long sequenceNumber;
+        private boolean taken;
+
+        QueuedTask(FileIngestTask task, long cost) {
+            this.task = task;
+            this.cost = cost;
+        }
+    }
+}
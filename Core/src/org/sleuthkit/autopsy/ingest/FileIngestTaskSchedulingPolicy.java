@@ -0,0 +1,115 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.ingest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import org.sleuthkit.autopsy.core.UserPreferences;
+import org.sleuthkit.autopsy.coreutils.Logger;
+import org.sleuthkit.datamodel.AbstractFile;
+
+/**
+ * The policies for ordering the file ingest tasks that are ready to be
+ * processed. A policy estimates the cost of processing a file, and the tasks
+ * with the highest cost are processed first, so that the files that take the
+ * longest are started early and do not leave one ingest thread running long
+ * after the others have run out of work. Tasks with the same cost are
+ * processed last in, first out.
+ */
+enum FileIngestTaskSchedulingPolicy {
+
+    /**
+     * Processes the files in the order the directories are walked, last in,
+     * first out.
+     */
+    DIRECTORY_ORDER {
+        @Override
+        long getCost(AbstractFile file) {
+            return 0;
+        }
+    },
+    /**
+     * Processes the largest files first.
+     */
+    LARGEST_FIRST {
+        @Override
+        long getCost(AbstractFile file) {
+            return file.getSize();
+        }
+    },
+    /**
+     * Processes the files with the highest estimated cost first, the size of
+     * the file weighted by how expensive its type usually is to process. The
+     * MIME type of a file is not known until the file type module has run, so
+     * the type is guessed from the file name extension.
+     */
+    ESTIMATED_COST_FIRST {
+        @Override
+        long getCost(AbstractFile file) {
+            String extension = file.getNameExtension();
+            Integer weight = (extension == null) ? null : COST_WEIGHTS.get(extension.toLowerCase());
+            return file.getSize() * ((weight == null) ? DEFAULT_COST_WEIGHT : weight);
+        }
+    };
+
+    private static final Logger logger = Logger.getLogger(FileIngestTaskSchedulingPolicy.class.getName());
+    private static final int DEFAULT_COST_WEIGHT = 2;
+    private static final Map<String, Integer> COST_WEIGHTS = new HashMap<>();
+
+    static {
+        // Archives and mailboxes are unpacked, and everything in them is
+        // ingested again
+        for (String extension : new String[]{"zip", "rar", "7z", "tar", "gz", "tgz", "bz2", "cab", "jar", "pst", "ost", "mbox"}) { //NON-NLS
+            COST_WEIGHTS.put(extension, 4);
+        }
+        // Documents have their text extracted and indexed
+        for (String extension : new String[]{"pdf", "doc", "docx", "xls", "xlsx", "ppt", "pptx", "rtf", "odt", "ods", "odp", "htm", "html", "xml", "txt", "eml", "msg"}) { //NON-NLS
+            COST_WEIGHTS.put(extension, 3);
+        }
+        // Media is mostly hashed and has its metadata read
+        for (String extension : new String[]{"jpg", "jpeg", "png", "gif", "bmp", "tif", "tiff", "mp3", "wav", "mp4", "avi", "mov", "wmv", "mkv"}) { //NON-NLS
+            COST_WEIGHTS.put(extension, 1);
+        }
+    }
+
+    /**
+     * Estimates the cost of processing a file.
+     *
+     * @param file The file.
+     *
+     * @return The cost, in no particular unit.
+     */
+    abstract long getCost(AbstractFile file);
+
+    /**
+     * Gets the policy selected in the user preferences.
+     *
+     * @return The policy, DIRECTORY_ORDER if the preference is not a policy.
+     */
+    static FileIngestTaskSchedulingPolicy getSelectedPolicy() {
+        String policyName = UserPreferences.getFileIngestTaskSchedulingPolicy();
+        try {
+            return FileIngestTaskSchedulingPolicy.valueOf(policyName);
+        } catch (IllegalArgumentException ex) {
+            logger.log(Level.WARNING, "Unknown file ingest task scheduling policy {0}, using directory order", policyName); //NON-NLS
+            return DIRECTORY_ORDER;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.ingest;
+
+/**
+ * Interface that may be implemented by file ingest modules that are
+ * independent of the other independent file ingest modules. An independent
+ * module only reads the file and the results that the modules before it in the
+ * file ingest pipeline post for the file (e.g., the MIME type or the known
+ * status), and does not use the results of the other independent modules.
+ * <p>
+ * If concurrent file ingest modules are enabled in the user preferences,
+ * adjacent independent modules in a file ingest pipeline are run at the same
+ * time, each on its own thread, for files above a size threshold. The modules
+ * that are not independent still run one at a time, in pipeline order, after
+ * all of the modules before them and before all of the modules after them. An
+ * independent module must therefore not assume that its process() method is
+ * called on the same thread each time.
+ */
+public interface IndependentFileIngestModule extends FileIngestModule {
+}
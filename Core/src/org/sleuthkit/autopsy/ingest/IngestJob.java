@@ -22,6 +22,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -260,6 +261,20 @@ void dataSourceJobFinished(DataSourceIngestJob job) {
         }
     }
 
+    /**
+     * Gets the processing statistics of the ingest modules of this job, added
+     * up across its data sources.
+     *
+     * @return The statistics by module display name.
+     */
+    Map<String, IngestModuleStatistics.Snapshot> getModuleStatistics() {
+        Map<String, IngestModuleStatistics.Snapshot> statistics = new LinkedHashMap<>();
+        for (DataSourceIngestJob dataSourceJob : this.dataSourceJobs.values()) {
+            IngestModuleStatistics.mergeByModule(statistics, dataSourceJob.getModuleStatistics().values());
+        }
+        return statistics;
+    }
+
     /**
      * A snapshot of the progress of an ingest job.
      */
@@ -25,8 +25,8 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +35,8 @@
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
@@ -58,6 +60,7 @@
 import org.sleuthkit.autopsy.ingest.events.DataSourceAnalysisCompletedEvent;
 import org.sleuthkit.autopsy.ingest.events.DataSourceAnalysisStartedEvent;
 import org.sleuthkit.autopsy.ingest.events.FileAnalyzedEvent;
+import org.sleuthkit.autopsy.ingest.events.FilesAnalyzedEvent;
 import org.sleuthkit.datamodel.AbstractFile;
 import org.sleuthkit.datamodel.Content;
 
@@ -96,9 +99,18 @@ public class IngestManager {
      * Ingest jobs use an ingest task scheduler to break themselves down into
      * data source level and file level tasks. The ingest scheduler puts these
      * ingest tasks into queues for execution on ingest manager pool threads by
-     * ingest task executers. There is a single data source level ingest thread
-     * and a user configurable number of file level ingest threads.
+     * ingest task executers. There are user configurable numbers of data
+     * source level and file level ingest threads. A data source ingest job has
+     * at most one data source level task at a time, the task for its current
+     * stage, so the stages of a job are still done in order when the data
+     * source level tasks of several jobs are done at the same time. Data
+     * source level modules that copy files out of the case keep them in a
+     * folder per job.
      */
+    private static final int MIN_NUMBER_OF_DATA_SOURCE_INGEST_THREADS = 1;
+    private static final int MAX_NUMBER_OF_DATA_SOURCE_INGEST_THREADS = 8;
+    private static final int DEFAULT_NUMBER_OF_DATA_SOURCE_INGEST_THREADS = 2;
+    private int numberOfDataSourceIngestThreads;
     private final ExecutorService dataSourceIngestThreadPool;
     private static final int MIN_NUMBER_OF_FILE_INGEST_THREADS = 1;
     private static final int MAX_NUMBER_OF_FILE_INGEST_THREADS = 16;
@@ -116,7 +128,20 @@ public class IngestManager {
             .collect(Collectors.toSet());
     private AutopsyEventPublisher jobEventPublisher;
     private AutopsyEventPublisher moduleEventPublisher;
-    private final ExecutorService eventPublishingExecutor;
+    private final ScheduledExecutorService eventPublishingExecutor;
+
+    /**
+     * File done events are published in batches, so that the event queue and
+     * the message service are not flooded with an event per file. A batch is
+     * published when it is full, when its first file has waited for the
+     * maximum delay, or before an ingest job event so that the files of a job
+     * are done before the job is. Subscribers to the single file event get an
+     * event per file from a local adapter.
+     */
+    private static final int FILE_DONE_BATCH_SIZE = 500;
+    private static final long FILE_DONE_BATCH_MAX_DELAY_MILLIS = 1000;
+    private final Object fileDoneBatchLock = new Object();
+    private List<AbstractFile> fileDoneBatch = new ArrayList<>();
 
     /**
      * The ingest manager uses an ingest monitor to determine when system
@@ -137,10 +162,15 @@ public class IngestManager {
     /**
      * The ingest manager supports reporting of ingest processing progress by
      * collecting snapshots of the activities of the ingest threads, ingest job
-     * progress, and ingest module run times.
+     * progress, and ingest module processing statistics. Each ingest thread
+     * records its activity in a slot of its own that is allocated when the
+     * thread is started, and snapshots of the activities are only built when
+     * they are asked for. The statistics of finished jobs are added up so that
+     * they are reported for the session.
      */
-    private final ConcurrentHashMap<Long, IngestThreadActivitySnapshot> ingestThreadActivitySnapshots;
-    private final ConcurrentHashMap<String, Long> ingestModuleRunTimes;
+    private final ConcurrentHashMap<Long, IngestThreadActivity> ingestThreadActivities;
+    private final Object moduleStatisticsLock = new Object();
+    private final Map<String, IngestModuleStatistics.Snapshot> finishedJobsModuleStatistics = new LinkedHashMap<>();
 
     /**
      * The ingest job creation capability of the ingest manager can be turned on
@@ -221,9 +251,20 @@ public enum IngestModuleEvent {
         /**
          * Property change event fired when the ingest of a file is completed.
          * The old value of the PropertyChangeEvent is the Autopsy object ID of
-         * the file. The new value is the AbstractFile for that ID.
+         * the file. The new value is the AbstractFile for that ID. These events
+         * are published on this node only, from the FILES_DONE events, so they
+         * may be up to a second late.
          */
         FILE_DONE,
+        /**
+         * Property change event fired when the ingest of a batch of files is
+         * completed. The old value of the PropertyChangeEvent is an array of
+         * the Autopsy object IDs of the files, as primitive longs, and the new
+         * value is set to null. Cast the PropertyChangeEvent to
+         * org.sleuthkit.autopsy.ingest.events.FilesAnalyzedEvent to access
+         * event data.
+         */
+        FILES_DONE,
     };
 
     /**
@@ -254,14 +295,13 @@ public synchronized static IngestManager getInstance() {
      * runs.
      */
     private IngestManager() {
-        this.ingestModuleRunTimes = new ConcurrentHashMap<>();
-        this.ingestThreadActivitySnapshots = new ConcurrentHashMap<>();
+        this.ingestThreadActivities = new ConcurrentHashMap<>();
         this.ingestErrorMessagePosts = new AtomicLong(0L);
         this.ingestMonitor = new IngestMonitor();
-        this.eventPublishingExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("IM-ingest-events-%d").build()); //NON-NLS
+        this.eventPublishingExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("IM-ingest-events-%d").build()); //NON-NLS
         this.jobEventPublisher = new AutopsyEventPublisher();
         this.moduleEventPublisher = new AutopsyEventPublisher();
-        this.dataSourceIngestThreadPool = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("IM-data-source-ingest-%d").build()); //NON-NLS
+        this.moduleEventPublisher.addSubscriber(IngestModuleEvent.FILES_DONE.toString(), new FileIngestDoneAdapter());
         this.startIngestJobsThreadPool = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("IM-start-ingest-jobs-%d").build()); //NON-NLS
         this.nextThreadId = new AtomicLong(0L);
         this.jobsById = new ConcurrentHashMap<>();
@@ -270,7 +310,17 @@ private IngestManager() {
         this.servicesMonitor = ServicesMonitor.getInstance();
         subscribeToServiceMonitorEvents();
 
-        this.startDataSourceIngestThread();
+        IngestModuleMetrics.register();
+
+        numberOfDataSourceIngestThreads = UserPreferences.numberOfDataSourceIngestThreads();
+        if ((numberOfDataSourceIngestThreads < MIN_NUMBER_OF_DATA_SOURCE_INGEST_THREADS) || (numberOfDataSourceIngestThreads > MAX_NUMBER_OF_DATA_SOURCE_INGEST_THREADS)) {
+            numberOfDataSourceIngestThreads = DEFAULT_NUMBER_OF_DATA_SOURCE_INGEST_THREADS;
+            UserPreferences.setNumberOfDataSourceIngestThreads(numberOfDataSourceIngestThreads);
+        }
+        dataSourceIngestThreadPool = Executors.newFixedThreadPool(numberOfDataSourceIngestThreads, new ThreadFactoryBuilder().setNameFormat("IM-data-source-ingest-%d").build()); //NON-NLS
+        for (int i = 0; i < numberOfDataSourceIngestThreads; ++i) {
+            startDataSourceIngestThread();
+        }
 
         numberOfFileIngestThreads = UserPreferences.numberOfFileIngestThreads();
         if ((numberOfFileIngestThreads < MIN_NUMBER_OF_FILE_INGEST_THREADS) || (numberOfFileIngestThreads > MAX_NUMBER_OF_FILE_INGEST_THREADS)) {
@@ -289,8 +339,9 @@ private IngestManager() {
      */
     private void startDataSourceIngestThread() {
         long threadId = nextThreadId.incrementAndGet();
+        // the activity slot must exist before the thread can report progress
+        ingestThreadActivities.put(threadId, new IngestThreadActivity(threadId));
         dataSourceIngestThreadPool.submit(new ExecuteIngestJobsTask(threadId, IngestTasksScheduler.getInstance().getDataSourceIngestTaskQueue()));
-        ingestThreadActivitySnapshots.put(threadId, new IngestThreadActivitySnapshot(threadId));
     }
 
     /**
@@ -299,8 +350,9 @@ private void startDataSourceIngestThread() {
      */
     private void startFileIngestThread() {
         long threadId = nextThreadId.incrementAndGet();
+        // the activity slot must exist before the thread can report progress
+        ingestThreadActivities.put(threadId, new IngestThreadActivity(threadId));
         fileIngestThreadPool.submit(new ExecuteIngestJobsTask(threadId, IngestTasksScheduler.getInstance().getFileIngestTaskQueue()));
-        ingestThreadActivitySnapshots.put(threadId, new IngestThreadActivitySnapshot(threadId));
     }
 
     /**
@@ -457,6 +509,16 @@ private void clearIngestMessageBox() {
         }
     }
 
+    /**
+     * Gets the number of data source ingest threads the ingest manager will use
+     * to do ingest jobs.
+     *
+     * @return The number of data source ingest threads.
+     */
+    public int getNumberOfDataSourceIngestThreads() {
+        return numberOfDataSourceIngestThreads;
+    }
+
     /**
      * Gets the number of file ingest threads the ingest manager will use to do
      * ingest jobs.
@@ -606,7 +668,10 @@ public void run() {
 
     synchronized void finishIngestJob(IngestJob job) {
         long jobId = job.getId();
-        this.jobsById.remove(jobId);
+        synchronized (moduleStatisticsLock) {
+            this.jobsById.remove(jobId);
+            IngestModuleStatistics.mergeByModule(finishedJobsModuleStatistics, job.getModuleStatistics().values());
+        }
         if (!job.isCancelled()) {
             IngestManager.logger.log(Level.INFO, "Ingest job {0} completed", jobId); //NON-NLS
             this.fireIngestJobCompleted(jobId);
@@ -733,6 +798,7 @@ void fireIngestJobStarted(long ingestJobId) {
      * @param ingestJobId The ingest job id.
      */
     void fireIngestJobCompleted(long ingestJobId) {
+        publishFileIngestDoneBatch();
         AutopsyEvent event = new AutopsyEvent(IngestJobEvent.COMPLETED.toString(), ingestJobId, null);
         eventPublishingExecutor.submit(new PublishEventTask(event, jobEventPublisher));
     }
@@ -743,6 +809,7 @@ void fireIngestJobCompleted(long ingestJobId) {
      * @param ingestJobId The ingest job id.
      */
     void fireIngestJobCancelled(long ingestJobId) {
+        publishFileIngestDoneBatch();
         AutopsyEvent event = new AutopsyEvent(IngestJobEvent.CANCELLED.toString(), ingestJobId, null);
         eventPublishingExecutor.submit(new PublishEventTask(event, jobEventPublisher));
     }
@@ -767,6 +834,7 @@ void fireDataSourceAnalysisStarted(long ingestJobId, long dataSourceIngestJobId,
      * @param dataSource            The data source.
      */
     void fireDataSourceAnalysisCompleted(long ingestJobId, long dataSourceIngestJobId, Content dataSource) {
+        publishFileIngestDoneBatch();
         AutopsyEvent event = new DataSourceAnalysisCompletedEvent(ingestJobId, dataSourceIngestJobId, dataSource, DataSourceAnalysisCompletedEvent.Reason.ANALYSIS_COMPLETED);
         eventPublishingExecutor.submit(new PublishEventTask(event, jobEventPublisher));
     }
@@ -779,18 +847,39 @@ void fireDataSourceAnalysisCompleted(long ingestJobId, long dataSourceIngestJobI
      * @param dataSource            The data source.
      */
     void fireDataSourceAnalysisCancelled(long ingestJobId, long dataSourceIngestJobId, Content dataSource) {
+        publishFileIngestDoneBatch();
         AutopsyEvent event = new DataSourceAnalysisCompletedEvent(ingestJobId, dataSourceIngestJobId, dataSource, DataSourceAnalysisCompletedEvent.Reason.ANALYSIS_CANCELLED);
         eventPublishingExecutor.submit(new PublishEventTask(event, jobEventPublisher));
     }
 
     /**
-     * Fire an ingest event signifying the ingest of a file is completed.
+     * Fire an ingest event signifying the ingest of a file is completed. The
+     * file is added to the current batch of files done, see FILES_DONE.
      *
      * @param file The file that is completed.
      */
     void fireFileIngestDone(AbstractFile file) {
-        AutopsyEvent event = new FileAnalyzedEvent(file);
-        eventPublishingExecutor.submit(new PublishEventTask(event, moduleEventPublisher));
+        synchronized (fileDoneBatchLock) {
+            fileDoneBatch.add(file);
+            if (fileDoneBatch.size() >= FILE_DONE_BATCH_SIZE) {
+                publishFileIngestDoneBatch();
+            } else if (fileDoneBatch.size() == 1) {
+                eventPublishingExecutor.schedule(this::publishFileIngestDoneBatch, FILE_DONE_BATCH_MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Queues the files done so far for publication as a single batch event.
+     */
+    private void publishFileIngestDoneBatch() {
+        synchronized (fileDoneBatchLock) {
+            if (!fileDoneBatch.isEmpty()) {
+                AutopsyEvent event = new FilesAnalyzedEvent(fileDoneBatch);
+                fileDoneBatch = new ArrayList<>();
+                eventPublishingExecutor.submit(new PublishEventTask(event, moduleEventPublisher));
+            }
+        }
     }
 
     /**
@@ -822,7 +911,7 @@ void fireIngestModuleContentEvent(ModuleContentEvent moduleContentEvent) {
      * @param ingestModuleDisplayName
      */
     void setIngestTaskProgress(DataSourceIngestTask task, String ingestModuleDisplayName) {
-        ingestThreadActivitySnapshots.put(task.getThreadId(), new IngestThreadActivitySnapshot(task.getThreadId(), task.getIngestJob().getId(), ingestModuleDisplayName, task.getDataSource()));
+        ingestThreadActivities.get(task.getThreadId()).set(task.getIngestJob().getId(), ingestModuleDisplayName, task.getDataSource(), null);
     }
 
     /**
@@ -832,11 +921,7 @@ void setIngestTaskProgress(DataSourceIngestTask task, String ingestModuleDisplay
      * @param ingestModuleDisplayName
      */
     void setIngestTaskProgress(FileIngestTask task, String ingestModuleDisplayName) {
-        IngestThreadActivitySnapshot prevSnap = ingestThreadActivitySnapshots.get(task.getThreadId());
-        IngestThreadActivitySnapshot newSnap = new IngestThreadActivitySnapshot(task.getThreadId(), task.getIngestJob().getId(), ingestModuleDisplayName, task.getDataSource(), task.getFile());
-        ingestThreadActivitySnapshots.put(task.getThreadId(), newSnap);
-
-        incrementModuleRunTime(prevSnap.getActivity(), newSnap.getStartTime().getTime() - prevSnap.getStartTime().getTime());
+        ingestThreadActivities.get(task.getThreadId()).set(task.getIngestJob().getId(), ingestModuleDisplayName, task.getDataSource(), task.getFile());
     }
 
     /**
@@ -845,7 +930,7 @@ void setIngestTaskProgress(FileIngestTask task, String ingestModuleDisplayName)
      * @param task
      */
     void setIngestTaskProgressCompleted(DataSourceIngestTask task) {
-        ingestThreadActivitySnapshots.put(task.getThreadId(), new IngestThreadActivitySnapshot(task.getThreadId()));
+        ingestThreadActivities.get(task.getThreadId()).setIdle();
     }
 
     /**
@@ -854,44 +939,24 @@ void setIngestTaskProgressCompleted(DataSourceIngestTask task) {
      * @param task
      */
     void setIngestTaskProgressCompleted(FileIngestTask task) {
-        IngestThreadActivitySnapshot prevSnap = ingestThreadActivitySnapshots.get(task.getThreadId());
-        IngestThreadActivitySnapshot newSnap = new IngestThreadActivitySnapshot(task.getThreadId());
-        ingestThreadActivitySnapshots.put(task.getThreadId(), newSnap);
-        incrementModuleRunTime(prevSnap.getActivity(), newSnap.getStartTime().getTime() - prevSnap.getStartTime().getTime());
+        ingestThreadActivities.get(task.getThreadId()).setIdle();
     }
 
     /**
-     * Internal method to update the times associated with each module.
+     * Gets the processing statistics of the ingest modules, added up across
+     * the running ingest jobs and the jobs that have finished.
      *
-     * @param moduleName
-     * @param duration
+     * @return The statistics of each module.
      */
-    private void incrementModuleRunTime(String moduleName, Long duration) {
-        if (moduleName.equals("IDLE")) { //NON-NLS
-            return;
-        }
-
-        synchronized (ingestModuleRunTimes) {
-            Long prevTimeL = ingestModuleRunTimes.get(moduleName);
-            long prevTime = 0;
-            if (prevTimeL != null) {
-                prevTime = prevTimeL;
+    List<IngestModuleStatistics.Snapshot> getModuleStatistics() {
+        Map<String, IngestModuleStatistics.Snapshot> statistics;
+        synchronized (moduleStatisticsLock) {
+            statistics = new LinkedHashMap<>(finishedJobsModuleStatistics);
+            for (IngestJob job : this.jobsById.values()) {
+                IngestModuleStatistics.mergeByModule(statistics, job.getModuleStatistics().values());
             }
-            prevTime += duration;
-            ingestModuleRunTimes.put(moduleName, prevTime);
-        }
-    }
-
-    /**
-     * Return the list of run times for each module
-     *
-     * @return Map of module name to run time (in milliseconds)
-     */
-    Map<String, Long> getModuleRunTimes() {
-        synchronized (ingestModuleRunTimes) {
-            Map<String, Long> times = new HashMap<>(ingestModuleRunTimes);
-            return times;
         }
+        return new ArrayList<>(statistics.values());
     }
 
     /**
@@ -900,7 +965,11 @@ Map<String, Long> getModuleRunTimes() {
      * @return
      */
     List<IngestThreadActivitySnapshot> getIngestThreadActivitySnapshots() {
-        return new ArrayList<>(ingestThreadActivitySnapshots.values());
+        List<IngestThreadActivitySnapshot> snapshots = new ArrayList<>();
+        for (IngestThreadActivity activity : ingestThreadActivities.values()) {
+            snapshots.add(activity.getSnapshot());
+        }
+        return snapshots;
     }
 
     /**
@@ -1010,6 +1079,22 @@ public void run() {
         }
     }
 
+    /**
+     * Publishes an event per file of the batch file done events, local or
+     * remote, to the subscribers to the single file event on this node.
+     */
+    private final class FileIngestDoneAdapter implements PropertyChangeListener {
+
+        @Override
+        public void propertyChange(PropertyChangeEvent event) {
+            if (event instanceof FilesAnalyzedEvent) {
+                for (FileAnalyzedEvent fileEvent : ((FilesAnalyzedEvent) event).getFileAnalyzedEvents()) {
+                    moduleEventPublisher.publishLocally(fileEvent);
+                }
+            }
+        }
+    }
+
     /**
      * Publishes ingest events to both local and remote subscribers.
      */
@@ -1040,6 +1125,81 @@ public void run() {
 
     }
 
+    /**
+     * The current activity of an ingest thread. The activity is written by the
+     * ingest thread only, without allocating anything, and is read through
+     * snapshots. A version number that is odd while the activity is being
+     * written lets a reader see all of the fields of one activity.
+     */
+    private static final class IngestThreadActivity {
+
+        private final long threadId;
+        private volatile long version;
+        private volatile long jobId;
+        private volatile String activity;
+        private volatile Content dataSource;
+        private volatile AbstractFile file;
+        private volatile long startTime;
+
+        IngestThreadActivity(long threadId) {
+            this.threadId = threadId;
+            setIdle();
+        }
+
+        /**
+         * Records the activity of the thread. Called by the thread only.
+         *
+         * @param jobId      The id of the data source ingest job.
+         * @param activity   The display name of the ingest module running.
+         * @param dataSource The data source being processed.
+         * @param file       The file being processed, or null.
+         */
+        void set(long jobId, String activity, Content dataSource, AbstractFile file) {
+            long nextVersion = version + 1;
+            version = nextVersion;
+            this.jobId = jobId;
+            this.activity = activity;
+            this.dataSource = dataSource;
+            this.file = file;
+            this.startTime = System.currentTimeMillis();
+            version = nextVersion + 1;
+        }
+
+        /**
+         * Records that nothing is running on the thread. Called by the thread
+         * only.
+         */
+        void setIdle() {
+            set(0, null, null, null);
+        }
+
+        /**
+         * Gets a snapshot of the activity of the thread.
+         *
+         * @return The snapshot.
+         */
+        IngestThreadActivitySnapshot getSnapshot() {
+            while (true) {
+                long startVersion = version;
+                if ((startVersion & 1) == 0) {
+                    long snapJobId = jobId;
+                    String snapActivity = activity;
+                    Content snapDataSource = dataSource;
+                    AbstractFile snapFile = file;
+                    long snapStartTime = startTime;
+                    if (version == startVersion) {
+                        if (null == snapActivity) {
+                            return new IngestThreadActivitySnapshot(threadId, snapStartTime);
+                        }
+                        return new IngestThreadActivitySnapshot(threadId, snapJobId, snapActivity, snapDataSource.getName(),
+                                (null == snapFile) ? "" : snapFile.getName(), snapStartTime);
+                    }
+                }
+                Thread.yield();
+            }
+        }
+    }
+
     static final class IngestThreadActivitySnapshot {
 
         private final long threadId;
@@ -1050,33 +1210,23 @@ static final class IngestThreadActivitySnapshot {
         private final long jobId;
 
         // nothing is running on the thread
-        IngestThreadActivitySnapshot(long threadId) {
+        IngestThreadActivitySnapshot(long threadId, long startTime) {
             this.threadId = threadId;
-            startTime = new Date();
+            this.startTime = new Date(startTime);
             this.activity = NbBundle.getMessage(this.getClass(), "IngestManager.IngestThreadActivitySnapshot.idleThread");
             this.dataSourceName = "";
             this.fileName = "";
             this.jobId = 0;
         }
 
-        // data souce thread
-        IngestThreadActivitySnapshot(long threadId, long jobId, String activity, Content dataSource) {
-            this.threadId = threadId;
-            this.jobId = jobId;
-            startTime = new Date();
-            this.activity = activity;
-            this.dataSourceName = dataSource.getName();
-            this.fileName = "";
-        }
-
-        // file ingest thread
-        IngestThreadActivitySnapshot(long threadId, long jobId, String activity, Content dataSource, AbstractFile file) {
+        // data source or file ingest thread
+        IngestThreadActivitySnapshot(long threadId, long jobId, String activity, String dataSourceName, String fileName, long startTime) {
             this.threadId = threadId;
             this.jobId = jobId;
-            startTime = new Date();
+            this.startTime = new Date(startTime);
             this.activity = activity;
-            this.dataSourceName = dataSource.getName();
-            this.fileName = file.getName();
+            this.dataSourceName = dataSourceName;
+            this.fileName = fileName;
         }
 
         long getJobId() {
@@ -0,0 +1,206 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.ingest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.sleuthkit.autopsy.casemodule.Case;
+import org.sleuthkit.autopsy.coreutils.Logger;
+
+/**
+ * Publishes the ingest module processing statistics: through JMX while the
+ * application runs, and as a JSON summary in the case log folder when a data
+ * source ingest job finishes.
+ */
+final class IngestModuleMetrics implements IngestModuleMetricsMXBean {
+
+    private static final Logger logger = Logger.getLogger(IngestModuleMetrics.class.getName());
+    private static final String OBJECT_NAME = "org.sleuthkit.autopsy.ingest:type=IngestModuleMetrics"; //NON-NLS
+    private static final String SUMMARY_FILE_NAME = "ingest_module_statistics_%s_job%d.json"; //NON-NLS
+
+    private IngestModuleMetrics() {
+    }
+
+    /**
+     * Registers the ingest module statistics with the platform MBean server.
+     */
+    static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new IngestModuleMetrics(), new ObjectName(OBJECT_NAME));
+        } catch (JMException ex) {
+            logger.log(Level.WARNING, "Failed to register the ingest module statistics MBean", ex); //NON-NLS
+        }
+    }
+
+    /**
+     * Writes the processing statistics of the ingest modules of a data source
+     * ingest job to a JSON file in the log folder of the current case.
+     *
+     * @param job The data source ingest job.
+     */
+    static void writeJobSummary(DataSourceIngestJob job) {
+        String logDirectory;
+        try {
+            logDirectory = Case.getCurrentCase().getLogDirectoryPath();
+        } catch (IllegalStateException ex) {
+            logger.log(Level.WARNING, "No current case, ingest module statistics of job {0} not written", job.getId()); //NON-NLS
+            return;
+        }
+        long endTime = System.currentTimeMillis();
+        String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date(endTime)); //NON-NLS
+        Path summaryPath = Paths.get(logDirectory, String.format(SUMMARY_FILE_NAME, timeStamp, job.getId()));
+        try (Writer writer = Files.newBufferedWriter(summaryPath, StandardCharsets.UTF_8)) {
+            writer.write("{\n"); //NON-NLS
+            writer.write("  \"jobId\": " + job.getId() + ",\n"); //NON-NLS
+            writer.write("  \"dataSource\": " + toJsonString(job.getDataSource().getName()) + ",\n"); //NON-NLS
+            writer.write("  \"dataSourceObjectId\": " + job.getDataSource().getId() + ",\n"); //NON-NLS
+            writer.write("  \"startTime\": " + job.getCreateTime() + ",\n"); //NON-NLS
+            writer.write("  \"endTime\": " + endTime + ",\n"); //NON-NLS
+            writer.write("  \"cancelled\": " + job.isCancelled() + ",\n"); //NON-NLS
+            writer.write("  \"modules\": [");
+            Iterator<IngestModuleStatistics.Snapshot> modules = job.getModuleStatistics().values().iterator();
+            while (modules.hasNext()) {
+                writeModule(writer, modules.next());
+                writer.write(modules.hasNext() ? "," : "\n  ");
+            }
+            writer.write("]\n}\n"); //NON-NLS
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Failed to write ingest module statistics to " + summaryPath, ex); //NON-NLS
+        }
+    }
+
+    /**
+     * Writes the statistics of a module as a JSON object.
+     */
+    private static void writeModule(Writer writer, IngestModuleStatistics.Snapshot module) throws IOException {
+        writer.write("\n    {\n"); //NON-NLS
+        writer.write("      \"name\": " + toJsonString(module.getModuleName()) + ",\n"); //NON-NLS
+        writer.write("      \"calls\": " + module.getCalls() + ",\n"); //NON-NLS
+        writer.write("      \"failures\": " + module.getFailures() + ",\n"); //NON-NLS
+        writer.write("      \"totalTimeMillis\": " + TimeUnit.NANOSECONDS.toMillis(module.getTotalNanos()) + ",\n"); //NON-NLS
+        writer.write("      \"meanTimeMicros\": " + TimeUnit.NANOSECONDS.toMicros(module.getMeanNanos()) + ",\n"); //NON-NLS
+        writer.write("      \"medianTimeMicros\": " + TimeUnit.NANOSECONDS.toMicros(module.getPercentileNanos(50)) + ",\n"); //NON-NLS
+        writer.write("      \"percentile90TimeMicros\": " + TimeUnit.NANOSECONDS.toMicros(module.getPercentileNanos(90)) + ",\n"); //NON-NLS
+        writer.write("      \"percentile99TimeMicros\": " + TimeUnit.NANOSECONDS.toMicros(module.getPercentileNanos(99)) + ",\n"); //NON-NLS
+        writer.write("      \"maxTimeMicros\": " + TimeUnit.NANOSECONDS.toMicros(module.getMaxNanos()) + ",\n"); //NON-NLS
+        writer.write("      \"bytesProcessed\": " + module.getBytes() + ",\n"); //NON-NLS
+        writer.write("      \"bytesPerSecond\": " + (long) module.getBytesPerSecond() + ",\n"); //NON-NLS
+        writer.write("      \"timeMillisByFileExtension\": {"); //NON-NLS
+        List<Map.Entry<String, Long>> fileTypes = new ArrayList<>(module.getNanosByFileType().entrySet());
+        fileTypes.sort((entry, otherEntry) -> Long.compare(otherEntry.getValue(), entry.getValue()));
+        for (int i = 0; i < fileTypes.size(); i++) {
+            Map.Entry<String, Long> fileType = fileTypes.get(i);
+            writer.write((i == 0 ? "" : ", ") + toJsonString(fileType.getKey()) + ": " + TimeUnit.NANOSECONDS.toMillis(fileType.getValue()));
+        }
+        writer.write("}\n    }"); //NON-NLS
+    }
+
+    /**
+     * Quotes a string for JSON.
+     */
+    private static String toJsonString(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c)); //NON-NLS
+                    } else {
+                        quoted.append(c);
+                    }
+                    break;
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Gets a value of the statistics of each module.
+     */
+    private static Map<String, Long> getModuleValues(ToLongFunction<IngestModuleStatistics.Snapshot> value) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (IngestModuleStatistics.Snapshot module : IngestManager.getInstance().getModuleStatistics()) {
+            values.put(module.getModuleName(), value.applyAsLong(module));
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getCalls() {
+        return getModuleValues(IngestModuleStatistics.Snapshot::getCalls);
+    }
+
+    @Override
+    public Map<String, Long> getFailures() {
+        return getModuleValues(IngestModuleStatistics.Snapshot::getFailures);
+    }
+
+    @Override
+    public Map<String, Long> getTotalTimeMillis() {
+        return getModuleValues(module -> TimeUnit.NANOSECONDS.toMillis(module.getTotalNanos()));
+    }
+
+    @Override
+    public Map<String, Long> getMeanTimeMicros() {
+        return getModuleValues(module -> TimeUnit.NANOSECONDS.toMicros(module.getMeanNanos()));
+    }
+
+    @Override
+    public Map<String, Long> getMedianTimeMicros() {
+        return getModuleValues(module -> TimeUnit.NANOSECONDS.toMicros(module.getPercentileNanos(50)));
+    }
+
+    @Override
+    public Map<String, Long> getPercentile99TimeMicros() {
+        return getModuleValues(module -> TimeUnit.NANOSECONDS.toMicros(module.getPercentileNanos(99)));
+    }
+
+    @Override
+    public Map<String, Long> getMaxTimeMicros() {
+        return getModuleValues(module -> TimeUnit.NANOSECONDS.toMicros(module.getMaxNanos()));
+    }
+
+    @Override
+    public Map<String, Long> getBytesProcessed() {
+        return getModuleValues(IngestModuleStatistics.Snapshot::getBytes);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.ingest;
+
+import java.util.Map;
+
+/**
+ * The JMX management interface of the ingest module processing statistics,
+ * registered as org.sleuthkit.autopsy.ingest:type=IngestModuleMetrics. Each
+ * attribute maps the display names of the ingest modules to a value, added up
+ * across the running ingest jobs and the jobs that have finished.
+ */
+public interface IngestModuleMetricsMXBean {
+
+    /**
+     * @return the number of files or data sources each module has processed
+     */
+    Map<String, Long> getCalls();
+
+    /**
+     * @return the number of calls of each module that returned an error or
+     *         threw an exception
+     */
+    Map<String, Long> getFailures();
+
+    /**
+     * @return the total processing time of each module, in milliseconds
+     */
+    Map<String, Long> getTotalTimeMillis();
+
+    /**
+     * @return the mean processing time of a call of each module, in
+     *         microseconds
+     */
+    Map<String, Long> getMeanTimeMicros();
+
+    /**
+     * @return the median processing time of a call of each module, in
+     *         microseconds
+     */
+    Map<String, Long> getMedianTimeMicros();
+
+    /**
+     * @return the 99th percentile of the processing time of a call of each
+     *         module, in microseconds
+     */
+    Map<String, Long> getPercentile99TimeMicros();
+
+    /**
+     * @return the longest processing time of a call of each module, in
+     *         microseconds
+     */
+    Map<String, Long> getMaxTimeMicros();
+
+    /**
+     * @return the number of bytes each module has processed
+     */
+    Map<String, Long> getBytesProcessed();
+}
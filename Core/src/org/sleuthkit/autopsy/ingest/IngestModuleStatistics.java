@@ -0,0 +1,307 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.ingest;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the processing times of an ingest module in an ingest pipeline: a
+ * latency histogram, the number of calls and failures, the number of bytes
+ * processed and the time spent per file type.
+ * <p>
+ * The file types are file extensions, which are not a bounded set, so only the
+ * first 64 types seen are kept apart and the time spent
+ * on any other type is added to the "other" type.
+ * <p>
+ * Each ingest pipeline is used by one thread at a time, so the statistics of a
+ * pipeline module have a single writer and are recorded without locks or
+ * contention. Other threads read them through snapshots, which are merged
+ * across the pipelines of a job and across jobs.
+ * <p>
+ * The histogram buckets are log-linear, as in an HDR histogram: each power of
+ * two is split into eight buckets, so a percentile read from the histogram is
+ * within 12.5% of the recorded value.
+ */
+final class IngestModuleStatistics {
+
+    /**
+     * the number of bits of each value used to pick the bucket within a power
+     * of two
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * the number of file types that are kept apart, the time spent on other
+     * types is added to OTHER_FILE_TYPE
+     */
+    private static final int MAX_FILE_TYPES = 64;
+    private static final String OTHER_FILE_TYPE = "other"; //NON-NLS
+
+    private final String moduleName;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final ConcurrentHashMap<String, AtomicLong> nanosByFileType = new ConcurrentHashMap<>();
+
+    /**
+     * @param moduleName the display name of the module
+     */
+    IngestModuleStatistics(String moduleName) {
+        this.moduleName = moduleName;
+    }
+
+    /**
+     * Records a call of the module. Only the thread that runs the pipeline may
+     * call this method.
+     *
+     * @param nanos    the time the call took, in nanoseconds
+     * @param bytes    the number of bytes of the file or data source processed
+     * @param fileType the type of the file, or null for a data source
+     * @param failed   whether the module returned an error or threw an
+     *                 exception
+     */
+    void record(long nanos, long bytes, String fileType, boolean failed) {
+        nanos = Math.max(0, nanos);
+        int bucket = getBucket(nanos);
+        // Single writer, so lazySet() is enough to publish the new values
+        buckets.lazySet(bucket, buckets.get(bucket) + 1);
+        calls.lazySet(calls.get() + 1);
+        totalNanos.lazySet(totalNanos.get() + nanos);
+        this.bytes.lazySet(this.bytes.get() + Math.max(0, bytes));
+        if (nanos > maxNanos.get()) {
+            maxNanos.lazySet(nanos);
+        }
+        if (failed) {
+            failures.lazySet(failures.get() + 1);
+        }
+        if (fileType != null) {
+            fileType = getFileTypeKey(nanosByFileType, fileType);
+            AtomicLong typeNanos = nanosByFileType.get(fileType);
+            if (typeNanos == null) {
+                typeNanos = new AtomicLong();
+                nanosByFileType.put(fileType, typeNanos);
+            }
+            typeNanos.lazySet(typeNanos.get() + nanos);
+        }
+    }
+
+    /**
+     * @return a copy of the statistics recorded so far
+     */
+    Snapshot getSnapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        Map<String, Long> typeNanos = new HashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : nanosByFileType.entrySet()) {
+            typeNanos.put(entry.getKey(), entry.getValue().get());
+        }
+        return new Snapshot(moduleName, calls.get(), failures.get(), totalNanos.get(), maxNanos.get(), bytes.get(), counts, typeNanos);
+    }
+
+    /**
+     * Merges snapshots into a map of the statistics of each module, adding up
+     * the snapshots of the same module.
+     *
+     * @param statistics the statistics by module name, added to
+     * @param snapshots  the snapshots to merge in
+     */
+    static void mergeByModule(Map<String, Snapshot> statistics, Collection<Snapshot> snapshots) {
+        for (Snapshot snapshot : snapshots) {
+            statistics.merge(snapshot.getModuleName(), snapshot, Snapshot::merge);
+        }
+    }
+
+    /**
+     * Gets the key to record the time spent on a file type under, collapsing
+     * the types beyond the first MAX_FILE_TYPES into OTHER_FILE_TYPE.
+     *
+     * @param nanosByFileType the time spent per file type so far
+     * @param fileType        the type of the file
+     *
+     * @return the file type, or OTHER_FILE_TYPE
+     */
+    private static String getFileTypeKey(Map<String, ?> nanosByFileType, String fileType) {
+        if (nanosByFileType.containsKey(fileType)) {
+            return fileType;
+        }
+        int typeCount = nanosByFileType.size() - (nanosByFileType.containsKey(OTHER_FILE_TYPE) ? 1 : 0);
+        return typeCount < MAX_FILE_TYPES ? fileType : OTHER_FILE_TYPE;
+    }
+
+    /**
+     * Gets the histogram bucket of a value.
+     *
+     * @param value a value that is not negative
+     *
+     * @return the index of the bucket
+     */
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the largest value that falls in a histogram bucket.
+     *
+     * @param bucket the index of the bucket
+     *
+     * @return the value
+     */
+    private static long getBucketMaxValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long nextBucketMinValue = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << shift;
+        return nextBucketMinValue - 1;
+    }
+
+    /**
+     * The statistics of an ingest module at a point in time, possibly merged
+     * from several pipelines or jobs.
+     */
+    static final class Snapshot {
+
+        private final String moduleName;
+        private final long calls;
+        private final long failures;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long bytes;
+        private final long[] buckets;
+        private final Map<String, Long> nanosByFileType;
+
+        private Snapshot(String moduleName, long calls, long failures, long totalNanos, long maxNanos, long bytes, long[] buckets, Map<String, Long> nanosByFileType) {
+            this.moduleName = moduleName;
+            this.calls = calls;
+            this.failures = failures;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.bytes = bytes;
+            this.buckets = buckets;
+            this.nanosByFileType = nanosByFileType;
+        }
+
+        /**
+         * Adds up the statistics of this snapshot and another one of the same
+         * module.
+         *
+         * @param other the other snapshot
+         *
+         * @return a new snapshot
+         */
+        Snapshot merge(Snapshot other) {
+            long[] mergedBuckets = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mergedBuckets[i] = buckets[i] + other.buckets[i];
+            }
+            Map<String, Long> mergedTypes = new HashMap<>(nanosByFileType);
+            for (Map.Entry<String, Long> entry : other.nanosByFileType.entrySet()) {
+                mergedTypes.merge(getFileTypeKey(mergedTypes, entry.getKey()), entry.getValue(), Long::sum);
+            }
+            return new Snapshot(moduleName, calls + other.calls, failures + other.failures, totalNanos + other.totalNanos,
+                    Math.max(maxNanos, other.maxNanos), bytes + other.bytes, mergedBuckets, mergedTypes);
+        }
+
+        String getModuleName() {
+            return moduleName;
+        }
+
+        long getCalls() {
+            return calls;
+        }
+
+        long getFailures() {
+            return failures;
+        }
+
+        long getTotalNanos() {
+            return totalNanos;
+        }
+
+        long getMaxNanos() {
+            return maxNanos;
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the mean time of a call, in nanoseconds
+         */
+        long getMeanNanos() {
+            return calls == 0 ? 0 : totalNanos / calls;
+        }
+
+        /**
+         * Gets a percentile of the call times.
+         *
+         * @param percentile the percentile, from 0 to 100
+         *
+         * @return the time, in nanoseconds, within the precision of the
+         *         histogram
+         */
+        long getPercentileNanos(double percentile) {
+            if (calls == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(calls * Math.min(100.0, percentile) / 100.0));
+            long count = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                count += buckets[i];
+                if (count >= rank) {
+                    return Math.min(getBucketMaxValue(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        /**
+         * @return the number of bytes processed per second of module time
+         */
+        double getBytesPerSecond() {
+            return totalNanos == 0 ? 0 : bytes * 1e9 / totalNanos;
+        }
+
+        /**
+         * @return the time spent on each type of file, in nanoseconds
+         */
+        Map<String, Long> getNanosByFileType() {
+            return Collections.unmodifiableMap(nanosByFileType);
+        }
+    }
+}
@@ -20,10 +20,9 @@
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import javax.swing.JDialog;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableColumn;
@@ -252,46 +251,22 @@ public Object getValueAt(int rowIndex, int columnIndex) {
 
     private class ModuleTableModel extends AbstractTableModel {
 
-        private class ModuleStats implements Comparable<ModuleStats> {
-
-            private final String name;
-            private final long duration;
-
-            ModuleStats(String name, long duration) {
-                this.name = name;
-                this.duration = duration;
-            }
-
-            /**
-             * @return the name
-             */
-            protected String getName() {
-                return name;
-            }
-
-            /**
-             * @return the duration
-             */
-            protected long getDuration() {
-                return duration;
-            }
-
-            @Override
-            public int compareTo(ModuleStats o) {
-                if (duration > o.getDuration()) {
-                    return -1;
-                } else if (duration == o.getDuration()) {
-                    return 0;
-                } else {
-                    return 1;
-                }
-            }
-
-        }
         private final String[] columnNames = {NbBundle.getMessage(this.getClass(), "ModuleTableModel.colName.module"),
             NbBundle.getMessage(this.getClass(),
-            "ModuleTableModel.colName.duration")};
-        private final List<ModuleStats> moduleStats = new ArrayList<>();
+            "ModuleTableModel.colName.duration"),
+            NbBundle.getMessage(this.getClass(),
+            "ModuleTableModel.colName.calls"),
+            NbBundle.getMessage(this.getClass(),
+            "ModuleTableModel.colName.mean"),
+            NbBundle.getMessage(this.getClass(),
+            "ModuleTableModel.colName.median"),
+            NbBundle.getMessage(this.getClass(),
+            "ModuleTableModel.colName.percentile99"),
+            NbBundle.getMessage(this.getClass(),
+            "ModuleTableModel.colName.max"),
+            NbBundle.getMessage(this.getClass(),
+            "ModuleTableModel.colName.throughput")};
+        private List<IngestModuleStatistics.Snapshot> moduleStats = new ArrayList<>();
         private long totalTime;
 
         private ModuleTableModel() {
@@ -299,17 +274,22 @@ private ModuleTableModel() {
         }
 
         private void refresh() {
-            Map<String, Long> moduleStatMap = IngestManager.getInstance().getModuleRunTimes();
-            moduleStats.clear();
+            moduleStats = IngestManager.getInstance().getModuleStatistics();
             totalTime = 0;
-            for (String k : moduleStatMap.keySet()) {
-                moduleStats.add(new ModuleStats(k, moduleStatMap.get(k)));
-                totalTime += moduleStatMap.get(k);
+            for (IngestModuleStatistics.Snapshot moduleStat : moduleStats) {
+                totalTime += moduleStat.getTotalNanos();
             }
-            Collections.sort(moduleStats);
+            moduleStats.sort((moduleStat, otherModuleStat) -> Long.compare(otherModuleStat.getTotalNanos(), moduleStat.getTotalNanos()));
             fireTableDataChanged();
         }
 
+        /**
+         * Formats a call time in milliseconds.
+         */
+        private String formatMillis(long nanos) {
+            return String.format("%.3f", nanos / 1e6);
+        }
+
         @Override
         public int getRowCount() {
             return moduleStats.size();
@@ -327,16 +307,34 @@ public String getColumnName(int col) {
 
         @Override
         public Object getValueAt(int rowIndex, int columnIndex) {
-            ModuleStats moduleStat = moduleStats.get(rowIndex);
+            IngestModuleStatistics.Snapshot moduleStat = moduleStats.get(rowIndex);
             Object cellValue;
             switch (columnIndex) {
                 case 0:
-                    cellValue = moduleStat.getName();
+                    cellValue = moduleStat.getModuleName();
                     break;
                 case 1:
-                    cellValue = DurationFormatUtils.formatDurationHMS(moduleStat.getDuration()) + " (" + (moduleStat.getDuration() * 100) / totalTime + "%)";
+                    long percentage = (totalTime == 0) ? 0 : (moduleStat.getTotalNanos() * 100) / totalTime;
+                    cellValue = DurationFormatUtils.formatDurationHMS(TimeUnit.NANOSECONDS.toMillis(moduleStat.getTotalNanos())) + " (" + percentage + "%)";
+                    break;
+                case 2:
+                    cellValue = moduleStat.getCalls();
+                    break;
+                case 3:
+                    cellValue = formatMillis(moduleStat.getMeanNanos());
+                    break;
+                case 4:
+                    cellValue = formatMillis(moduleStat.getPercentileNanos(50));
+                    break;
+                case 5:
+                    cellValue = formatMillis(moduleStat.getPercentileNanos(99));
+                    break;
+                case 6:
+                    cellValue = formatMillis(moduleStat.getMaxNanos());
+                    break;
+                case 7:
+                    cellValue = String.format("%.1f", moduleStat.getBytesPerSecond() / (1024 * 1024));
                     break;
-
                 default:
                     cellValue = null;
                     break;
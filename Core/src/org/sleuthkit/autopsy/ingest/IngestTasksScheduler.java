@@ -26,8 +26,6 @@
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
@@ -47,6 +45,8 @@ final class IngestTasksScheduler {
 
     private static final Logger logger = Logger.getLogger(IngestTasksScheduler.class.getName());
     private static final int FAT_NTFS_FLAGS = TskData.TSK_FS_TYPE_ENUM.TSK_FS_TYPE_FAT12.getValue() | TskData.TSK_FS_TYPE_ENUM.TSK_FS_TYPE_FAT16.getValue() | TskData.TSK_FS_TYPE_ENUM.TSK_FS_TYPE_FAT32.getValue() | TskData.TSK_FS_TYPE_ENUM.TSK_FS_TYPE_NTFS.getValue();
+    private static final int PENDING_FILE_TASKS_LOOKAHEAD = 10000;
+    private static final int PENDING_FILE_TASKS_FAIRNESS_BOUND = 4;
     private static IngestTasksScheduler instance;
 
     /**
@@ -68,14 +68,24 @@ final class IngestTasksScheduler {
      *
      * 2. Directory tasks (FIFO queue)
      *
-     * 3. Pending file tasks (LIFO queue).
+     * 3. Pending file tasks (priority queue, LIFO for equal priorities).
      *
-     * The pending file tasks queue is LIFO to handle large numbers of files
-     * extracted from archive files. At least one image has been processed that
-     * had a folder full of archive files. The queue grew to have thousands of
-     * entries, as each successive archive file was expanded, so now extracted
-     * files get added to the front of the queue so that in such a scenario they
-     * would be processed before the expansion of the next archive file.
+     * The pending file tasks are ordered by the file ingest task scheduling
+     * policy selected in the user preferences. The default policy gives all of
+     * the tasks the same priority, so the queue is LIFO. This handles large
+     * numbers of files extracted from archive files. At least one image has
+     * been processed that had a folder full of archive files. The queue grew to
+     * have thousands of entries, as each successive archive file was expanded,
+     * so now extracted files get taken before the other tasks so that in such a
+     * scenario they would be processed before the expansion of the next archive
+     * file.
+     *
+     * The other policies take the largest or most expensive files first, so
+     * that a few very large files found late in the directory walk do not keep
+     * one ingest thread busy long after the others have run out of work. Since
+     * the files are only found as the directories are walked, these policies
+     * walk the directories ahead until a number of file tasks are pending, to
+     * give the queue enough tasks to choose from.
      *
      * Tasks in the pending file tasks queue are ready to be consumed by the
      * ingest threads, so the queue is wrapped in a "dispenser" that implements
@@ -83,7 +93,8 @@ final class IngestTasksScheduler {
      */
     private final TreeSet<FileIngestTask> rootDirectoryTasks;
     private final List<FileIngestTask> directoryTasks;
-    private final BlockingDeque<FileIngestTask> pendingFileTasks;
+    private final FileIngestTaskPriorityQueue pendingFileTasks;
+    private final int pendingFileTasksLookahead;
     private final FileIngestTaskQueue fileTasksDispenser;
 
     /**
@@ -117,7 +128,9 @@ private IngestTasksScheduler() {
         this.dataSourceTasksDispenser = new DataSourceIngestTaskQueue();
         this.rootDirectoryTasks = new TreeSet<>(new RootDirectoryTaskComparator());
         this.directoryTasks = new ArrayList<>();
-        this.pendingFileTasks = new LinkedBlockingDeque<>();
+        FileIngestTaskSchedulingPolicy policy = FileIngestTaskSchedulingPolicy.getSelectedPolicy();
+        this.pendingFileTasks = new FileIngestTaskPriorityQueue(policy, PENDING_FILE_TASKS_FAIRNESS_BOUND);
+        this.pendingFileTasksLookahead = (policy == FileIngestTaskSchedulingPolicy.DIRECTORY_ORDER) ? 1 : PENDING_FILE_TASKS_LOOKAHEAD;
         this.fileTasksDispenser = new FileIngestTaskQueue();
         this.tasksInProgress = new HashSet<>();
     }
@@ -318,16 +331,18 @@ private static List<AbstractFile> getTopLevelFiles(Content dataSource) {
     /**
      * "Shuffles" the file task queues to ensure that there is at least one task
      * in the pending file ingest tasks queue, as long as there are still file
-     * ingest tasks to be performed.
+     * ingest tasks to be performed. If the scheduling policy orders the tasks
+     * by cost, directories are walked until the look ahead number of tasks are
+     * pending.
      */
     synchronized private void shuffleFileTaskQueues() {
         // This is synchronized because it is called both by synchronized 
         // methods of this ingest scheduler and an unsynchronized method of its
         // file tasks "dispenser".
         while (true) {
-            // Loop until either the pending file tasks queue is NOT empty
+            // Loop until either the pending file tasks queue has enough tasks
             // or the upstream queues that feed into it ARE empty.
-            if (!this.pendingFileTasks.isEmpty()) {
+            if (this.pendingFileTasks.size() >= this.pendingFileTasksLookahead) {
                 // There are file tasks ready to be consumed, exit.
                 return;
             }
@@ -461,16 +476,7 @@ private static boolean shouldEnqueueFileTask(final FileIngestTask task) {
      * @param task The task to add.
      */
     synchronized private void addToPendingFileTasksQueue(FileIngestTask task) {
-        try {
-            this.pendingFileTasks.putFirst(task);
-        } catch (InterruptedException ex) {
-            /**
-             * The current thread was interrupted while blocked on a full queue.
-             * Discard the task and reset the interrupted flag.
-             */
-            this.tasksInProgress.remove(task);
-            Thread.currentThread().interrupt();
-        }
+        this.pendingFileTasks.add(task);
     }
 
     /**
@@ -659,7 +665,7 @@ private final class FileIngestTaskQueue implements IngestTaskQueue {
          */
         @Override
         public IngestTask getNextTask() throws InterruptedException {
-            FileIngestTask task = IngestTasksScheduler.this.pendingFileTasks.takeFirst();
+            FileIngestTask task = IngestTasksScheduler.this.pendingFileTasks.take();
             shuffleFileTaskQueues();
             return task;
         }
@@ -687,7 +693,7 @@ class IngestJobTasksSnapshot {
             this.jobId = jobId;
             this.rootQueueSize = countTasksForJob(IngestTasksScheduler.this.rootDirectoryTasks, jobId);
             this.dirQueueSize = countTasksForJob(IngestTasksScheduler.this.directoryTasks, jobId);
-            this.fileQueueSize = countTasksForJob(IngestTasksScheduler.this.pendingFileTasks, jobId);
+            this.fileQueueSize = countTasksForJob(IngestTasksScheduler.this.pendingFileTasks.getTasks(), jobId);
             this.dsQueueSize = countTasksForJob(IngestTasksScheduler.this.pendingDataSourceTasks, jobId);
             this.runningListSize = countTasksForJob(IngestTasksScheduler.this.tasksInProgress, jobId);
         }
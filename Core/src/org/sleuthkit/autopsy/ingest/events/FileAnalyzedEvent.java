@@ -55,6 +55,18 @@ public FileAnalyzedEvent(AbstractFile file) {
         this.file = file;
     }
 
+    /**
+     * Constructs an event that indicates that the analysis (ingest) of a file
+     * is completed, from a batch event that only carries the id of the file.
+     *
+     * @param fileId     The Autopsy object id of the file.
+     * @param sourceType The source type of the batch event.
+     */
+    FileAnalyzedEvent(long fileId, SourceType sourceType) {
+        super(IngestManager.IngestModuleEvent.FILE_DONE.toString(), fileId, null);
+        setSourceType(sourceType);
+    }
+
     /**
      * Gets the file for which analysis is completed.
      *
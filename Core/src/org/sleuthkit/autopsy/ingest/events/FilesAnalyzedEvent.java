@@ -0,0 +1,92 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.ingest.events;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.sleuthkit.autopsy.events.AutopsyEvent;
+import org.sleuthkit.autopsy.ingest.IngestManager;
+import org.sleuthkit.datamodel.AbstractFile;
+
+/**
+ * Event published when the analysis (ingest) of a batch of files is completed.
+ * The "old" value is an array of the Autopsy object ids of the files, as
+ * primitive longs. The "new" value is null.
+ */
+public final class FilesAnalyzedEvent extends AutopsyEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private transient AbstractFile[] files;
+
+    /**
+     * Constructs an event that can be used to indicate that the analysis
+     * (ingest) of a batch of files is completed.
+     *
+     * @param files The files for which analysis is completed.
+     */
+    public FilesAnalyzedEvent(List<AbstractFile> files) {
+        super(IngestManager.IngestModuleEvent.FILES_DONE.toString(), getIds(files), null);
+        this.files = files.toArray(new AbstractFile[files.size()]);
+    }
+
+    /**
+     * Gets the object ids of the files.
+     */
+    private static long[] getIds(List<AbstractFile> files) {
+        long[] ids = new long[files.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = files.get(i).getId();
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the Autopsy object ids of the files for which analysis is
+     * completed.
+     *
+     * @return The file ids.
+     */
+    public long[] getFileIds() {
+        long[] ids = (long[]) super.getOldValue();
+        return Arrays.copyOf(ids, ids.length);
+    }
+
+    /**
+     * Gets an event per file for which analysis is completed, for the
+     * subscribers to the single file FILE_DONE event. The files are not
+     * loaded from the case database unless the events of a remote batch are
+     * asked for their new value.
+     *
+     * @return The events, in the order the files were analyzed.
+     */
+    public List<FileAnalyzedEvent> getFileAnalyzedEvents() {
+        long[] ids = (long[]) super.getOldValue();
+        List<FileAnalyzedEvent> events = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            /*
+             * The files field is transient, so it is null when the event has
+             * been published over a network.
+             */
+            events.add((null != files) ? new FileAnalyzedEvent(files[i]) : new FileAnalyzedEvent(ids[i], getSourceType()));
+        }
+        return events;
+    }
+}
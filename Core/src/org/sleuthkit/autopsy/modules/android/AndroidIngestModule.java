@@ -18,6 +18,7 @@
  */
 package org.sleuthkit.autopsy.modules.android;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -41,10 +42,18 @@ class AndroidIngestModule implements DataSourceIngestModule {
     private static final IngestModuleReferenceCounter refCounter = new IngestModuleReferenceCounter();
     private static final Logger logger = Logger.getLogger(AndroidIngestModule.class.getName());
     private IngestServices services = IngestServices.getInstance();
+    private String tempDirectory;
 
     @Override
     public void startUp(IngestJobContext context) throws IngestModuleException {
         this.context = context;
+        // the databases are copied to a folder of this job, so that jobs that
+        // run at the same time do not overwrite each other's copies
+        tempDirectory = Case.getCurrentCase().getTempDirectory() + File.separator + "Android" + File.separator + context.getJobId(); //NON-NLS
+        File dir = new File(tempDirectory);
+        if (dir.exists() == false) {
+            dir.mkdirs();
+        }
     }
 
     @Override
@@ -58,7 +67,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         FileManager fileManager = Case.getCurrentCase().getServices().getFileManager();
 
         try {
-            ContactAnalyzer.findContacts(dataSource, fileManager);
+            ContactAnalyzer.findContacts(dataSource, fileManager, tempDirectory);
             progressBar.progress(1);
             if (context.dataSourceIngestIsCancelled()) {
                 return IngestModule.ProcessResult.OK;
@@ -68,7 +77,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         }
 
         try {
-            CallLogAnalyzer.findCallLogs(dataSource, fileManager);
+            CallLogAnalyzer.findCallLogs(dataSource, fileManager, tempDirectory);
             progressBar.progress(2);
             if (context.dataSourceIngestIsCancelled()) {
                 return IngestModule.ProcessResult.OK;
@@ -78,7 +87,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         }
 
         try {
-            TextMessageAnalyzer.findTexts(dataSource, fileManager);
+            TextMessageAnalyzer.findTexts(dataSource, fileManager, tempDirectory);
             progressBar.progress(3);
             if (context.dataSourceIngestIsCancelled()) {
                 return IngestModule.ProcessResult.OK;
@@ -88,7 +97,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         }
 
         try {
-            TangoMessageAnalyzer.findTangoMessages(dataSource, fileManager);
+            TangoMessageAnalyzer.findTangoMessages(dataSource, fileManager, tempDirectory);
             progressBar.progress(4);
             if (context.dataSourceIngestIsCancelled()) {
                 return IngestModule.ProcessResult.OK;
@@ -98,7 +107,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         }
 
         try {
-            WWFMessageAnalyzer.findWWFMessages(dataSource, fileManager);
+            WWFMessageAnalyzer.findWWFMessages(dataSource, fileManager, tempDirectory);
             progressBar.progress(5);
             if (context.dataSourceIngestIsCancelled()) {
                 return IngestModule.ProcessResult.OK;
@@ -108,7 +117,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         }
 
         try {
-            GoogleMapLocationAnalyzer.findGeoLocations(dataSource, fileManager);
+            GoogleMapLocationAnalyzer.findGeoLocations(dataSource, fileManager, tempDirectory);
             progressBar.progress(6);
             if (context.dataSourceIngestIsCancelled()) {
                 return IngestModule.ProcessResult.OK;
@@ -118,7 +127,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         }
 
         try {
-            BrowserLocationAnalyzer.findGeoLocations(dataSource, fileManager);
+            BrowserLocationAnalyzer.findGeoLocations(dataSource, fileManager, tempDirectory);
             progressBar.progress(7);
             if (context.dataSourceIngestIsCancelled()) {
                 return IngestModule.ProcessResult.OK;
@@ -128,7 +137,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         }
 
         try {
-            CacheLocationAnalyzer.findGeoLocations(dataSource, fileManager);
+            CacheLocationAnalyzer.findGeoLocations(dataSource, fileManager, tempDirectory);
             progressBar.progress(8);
         } catch (Exception e) {
             errors.add("Error getting Cache Locations"); //NON-NLS
@@ -49,7 +49,7 @@ class BrowserLocationAnalyzer {
     private static final Logger logger = Logger.getLogger(BrowserLocationAnalyzer.class.getName());
     private static Blackboard blackboard;
 
-    public static void findGeoLocations(Content dataSource, FileManager fileManager) {
+    public static void findGeoLocations(Content dataSource, FileManager fileManager, String tempDirectory) {
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         try {
             List<AbstractFile> abstractFiles = fileManager.findFiles(dataSource, "CachedGeoposition%.db"); //NON-NLS
@@ -59,7 +59,7 @@ public static void findGeoLocations(Content dataSource, FileManager fileManager)
                     if (abstractFile.getSize() == 0) {
                         continue;
                     }
-                    File jFile = new File(Case.getCurrentCase().getTempDirectory(), abstractFile.getName());
+                    File jFile = new File(tempDirectory, abstractFile.getName());
                     ContentUtils.writeToFile(abstractFile, jFile);
                     findGeoLocationsInDB(jFile.toString(), abstractFile);
                 } catch (Exception e) {
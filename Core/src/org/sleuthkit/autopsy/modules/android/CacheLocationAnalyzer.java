@@ -53,7 +53,7 @@ class CacheLocationAnalyzer {
      * cache.cell stores mobile tower GPS locations and cache.wifi stores GPS
      * and MAC info from Wifi points.
      */
-    public static void findGeoLocations(Content dataSource, FileManager fileManager) {
+    public static void findGeoLocations(Content dataSource, FileManager fileManager, String tempDirectory) {
 
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         try {
@@ -65,7 +65,7 @@ public static void findGeoLocations(Content dataSource, FileManager fileManager)
                     if (abstractFile.getSize() == 0) {
                         continue;
                     }
-                    File jFile = new File(Case.getCurrentCase().getTempDirectory(), abstractFile.getName());
+                    File jFile = new File(tempDirectory, abstractFile.getName());
                     ContentUtils.writeToFile(abstractFile, jFile);
 
                     findGeoLocationsInFile(jFile, abstractFile);
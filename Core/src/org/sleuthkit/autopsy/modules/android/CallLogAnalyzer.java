@@ -57,7 +57,7 @@ class CallLogAnalyzer {
      */
     private static final Iterable<String> tableNames = Arrays.asList("calls", "logs"); //NON-NLS
 
-    public static void findCallLogs(Content dataSource, FileManager fileManager) {
+    public static void findCallLogs(Content dataSource, FileManager fileManager, String tempDirectory) {
 	blackboard = Case.getCurrentCase().getServices().getBlackboard();
         try {
             List<AbstractFile> absFiles = fileManager.findFiles(dataSource, "logs.db"); //NON-NLS
@@ -65,7 +65,7 @@ public static void findCallLogs(Content dataSource, FileManager fileManager) {
             absFiles.addAll(fileManager.findFiles(dataSource, "contacts2.db")); //NON-NLS
             for (AbstractFile abstractFile : absFiles) {
                 try {
-                    File file = new File(Case.getCurrentCase().getTempDirectory(), abstractFile.getName());
+                    File file = new File(tempDirectory, abstractFile.getName());
                     ContentUtils.writeToFile(abstractFile, file);
                     findCallLogsInDB(file.toString(), abstractFile);
                 } catch (IOException e) {
@@ -49,7 +49,7 @@ class ContactAnalyzer {
     private static final String moduleName = AndroidModuleFactory.getModuleName();
     private static final Logger logger = Logger.getLogger(ContactAnalyzer.class.getName());
 
-    public static void findContacts(Content dataSource, FileManager fileManager) {
+    public static void findContacts(Content dataSource, FileManager fileManager, String tempDirectory) {
 
         List<AbstractFile> absFiles;
         try {
@@ -60,7 +60,7 @@ public static void findContacts(Content dataSource, FileManager fileManager) {
             }
             for (AbstractFile AF : absFiles) {
                 try {
-                    File jFile = new File(Case.getCurrentCase().getTempDirectory(), AF.getName());
+                    File jFile = new File(tempDirectory, AF.getName());
                     ContentUtils.writeToFile(AF, jFile);
                     findContactsInDB(jFile.toString(), AF);
                 } catch (Exception e) {
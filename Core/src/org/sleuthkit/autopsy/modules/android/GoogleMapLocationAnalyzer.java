@@ -49,7 +49,7 @@ class GoogleMapLocationAnalyzer {
     private static final Logger logger = Logger.getLogger(GoogleMapLocationAnalyzer.class.getName());
     private static Blackboard blackboard;
 
-    public static void findGeoLocations(Content dataSource, FileManager fileManager) {
+    public static void findGeoLocations(Content dataSource, FileManager fileManager, String tempDirectory) {
         List<AbstractFile> absFiles;
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         try {
@@ -59,7 +59,7 @@ public static void findGeoLocations(Content dataSource, FileManager fileManager)
             }
             for (AbstractFile abstractFile : absFiles) {
                 try {
-                    File jFile = new java.io.File(Case.getCurrentCase().getTempDirectory(), abstractFile.getName());
+                    File jFile = new java.io.File(tempDirectory, abstractFile.getName());
                     ContentUtils.writeToFile(abstractFile, jFile);
                     findGeoLocationsInDB(jFile.toString(), abstractFile);
                 } catch (Exception e) {
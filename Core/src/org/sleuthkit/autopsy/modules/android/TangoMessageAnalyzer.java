@@ -49,14 +49,14 @@ class TangoMessageAnalyzer {
     private static final Logger logger = Logger.getLogger(TangoMessageAnalyzer.class.getName());
     private static Blackboard blackboard;
 
-    public static void findTangoMessages(Content dataSource, FileManager fileManager) {
+    public static void findTangoMessages(Content dataSource, FileManager fileManager, String tempDirectory) {
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         List<AbstractFile> absFiles;
         try {
             absFiles = fileManager.findFiles(dataSource, "tc.db"); //NON-NLS
             for (AbstractFile abstractFile : absFiles) {
                 try {
-                    File jFile = new File(Case.getCurrentCase().getTempDirectory(), abstractFile.getName());
+                    File jFile = new File(tempDirectory, abstractFile.getName());
                     ContentUtils.writeToFile(abstractFile, jFile);
                     findTangoMessagesInDB(jFile.toString(), abstractFile);
                 } catch (Exception e) {
@@ -49,14 +49,14 @@ class TextMessageAnalyzer {
     private static final Logger logger = Logger.getLogger(TextMessageAnalyzer.class.getName());
     private static Blackboard blackboard;
 
-    public static void findTexts(Content dataSource, FileManager fileManager) {
+    public static void findTexts(Content dataSource, FileManager fileManager, String tempDirectory) {
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         try {
 
             List<AbstractFile> absFiles = fileManager.findFiles(dataSource, "mmssms.db"); //NON-NLS
             for (AbstractFile abstractFile : absFiles) {
                 try {
-                    File jFile = new File(Case.getCurrentCase().getTempDirectory(), abstractFile.getName());
+                    File jFile = new File(tempDirectory, abstractFile.getName());
                     ContentUtils.writeToFile(abstractFile, jFile);
                     findTextsInDB(jFile.toString(), abstractFile);
                 } catch (Exception e) {
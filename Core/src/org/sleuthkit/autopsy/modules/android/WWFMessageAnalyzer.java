@@ -50,7 +50,7 @@ class WWFMessageAnalyzer {
     private static final Logger logger = Logger.getLogger(WWFMessageAnalyzer.class.getName());
     private static Blackboard blackboard;
 
-    public static void findWWFMessages(Content dataSource, FileManager fileManager) {
+    public static void findWWFMessages(Content dataSource, FileManager fileManager, String tempDirectory) {
         List<AbstractFile> absFiles;
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         try {
@@ -58,7 +58,7 @@ public static void findWWFMessages(Content dataSource, FileManager fileManager)
 
             for (AbstractFile abstractFile : absFiles) {
                 try {
-                    File jFile = new File(Case.getCurrentCase().getTempDirectory(), abstractFile.getName());
+                    File jFile = new File(tempDirectory, abstractFile.getName());
                     ContentUtils.writeToFile(abstractFile, jFile);
 
                     findWWFMessagesInDB(jFile.toString(), abstractFile);
@@ -18,12 +18,8 @@
  */
 package org.sleuthkit.autopsy.modules.e01verify;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.logging.Level;
-import javax.xml.bind.DatatypeConverter;
 import org.openide.util.NbBundle;
-import org.python.bouncycastle.util.Arrays;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.ingest.DataSourceIngestModule;
 import org.sleuthkit.autopsy.ingest.DataSourceIngestModuleProgress;
@@ -31,6 +27,8 @@
 import org.sleuthkit.autopsy.ingest.IngestMessage;
 import org.sleuthkit.autopsy.ingest.IngestMessage.MessageType;
 import org.sleuthkit.autopsy.ingest.IngestServices;
+import org.sleuthkit.datamodel.BlackboardArtifact;
+import org.sleuthkit.datamodel.BlackboardAttribute;
 import org.sleuthkit.datamodel.Content;
 import org.sleuthkit.datamodel.Image;
 import org.sleuthkit.datamodel.TskCoreException;
@@ -39,19 +37,22 @@
 /**
  * Data source ingest module that verifies the integrity of an Expert Witness
  * Format (EWF) E01 image file by generating a hash of the file and comparing it
- * to the value stored in the image.
+ * to the value stored in the image. The MD5 and SHA-1 hashes of other images,
+ * such as raw and split raw images, are calculated as well. The calculated
+ * hashes are saved to the case as a general info artifact of the image.
  */
 public class E01VerifyIngestModule implements DataSourceIngestModule {
 
     private static final Logger logger = Logger.getLogger(E01VerifyIngestModule.class.getName());
-    private static final long DEFAULT_CHUNK_SIZE = 32 * 1024;
+    private static final int READ_SIZE = 8 * 1024 * 1024;
+    private static final int READ_BUFFER_COUNT = 4;
     private static final IngestServices services = IngestServices.getInstance();
 
-    private MessageDigest messageDigest;
     private boolean verified = false;
     private String calculatedHash = "";
     private String storedHash = "";
     private IngestJobContext context;
+    private int readsHashed;
 
     E01VerifyIngestModule() {
     }
@@ -62,14 +63,6 @@ public void startUp(IngestJobContext context) throws IngestModuleException {
         verified = false;
         storedHash = "";
         calculatedHash = "";
-
-        try {
-            messageDigest = MessageDigest.getInstance("MD5"); //NON-NLS
-        } catch (NoSuchAlgorithmException ex) {
-            logger.log(Level.WARNING, "Error getting md5 algorithm", ex); //NON-NLS
-            throw new RuntimeException(
-                    NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.startUp.exception.failGetMd5"));
-        }
     }
 
     @Override
@@ -81,35 +74,29 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
             logger.log(Level.INFO, "Skipping non-image {0}", imgName); //NON-NLS
             services.postMessage(IngestMessage.createMessage(MessageType.INFO, E01VerifierModuleFactory.getModuleName(),
                     NbBundle.getMessage(this.getClass(),
-                            "EwfVerifyIngestModule.process.skipNonEwf",
+                            "EwfVerifyIngestModule.process.skipNonImage",
                             imgName)));
             return ProcessResult.OK;
         }
         Image img = (Image) dataSource;
 
-        // Skip images that are not E01
-        if (img.getType() != TskData.TSK_IMG_TYPE_ENUM.TSK_IMG_TYPE_EWF_EWF) {
-            logger.log(Level.INFO, "Skipping non-ewf image {0}", imgName); //NON-NLS
-            services.postMessage(IngestMessage.createMessage(MessageType.INFO, E01VerifierModuleFactory.getModuleName(),
-                    NbBundle.getMessage(this.getClass(),
-                            "EwfVerifyIngestModule.process.skipNonEwf",
-                            imgName)));
-            return ProcessResult.OK;
-        }
+        // Only E01 images have a stored hash to verify
+        boolean isEwf = (img.getType() == TskData.TSK_IMG_TYPE_ENUM.TSK_IMG_TYPE_EWF_EWF);
+        if (isEwf) {
+            // Report an error for null or empty MD5
+            if ((img.getMd5() == null) || img.getMd5().isEmpty()) {
+                services.postMessage(IngestMessage.createMessage(MessageType.ERROR, E01VerifierModuleFactory.getModuleName(),
+                        NbBundle.getMessage(this.getClass(),
+                                "EwfVerifyIngestModule.process.noStoredHash",
+                                imgName)));
+                return ProcessResult.ERROR;
+            }
 
-        // Report an error for null or empty MD5
-        if ((img.getMd5() == null) || img.getMd5().isEmpty()) {
-            services.postMessage(IngestMessage.createMessage(MessageType.ERROR, E01VerifierModuleFactory.getModuleName(),
-                    NbBundle.getMessage(this.getClass(),
-                            "EwfVerifyIngestModule.process.noStoredHash",
-                            imgName)));
-            return ProcessResult.ERROR;
+            storedHash = img.getMd5().toLowerCase();
+            logger.log(Level.INFO, "Hash value stored in {0}: {1}", new Object[]{imgName, storedHash}); //NON-NLS
         }
-        
-        storedHash = img.getMd5().toLowerCase();
-        logger.log(Level.INFO, "Hash value stored in {0}: {1}", new Object[]{imgName, storedHash}); //NON-NLS
 
-        logger.log(Level.INFO, "Starting hash verification of {0}", img.getName()); //NON-NLS
+        logger.log(Level.INFO, "Starting hash calculation of {0}", img.getName()); //NON-NLS
         services.postMessage(IngestMessage.createMessage(MessageType.INFO, E01VerifierModuleFactory.getModuleName(),
                 NbBundle.getMessage(this.getClass(),
                         "EwfVerifyIngestModule.process.startingImg",
@@ -122,66 +109,100 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
                     NbBundle.getMessage(this.getClass(),
                             "EwfVerifyIngestModule.process.errGetSizeOfImg",
                             imgName)));
+            return ProcessResult.ERROR;
         }
 
-        // Libewf uses a sector size of 64 times the sector size, which is the
-        // motivation for using it here.
-        long chunkSize = 64 * img.getSsize();
-        chunkSize = (chunkSize == 0) ? DEFAULT_CHUNK_SIZE : chunkSize;
-
-        // Casting to double to capture decimals
-        int totalChunks = (int) Math.ceil((double)size / (double)chunkSize);
-        logger.log(Level.INFO, "Total chunks = {0}", totalChunks); //NON-NLS
-        int read;
-
-        byte[] data = new byte[(int) chunkSize];
-        statusHelper.switchToDeterminate(totalChunks);
-
-        // Read in byte size chunks and update the hash value with the data.
-        for (int i = 0; i < totalChunks; i++) {
-            if (context.dataSourceIngestIsCancelled()) {
-                return ProcessResult.OK;
-            }
-            try {
-                read = img.read(data, i * chunkSize, chunkSize);
-            } catch (TskCoreException ex) {
-                String msg = NbBundle.getMessage(this.getClass(),
-                        "EwfVerifyIngestModule.process.errReadImgAtChunk", imgName, i);
-                services.postMessage(IngestMessage.createMessage(MessageType.ERROR, E01VerifierModuleFactory.getModuleName(), msg));
-                logger.log(Level.SEVERE, msg, ex);
-                return ProcessResult.ERROR;
-            }
-            
-            // Only update with the read bytes.
-            if(read == chunkSize) {
-                messageDigest.update(data);
-            } else {
-                byte[] subData = Arrays.copyOfRange(data, 0, read);
-                messageDigest.update(subData);
-            }
-            statusHelper.progress(i);
+        // Read in multi-megabyte reads on a reader thread while this thread
+        // hashes the data that has already been read.
+        ImageHasher hasher = new ImageHasher(img, READ_SIZE, READ_BUFFER_COUNT);
+        int totalReads = hasher.getReadCount();
+        logger.log(Level.INFO, "Total reads = {0}", totalReads); //NON-NLS
+        statusHelper.switchToDeterminate(totalReads);
+        readsHashed = 0;
+        ImageHasher.Hashes hashes;
+        try {
+            hashes = hasher.calculateHashes(context::dataSourceIngestIsCancelled, (reads) -> {
+                readsHashed = reads;
+                statusHelper.progress(reads);
+            });
+        } catch (TskCoreException ex) {
+            String msg = NbBundle.getMessage(this.getClass(),
+                    "EwfVerifyIngestModule.process.errReadImgAtChunk", imgName, readsHashed);
+            services.postMessage(IngestMessage.createMessage(MessageType.ERROR, E01VerifierModuleFactory.getModuleName(), msg));
+            logger.log(Level.SEVERE, msg, ex);
+            return ProcessResult.ERROR;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return ProcessResult.OK;
         }
-
-        // Finish generating the hash and get it as a string value
-        calculatedHash = DatatypeConverter.printHexBinary(messageDigest.digest()).toLowerCase();
-        verified = calculatedHash.equals(storedHash);
-        logger.log(Level.INFO, "Hash calculated from {0}: {1}", new Object[]{imgName, calculatedHash}); //NON-NLS
+        if (hashes == null) {
+            // Cancelled
+            return ProcessResult.OK;
+        }
+        calculatedHash = hashes.getMd5();
+        logger.log(Level.INFO, "Hashes calculated from {0}: MD5 {1}, SHA-1 {2}", new Object[]{imgName, hashes.getMd5(), hashes.getSha1()}); //NON-NLS
+        saveHashes(img, hashes);
 
         logger.log(Level.INFO, "complete() {0}", E01VerifierModuleFactory.getModuleName()); //NON-NLS
         String msg;
-        if (verified) {
-            msg = NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.verified");
+        String extra;
+        if (isEwf) {
+            verified = calculatedHash.equals(storedHash);
+            if (verified) {
+                msg = NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.verified");
+            } else {
+                msg = NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.notVerified");
+            }
+            extra = NbBundle
+                    .getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.verifyResultsHeader", imgName);
+            extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.resultLi", msg);
+            extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.calcHashLi", calculatedHash);
+            extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.calcSha1HashLi", hashes.getSha1());
+            extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.storedHashLi", storedHash);
         } else {
-            msg = NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.notVerified");
+            msg = NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.hashesCalculated");
+            extra = NbBundle
+                    .getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.hashResultsHeader", imgName);
+            extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.calcHashLi", calculatedHash);
+            extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.calcSha1HashLi", hashes.getSha1());
         }
-        String extra = NbBundle
-                .getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.verifyResultsHeader", imgName);
-        extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.resultLi", msg);
-        extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.calcHashLi", calculatedHash);
-        extra += NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.shutDown.storedHashLi", storedHash);
         services.postMessage(IngestMessage.createMessage(MessageType.INFO, E01VerifierModuleFactory.getModuleName(), imgName + msg, extra));
         logger.log(Level.INFO, "{0}{1}", new Object[]{imgName, msg});
 
         return ProcessResult.OK;
     }
+
+    /**
+     * Saves the calculated hashes of an image to the general info artifact of
+     * the image, unless an earlier run already saved them. No event is fired
+     * because general info artifacts are not displayed in the results tree.
+     *
+     * @param img    The image.
+     * @param hashes The calculated hashes.
+     */
+    private void saveHashes(Image img, ImageHasher.Hashes hashes) {
+        String moduleName = E01VerifierModuleFactory.getModuleName();
+        try {
+            BlackboardArtifact artifact = img.getGenInfoArtifact();
+            boolean hasMd5 = false;
+            boolean hasSha1 = false;
+            for (BlackboardAttribute attribute : artifact.getAttributes()) {
+                if (attribute.getAttributeTypeID() == BlackboardAttribute.ATTRIBUTE_TYPE.TSK_HASH_MD5.getTypeID()) {
+                    hasMd5 = true;
+                } else if (attribute.getAttributeTypeID() == BlackboardAttribute.ATTRIBUTE_TYPE.TSK_HASH_SHA1.getTypeID()) {
+                    hasSha1 = true;
+                }
+            }
+            if (hasMd5 == false) {
+                artifact.addAttribute(new BlackboardAttribute(BlackboardAttribute.ATTRIBUTE_TYPE.TSK_HASH_MD5.getTypeID(), moduleName, hashes.getMd5()));
+            }
+            if (hasSha1 == false) {
+                artifact.addAttribute(new BlackboardAttribute(BlackboardAttribute.ATTRIBUTE_TYPE.TSK_HASH_SHA1.getTypeID(), moduleName, hashes.getSha1()));
+            }
+        } catch (TskCoreException ex) {
+            String msg = NbBundle.getMessage(this.getClass(), "EwfVerifyIngestModule.process.errSaveHashes", img.getName());
+            services.postMessage(IngestMessage.createMessage(MessageType.ERROR, moduleName, msg));
+            logger.log(Level.SEVERE, msg, ex);
+        }
+    }
 }
@@ -0,0 +1,239 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.modules.e01verify;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import javax.xml.bind.DatatypeConverter;
+import org.sleuthkit.datamodel.Image;
+import org.sleuthkit.datamodel.TskCoreException;
+
+/**
+ * Calculates the MD5 and SHA-1 hashes of an image. A reader thread reads the
+ * image in large reads into a ring of reusable buffers while the calling
+ * thread updates both digests from the buffers that have been filled, so that
+ * reading and hashing overlap.
+ */
+final class ImageHasher {
+
+    private static final int MIN_READ_SIZE = 32 * 1024;
+    private static final long POLL_INTERVAL_MS = 500;
+    private final Image image;
+    private final int readSize;
+    private final int bufferCount;
+
+    /**
+     * Constructs an image hasher.
+     *
+     * @param image       The image.
+     * @param readSize    The number of bytes to read at a time, rounded down
+     *                    to a multiple of the sector size of the image.
+     * @param bufferCount The number of buffers in the ring, at least two.
+     */
+    ImageHasher(Image image, int readSize, int bufferCount) {
+        this.image = image;
+        long sectorSize = image.getSsize();
+        if (sectorSize > 0 && readSize > sectorSize) {
+            readSize -= readSize % sectorSize;
+        }
+        this.readSize = Math.max(MIN_READ_SIZE, readSize);
+        this.bufferCount = Math.max(2, bufferCount);
+    }
+
+    /**
+     * Gets the number of reads needed to read the whole image.
+     *
+     * @return The number of reads.
+     */
+    int getReadCount() {
+        return (int) ((image.getSize() + readSize - 1) / readSize);
+    }
+
+    /**
+     * Calculates the hashes of the image.
+     *
+     * @param cancelled Queried before each buffer is hashed, and while waiting
+     *                  for the reader thread, returns true to stop hashing.
+     * @param progress  Called with the number of reads hashed so far.
+     *
+     * @return The hashes, null if hashing was cancelled.
+     *
+     * @throws TskCoreException     if there is an error reading the image, or
+     *                              the image ends before its size.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    Hashes calculateHashes(BooleanSupplier cancelled, IntConsumer progress) throws TskCoreException, InterruptedException {
+        MessageDigest md5;
+        MessageDigest sha1;
+        try {
+            md5 = MessageDigest.getInstance("MD5"); //NON-NLS
+            sha1 = MessageDigest.getInstance("SHA-1"); //NON-NLS
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 and SHA-1 are required of every Java platform", ex); //NON-NLS
+        }
+
+        BlockingQueue<Buffer> emptyBuffers = new ArrayBlockingQueue<>(bufferCount);
+        BlockingQueue<Buffer> filledBuffers = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            emptyBuffers.add(new Buffer(readSize));
+        }
+        ExecutorService readerExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("image-hasher-reader-%d").build()); //NON-NLS
+        try {
+            Future<?> reader = readerExecutor.submit(() -> {
+                try {
+                    readImage(emptyBuffers, filledBuffers);
+                } catch (RuntimeException ex) {
+                    Buffer errorBuffer = new Buffer(0);
+                    errorBuffer.error = new TskCoreException("Error reading image " + image.getName(), ex); //NON-NLS
+                    filledBuffers.put(errorBuffer);
+                }
+                return null;
+            });
+            int readsHashed = 0;
+            while (true) {
+                Buffer buffer = takeFilledBuffer(filledBuffers, reader, cancelled);
+                if (buffer == null) {
+                    reader.cancel(true);
+                    return null;
+                }
+                if (buffer.error != null) {
+                    throw buffer.error;
+                }
+                if (buffer.length <= 0) {
+                    break;
+                }
+                md5.update(buffer.data, 0, buffer.length);
+                sha1.update(buffer.data, 0, buffer.length);
+                emptyBuffers.put(buffer);
+                progress.accept(++readsHashed);
+            }
+        } finally {
+            readerExecutor.shutdownNow();
+        }
+        return new Hashes(toHex(md5.digest()), toHex(sha1.digest()));
+    }
+
+    /**
+     * Waits for the next filled buffer, checking for cancellation and for a
+     * reader thread that stopped without queuing a buffer while waiting.
+     *
+     * @return The buffer, null if hashing was cancelled.
+     *
+     * @throws TskCoreException     if the reader thread stopped before the end
+     *                              of the image.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    private Buffer takeFilledBuffer(BlockingQueue<Buffer> filledBuffers, Future<?> reader, BooleanSupplier cancelled) throws TskCoreException, InterruptedException {
+        while (true) {
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+            Buffer buffer = filledBuffers.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if (buffer != null) {
+                return buffer;
+            }
+            if (reader.isDone()) {
+                buffer = filledBuffers.poll();
+                if (buffer != null) {
+                    return buffer;
+                }
+                throw new TskCoreException("Reading of image " + image.getName() + " stopped before the end of the image"); //NON-NLS
+            }
+        }
+    }
+
+    /**
+     * Reads the image into the empty buffers and queues them to be hashed.
+     * Queues a buffer with no data at the end of the image, or with the error
+     * if a read fails or returns no data before the end of the image.
+     */
+    private void readImage(BlockingQueue<Buffer> emptyBuffers, BlockingQueue<Buffer> filledBuffers) throws InterruptedException {
+        long size = image.getSize();
+        long offset = 0;
+        while (offset < size) {
+            Buffer buffer = emptyBuffers.take();
+            try {
+                buffer.length = image.read(buffer.data, offset, Math.min(readSize, size - offset));
+            } catch (TskCoreException ex) {
+                buffer.error = ex;
+                filledBuffers.put(buffer);
+                return;
+            }
+            if (buffer.length <= 0) {
+                buffer.error = new TskCoreException("Unable to read image " + image.getName() + " at offset " + offset + " of " + size); //NON-NLS
+                filledBuffers.put(buffer);
+                return;
+            }
+            offset += buffer.length;
+            filledBuffers.put(buffer);
+        }
+        Buffer endOfImage = emptyBuffers.take();
+        endOfImage.length = 0;
+        filledBuffers.put(endOfImage);
+    }
+
+    private static String toHex(byte[] digest) {
+        return DatatypeConverter.printHexBinary(digest).toLowerCase();
+    }
+
+    /**
+     * A buffer in the ring, with the number of bytes read into it.
+     */
+    private static final class Buffer {
+
+        private final byte[] data;
+        private int length;
+        private TskCoreException error;
+
+        Buffer(int size) {
+            this.data = new byte[size];
+        }
+    }
+
+    /**
+     * The hashes of an image, as lower case hex strings.
+     */
+    static final class Hashes {
+
+        private final String md5;
+        private final String sha1;
+
+        Hashes(String md5, String sha1) {
+            this.md5 = md5;
+            this.sha1 = sha1;
+        }
+
+        String getMd5() {
+            return md5;
+        }
+
+        String getSha1() {
+            return sha1;
+        }
+    }
+}
@@ -24,7 +24,7 @@
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.ingest.IngestServices;
 import org.sleuthkit.datamodel.AbstractFile;
-import org.sleuthkit.autopsy.ingest.FileIngestModule;
+import org.sleuthkit.autopsy.ingest.IndependentFileIngestModule;
 import org.sleuthkit.datamodel.TskData;
 import org.sleuthkit.autopsy.ingest.IngestModule.ProcessResult;
 import org.sleuthkit.autopsy.ingest.IngestJobContext;
@@ -38,7 +38,7 @@
  * archives and documents, adds extracted embedded DerivedFiles, reschedules
  * extracted DerivedFiles for ingest.
  */
-public final class EmbeddedFileExtractorIngestModule implements FileIngestModule {
+public final class EmbeddedFileExtractorIngestModule implements IndependentFileIngestModule {
 
     private static final Logger logger = Logger.getLogger(EmbeddedFileExtractorIngestModule.class.getName());
     private final IngestServices services = IngestServices.getInstance();
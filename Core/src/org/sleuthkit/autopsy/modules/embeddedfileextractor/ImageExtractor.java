@@ -40,6 +40,7 @@
 import org.apache.poi.xwpf.usermodel.XWPFPictureData;
 import org.openide.util.NbBundle;
 import org.sleuthkit.autopsy.casemodule.Case;
+import org.sleuthkit.autopsy.casemodule.services.DerivedFileStore;
 import org.sleuthkit.autopsy.casemodule.services.FileManager;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.ingest.IngestJobContext;
@@ -47,6 +48,7 @@
 import org.sleuthkit.autopsy.ingest.ModuleContentEvent;
 import org.sleuthkit.autopsy.modules.filetypeid.FileTypeDetector;
 import org.sleuthkit.datamodel.AbstractFile;
+import org.sleuthkit.datamodel.DerivedFile;
 import org.sleuthkit.datamodel.ReadContentInputStream;
 import org.sleuthkit.datamodel.TskCoreException;
 
@@ -182,11 +184,15 @@ void extractImage(AbstractFile abstractFile) {
         }
         // the common task of adding abstractFile to derivedfiles is performed.
         listOfExtractedImageAbstractFiles = new ArrayList<>();
+        DerivedFileStore derivedFileStore = Case.getCurrentCase().getServices().getDerivedFileStore();
         for (ExtractedImage extractedImage : listOfExtractedImages) {
             try {
-                listOfExtractedImageAbstractFiles.add(fileManager.addDerivedFile(extractedImage.getFileName(), extractedImage.getLocalPath(), extractedImage.getSize(),
+                // images that have already been extracted elsewhere in the case share the earlier copy
+                DerivedFileStore.StoredPayload payload = derivedFileStore.store(extractedImage.getLocalPath());
+                DerivedFile derivedFile = fileManager.addDerivedFile(extractedImage.getFileName(), payload.getLocalPath(), extractedImage.getSize(),
                         extractedImage.getCtime(), extractedImage.getCrtime(), extractedImage.getAtime(), extractedImage.getAtime(),
-                        true, abstractFile, null, EmbeddedFileExtractorModuleFactory.getModuleName(), null, null));
+                        true, abstractFile, null, EmbeddedFileExtractorModuleFactory.getModuleName(), null, null);
+                listOfExtractedImageAbstractFiles.add(derivedFile);
             } catch (TskCoreException ex) {
                 logger.log(Level.WARNING, NbBundle.getMessage(this.getClass(), "EmbeddedFileExtractorIngestModule.ImageExtractor.extractImage.addToDB.exception.msg"), ex); //NON-NLS
             }
@@ -26,13 +26,25 @@
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.logging.Level;
+import javax.xml.bind.DatatypeConverter;
 import net.sf.sevenzipjbinding.ArchiveFormat;
 import static net.sf.sevenzipjbinding.ArchiveFormat.RAR;
+import net.sf.sevenzipjbinding.ExtractAskMode;
+import net.sf.sevenzipjbinding.ExtractOperationResult;
+import net.sf.sevenzipjbinding.IArchiveExtractCallback;
 import net.sf.sevenzipjbinding.ISequentialOutStream;
 import net.sf.sevenzipjbinding.ISevenZipInArchive;
 import net.sf.sevenzipjbinding.SevenZip;
@@ -45,6 +57,7 @@
 import org.openide.util.NbBundle;
 import org.sleuthkit.autopsy.casemodule.Case;
 import org.sleuthkit.autopsy.casemodule.services.Blackboard;
+import org.sleuthkit.autopsy.casemodule.services.DerivedFileStore;
 import org.sleuthkit.autopsy.casemodule.services.FileManager;
 import org.sleuthkit.autopsy.coreutils.FileUtil;
 import org.sleuthkit.autopsy.coreutils.Logger;
@@ -375,7 +388,10 @@ void unpack(AbstractFile archiveFile) {
 
             long freeDiskSpace = services.getFreeDiskSpace();
 
-            //unpack and process every item in archive
+            //the files to unpack in one pass after all items have been checked, by item index
+            SortedMap<Integer, SevenZipExtractor.UnpackItem> itemsToUnpack = new TreeMap<>();
+
+            //check every item in archive and set up its local file
             int itemNumber = 0;
             for (ISimpleInArchiveItem item : simpleInArchive.getArchiveItems()) {
                 String pathInArchive = item.getPath();
@@ -513,36 +529,25 @@ void unpack(AbstractFile archiveFile) {
                 final long modtime = writeTime == null ? 0L : writeTime.getTime() / 1000;
                 final long accesstime = accessTime == null ? 0L : accessTime.getTime() / 1000;
 
-                //unpack locally if a file
-                SevenZipExtractor.UnpackStream unpackStream = null;
+                //queue a file to be unpacked locally
                 if (!isDir) {
-                    try {
-                        if (size != null) {
-                            unpackStream = new SevenZipExtractor.KnownSizeUnpackStream(localAbsPath, size);
-                        } else {
-                            unpackStream = new SevenZipExtractor.UnknownSizeUnpackStream(localAbsPath, freeDiskSpace);
-                        }
-                        item.extractSlow(unpackStream);
-                    } catch (Exception e) {
-                        //could be something unexpected with this file, move on
-                        logger.log(Level.WARNING, "Could not extract file from archive: " + localAbsPath, e); //NON-NLS
-                    } finally {
-                        if (unpackStream != null) {
-                            //record derived data in unode, to be traversed later after unpacking the archive
-                            unpackedNode.addDerivedInfo(unpackStream.getSize(), !isDir,
-                                    0L, createtime, accesstime, modtime, localRelPath);
-                            unpackStream.close();
-                        }
-                    }
+                    itemsToUnpack.put(item.getItemIndex(), new SevenZipExtractor.UnpackItem(unpackedNode, size,
+                            createtime, accesstime, modtime, localRelPath, localAbsPath));
                 } else { // this is a directory, size is always 0
                     unpackedNode.addDerivedInfo(0, !isDir,
                             0L, createtime, accesstime, modtime, localRelPath);
+                    //update units for progress bar
+                    ++processedItems;
                 }
-
-                //update units for progress bar
-                ++processedItems;
             }
 
+            //unpack all the queued files in one pass over the archive, so
+            //that solid blocks are only decompressed once. Files whose content
+            //has already been extracted elsewhere in the case share its copy.
+            DerivedFileStore derivedFileStore = Case.getCurrentCase().getServices().getDerivedFileStore();
+            SevenZipExtractor.UnpackCallback unpackCallback = new SevenZipExtractor.UnpackCallback(archiveFile.getName(), itemsToUnpack, freeDiskSpace, progress, processedItems, derivedFileStore);
+            unpackCallback.unpackAll(inArchive);
+
             // add them to the DB. We wait until the end so that we have the metadata on all of the
             // intermediate nodes since the order is not guaranteed
             try {
@@ -633,6 +638,192 @@ void unpack(AbstractFile archiveFile) {
         }
     }
 
+    /**
+     * An archive file item that has passed the checks and is queued to be
+     * unpacked, with the information needed to record it in the unpacked tree.
+     */
+    private static class UnpackItem {
+
+        private final SevenZipExtractor.UnpackedTree.UnpackedNode unpackedNode;
+        private final Long size;
+        private final long createtime;
+        private final long accesstime;
+        private final long modtime;
+        private final String localRelPath;
+        private final String localAbsPath;
+
+        UnpackItem(SevenZipExtractor.UnpackedTree.UnpackedNode unpackedNode, Long size, long createtime, long accesstime, long modtime, String localRelPath, String localAbsPath) {
+            this.unpackedNode = unpackedNode;
+            this.size = size;
+            this.createtime = createtime;
+            this.accesstime = accesstime;
+            this.modtime = modtime;
+            this.localRelPath = localRelPath;
+            this.localAbsPath = localAbsPath;
+        }
+    }
+
+    /**
+     * Callback used to unpack the queued items of an archive with a single
+     * IInArchive.extract() call. 7-Zip asks for an output stream for each item
+     * in index order while it decompresses the archive sequentially, so each
+     * solid block is decompressed only once, rather than once per item as with
+     * ISimpleInArchiveItem.extractSlow().
+     */
+    private static class UnpackCallback implements IArchiveExtractCallback {
+
+        private final String archiveName;
+        private final SortedMap<Integer, SevenZipExtractor.UnpackItem> items;
+        private final ProgressHandle progress;
+        private final Set<Integer> finishedItems = new HashSet<>();
+        private final DerivedFileStore derivedFileStore;
+        private long freeDiskSpace;
+        private int processedItems;
+        private int currentIndex;
+        private SevenZipExtractor.UnpackStream currentStream;
+
+        /**
+         * @param archiveName    name of the archive, for the progress bar
+         * @param items          the items to unpack, by item index
+         * @param freeDiskSpace  the estimated free disk space
+         * @param progress       the progress bar
+         * @param processedItems   the number of items already processed
+         * @param derivedFileStore the store for the unpacked files
+         */
+        UnpackCallback(String archiveName, SortedMap<Integer, SevenZipExtractor.UnpackItem> items, long freeDiskSpace, ProgressHandle progress, int processedItems, DerivedFileStore derivedFileStore) {
+            this.archiveName = archiveName;
+            this.items = items;
+            this.freeDiskSpace = freeDiskSpace;
+            this.progress = progress;
+            this.processedItems = processedItems;
+            this.derivedFileStore = derivedFileStore;
+        }
+
+        /**
+         * Unpack all the items. If an item cannot be unpacked, it is skipped
+         * and unpacking continues with the items after it. Items that 7-Zip
+         * never asked for are recorded as empty files with their own local
+         * path, like items that failed while being unpacked.
+         *
+         * @param inArchive the open archive
+         */
+        void unpackAll(ISevenZipInArchive inArchive) {
+            List<Integer> remaining = new ArrayList<>(items.keySet());
+            try {
+                while (!remaining.isEmpty()) {
+                    int[] indices = new int[remaining.size()];
+                    for (int i = 0; i < indices.length; i++) {
+                        indices[i] = remaining.get(i);
+                    }
+                    try {
+                        inArchive.extract(indices, false, this);
+                    } catch (SevenZipException ex) {
+                        //could be something unexpected with this file, move on
+                        String localAbsPath = currentStream != null ? currentStream.getLocalAbsPath() : archiveName;
+                        logger.log(Level.WARNING, "Could not extract file from archive: " + localAbsPath, ex); //NON-NLS
+                    } finally {
+                        finishCurrentItem(false);
+                    }
+                    int remainingCount = remaining.size();
+                    remaining.removeAll(finishedItems);
+                    if (remaining.size() == remainingCount) {
+                        //7-Zip did not ask for any more of the items, give up on them
+                        break;
+                    }
+                }
+            } finally {
+                finishSkippedItems();
+            }
+        }
+
+        /**
+         * Record the derived data of the items that were never unpacked, so
+         * that they are added to the case as the empty files left on disk
+         * rather than with the defaults of their unpacked nodes.
+         */
+        private void finishSkippedItems() {
+            for (Map.Entry<Integer, SevenZipExtractor.UnpackItem> entry : items.entrySet()) {
+                if (finishedItems.contains(entry.getKey())) {
+                    continue;
+                }
+                SevenZipExtractor.UnpackItem item = entry.getValue();
+                logger.log(Level.WARNING, "File was not extracted from archive: {0}", item.localAbsPath); //NON-NLS
+                item.unpackedNode.addDerivedInfo(0, true,
+                        0L, item.createtime, item.accesstime, item.modtime, item.localRelPath);
+                finishedItems.add(entry.getKey());
+                //update units for progress bar
+                ++processedItems;
+            }
+        }
+
+        @Override
+        public ISequentialOutStream getStream(int index, ExtractAskMode extractAskMode) throws SevenZipException {
+            finishCurrentItem(false);
+            SevenZipExtractor.UnpackItem item = items.get(index);
+            if (extractAskMode != ExtractAskMode.EXTRACT || item == null) {
+                return null;
+            }
+            currentIndex = index;
+            if (item.size != null) {
+                currentStream = new SevenZipExtractor.KnownSizeUnpackStream(item.localAbsPath, item.size);
+            } else {
+                currentStream = new SevenZipExtractor.UnknownSizeUnpackStream(item.localAbsPath, freeDiskSpace);
+            }
+            progress.progress(archiveName + ": " + item.unpackedNode.getFileName(), processedItems);
+            return currentStream;
+        }
+
+        @Override
+        public void prepareOperation(ExtractAskMode extractAskMode) throws SevenZipException {
+        }
+
+        @Override
+        public void setOperationResult(ExtractOperationResult extractOperationResult) throws SevenZipException {
+            if (extractOperationResult != ExtractOperationResult.OK && currentStream != null) {
+                logger.log(Level.WARNING, "Error extracting file from archive: {0}, result: {1}", new Object[]{currentStream.getLocalAbsPath(), extractOperationResult}); //NON-NLS
+            }
+            finishCurrentItem(extractOperationResult == ExtractOperationResult.OK);
+        }
+
+        @Override
+        public void setTotal(long total) throws SevenZipException {
+        }
+
+        @Override
+        public void setCompleted(long completeValue) throws SevenZipException {
+        }
+
+        /**
+         * Close the stream of the item being unpacked, if any, and record its
+         * derived data in its unpacked node, to be traversed later after
+         * unpacking the archive. An item that was unpacked completely is put
+         * in the derived file store, which may replace its local copy with an
+         * earlier copy of the same content.
+         *
+         * @param succeeded true if the item was unpacked completely
+         */
+        private void finishCurrentItem(boolean succeeded) {
+            if (currentStream == null) {
+                return;
+            }
+            SevenZipExtractor.UnpackItem item = items.get(currentIndex);
+            currentStream.close();
+            String localRelPath = item.localRelPath;
+            if (succeeded) {
+                localRelPath = derivedFileStore.store(item.localRelPath, currentStream.getMd5Hash()).getLocalPath();
+            }
+            item.unpackedNode.addDerivedInfo(currentStream.getSize(), true,
+                    0L, item.createtime, item.accesstime, item.modtime, localRelPath);
+            if (item.size == null && freeDiskSpace != IngestMonitor.DISK_FREE_SPACE_UNKNOWN) {
+                freeDiskSpace -= currentStream.getSize();
+            }
+            currentStream = null;
+            finishedItems.add(currentIndex);
+            //update units for progress bar
+            ++processedItems;
+        }
+    }
+
     /**
      * Stream used to unpack the archive to local file
      */
@@ -640,17 +831,41 @@ private abstract static class UnpackStream implements ISequentialOutStream {
 
         private OutputStream output;
         private String localAbsPath;
+        private MessageDigest md5;
 
         UnpackStream(String localAbsPath) {
             this.localAbsPath = localAbsPath;
+            try {
+                md5 = MessageDigest.getInstance("MD5"); //NON-NLS
+            } catch (NoSuchAlgorithmException ex) {
+                logger.log(Level.WARNING, "Error getting MD5 digest, not hashing extracted file: " + localAbsPath, ex); //NON-NLS
+            }
             try {
                 output = new BufferedOutputStream(new FileOutputStream(localAbsPath));
+                if (md5 != null) {
+                    // hash the content as it is written
+                    output = new DigestOutputStream(output, md5);
+                }
             } catch (FileNotFoundException ex) {
                 logger.log(Level.SEVERE, "Error writing extracted file: " + localAbsPath, ex); //NON-NLS
             }
 
         }
 
+        /**
+         * Get the MD5 hash of the content written to the stream. Only valid
+         * once all of the content has been written.
+         *
+         * @return the hash as a lowercase hex string, or null if the content
+         *         was not hashed
+         */
+        String getMd5Hash() {
+            if (md5 == null || output == null) {
+                return null;
+            }
+            return DatatypeConverter.printHexBinary(md5.digest()).toLowerCase();
+        }
+
         public abstract long getSize();
 
         OutputStream getOutput() {
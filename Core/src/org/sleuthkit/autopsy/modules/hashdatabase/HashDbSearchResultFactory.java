@@ -18,6 +18,7 @@
  */
 package org.sleuthkit.autopsy.modules.hashdatabase;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import org.openide.nodes.ChildFactory;
@@ -28,20 +29,33 @@
 
 /**
  * Factory class to create a KeyValueFileNode for each KeyValueContent in the
- * Collection.
+ * Collection. The keys are added in batches, so that the first results are
+ * shown while the nodes for the rest are still being created.
  */
 class HashDbSearchResultFactory extends ChildFactory<AbstractFile> {
 
-    Collection<AbstractFile> kvContents;
+    private static final int KEYS_PER_BATCH = 1000;
+    private final List<AbstractFile> kvContents;
+    private int keysAdded;
 
     HashDbSearchResultFactory(Collection<AbstractFile> kvContents) {
-        this.kvContents = kvContents;
+        this.kvContents = new ArrayList<>(kvContents);
     }
 
     @Override
     protected boolean createKeys(List<AbstractFile> toPopulate) {
-        toPopulate.addAll(kvContents);
-        return true;
+        /*
+         * Returning false has the keys added so far shown, and this method
+         * called again with the same list for the next batch. The keys are
+         * created again from the start with a new list.
+         */
+        if (toPopulate.isEmpty()) {
+            keysAdded = 0;
+        }
+        int batchEnd = Math.min(keysAdded + KEYS_PER_BATCH, kvContents.size());
+        toPopulate.addAll(kvContents.subList(keysAdded, batchEnd));
+        keysAdded = batchEnd;
+        return keysAdded == kvContents.size();
     }
 
     @Override
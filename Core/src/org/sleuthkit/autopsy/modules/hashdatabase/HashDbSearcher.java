@@ -18,16 +18,22 @@
  */
 package org.sleuthkit.autopsy.modules.hashdatabase;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
 import javax.swing.SwingWorker;
 import org.netbeans.api.progress.ProgressHandle;
 import org.sleuthkit.autopsy.casemodule.Case;
+import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.datamodel.AbstractFile;
 import org.sleuthkit.datamodel.FsContent;
 import org.sleuthkit.datamodel.SleuthkitCase;
+import org.sleuthkit.datamodel.TskCoreException;
 
 /**
  * Searches by MD5 hash to find all files with the same hash, and subsequently
@@ -35,6 +41,14 @@
  */
 class HashDbSearcher {
 
+    private static final Logger logger = Logger.getLogger(HashDbSearcher.class.getName());
+
+    /**
+     * The number of hashes looked up per query when searching for a list of
+     * hashes.
+     */
+    private static final int MD5_HASHES_PER_QUERY = 500;
+
     /**
      * Given a string hash value, find all files with that hash.
      *
@@ -57,40 +71,106 @@ static List<AbstractFile> findFilesByMd5(String md5Hash) {
      * @return a Map of md5 hashes mapped to the list of files hit
      */
     static Map<String, List<AbstractFile>> findFilesBymd5(List<String> md5Hash) {
-        Map<String, List<AbstractFile>> map = new LinkedHashMap<String, List<AbstractFile>>();
-        for (String md5 : md5Hash) {
-            List<AbstractFile> files = findFilesByMd5(md5);
-            if (!files.isEmpty()) {
-                map.put(md5, files);
-            }
+        Map<String, List<AbstractFile>> map = new LinkedHashMap<>();
+        for (List<String> md5Hashes : partition(md5Hash)) {
+            findFilesByMd5(md5Hashes, map);
         }
+        removeMisses(map);
         return map;
     }
 
     // Same as above, but with a given ProgressHandle to accumulate and StringWorker to check if cancelled
 
     static Map<String, List<AbstractFile>> findFilesBymd5(List<String> md5Hash, ProgressHandle progress, SwingWorker<Object, Void> worker) {
-        Map<String, List<AbstractFile>> map = new LinkedHashMap<String, List<AbstractFile>>();
+        Map<String, List<AbstractFile>> map = new LinkedHashMap<>();
         if (!worker.isCancelled()) {
+            List<List<String>> queries = partition(md5Hash);
             progress.switchToDeterminate(md5Hash.size());
             int size = 0;
-            for (String md5 : md5Hash) {
+            for (List<String> md5Hashes : queries) {
                 if (worker.isCancelled()) {
                     break;
                 }
-                List<AbstractFile> files = findFilesByMd5(md5);
-                if (!files.isEmpty()) {
-                    map.put(md5, files);
-                }
-                size++;
+                findFilesByMd5(md5Hashes, map);
+                size += md5Hashes.size();
                 if (!worker.isCancelled()) {
-                    progress.progress(size);
+                    progress.progress(Math.min(size, md5Hash.size()));
                 }
             }
         }
+        removeMisses(map);
         return map;
     }
 
+    /**
+     * Splits a list of hash values into the lists of lower case hash values to
+     * look up with one query each. Duplicates and values that are not MD5
+     * hashes are dropped.
+     *
+     * @param md5Hashes The hash values.
+     *
+     * @return The lists of hash values.
+     */
+    private static List<List<String>> partition(List<String> md5Hashes) {
+        Set<String> validHashes = new LinkedHashSet<>();
+        for (String md5 : md5Hashes) {
+            if (md5 != null && md5.matches("[a-fA-F0-9]{32}")) { //NON-NLS
+                validHashes.add(md5.toLowerCase());
+            } else {
+                logger.log(Level.WARNING, "Skipping invalid MD5 hash {0}", md5); //NON-NLS
+            }
+        }
+        List<List<String>> queries = new ArrayList<>();
+        List<String> query = new ArrayList<>(MD5_HASHES_PER_QUERY);
+        for (String md5 : validHashes) {
+            if (query.size() == MD5_HASHES_PER_QUERY) {
+                queries.add(query);
+                query = new ArrayList<>(MD5_HASHES_PER_QUERY);
+            }
+            query.add(md5);
+        }
+        if (!query.isEmpty()) {
+            queries.add(query);
+        }
+        return queries;
+    }
+
+    /**
+     * Finds the files with any of a list of hashes with one query, and adds
+     * them to a map of hashes to files. Every hash in the list is added to
+     * the map, in list order, so that the map keeps the order of the hashes
+     * searched for.
+     *
+     * @param md5Hashes The lower case, validated hash values.
+     * @param map       The map of hashes to the files with the hash.
+     */
+    private static void findFilesByMd5(List<String> md5Hashes, Map<String, List<AbstractFile>> map) {
+        StringBuilder inList = new StringBuilder();
+        for (String md5 : md5Hashes) {
+            map.put(md5, new ArrayList<>());
+            inList.append((inList.length() == 0) ? "'" : ", '").append(md5).append('\'');
+        }
+        final SleuthkitCase skCase = Case.getCurrentCase().getSleuthkitCase();
+        try {
+            // Same conditions as SleuthkitCase.findFilesByMd5()
+            for (AbstractFile file : skCase.findAllFilesWhere("md5 IN (" + inList + ") AND size > 0")) { //NON-NLS
+                List<AbstractFile> files = map.get(file.getMd5Hash().toLowerCase());
+                if (files != null) {
+                    files.add(file);
+                }
+            }
+        } catch (TskCoreException ex) {
+            logger.log(Level.SEVERE, "Error finding files by MD5 hash", ex); //NON-NLS
+        }
+    }
+
+    /**
+     * Removes the hashes with no files from a map of hashes to files.
+     */
+    private static void removeMisses(Map<String, List<AbstractFile>> map) {
+        map.values().removeIf(List::isEmpty);
+    }
+
     /**
      * Given a file, returns a list of all files with the same hash as the given
      * file.
@@ -49,7 +49,7 @@ class CallLogAnalyzer {
     private static final Logger logger = Logger.getLogger(CallLogAnalyzer.class.getName());
     private Blackboard blackboard;
 
-    public void findCallLogs() {
+    public void findCallLogs(String tempDirectory) {
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         List<AbstractFile> absFiles;
         try {
@@ -60,7 +60,7 @@ public void findCallLogs() {
             }
             for (AbstractFile AF : absFiles) {
                 try {
-                    jFile = new java.io.File(Case.getCurrentCase().getTempDirectory(), AF.getName().replaceAll("[<>%|\"/:*\\\\]", ""));
+                    jFile = new java.io.File(tempDirectory, AF.getName().replaceAll("[<>%|\"/:*\\\\]", ""));
                     ContentUtils.writeToFile(AF, jFile);
                     dbPath = jFile.toString(); //path of file as string
                     fileId = AF.getId();
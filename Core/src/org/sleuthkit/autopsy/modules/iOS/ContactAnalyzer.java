@@ -55,7 +55,7 @@ class ContactAnalyzer {
     private static final Logger logger = Logger.getLogger(ContactAnalyzer.class.getName());
     private Blackboard blackboard;
 
-    public void findContacts() {
+    public void findContacts(String tempDirectory) {
 
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         List<AbstractFile> absFiles;
@@ -67,7 +67,7 @@ public void findContacts() {
             }
             for (AbstractFile AF : absFiles) {
                 try {
-                    jFile = new java.io.File(Case.getCurrentCase().getTempDirectory(), AF.getName().replaceAll("[<>%|\"/:*\\\\]", ""));
+                    jFile = new java.io.File(tempDirectory, AF.getName().replaceAll("[<>%|\"/:*\\\\]", ""));
                     //jFile = new java.io.File(Case.getCurrentCase().getTempDirectory(), i+".txt");
                     ContentUtils.writeToFile(AF, jFile);
                     //copyFileUsingStreams(AF,jFile);
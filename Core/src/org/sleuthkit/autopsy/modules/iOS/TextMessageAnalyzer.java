@@ -50,7 +50,7 @@ class TextMessageAnalyzer {
     private static final Logger logger = Logger.getLogger(TextMessageAnalyzer.class.getName());
     private Blackboard blackboard;
 
-    void findTexts() {
+    void findTexts(String tempDirectory) {
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         try {
             SleuthkitCase skCase = Case.getCurrentCase().getSleuthkitCase();
@@ -60,7 +60,7 @@ void findTexts() {
             }
             for (AbstractFile AF : absFiles) {
                 try {
-                    jFile = new java.io.File(Case.getCurrentCase().getTempDirectory(), AF.getName().replaceAll("[<>%|\"/:*\\\\]", ""));
+                    jFile = new java.io.File(tempDirectory, AF.getName().replaceAll("[<>%|\"/:*\\\\]", ""));
                     ContentUtils.writeToFile(AF, jFile);
                     dbPath = jFile.toString(); //path of file as string
                     fileId = AF.getId();
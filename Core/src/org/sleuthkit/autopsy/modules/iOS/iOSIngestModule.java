@@ -18,7 +18,9 @@
  */
 package org.sleuthkit.autopsy.modules.iOS;
 
+import java.io.File;
 import java.util.HashMap;
+import org.sleuthkit.autopsy.casemodule.Case;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.ingest.DataSourceIngestModuleProgress;
 import org.sleuthkit.autopsy.ingest.IngestModule;
@@ -35,16 +37,24 @@ class iOSIngestModule implements DataSourceIngestModule {
     private static final IngestModuleReferenceCounter refCounter = new IngestModuleReferenceCounter();
     private static final Logger logger = Logger.getLogger(iOSModuleFactory.class.getName());
     private IngestServices services = IngestServices.getInstance();
+    private String tempDirectory;
 
     @Override
     public void startUp(IngestJobContext context) throws IngestModule.IngestModuleException {
         this.context = context;
+        // the databases are copied to a folder of this job, so that jobs that
+        // run at the same time do not overwrite each other's copies
+        tempDirectory = Case.getCurrentCase().getTempDirectory() + File.separator + "iOS" + File.separator + context.getJobId(); //NON-NLS
+        File dir = new File(tempDirectory);
+        if (dir.exists() == false) {
+            dir.mkdirs();
+        }
     }
 
     @Override
     public IngestModule.ProcessResult process(Content dataSource, DataSourceIngestModuleProgress progressBar) {
         ContactAnalyzer FindContacts = new ContactAnalyzer();
-        FindContacts.findContacts();
+        FindContacts.findContacts(tempDirectory);
         return IngestModule.ProcessResult.OK;
     }
 }
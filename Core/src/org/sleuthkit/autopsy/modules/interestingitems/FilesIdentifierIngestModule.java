@@ -18,9 +18,7 @@
  */
 package org.sleuthkit.autopsy.modules.interestingitems;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
@@ -48,7 +46,7 @@ final class FilesIdentifierIngestModule implements FileIngestModule {
     private static final Object sharedResourcesLock = new Object();
     private static final Logger logger = Logger.getLogger(FilesIdentifierIngestModule.class.getName());
     private static final IngestModuleReferenceCounter refCounter = new IngestModuleReferenceCounter();
-    private static final Map<Long, List<FilesSet>> interestingFileSetsByJob = new ConcurrentHashMap<>();
+    private static final Map<Long, FilesSetsMatcher> interestingFileSetsByJob = new ConcurrentHashMap<>();
     private final FilesIdentifierIngestJobSettings settings;
     private IngestJobContext context;
     private Blackboard blackboard;
@@ -73,16 +71,12 @@ public void startUp(IngestJobContext context) throws IngestModuleException {
             if (FilesIdentifierIngestModule.refCounter.incrementAndGet(context.getJobId()) == 1) {
                 // Starting up the first instance of this module for this ingest 
                 // job, so get the interesting file sets definitions snapshot 
-                // for the job. Note that getting this snapshot atomically via a 
-                // synchronized definitions manager method eliminates the need 
-                // to disable the interesting files set definition UI during ingest.
-                List<FilesSet> filesSets = new ArrayList<>();
-                for (FilesSet set : InterestingItemDefsManager.getInstance().getInterestingFilesSets().values()) {
-                    if (settings.interestingFilesSetIsEnabled(set.getName())) {
-                        filesSets.add(set);
-                    }
-                }
-                FilesIdentifierIngestModule.interestingFileSetsByJob.put(context.getJobId(), filesSets);
+                // for the job, compiled into a matcher. Note that getting this
+                // snapshot atomically via a synchronized definitions manager
+                // method eliminates the need to disable the interesting files
+                // set definition UI during ingest.
+                FilesSetsMatcher matcher = InterestingItemDefsManager.getInstance().compileInterestingFilesSets(settings);
+                FilesIdentifierIngestModule.interestingFileSetsByJob.put(context.getJobId(), matcher);
             }
         }
     }
@@ -92,13 +86,22 @@ public void startUp(IngestJobContext context) throws IngestModuleException {
      */
     @Override
     public ProcessResult process(AbstractFile file) {
+        FilesSetsMatcher matcher = FilesIdentifierIngestModule.interestingFileSetsByJob.get(this.context.getJobId());
+        if (matcher.isEmpty()) {
+            // No interesting files sets are enabled for this job
+            return ProcessResult.OK;
+        }
         blackboard = Case.getCurrentCase().getServices().getBlackboard();
         
-        // See if the file belongs to any defined interesting files set.
-        List<FilesSet> filesSets = FilesIdentifierIngestModule.interestingFileSetsByJob.get(this.context.getJobId());
-        for (FilesSet filesSet : filesSets) {
-            String ruleSatisfied = filesSet.fileIsMemberOf(file);
-            if (ruleSatisfied != null) {
+        // See if the file belongs to any defined interesting files set. The 
+        // matches are ordered by set, and the first match of each set is the
+        // rule recorded for the set.
+        FilesSet previousFilesSet = null;
+        for (FilesSetsMatcher.Match match : matcher.getMatches(file)) {
+            FilesSet filesSet = match.getFilesSet();
+            if (filesSet != previousFilesSet) {
+                previousFilesSet = filesSet;
+                String ruleSatisfied = match.getRule().getName();
                 try {
                     // Post an interesting files set hit artifact to the 
                     // blackboard.
@@ -104,6 +104,16 @@ Map<String, Rule> getRules() {
         return new HashMap<>(this.rules);
     }
 
+    /**
+     * Gets the set membership rules of this interesting files set in the order
+     * in which fileIsMemberOf() evaluates them.
+     *
+     * @return A list of rules, possibly empty.
+     */
+    List<Rule> getRulesInEvaluationOrder() {
+        return new ArrayList<>(this.rules.values());
+    }
+
     /**
      * Determines whether a file is a member of this interesting files set.
      *
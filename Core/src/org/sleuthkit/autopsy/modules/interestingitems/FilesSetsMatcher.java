@@ -0,0 +1,382 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.modules.interestingitems;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.sleuthkit.datamodel.AbstractFile;
+import org.sleuthkit.datamodel.TskData;
+
+/**
+ * The rules of a collection of interesting files sets, compiled into indexes
+ * so that a file can be tested against all of the rules at once:
+ *
+ * - Exact file names and extensions are looked up in hash maps.
+ *
+ * - Partial parent path matches are found with an Aho-Corasick automaton, in
+ * one pass over the path.
+ *
+ * - The file name regular expressions are combined into one alternation that
+ * rejects the files that match none of them. The individual expressions are
+ * only tried for the files that match it.
+ *
+ * A rule is only tested further if its file name filter matches, since every
+ * rule has one. Matchers are immutable, so they may be safely published to
+ * multiple threads.
+ */
+final class FilesSetsMatcher {
+
+    private final List<CompiledRule> rules = new ArrayList<>();
+    private final Map<String, int[]> rulesByFullName = new HashMap<>();
+    private final Map<String, int[]> rulesByExtension = new HashMap<>();
+    private final int[] regexNameRules;
+    private final Pattern combinedNameRegex;
+    private final int[] otherRules;
+    private final PartialStringMatcher partialPathMatcher;
+
+    /**
+     * Compiles the rules of interesting files sets.
+     *
+     * @param filesSets The interesting files sets.
+     */
+    FilesSetsMatcher(List<FilesSet> filesSets) {
+        Map<String, List<Integer>> fullNames = new HashMap<>();
+        Map<String, List<Integer>> extensions = new HashMap<>();
+        List<Integer> regexNames = new ArrayList<>();
+        List<String> regexNamePatterns = new ArrayList<>();
+        List<Integer> others = new ArrayList<>();
+        List<String> partialPaths = new ArrayList<>();
+        for (FilesSet filesSet : filesSets) {
+            for (FilesSet.Rule rule : filesSet.getRulesInEvaluationOrder()) {
+                int ruleIndex = rules.size();
+                FilesSet.Rule.FileNameFilter nameFilter = rule.getFileNameFilter();
+                FilesSet.Rule.ParentPathFilter pathFilter = rule.getPathFilter();
+                if (pathFilter != null && !pathFilter.isRegex()) {
+                    rules.add(new CompiledRule(filesSet, rule, partialPaths.size()));
+                    partialPaths.add(fold(pathFilter.getTextToMatch()));
+                } else {
+                    rules.add(new CompiledRule(filesSet, rule, -1));
+                }
+                if (nameFilter instanceof FilesSet.Rule.FullNameFilter && !nameFilter.isRegex()) {
+                    fullNames.computeIfAbsent(fold(nameFilter.getTextToMatch()), key -> new ArrayList<>()).add(ruleIndex);
+                } else if (nameFilter instanceof FilesSet.Rule.ExtensionFilter && !nameFilter.isRegex()) {
+                    extensions.computeIfAbsent(fold(nameFilter.getTextToMatch()), key -> new ArrayList<>()).add(ruleIndex);
+                } else if (nameFilter instanceof FilesSet.Rule.FullNameFilter && isCombinable(nameFilter.getTextToMatch())) {
+                    regexNames.add(ruleIndex);
+                    regexNamePatterns.add(nameFilter.getTextToMatch());
+                } else {
+                    others.add(ruleIndex);
+                }
+            }
+        }
+        for (Map.Entry<String, List<Integer>> entry : fullNames.entrySet()) {
+            rulesByFullName.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        for (Map.Entry<String, List<Integer>> entry : extensions.entrySet()) {
+            rulesByExtension.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        regexNameRules = toArray(regexNames);
+        otherRules = toArray(others);
+        combinedNameRegex = combine(regexNamePatterns);
+        partialPathMatcher = new PartialStringMatcher(partialPaths);
+    }
+
+    /**
+     * Queries whether or not there are any rules in the matcher.
+     *
+     * @return True or false.
+     */
+    boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Finds all of the rules satisfied by a file.
+     *
+     * @param file The file to test.
+     *
+     * @return The matches, ordered by interesting files set and then by the
+     *         order in which the rules of a set are evaluated. For each set,
+     *         the first match is the rule FilesSet.fileIsMemberOf() returns.
+     */
+    List<Match> getMatches(AbstractFile file) {
+        BitSet candidates = new BitSet(rules.size());
+        addCandidates(candidates, rulesByFullName.get(fold(file.getName())));
+        String extension = file.getNameExtension();
+        if (extension != null) {
+            addCandidates(candidates, rulesByExtension.get(fold(extension)));
+        }
+        if (regexNameRules.length > 0 && (combinedNameRegex == null || combinedNameRegex.matcher(file.getName()).find())) {
+            for (int ruleIndex : regexNameRules) {
+                if (rules.get(ruleIndex).rule.getFileNameFilter().passes(file)) {
+                    candidates.set(ruleIndex);
+                }
+            }
+        }
+        for (int ruleIndex : otherRules) {
+            if (rules.get(ruleIndex).rule.getFileNameFilter().passes(file)) {
+                candidates.set(ruleIndex);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        boolean known = (file.getKnown() == TskData.FileKnown.KNOWN);
+        BitSet partialPathsFound = null;
+        for (int ruleIndex = candidates.nextSetBit(0); ruleIndex >= 0; ruleIndex = candidates.nextSetBit(ruleIndex + 1)) {
+            CompiledRule compiledRule = rules.get(ruleIndex);
+            FilesSet.Rule rule = compiledRule.rule;
+            if (known && compiledRule.filesSet.ignoresKnownFiles()) {
+                continue;
+            }
+            if (!rule.getMetaTypeFilter().passes(file)) {
+                continue;
+            }
+            if (compiledRule.partialPathIndex >= 0) {
+                if (partialPathsFound == null) {
+                    partialPathsFound = partialPathMatcher.findAll(fold(file.getParentPath() + "/"));
+                }
+                if (!partialPathsFound.get(compiledRule.partialPathIndex)) {
+                    continue;
+                }
+            } else if (rule.getPathFilter() != null && !rule.getPathFilter().passes(file)) {
+                continue;
+            }
+            matches.add(new Match(compiledRule.filesSet, rule));
+        }
+        return matches;
+    }
+
+    /**
+     * Marks the rules in an index entry as candidates.
+     */
+    private static void addCandidates(BitSet candidates, int[] ruleIndexes) {
+        if (ruleIndexes != null) {
+            for (int ruleIndex : ruleIndexes) {
+                candidates.set(ruleIndex);
+            }
+        }
+    }
+
+    /**
+     * Folds the case of a string the way String.equalsIgnoreCase() compares
+     * characters, so that folded strings can be compared with equals().
+     */
+    private static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            folded.append(Character.toLowerCase(Character.toUpperCase(text.charAt(i))));
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Queries whether or not a regular expression can be made an alternative
+     * of a combined regular expression without changing what it matches.
+     * Expressions with back references cannot, since the group numbers change.
+     */
+    private static boolean isCombinable(String regex) {
+        return !regex.matches("(?s).*\\\\([1-9]|k<).*"); //NON-NLS
+    }
+
+    /**
+     * Combines regular expressions into an alternation.
+     *
+     * @return The combined expression, null if the expressions could not be
+     *         combined, e.g., because they use the same group name.
+     */
+    private static Pattern combine(List<String> regexes) {
+        if (regexes.isEmpty()) {
+            return null;
+        }
+        StringBuilder combined = new StringBuilder();
+        for (String regex : regexes) {
+            combined.append((combined.length() == 0) ? "" : "|").append("(?:").append(regex).append(')');
+        }
+        try {
+            return Pattern.compile(combined.toString());
+        } catch (PatternSyntaxException ex) {
+            return null;
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * A rule that is satisfied by a file.
+     */
+    static final class Match {
+
+        private final FilesSet filesSet;
+        private final FilesSet.Rule rule;
+
+        private Match(FilesSet filesSet, FilesSet.Rule rule) {
+            this.filesSet = filesSet;
+            this.rule = rule;
+        }
+
+        /**
+         * Gets the interesting files set the rule belongs to.
+         *
+         * @return The interesting files set.
+         */
+        FilesSet getFilesSet() {
+            return filesSet;
+        }
+
+        /**
+         * Gets the satisfied rule.
+         *
+         * @return The rule.
+         */
+        FilesSet.Rule getRule() {
+            return rule;
+        }
+    }
+
+    /**
+     * A rule with the interesting files set it belongs to and the index of its
+     * partial path, if it has a partial path filter.
+     */
+    private static final class CompiledRule {
+
+        private final FilesSet filesSet;
+        private final FilesSet.Rule rule;
+        private final int partialPathIndex;
+
+        CompiledRule(FilesSet filesSet, FilesSet.Rule rule, int partialPathIndex) {
+            this.filesSet = filesSet;
+            this.rule = rule;
+            this.partialPathIndex = partialPathIndex;
+        }
+    }
+
+    /**
+     * An Aho-Corasick automaton that finds all of a collection of strings that
+     * occur in a text in one pass over the text.
+     */
+    private static final class PartialStringMatcher {
+
+        private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+        private final int[] failures;
+        private final int[][] outputs;
+        private final int stringCount;
+
+        /**
+         * Builds the automaton.
+         *
+         * @param strings The strings to find.
+         */
+        PartialStringMatcher(List<String> strings) {
+            stringCount = strings.size();
+            List<List<Integer>> stringsByState = new ArrayList<>();
+            transitions.add(new HashMap<>());
+            stringsByState.add(new ArrayList<>());
+            for (int i = 0; i < strings.size(); i++) {
+                int state = 0;
+                for (char c : strings.get(i).toCharArray()) {
+                    Integer nextState = transitions.get(state).get(c);
+                    if (nextState == null) {
+                        nextState = transitions.size();
+                        transitions.add(new HashMap<>());
+                        stringsByState.add(new ArrayList<>());
+                        transitions.get(state).put(c, nextState);
+                    }
+                    state = nextState;
+                }
+                stringsByState.get(state).add(i);
+            }
+
+            // Compute the failure transitions breadth first, so that the
+            // failure state of a state is done before the state itself, and
+            // add the strings found in the failure state to each state.
+            failures = new int[transitions.size()];
+            Queue<Integer> states = new ArrayDeque<>(transitions.get(0).values());
+            while (!states.isEmpty()) {
+                int state = states.remove();
+                for (Map.Entry<Character, Integer> transition : transitions.get(state).entrySet()) {
+                    int nextState = transition.getValue();
+                    if (state != 0) {
+                        failures[nextState] = getNextState(failures[state], transition.getKey());
+                    }
+                    stringsByState.get(nextState).addAll(stringsByState.get(failures[nextState]));
+                    states.add(nextState);
+                }
+            }
+            outputs = new int[stringsByState.size()][];
+            for (int state = 0; state < outputs.length; state++) {
+                outputs[state] = toArray(stringsByState.get(state));
+            }
+        }
+
+        /**
+         * Follows the failure transitions from a state until there is a
+         * transition for a character.
+         */
+        private int getNextState(int state, char c) {
+            while (true) {
+                Integer nextState = transitions.get(state).get(c);
+                if (nextState != null) {
+                    return nextState;
+                }
+                if (state == 0) {
+                    return 0;
+                }
+                state = failures[state];
+            }
+        }
+
+        /**
+         * Finds the strings that occur in a text.
+         *
+         * @param text The text.
+         *
+         * @return The indexes of the strings found.
+         */
+        BitSet findAll(String text) {
+            BitSet found = new BitSet(stringCount);
+            if (stringCount == 0) {
+                return found;
+            }
+            for (int i : outputs[0]) {
+                found.set(i);
+            }
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                state = getNextState(state, text.charAt(i));
+                for (int stringIndex : outputs[state]) {
+                    found.set(stringIndex);
+                }
+            }
+            return found;
+        }
+    }
+}
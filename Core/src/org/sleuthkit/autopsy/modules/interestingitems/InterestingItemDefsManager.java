@@ -92,6 +92,26 @@ synchronized Map<String, FilesSet> getInterestingFilesSets() {
         return FilesSetXML.readDefinitionsFile(DEFAULT_FILE_SET_DEFS_PATH);
     }
 
+    /**
+     * Compiles the current definitions of the interesting files sets that are
+     * enabled for an ingest job into a matcher that tests a file against all of
+     * their rules at once.
+     *
+     * @param settings The ingest job settings of the interesting files
+     *                 identifier.
+     *
+     * @return The matcher.
+     */
+    synchronized FilesSetsMatcher compileInterestingFilesSets(FilesIdentifierIngestJobSettings settings) {
+        List<FilesSet> enabledFilesSets = new ArrayList<>();
+        for (FilesSet set : getInterestingFilesSets().values()) {
+            if (settings.interestingFilesSetIsEnabled(set.getName())) {
+                enabledFilesSets.add(set);
+            }
+        }
+        return new FilesSetsMatcher(enabledFilesSets);
+    }
+
     /**
      * Sets the current interesting file sets definitions, replacing any
      * previous definitions.
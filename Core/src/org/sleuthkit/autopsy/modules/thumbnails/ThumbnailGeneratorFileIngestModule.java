@@ -0,0 +1,116 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.modules.thumbnails;
+
+import java.util.logging.Level;
+import org.sleuthkit.autopsy.coreutils.ImageUtils;
+import org.sleuthkit.autopsy.coreutils.Logger;
+import org.sleuthkit.autopsy.ingest.IndependentFileIngestModule;
+import org.sleuthkit.autopsy.ingest.IngestJobContext;
+import org.sleuthkit.datamodel.AbstractFile;
+import org.sleuthkit.datamodel.TskData;
+import org.sleuthkit.datamodel.TskData.TSK_DB_FILES_TYPE_ENUM;
+
+/**
+ * File ingest module that generates thumbnails for image files and saves them
+ * to the case thumbnail cache, so that the thumbnail viewer, image gallery and
+ * HTML report do not have to create them on demand.
+ *
+ * Each ingest thread generates and saves its thumbnails synchronously, so at
+ * most one decoded image per ingest thread is held in memory at a time. Images
+ * larger than MAX_IMAGE_SIZE are skipped and left for on demand generation.
+ * Nothing is done unless thumbnail generation is turned on in the settings.
+ */
+public final class ThumbnailGeneratorFileIngestModule implements IndependentFileIngestModule {
+
+    private static final Logger logger = Logger.getLogger(ThumbnailGeneratorFileIngestModule.class.getName());
+
+    /**
+     * The size of the thumbnails to generate. This is the default size used by
+     * the thumbnail viewer and the HTML report.
+     */
+    private static final int THUMBNAIL_SIZE = ImageUtils.ICON_SIZE_MEDIUM;
+
+    /**
+     * Files bigger than this (in bytes) are not decoded during ingest.
+     */
+    private static final long MAX_IMAGE_SIZE = 50 * 1024 * 1024;
+
+    private final ThumbnailGeneratorModuleSettings settings;
+    private IngestJobContext context;
+
+    ThumbnailGeneratorFileIngestModule(ThumbnailGeneratorModuleSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public void startUp(IngestJobContext context) throws IngestModuleException {
+        this.context = context;
+    }
+
+    @Override
+    public ProcessResult process(AbstractFile file) {
+        if (settings.generateThumbnails() == false) {
+            return ProcessResult.OK;
+        }
+
+        //skip unalloc
+        if (file.getType().equals(TSK_DB_FILES_TYPE_ENUM.UNALLOC_BLOCKS)) {
+            return ProcessResult.OK;
+        }
+
+        if (file.isFile() == false) {
+            return ProcessResult.OK;
+        }
+
+        // skip known
+        if (file.getKnown().equals(TskData.FileKnown.KNOWN)) {
+            return ProcessResult.OK;
+        }
+
+        if (file.getSize() == 0 || file.getSize() > MAX_IMAGE_SIZE) {
+            return ProcessResult.OK;
+        }
+
+        if (context.fileIngestIsCancelled()) {
+            return ProcessResult.OK;
+        }
+
+        /*
+         * Video thumbnails need the whole video copied out to a temp file, so
+         * they are left to be generated on demand.
+         */
+        if (ImageUtils.isImageThumbnailSupported(file) == false) {
+            return ProcessResult.OK;
+        }
+
+        /*
+         * A failure to make a thumbnail is not an ingest error, the thumbnail
+         * viewer will fall back on the default icon.
+         */
+        if (ImageUtils.cacheThumbnail(file, THUMBNAIL_SIZE) == false) {
+            logger.log(Level.FINE, "Could not generate thumbnail for {0} (id = {1})", new Object[]{file.getName(), file.getId()}); //NON-NLS
+        }
+        return ProcessResult.OK;
+    }
+
+    @Override
+    public void shutDown() {
+    }
+}
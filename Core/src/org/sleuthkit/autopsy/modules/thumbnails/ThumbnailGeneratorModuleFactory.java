@@ -0,0 +1,91 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.modules.thumbnails;
+
+import org.openide.util.NbBundle;
+import org.openide.util.lookup.ServiceProvider;
+import org.sleuthkit.autopsy.coreutils.Version;
+import org.sleuthkit.autopsy.ingest.FileIngestModule;
+import org.sleuthkit.autopsy.ingest.IngestModuleFactory;
+import org.sleuthkit.autopsy.ingest.IngestModuleFactoryAdapter;
+import org.sleuthkit.autopsy.ingest.IngestModuleIngestJobSettings;
+import org.sleuthkit.autopsy.ingest.IngestModuleIngestJobSettingsPanel;
+
+/**
+ * A factory that creates file ingest modules that generate and cache
+ * thumbnails for image files. The modules do nothing unless thumbnail
+ * generation is turned on in the ingest job settings.
+ */
+@ServiceProvider(service = IngestModuleFactory.class)
+public class ThumbnailGeneratorModuleFactory extends IngestModuleFactoryAdapter {
+
+    static String getModuleName() {
+        return NbBundle.getMessage(ThumbnailGeneratorFileIngestModule.class,
+                "ThumbnailGeneratorFileIngestModule.moduleName.text");
+    }
+
+    @Override
+    public String getModuleDisplayName() {
+        return getModuleName();
+    }
+
+    @Override
+    public String getModuleDescription() {
+        return NbBundle.getMessage(ThumbnailGeneratorFileIngestModule.class,
+                "ThumbnailGeneratorFileIngestModule.moduleDesc.text");
+    }
+
+    @Override
+    public String getModuleVersionNumber() {
+        return Version.getVersion();
+    }
+
+    @Override
+    public IngestModuleIngestJobSettings getDefaultIngestJobSettings() {
+        return new ThumbnailGeneratorModuleSettings();
+    }
+
+    @Override
+    public boolean hasIngestJobSettingsPanel() {
+        return true;
+    }
+
+    @Override
+    public IngestModuleIngestJobSettingsPanel getIngestJobSettingsPanel(IngestModuleIngestJobSettings settings) {
+        if (!(settings instanceof ThumbnailGeneratorModuleSettings)) {
+            throw new IllegalArgumentException(NbBundle.getMessage(this.getClass(),
+                    "ThumbnailGeneratorModuleFactory.getIngestJobSettingsPanel.exception.msg"));
+        }
+        return new ThumbnailGeneratorModuleSettingsPanel((ThumbnailGeneratorModuleSettings) settings);
+    }
+
+    @Override
+    public boolean isFileIngestModuleFactory() {
+        return true;
+    }
+
+    @Override
+    public FileIngestModule createFileIngestModule(IngestModuleIngestJobSettings settings) {
+        if (!(settings instanceof ThumbnailGeneratorModuleSettings)) {
+            throw new IllegalArgumentException(NbBundle.getMessage(this.getClass(),
+                    "ThumbnailGeneratorModuleFactory.createFileIngestModule.exception.msg"));
+        }
+        return new ThumbnailGeneratorFileIngestModule((ThumbnailGeneratorModuleSettings) settings);
+    }
+}
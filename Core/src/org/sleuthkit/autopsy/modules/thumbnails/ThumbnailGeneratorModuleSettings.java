@@ -0,0 +1,52 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.modules.thumbnails;
+
+import org.sleuthkit.autopsy.ingest.IngestModuleIngestJobSettings;
+
+/**
+ * Ingest options for the thumbnail generator ingest module. Generating
+ * thumbnails adds to the ingest time of every image, so it is off unless it is
+ * turned on for the ingest job.
+ */
+final class ThumbnailGeneratorModuleSettings implements IngestModuleIngestJobSettings {
+
+    private static final long serialVersionUID = 1L;
+    private boolean generateThumbnails = false;
+
+    ThumbnailGeneratorModuleSettings() {
+    }
+
+    ThumbnailGeneratorModuleSettings(boolean generateThumbnails) {
+        this.generateThumbnails = generateThumbnails;
+    }
+
+    @Override
+    public long getVersionNumber() {
+        return serialVersionUID;
+    }
+
+    void setGenerateThumbnails(boolean enabled) {
+        generateThumbnails = enabled;
+    }
+
+    boolean generateThumbnails() {
+        return generateThumbnails;
+    }
+}
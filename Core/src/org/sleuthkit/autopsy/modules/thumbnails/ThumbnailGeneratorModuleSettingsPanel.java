@@ -0,0 +1,89 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.modules.thumbnails;
+
+import org.sleuthkit.autopsy.ingest.IngestModuleIngestJobSettings;
+import org.sleuthkit.autopsy.ingest.IngestModuleIngestJobSettingsPanel;
+
+/**
+ * UI component used to set ingest job options for thumbnail generator ingest
+ * modules.
+ */
+final class ThumbnailGeneratorModuleSettingsPanel extends IngestModuleIngestJobSettingsPanel {
+
+    private final ThumbnailGeneratorModuleSettings settings;
+
+    ThumbnailGeneratorModuleSettingsPanel(ThumbnailGeneratorModuleSettings settings) {
+        this.settings = settings;
+        initComponents();
+        customizeComponents();
+    }
+
+    private void customizeComponents() {
+        generateThumbnailsCheckBox.setSelected(settings.generateThumbnails());
+    }
+
+    @Override
+    public IngestModuleIngestJobSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * This method is called from within the constructor to initialize the form.
+     * WARNING: Do NOT modify this code. The content of this method is always
+     * regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+    private void initComponents() {
+
+        generateThumbnailsCheckBox = new javax.swing.JCheckBox();
+
+        generateThumbnailsCheckBox.setText(org.openide.util.NbBundle.getMessage(ThumbnailGeneratorModuleSettingsPanel.class, "ThumbnailGeneratorModuleSettingsPanel.generateThumbnailsCheckBox.text")); // NOI18N
+        generateThumbnailsCheckBox.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                generateThumbnailsCheckBoxActionPerformed(evt);
+            }
+        });
+
+        javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
+        this.setLayout(layout);
+        layout.setHorizontalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addContainerGap()
+                .addComponent(generateThumbnailsCheckBox)
+                .addGap(0, 138, Short.MAX_VALUE))
+        );
+        layout.setVerticalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addComponent(generateThumbnailsCheckBox)
+                .addContainerGap(74, Short.MAX_VALUE))
+        );
+    }// </editor-fold>//GEN-END:initComponents
+
+    private void generateThumbnailsCheckBoxActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_generateThumbnailsCheckBoxActionPerformed
+        settings.setGenerateThumbnails(generateThumbnailsCheckBox.isSelected());
+    }//GEN-LAST:event_generateThumbnailsCheckBoxActionPerformed
+
+    // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JCheckBox generateThumbnailsCheckBox;
+    // End of variables declaration//GEN-END:variables
+}
@@ -0,0 +1,380 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.report;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import org.sleuthkit.autopsy.coreutils.Logger;
+
+/**
+ * Sorts the rows of a report table with bounded memory. Rows are buffered in
+ * memory until the buffer is full, then the buffer is sorted and spilled to a
+ * temporary file as a run. When the rows are read back, the runs are merged,
+ * so only one row per run is held in memory at a time. If there are more runs
+ * than can be merged at once, groups of them are first merged into longer
+ * runs, so the number of open files stays bounded.
+ *
+ * Rows are ordered by their cells, compared as strings from the first cell
+ * on, and then by the id that was added with them, which is the order that
+ * ArtifactData.compareTo() defines.
+ */
+final class ExternalRowSorter implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(ExternalRowSorter.class.getName());
+
+    /**
+     * the number of rows to buffer in memory before spilling them to disk
+     */
+    private static final int MAX_ROWS_IN_MEMORY = 20000;
+
+    /**
+     * the maximum number of runs that are merged, and open, at a time
+     */
+    private static final int MAX_MERGE_FAN_IN = 64;
+
+    private static final Comparator<SortableRow> ROW_ORDER = (row, otherRow) -> {
+        List<String> cells = row.getCells();
+        List<String> otherCells = otherRow.getCells();
+        for (int i = 0; i < cells.size() && i < otherCells.size(); i++) {
+            int compare = cells.get(i).compareTo(otherCells.get(i));
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        // If all cells are the same, they're most likely duplicates so sort by id
+        return Long.compare(row.getId(), otherRow.getId());
+    };
+
+    private final File tempDirectory;
+    private final int maxRowsInMemory;
+    private List<SortableRow> buffer = new ArrayList<>();
+    private final List<File> runs = new ArrayList<>();
+    private long rowCount = 0;
+    private MergeIterator merge;
+
+    /**
+     * @param tempDirectory the directory to write the sorted runs to
+     */
+    ExternalRowSorter(File tempDirectory) {
+        this(tempDirectory, MAX_ROWS_IN_MEMORY);
+    }
+
+    /**
+     * @param tempDirectory   the directory to write the sorted runs to
+     * @param maxRowsInMemory the number of rows to buffer before spilling
+     */
+    ExternalRowSorter(File tempDirectory, int maxRowsInMemory) {
+        this.tempDirectory = tempDirectory;
+        this.maxRowsInMemory = maxRowsInMemory;
+    }
+
+    /**
+     * Add a row to be sorted.
+     *
+     * @param id    the id of the row, used to order rows with the same cells
+     * @param cells the cells of the row, none of them null
+     *
+     * @throws IOException if the rows cannot be spilled to disk
+     */
+    void add(long id, List<String> cells) throws IOException {
+        buffer.add(new SortableRow(id, cells));
+        rowCount++;
+        if (buffer.size() >= maxRowsInMemory) {
+            spill();
+        }
+    }
+
+    /**
+     * @return the number of rows that have been added
+     */
+    long size() {
+        return rowCount;
+    }
+
+    /**
+     * Get the cells of the added rows, in order. No rows can be added once
+     * the rows are being read.
+     *
+     * @return an iterator over the rows, that may throw an UncheckedIOException
+     *         if a run cannot be read
+     *
+     * @throws IOException if a run cannot be opened
+     */
+    Iterator<List<String>> sortedRows() throws IOException {
+        Collections.sort(buffer, ROW_ORDER);
+        if (runs.isEmpty()) {
+            Iterator<SortableRow> rows = buffer.iterator();
+            return new Iterator<List<String>>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public List<String> next() {
+                    return rows.next().getCells();
+                }
+            };
+        }
+        if (buffer.isEmpty() == false) {
+            spill();
+        }
+        while (runs.size() > MAX_MERGE_FAN_IN) {
+            mergeOldestRuns();
+        }
+        merge = new MergeIterator(new ArrayList<>(runs));
+        return merge;
+    }
+
+    /**
+     * Sort the buffered rows and write them to a new run.
+     */
+    private void spill() throws IOException {
+        Collections.sort(buffer, ROW_ORDER);
+        File run = File.createTempFile("report-rows", ".tmp", tempDirectory); //NON-NLS
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run.toPath())))) {
+            for (SortableRow row : buffer) {
+                writeRow(out, row);
+            }
+        }
+        buffer = new ArrayList<>();
+    }
+
+    /**
+     * Merge the oldest MAX_MERGE_FAN_IN runs into a new run at the end of the
+     * list of runs, and delete them.
+     */
+    private void mergeOldestRuns() throws IOException {
+        List<File> group = new ArrayList<>(runs.subList(0, MAX_MERGE_FAN_IN));
+        File run = File.createTempFile("report-rows", ".tmp", tempDirectory); //NON-NLS
+        runs.add(run);
+        MergeIterator groupMerge = new MergeIterator(group);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run.toPath())))) {
+            while (groupMerge.hasNext()) {
+                writeRow(out, groupMerge.nextRow());
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            groupMerge.closeReaders();
+        }
+        runs.removeAll(group);
+        for (File mergedRun : group) {
+            if (mergedRun.delete() == false && mergedRun.exists()) {
+                logger.log(Level.WARNING, "Failed to delete temporary report file {0}", mergedRun.getPath()); //NON-NLS
+            }
+        }
+    }
+
+    private static void writeRow(DataOutputStream out, SortableRow row) throws IOException {
+        out.writeLong(row.getId());
+        out.writeInt(row.getCells().size());
+        for (String cell : row.getCells()) {
+            byte[] bytes = cell.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Delete the runs written to disk.
+     */
+    @Override
+    public void close() {
+        buffer = new ArrayList<>();
+        if (merge != null) {
+            merge.closeReaders();
+            merge = null;
+        }
+        for (File run : runs) {
+            if (run.delete() == false && run.exists()) {
+                logger.log(Level.WARNING, "Failed to delete temporary report file {0}", run.getPath()); //NON-NLS
+            }
+        }
+        runs.clear();
+    }
+
+    /**
+     * A row and the id it was added with.
+     */
+    private static final class SortableRow {
+
+        private final long id;
+        private final List<String> cells;
+
+        SortableRow(long id, List<String> cells) {
+            this.id = id;
+            this.cells = cells;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        List<String> getCells() {
+            return cells;
+        }
+    }
+
+    /**
+     * A reader of the rows of a run.
+     */
+    private static final class RunReader {
+
+        private final DataInputStream in;
+        private SortableRow current;
+
+        RunReader(File run) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.toPath())));
+        }
+
+        /**
+         * Read the next row of the run into current.
+         *
+         * @return false if the run has no more rows, in which case it is
+         *         closed
+         */
+        boolean advance() throws IOException {
+            long id;
+            try {
+                id = in.readLong();
+            } catch (EOFException ex) {
+                in.close();
+                current = null;
+                return false;
+            }
+            int cellCount = in.readInt();
+            List<String> cells = new ArrayList<>(cellCount);
+            for (int i = 0; i < cellCount; i++) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                cells.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            current = new SortableRow(id, cells);
+            return true;
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+
+        void closeQuietly() {
+            try {
+                in.close();
+            } catch (IOException ex) {
+                logger.log(Level.WARNING, "Failed to close temporary report file", ex); //NON-NLS
+            }
+        }
+    }
+
+    /**
+     * Merges runs, keeping the next row of each run in a priority queue.
+     */
+    private static final class MergeIterator implements Iterator<List<String>> {
+
+        private final PriorityQueue<RunReader> readers;
+
+        /**
+         * Open the runs and read their first rows. If a run cannot be opened
+         * or read, the runs that were opened are closed.
+         *
+         * @param runsToMerge the runs, no more than MAX_MERGE_FAN_IN
+         */
+        MergeIterator(List<File> runsToMerge) throws IOException {
+            readers = new PriorityQueue<>(Math.max(1, runsToMerge.size()),
+                    (reader, otherReader) -> ROW_ORDER.compare(reader.current, otherReader.current));
+            try {
+                for (File run : runsToMerge) {
+                    RunReader reader = new RunReader(run);
+                    try {
+                        if (reader.advance()) {
+                            readers.add(reader);
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        reader.closeQuietly();
+                        throw ex;
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                closeReaders();
+                throw ex;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return readers.isEmpty() == false;
+        }
+
+        @Override
+        public List<String> next() {
+            return nextRow().getCells();
+        }
+
+        /**
+         * @return the next row, with the id it was added with
+         */
+        SortableRow nextRow() {
+            RunReader reader = readers.poll();
+            if (reader == null) {
+                throw new NoSuchElementException();
+            }
+            SortableRow row = reader.current;
+            try {
+                if (reader.advance()) {
+                    readers.add(reader);
+                }
+            } catch (IOException ex) {
+                closeReaders();
+                reader.closeQuietly();
+                throw new UncheckedIOException(ex);
+            }
+            return row;
+        }
+
+        private void closeReaders() {
+            for (RunReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException ex) {
+                    logger.log(Level.WARNING, "Failed to close temporary report file", ex); //NON-NLS
+                }
+            }
+            readers.clear();
+        }
+    }
+}
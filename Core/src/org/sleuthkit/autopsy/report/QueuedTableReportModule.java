@@ -0,0 +1,201 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.report;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import org.sleuthkit.autopsy.coreutils.Logger;
+import org.sleuthkit.autopsy.report.ReportProgressPanel.ReportStatus;
+
+/**
+ * Runs the calls made to a TableReportModule on a thread of its own, so that
+ * the table report modules write their reports concurrently while the rows are
+ * read from the case once. The calls are queued in the order they are made,
+ * and the caller blocks when too many of them are waiting, so a slow module
+ * holds back the reading of rows rather than filling the heap.
+ *
+ * Calls are dropped once the report of the module has been cancelled or has
+ * failed. If the caller is interrupted while waiting to queue a call, the call
+ * is dropped and the report of the module is marked as failed, since it would
+ * otherwise be missing rows.
+ */
+final class QueuedTableReportModule implements TableReportModule {
+
+    private static final Logger logger = Logger.getLogger(QueuedTableReportModule.class.getName());
+
+    /**
+     * the number of calls that may wait for the module before callers block
+     */
+    private static final int MAX_QUEUED_CALLS = 1000;
+
+    private final TableReportModule module;
+    private final ReportProgressPanel progress;
+    private final ExecutorService executor;
+    private final Semaphore queuedCalls = new Semaphore(MAX_QUEUED_CALLS);
+    private volatile boolean failed = false;
+
+    /**
+     * @param module   the module to run the calls of
+     * @param progress the progress panel of the module's report
+     */
+    QueuedTableReportModule(TableReportModule module, ReportProgressPanel progress) {
+        this.module = module;
+        this.progress = progress;
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("table-report-" + module.getName() + "-%d").build()); //NON-NLS
+    }
+
+    /**
+     * @return the module the calls are run on
+     */
+    TableReportModule getModule() {
+        return module;
+    }
+
+    /**
+     * Queue a call to the module, such as a call to a method that is specific
+     * to one type of module.
+     *
+     * @param call the call, given the module
+     */
+    void call(Consumer<TableReportModule> call) {
+        try {
+            queuedCalls.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failed = true;
+            logger.log(Level.WARNING, "Interrupted while queuing a call to the " + module.getName() + " report, the report is incomplete", ex); //NON-NLS
+            progress.complete(ReportStatus.ERROR);
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                if (failed == false && progress.getStatus() != ReportStatus.CANCELED) {
+                    call.accept(module);
+                }
+            } catch (RuntimeException ex) {
+                failed = true;
+                logger.log(Level.SEVERE, "Error writing " + module.getName() + " report", ex); //NON-NLS
+                progress.complete(ReportStatus.ERROR);
+            } finally {
+                queuedCalls.release();
+            }
+        });
+    }
+
+    /**
+     * Wait for the queued calls to be run and stop the thread of the module.
+     * No calls can be made afterwards.
+     *
+     * @return true if all the calls succeeded
+     */
+    boolean finish() {
+        executor.shutdown();
+        try {
+            while (executor.awaitTermination(1, TimeUnit.MINUTES) == false) {
+                logger.log(Level.INFO, "Waiting for the {0} report to be written", module.getName()); //NON-NLS
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            return false;
+        }
+        return failed == false;
+    }
+
+    @Override
+    public void startReport(String baseReportDir) {
+        call(m -> m.startReport(baseReportDir));
+    }
+
+    @Override
+    public void endReport() {
+        call(m -> m.endReport());
+    }
+
+    @Override
+    public void startDataType(String title, String description) {
+        call(m -> m.startDataType(title, description));
+    }
+
+    @Override
+    public void endDataType() {
+        call(m -> m.endDataType());
+    }
+
+    @Override
+    public void startSet(String setName) {
+        call(m -> m.startSet(setName));
+    }
+
+    @Override
+    public void endSet() {
+        call(m -> m.endSet());
+    }
+
+    @Override
+    public void addSetIndex(List<String> sets) {
+        call(m -> m.addSetIndex(sets));
+    }
+
+    @Override
+    public void addSetElement(String elementName) {
+        call(m -> m.addSetElement(elementName));
+    }
+
+    @Override
+    public void startTable(List<String> titles) {
+        call(m -> m.startTable(titles));
+    }
+
+    @Override
+    public void endTable() {
+        call(m -> m.endTable());
+    }
+
+    @Override
+    public void addRow(List<String> row) {
+        call(m -> m.addRow(row));
+    }
+
+    @Override
+    public String dateToString(long date) {
+        return module.dateToString(date);
+    }
+
+    @Override
+    public String getName() {
+        return module.getName();
+    }
+
+    @Override
+    public String getDescription() {
+        return module.getDescription();
+    }
+
+    @Override
+    public String getRelativeFilePath() {
+        return module.getRelativeFilePath();
+    }
+}
@@ -26,6 +26,7 @@
 import java.awt.event.WindowEvent;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.DateFormat;
@@ -89,6 +90,11 @@ class ReportGenerator {
 
     static final String REPORTS_DIR = "Reports"; //NON-NLS
 
+    /**
+     * the number of artifacts to load at a time when making artifact tables
+     */
+    private static final int ARTIFACT_PAGE_SIZE = 1000;
+
     private List<String> errorList;
 
     /**
@@ -415,11 +421,13 @@ protected void done() {
 
     /**
      * SwingWorker to run TableReportModules to report on blackboard artifacts,
-     * content tags, and blackboard artifact tags.
+     * content tags, and blackboard artifact tags. The worker reads the case
+     * data once and each module writes its report on a thread of its own.
      */
     private class TableReportsWorker extends SwingWorker<Integer, Integer> {
 
-        private List<TableReportModule> tableModules = new ArrayList<>();
+        private List<QueuedTableReportModule> allTableModules = new ArrayList<>();
+        private List<QueuedTableReportModule> tableModules = new ArrayList<>();
         private List<ARTIFACT_TYPE> artifactTypes = new ArrayList<>();
         private HashSet<String> tagNamesFilter = new HashSet<>();
 
@@ -428,8 +436,9 @@ private class TableReportsWorker extends SwingWorker<Integer, Integer> {
         TableReportsWorker(Map<ARTIFACT_TYPE, Boolean> artifactTypeSelections, Map<String, Boolean> tagNameSelections) {
             // Get the report modules selected by the user.
             for (Entry<TableReportModule, ReportProgressPanel> entry : tableProgress.entrySet()) {
-                tableModules.add(entry.getKey());
+                allTableModules.add(new QueuedTableReportModule(entry.getKey(), entry.getValue()));
             }
+            tableModules.addAll(allTableModules);
 
             // Get the artifact types selected by the user.
             for (Entry<ARTIFACT_TYPE, Boolean> entry : artifactTypeSelections.entrySet()) {
@@ -450,9 +459,20 @@ private class TableReportsWorker extends SwingWorker<Integer, Integer> {
 
         @Override
         protected Integer doInBackground() throws Exception {
+            try {
+                return makeTables();
+            } finally {
+                // stop the threads of the modules, including any cancelled ones
+                for (QueuedTableReportModule module : allTableModules) {
+                    module.finish();
+                }
+            }
+        }
+
+        private Integer makeTables() {
             // Start the progress indicators for each active TableReportModule.
-            for (TableReportModule module : tableModules) {
-                ReportProgressPanel progress = tableProgress.get(module);
+            for (QueuedTableReportModule module : tableModules) {
+                ReportProgressPanel progress = tableProgress.get(module.getModule());
                 if (progress.getStatus() != ReportStatus.CANCELED) {
                     module.startReport(reportPath);
                     progress.start();
@@ -471,11 +491,15 @@ protected Integer doInBackground() throws Exception {
             // report on the tagged images
             makeThumbnailTable();
 
-            // finish progress, wrap up
-            for (TableReportModule module : tableModules) {
-                tableProgress.get(module).complete(ReportStatus.COMPLETE);
+            // finish progress, wrap up once the modules have written everything
+            for (QueuedTableReportModule module : tableModules) {
                 module.endReport();
             }
+            for (QueuedTableReportModule module : tableModules) {
+                if (module.finish()) {
+                    tableProgress.get(module.getModule()).complete(ReportStatus.COMPLETE);
+                }
+            }
 
             return 0;
         }
@@ -499,8 +523,8 @@ private void makeBlackboardArtifactTables() {
                     return;
                 }
 
-                for (TableReportModule module : tableModules) {
-                    tableProgress.get(module).updateStatusLabel(
+                for (QueuedTableReportModule module : tableModules) {
+                    tableProgress.get(module.getModule()).updateStatusLabel(
                             NbBundle.getMessage(this.getClass(), "ReportGenerator.progress.processing",
                                     type.getDisplayName()));
                 }
@@ -514,17 +538,6 @@ private void makeBlackboardArtifactTables() {
                     continue;
                 }
 
-                List<ArtifactData> unsortedArtifacts = getFilteredArtifacts(type, tagNamesFilter);
-
-                if (unsortedArtifacts.isEmpty()) {
-                    continue;
-                }
-
-                // The most efficient way to sort all the Artifacts is to add them to a List, and then
-                // sort that List based off a Comparator. Adding to a TreeMap/Set/List sorts the list
-                // each time an element is added, which adds unnecessary overhead if we only need it sorted once.
-                Collections.sort(unsortedArtifacts);
-
                 // Get the column headers appropriate for the artifact type.
                 /*
                  * @@@ BC: Seems like a better design here would be to have a
@@ -540,37 +553,48 @@ private void makeBlackboardArtifactTables() {
                     continue;
                 }
 
-                for (TableReportModule module : tableModules) {
-                    module.startDataType(type.getDisplayName(), comment.toString());
-                    module.startTable(columnHeaders);
-                }
+                // The rows are made once per artifact, a page of artifacts at a
+                // time, and sorted on disk if there are too many of them to
+                // sort in memory. Each sorted row is then added to all of the
+                // reports.
+                boolean tableStarted = false;
+                try (ExternalRowSorter sortedRows = new ExternalRowSorter(new File(currentCase.getTempDirectory()))) {
+                    if (addFilteredArtifactRows(type, tagNamesFilter, sortedRows)) {
+                        MessageNotifyUtil.Notify.show(NbBundle.getMessage(this.getClass(),
+                                "ReportGenerator.msgShow.skippingArtRow.title",
+                                type),
+                                NbBundle.getMessage(this.getClass(),
+                                        "ReportGenerator.msgShow.skippingArtRow.msg"),
+                                MessageNotifyUtil.MessageType.ERROR);
+                    }
+                    if (sortedRows.size() == 0) {
+                        continue;
+                    }
 
-                boolean msgSent = false;
-                for (ArtifactData artifactData : unsortedArtifacts) {
-                    // Add the row data to all of the reports.
-                    for (TableReportModule module : tableModules) {
-
-                        // Get the row data for this type of artifact.
-                        List<String> rowData = artifactData.getRow();
-                        if (rowData.isEmpty()) {
-                            if (msgSent == false) {
-                                MessageNotifyUtil.Notify.show(NbBundle.getMessage(this.getClass(),
-                                        "ReportGenerator.msgShow.skippingArtRow.title",
-                                        type),
-                                        NbBundle.getMessage(this.getClass(),
-                                                "ReportGenerator.msgShow.skippingArtRow.msg"),
-                                        MessageNotifyUtil.MessageType.ERROR);
-                                msgSent = true;
-                            }
-                            continue;
-                        }
+                    for (QueuedTableReportModule module : tableModules) {
+                        module.startDataType(type.getDisplayName(), comment.toString());
+                        module.startTable(columnHeaders);
+                    }
+                    tableStarted = true;
 
-                        module.addRow(rowData);
+                    Iterator<List<String>> rows = sortedRows.sortedRows();
+                    while (rows.hasNext()) {
+                        List<String> rowData = rows.next();
+                        for (QueuedTableReportModule module : tableModules) {
+                            module.addRow(rowData);
+                        }
                     }
+                } catch (IOException | UncheckedIOException ex) {
+                    errorList.add(NbBundle.getMessage(this.getClass(), "ReportGenerator.errList.failedSortArtifactRows", type.getDisplayName()));
+                    logger.log(Level.SEVERE, "Failed to sort the artifact rows when generating report.", ex); //NON-NLS
                 }
+                if (tableStarted == false) {
+                    continue;
+                }
+
                 // Finish up this data type
-                for (TableReportModule module : tableModules) {
-                    tableProgress.get(module).increment();
+                for (QueuedTableReportModule module : tableModules) {
+                    tableProgress.get(module.getModule()).increment();
                     module.endTable();
                     module.endDataType();
                 }
@@ -599,10 +623,10 @@ private void makeContentTagsTables() {
             }
 
             // Tell the modules reporting on content tags is beginning.
-            for (TableReportModule module : tableModules) {
+            for (QueuedTableReportModule module : tableModules) {
                 // @@@ This casting is a tricky little workaround to allow the HTML report module to slip in a content hyperlink.
                 // @@@ Alos Using the obsolete ARTIFACT_TYPE.TSK_TAG_FILE is also an expedient hack.
-                tableProgress.get(module).updateStatusLabel(
+                tableProgress.get(module.getModule()).updateStatusLabel(
                         NbBundle.getMessage(this.getClass(), "ReportGenerator.progress.processing",
                                 ARTIFACT_TYPE.TSK_TAG_FILE.getDisplayName()));
                 ArrayList<String> columnHeaders = new ArrayList<>(Arrays.asList(
@@ -622,10 +646,12 @@ private void makeContentTagsTables() {
                             NbBundle.getMessage(this.getClass(), "ReportGenerator.makeContTagTab.taggedFiles.msg"));
                     comment.append(makeCommaSeparatedList(tagNamesFilter));
                 }
-                if (module instanceof ReportHTML) {
-                    ReportHTML htmlReportModule = (ReportHTML) module;
-                    htmlReportModule.startDataType(ARTIFACT_TYPE.TSK_TAG_FILE.getDisplayName(), comment.toString());
-                    htmlReportModule.startContentTagsTable(columnHeaders);
+                if (module.getModule() instanceof ReportHTML) {
+                    module.call(m -> {
+                        ReportHTML htmlReportModule = (ReportHTML) m;
+                        htmlReportModule.startDataType(ARTIFACT_TYPE.TSK_TAG_FILE.getDisplayName(), comment.toString());
+                        htmlReportModule.startContentTagsTable(columnHeaders);
+                    });
                 } else {
                     module.startDataType(ARTIFACT_TYPE.TSK_TAG_FILE.getDisplayName(), comment.toString());
                     module.startTable(columnHeaders);
@@ -647,11 +673,12 @@ private void makeContentTagsTables() {
                 }
 
                 ArrayList<String> rowData = new ArrayList<>(Arrays.asList(tag.getName().getDisplayName(), fileName, tag.getComment()));
-                for (TableReportModule module : tableModules) {
+                for (QueuedTableReportModule module : tableModules) {
                     // @@@ This casting is a tricky little workaround to allow the HTML report module to slip in a content hyperlink.
-                    if (module instanceof ReportHTML) {
-                        ReportHTML htmlReportModule = (ReportHTML) module;
-                        htmlReportModule.addRowWithTaggedContentHyperlink(rowData, tag);
+                    if (module.getModule() instanceof ReportHTML) {
+                        // the HTML module adds cells to the row, so it gets a copy of its own
+                        List<String> htmlRowData = new ArrayList<>(rowData);
+                        module.call(m -> ((ReportHTML) m).addRowWithTaggedContentHyperlink(htmlRowData, tag));
                     } else {
                         module.addRow(rowData);
                     }
@@ -662,8 +689,8 @@ private void makeContentTagsTables() {
             }
 
             // The the modules content tags reporting is ended.
-            for (TableReportModule module : tableModules) {
-                tableProgress.get(module).increment();
+            for (QueuedTableReportModule module : tableModules) {
+                tableProgress.get(module.getModule()).increment();
                 module.endTable();
                 module.endDataType();
             }
@@ -709,8 +736,8 @@ private void makeBlackboardArtifactTagsTables() {
 
             // Tell the modules reporting on blackboard artifact tags data type is beginning.
             // @@@ Using the obsolete ARTIFACT_TYPE.TSK_TAG_ARTIFACT is an expedient hack.
-            for (TableReportModule module : tableModules) {
-                tableProgress.get(module).updateStatusLabel(
+            for (QueuedTableReportModule module : tableModules) {
+                tableProgress.get(module.getModule()).updateStatusLabel(
                         NbBundle.getMessage(this.getClass(), "ReportGenerator.progress.processing",
                                 ARTIFACT_TYPE.TSK_TAG_ARTIFACT.getDisplayName()));
                 StringBuilder comment = new StringBuilder();
@@ -734,7 +761,7 @@ private void makeBlackboardArtifactTagsTables() {
                 }
 
                 List<String> row;
-                for (TableReportModule module : tableModules) {
+                for (QueuedTableReportModule module : tableModules) {
                     row = new ArrayList<>(Arrays.asList(tag.getArtifact().getArtifactTypeName(), tag.getName().getDisplayName(), tag.getComment(), tag.getContent().getName()));
                     module.addRow(row);
                 }
@@ -744,8 +771,8 @@ private void makeBlackboardArtifactTagsTables() {
             }
 
             // The the modules blackboard artifact tags reporting is ended.
-            for (TableReportModule module : tableModules) {
-                tableProgress.get(module).increment();
+            for (QueuedTableReportModule module : tableModules) {
+                tableProgress.get(module.getModule()).increment();
                 module.endTable();
                 module.endDataType();
             }
@@ -763,10 +790,10 @@ private boolean passesTagNamesFilter(String tagName) {
         }
 
         void removeCancelledTableReportModules() {
-            Iterator<TableReportModule> iter = tableModules.iterator();
+            Iterator<QueuedTableReportModule> iter = tableModules.iterator();
             while (iter.hasNext()) {
-                TableReportModule module = iter.next();
-                if (tableProgress.get(module).getStatus() == ReportStatus.CANCELED) {
+                QueuedTableReportModule module = iter.next();
+                if (tableProgress.get(module.getModule()).getStatus() == ReportStatus.CANCELED) {
                     iter.remove();
                 }
             }
@@ -776,25 +803,28 @@ void removeCancelledTableReportModules() {
          * Make a report for the files that were previously found to be images.
          */
         private void makeThumbnailTable() {
-            for (TableReportModule module : tableModules) {
-                tableProgress.get(module).updateStatusLabel(
+            for (QueuedTableReportModule module : tableModules) {
+                tableProgress.get(module.getModule()).updateStatusLabel(
                         NbBundle.getMessage(this.getClass(), "ReportGenerator.progress.createdThumb.text"));
 
-                if (module instanceof ReportHTML) {
-                    ReportHTML htmlModule = (ReportHTML) module;
-                    htmlModule.startDataType(
-                            NbBundle.getMessage(this.getClass(), "ReportGenerator.thumbnailTable.name"),
-                            NbBundle.getMessage(this.getClass(), "ReportGenerator.thumbnailTable.desc"));
-                    List<String> emptyHeaders = new ArrayList<>();
-                    for (int i = 0; i < ReportHTML.THUMBNAIL_COLUMNS; i++) {
-                        emptyHeaders.add("");
-                    }
-                    htmlModule.startTable(emptyHeaders);
+                if (module.getModule() instanceof ReportHTML) {
+                    List<Content> thumbnailImages = new ArrayList<>(images);
+                    module.call(m -> {
+                        ReportHTML htmlModule = (ReportHTML) m;
+                        htmlModule.startDataType(
+                                NbBundle.getMessage(this.getClass(), "ReportGenerator.thumbnailTable.name"),
+                                NbBundle.getMessage(this.getClass(), "ReportGenerator.thumbnailTable.desc"));
+                        List<String> emptyHeaders = new ArrayList<>();
+                        for (int i = 0; i < ReportHTML.THUMBNAIL_COLUMNS; i++) {
+                            emptyHeaders.add("");
+                        }
+                        htmlModule.startTable(emptyHeaders);
 
-                    htmlModule.addThumbnailRows(images);
+                        htmlModule.addThumbnailRows(thumbnailImages);
 
-                    htmlModule.endTable();
-                    htmlModule.endDataType();
+                        htmlModule.endTable();
+                        htmlModule.endDataType();
+                    });
                 }
             }
         }
@@ -867,38 +897,106 @@ private Boolean failsTagFilter(HashSet<String> tagNames, HashSet<String> tagsNam
     }
 
     /**
-     * Get a List of the artifacts and data of the given type that pass the
-     * given Tag Filter.
+     * Make the rows of the artifacts of the given type that pass the given tag
+     * filter and add them to a sorter. The artifacts, their attributes and
+     * their tags are loaded a page at a time, so that only one page of them is
+     * held in memory.
      *
      * @param type           The artifact type to get
      * @param tagNamesFilter The tag names that should be included.
+     * @param sortedRows     The sorter to add the rows to
      *
-     * @return a list of the filtered tags.
+     * @return true if the rows of one or more artifacts could not be made and
+     *         were skipped
+     *
+     * @throws IOException if the rows cannot be spilled to disk
      */
-    private List<ArtifactData> getFilteredArtifacts(ARTIFACT_TYPE type, HashSet<String> tagNamesFilter) {
-        List<ArtifactData> artifacts = new ArrayList<>();
-        try {
-            for (BlackboardArtifact artifact : skCase.getBlackboardArtifacts(type)) {
-                List<BlackboardArtifactTag> tags = Case.getCurrentCase().getServices().getTagsManager().getBlackboardArtifactTagsByArtifact(artifact);
-                HashSet<String> uniqueTagNames = new HashSet<>();
-                for (BlackboardArtifactTag tag : tags) {
-                    uniqueTagNames.add(tag.getName().getDisplayName());
+    @SuppressWarnings("deprecation")
+    private boolean addFilteredArtifactRows(ARTIFACT_TYPE type, HashSet<String> tagNamesFilter, ExternalRowSorter sortedRows) throws IOException {
+        boolean rowSkipped = false;
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            // Get the range of ids of the next page.
+            long firstId = Long.MIN_VALUE;
+            int pageSize = 0;
+            String query = "SELECT artifact_id FROM blackboard_artifacts WHERE artifact_type_id = " + type.getTypeID() //NON-NLS
+                    + " AND artifact_id > " + lastId //NON-NLS
+                    + " ORDER BY artifact_id LIMIT " + ARTIFACT_PAGE_SIZE; //NON-NLS
+            try (CaseDbQuery dbQuery = skCase.executeQuery(query)) {
+                ResultSet resultSet = dbQuery.getResultSet();
+                while (resultSet.next()) {
+                    if (pageSize++ == 0) {
+                        firstId = resultSet.getLong("artifact_id"); //NON-NLS
+                    }
+                    lastId = resultSet.getLong("artifact_id"); //NON-NLS
+                }
+            } catch (TskCoreException | SQLException ex) {
+                errorList.add(NbBundle.getMessage(this.getClass(), "ReportGenerator.errList.failedGetBBArtifacts"));
+                logger.log(Level.SEVERE, "Failed to get Blackboard Artifacts when generating report.", ex); //NON-NLS
+                return rowSkipped;
+            }
+            if (pageSize == 0) {
+                return rowSkipped;
+            }
+
+            String whereClause = "artifact_type_id = " + type.getTypeID() //NON-NLS
+                    + " AND artifact_id >= " + firstId //NON-NLS
+                    + " AND artifact_id <= " + lastId; //NON-NLS
+            Map<Long, List<BlackboardAttribute>> attributes = new HashMap<>();
+            Map<Long, HashSet<String>> tagNames = new HashMap<>();
+            List<BlackboardArtifact> artifacts;
+            try {
+                artifacts = skCase.getMatchingArtifacts("WHERE " + whereClause); //NON-NLS
+                for (BlackboardArtifact artifact : artifacts) {
+                    attributes.put(artifact.getArtifactID(), new ArrayList<>());
+                    tagNames.put(artifact.getArtifactID(), new HashSet<>());
                 }
+            } catch (TskCoreException ex) {
+                errorList.add(NbBundle.getMessage(this.getClass(), "ReportGenerator.errList.failedGetBBArtifacts"));
+                logger.log(Level.SEVERE, "Failed to get Blackboard Artifacts when generating report.", ex); //NON-NLS
+                return rowSkipped;
+            }
+            try {
+                for (BlackboardAttribute attribute : skCase.getMatchingAttributes("WHERE artifact_id IN (SELECT artifact_id FROM blackboard_artifacts WHERE " + whereClause + ")")) { //NON-NLS
+                    List<BlackboardAttribute> artifactAttributes = attributes.get(attribute.getArtifactID());
+                    if (artifactAttributes != null) {
+                        artifactAttributes.add(attribute);
+                    }
+                }
+            } catch (TskCoreException ex) {
+                errorList.add(NbBundle.getMessage(this.getClass(), "ReportGenerator.errList.failedGetBBAttribs"));
+                logger.log(Level.SEVERE, "Failed to get Blackboard Attributes when generating report.", ex); //NON-NLS
+                continue;
+            }
+            String tagQuery = "SELECT display_name, artifact_id FROM tag_names AS tn, blackboard_artifact_tags AS bat " + //NON-NLS
+                    "WHERE tn.tag_name_id = bat.tag_name_id AND bat.artifact_id >= " + firstId + " AND bat.artifact_id <= " + lastId; //NON-NLS
+            try (CaseDbQuery dbQuery = skCase.executeQuery(tagQuery)) {
+                ResultSet tagNameRows = dbQuery.getResultSet();
+                while (tagNameRows.next()) {
+                    HashSet<String> artifactTagNames = tagNames.get(tagNameRows.getLong("artifact_id")); //NON-NLS
+                    if (artifactTagNames != null) {
+                        artifactTagNames.add(tagNameRows.getString("display_name")); //NON-NLS
+                    }
+                }
+            } catch (TskCoreException | SQLException ex) {
+                errorList.add(NbBundle.getMessage(this.getClass(), "ReportGenerator.errList.failedGetBBArtifactTags"));
+                logger.log(Level.SEVERE, "Failed to get blackboard artifact tags when generating report.", ex); //NON-NLS
+                continue;
+            }
+
+            for (BlackboardArtifact artifact : artifacts) {
+                HashSet<String> uniqueTagNames = tagNames.get(artifact.getArtifactID());
                 if (failsTagFilter(uniqueTagNames, tagNamesFilter)) {
                     continue;
                 }
-                try {
-                    artifacts.add(new ArtifactData(artifact, skCase.getBlackboardAttributes(artifact), uniqueTagNames));
-                } catch (TskCoreException ex) {
-                    errorList.add(NbBundle.getMessage(this.getClass(), "ReportGenerator.errList.failedGetBBAttribs"));
-                    logger.log(Level.SEVERE, "Failed to get Blackboard Attributes when generating report.", ex); //NON-NLS
+                List<String> rowData = new ArtifactData(artifact, attributes.get(artifact.getArtifactID()), uniqueTagNames).getRow();
+                if (rowData.isEmpty()) {
+                    rowSkipped = true;
+                    continue;
                 }
+                sortedRows.add(artifact.getArtifactID(), rowData);
             }
-        } catch (TskCoreException ex) {
-            errorList.add(NbBundle.getMessage(this.getClass(), "ReportGenerator.errList.failedGetBBArtifacts"));
-            logger.log(Level.SEVERE, "Failed to get Blackboard Artifacts when generating report.", ex); //NON-NLS
         }
-        return artifacts;
     }
 
     /**
@@ -907,7 +1005,7 @@ private List<ArtifactData> getFilteredArtifacts(ARTIFACT_TYPE type, HashSet<Stri
      * @param tableModules modules to report on
      */
     @SuppressWarnings("deprecation")
-    private void writeKeywordHits(List<TableReportModule> tableModules, String comment, HashSet<String> tagNamesFilter) {
+    private void writeKeywordHits(List<QueuedTableReportModule> tableModules, String comment, HashSet<String> tagNamesFilter) {
 
         // Query for keyword lists-only so that we can tell modules what lists
         // will exist for their index.
@@ -940,10 +1038,10 @@ private void writeKeywordHits(List<TableReportModule> tableModules, String comme
             }
 
             // Make keyword data type and give them set index
-            for (TableReportModule module : tableModules) {
+            for (QueuedTableReportModule module : tableModules) {
                 module.startDataType(ARTIFACT_TYPE.TSK_KEYWORD_HIT.getDisplayName(), comment);
                 module.addSetIndex(lists);
-                tableProgress.get(module).updateStatusLabel(
+                tableProgress.get(module.getModule()).updateStatusLabel(
                         NbBundle.getMessage(this.getClass(), "ReportGenerator.progress.processing",
                                 ARTIFACT_TYPE.TSK_KEYWORD_HIT.getDisplayName()));
             }
@@ -986,10 +1084,10 @@ private void writeKeywordHits(List<TableReportModule> tableModules, String comme
                 if (tableModules.isEmpty()) {
                     break;
                 }
-                Iterator<TableReportModule> iter = tableModules.iterator();
+                Iterator<QueuedTableReportModule> iter = tableModules.iterator();
                 while (iter.hasNext()) {
-                    TableReportModule module = iter.next();
-                    if (tableProgress.get(module).getStatus() == ReportStatus.CANCELED) {
+                    QueuedTableReportModule module = iter.next();
+                    if (tableProgress.get(module.getModule()).getStatus() == ReportStatus.CANCELED) {
                         iter.remove();
                     }
                 }
@@ -1022,7 +1120,7 @@ private void writeKeywordHits(List<TableReportModule> tableModules, String comme
                 if ((!list.equals(currentList) && !list.isEmpty()) || (list.isEmpty() && !currentList.equals(
                         NbBundle.getMessage(this.getClass(), "ReportGenerator.writeKwHits.userSrchs")))) {
                     if (!currentList.isEmpty()) {
-                        for (TableReportModule module : tableModules) {
+                        for (QueuedTableReportModule module : tableModules) {
                             module.endTable();
                             module.endSet();
                         }
@@ -1030,35 +1128,35 @@ private void writeKeywordHits(List<TableReportModule> tableModules, String comme
                     currentList = list.isEmpty() ? NbBundle
                             .getMessage(this.getClass(), "ReportGenerator.writeKwHits.userSrchs") : list;
                     currentKeyword = ""; // reset the current keyword because it's a new list
-                    for (TableReportModule module : tableModules) {
+                    for (QueuedTableReportModule module : tableModules) {
                         module.startSet(currentList);
-                        tableProgress.get(module).updateStatusLabel(
+                        tableProgress.get(module.getModule()).updateStatusLabel(
                                 NbBundle.getMessage(this.getClass(), "ReportGenerator.progress.processingList",
                                         ARTIFACT_TYPE.TSK_KEYWORD_HIT.getDisplayName(), currentList));
                     }
                 }
                 if (!keyword.equals(currentKeyword)) {
                     if (!currentKeyword.equals("")) {
-                        for (TableReportModule module : tableModules) {
+                        for (QueuedTableReportModule module : tableModules) {
                             module.endTable();
                         }
                     }
                     currentKeyword = keyword;
-                    for (TableReportModule module : tableModules) {
+                    for (QueuedTableReportModule module : tableModules) {
                         module.addSetElement(currentKeyword);
                         module.startTable(getArtifactTableColumnHeaders(ARTIFACT_TYPE.TSK_KEYWORD_HIT.getTypeID()));
                     }
                 }
 
                 String previewreplace = EscapeUtil.escapeHtml(preview);
-                for (TableReportModule module : tableModules) {
+                for (QueuedTableReportModule module : tableModules) {
                     module.addRow(Arrays.asList(new String[]{previewreplace.replaceAll("<!", ""), uniquePath, tagsList}));
                 }
             }
 
             // Finish the current data type
-            for (TableReportModule module : tableModules) {
-                tableProgress.get(module).increment();
+            for (QueuedTableReportModule module : tableModules) {
+                tableProgress.get(module.getModule()).increment();
                 module.endDataType();
             }
         } catch (TskCoreException | SQLException ex) {
@@ -1073,7 +1171,7 @@ private void writeKeywordHits(List<TableReportModule> tableModules, String comme
      * @param tableModules modules to report on
      */
     @SuppressWarnings("deprecation")
-    private void writeHashsetHits(List<TableReportModule> tableModules, String comment, HashSet<String> tagNamesFilter) {
+    private void writeHashsetHits(List<QueuedTableReportModule> tableModules, String comment, HashSet<String> tagNamesFilter) {
         String orderByClause;
         if (currentCase.getCaseType() == Case.CaseType.MULTI_USER_CASE) {
             orderByClause = "ORDER BY convert_to(att.value_text, 'SQL_ASCII') ASC NULLS FIRST"; //NON-NLS
@@ -1096,10 +1194,10 @@ private void writeHashsetHits(List<TableReportModule> tableModules, String comme
                 lists.add(listsRs.getString("list")); //NON-NLS
             }
 
-            for (TableReportModule module : tableModules) {
+            for (QueuedTableReportModule module : tableModules) {
                 module.startDataType(ARTIFACT_TYPE.TSK_HASHSET_HIT.getDisplayName(), comment);
                 module.addSetIndex(lists);
-                tableProgress.get(module).updateStatusLabel(
+                tableProgress.get(module.getModule()).updateStatusLabel(
                         NbBundle.getMessage(this.getClass(), "ReportGenerator.progress.processing",
                                 ARTIFACT_TYPE.TSK_HASHSET_HIT.getDisplayName()));
             }
@@ -1135,10 +1233,10 @@ private void writeHashsetHits(List<TableReportModule> tableModules, String comme
                 if (tableModules.isEmpty()) {
                     break;
                 }
-                Iterator<TableReportModule> iter = tableModules.iterator();
+                Iterator<QueuedTableReportModule> iter = tableModules.iterator();
                 while (iter.hasNext()) {
-                    TableReportModule module = iter.next();
-                    if (tableProgress.get(module).getStatus() == ReportStatus.CANCELED) {
+                    QueuedTableReportModule module = iter.next();
+                    if (tableProgress.get(module.getModule()).getStatus() == ReportStatus.CANCELED) {
                         iter.remove();
                     }
                 }
@@ -1170,30 +1268,30 @@ private void writeHashsetHits(List<TableReportModule> tableModules, String comme
                 // If the sets aren't the same, we've started a new set
                 if (!set.equals(currentSet)) {
                     if (!currentSet.isEmpty()) {
-                        for (TableReportModule module : tableModules) {
+                        for (QueuedTableReportModule module : tableModules) {
                             module.endTable();
                             module.endSet();
                         }
                     }
                     currentSet = set;
-                    for (TableReportModule module : tableModules) {
+                    for (QueuedTableReportModule module : tableModules) {
                         module.startSet(currentSet);
                         module.startTable(getArtifactTableColumnHeaders(ARTIFACT_TYPE.TSK_HASHSET_HIT.getTypeID()));
-                        tableProgress.get(module).updateStatusLabel(
+                        tableProgress.get(module.getModule()).updateStatusLabel(
                                 NbBundle.getMessage(this.getClass(), "ReportGenerator.progress.processingList",
                                         ARTIFACT_TYPE.TSK_HASHSET_HIT.getDisplayName(), currentSet));
                     }
                 }
 
                 // Add a row for this hit to every module
-                for (TableReportModule module : tableModules) {
+                for (QueuedTableReportModule module : tableModules) {
                     module.addRow(Arrays.asList(new String[]{uniquePath, size, tagsList}));
                 }
             }
 
             // Finish the current data type
-            for (TableReportModule module : tableModules) {
-                tableProgress.get(module).increment();
+            for (QueuedTableReportModule module : tableModules) {
+                tableProgress.get(module.getModule()).increment();
                 module.endDataType();
             }
         } catch (TskCoreException | SQLException ex) {
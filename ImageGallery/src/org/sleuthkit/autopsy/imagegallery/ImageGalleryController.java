@@ -20,6 +20,7 @@
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -480,6 +481,12 @@ public void setNavPanel(NavPanel navPanel) {
     // @@@ review this class for synchronization issues (i.e. reset and cancel being called, add, etc.)
     private class DBWorkerThread implements Runnable {
 
+        /**
+         * the maximum number of consecutive file tasks that are applied to the
+         * db in a single transaction
+         */
+        private static final int MAX_FILE_TASK_BATCH_SIZE = 500;
+
         // true if the process was requested to stop.  Currently no way to reset it
         private volatile boolean cancelled = false;
 
@@ -523,7 +530,9 @@ public void run() {
                 try {
                     InnerTask it = workQueue.take();
 
-                    if (it.isCancelled() == false) {
+                    if (it instanceof FileTask) {
+                        runFileTasks((FileTask) it);
+                    } else if (it.isCancelled() == false) {
                         it.run();
                     }
 
@@ -536,6 +545,53 @@ public void run() {
                 }
             }
         }
+
+        /**
+         * Run the given file task, and any file tasks for the same db that are
+         * queued directly behind it, in a single transaction. The tasks are
+         * prepared before the transaction is begun, so that only their
+         * writes to the db are done while holding its write lock.
+         *
+         * @param first the first file task of the batch, already removed from
+         *              the queue
+         */
+        private void runFileTasks(FileTask first) {
+            final DrawableDB taskDB = first.getTaskDB();
+            List<FileTask> batch = new ArrayList<>();
+            batch.add(first);
+            while (batch.size() < MAX_FILE_TASK_BATCH_SIZE && cancelled == false) {
+                InnerTask next = workQueue.peek();
+                if ((next instanceof FileTask) == false
+                        || ((FileTask) next).getTaskDB() != taskDB
+                        || workQueue.remove(next) == false) {
+                    break;
+                }
+                batch.add((FileTask) next);
+            }
+            try {
+                for (FileTask task : batch) {
+                    if (task.isCancelled() == false) {
+                        task.prepare();
+                    }
+                }
+                DrawableDB.DrawableTransaction tr = taskDB.beginTransaction();
+                try {
+                    for (FileTask task : batch) {
+                        if (task.isCancelled() == false) {
+                            task.run(tr);
+                        }
+                    }
+                } finally {
+                    taskDB.commitTransaction(tr, true);
+                }
+            } catch (NullPointerException ex) {
+                // This is one of the places where we get many errors if the case is closed during processing.
+                // We don't want to print out a ton of exceptions if this is the case.
+                if (Case.isCaseOpen()) {
+                    LOGGER.log(Level.SEVERE, "Error running file tasks", ex);
+                }
+            }
+        }
     }
 
     public synchronized SleuthkitCase getSleuthKitCase() {
@@ -622,6 +678,37 @@ public FileTask(AbstractFile f, DrawableDB taskDB) {
             this.taskDB = taskDB;
         }
 
+        /**
+         * Do the work of this task that does not write to the DrawableDB,
+         * such as reading the file from the case db. Called before the
+         * transaction that is passed to run(DrawableTransaction) is begun, so
+         * that it does not hold the write lock of the DrawableDB.
+         */
+        void prepare() {
+        }
+
+        /**
+         * Do the work of this task as part of the given transaction. The
+         * {@link DBWorkerThread} uses this to apply runs of queued file tasks
+         * in one transaction.
+         *
+         * @param tr the open transaction on this task's DrawableDB
+         */
+        abstract void run(DrawableDB.DrawableTransaction tr);
+
+        /**
+         * Do the work of this task in its own transaction.
+         */
+        @Override
+        public void run() {
+            prepare();
+            DrawableDB.DrawableTransaction tr = taskDB.beginTransaction();
+            try {
+                run(tr);
+            } finally {
+                taskDB.commitTransaction(tr, true);
+            }
+        }
     }
 
     /**
@@ -629,18 +716,38 @@ public FileTask(AbstractFile f, DrawableDB taskDB) {
      */
     static private class UpdateFileTask extends FileTask {
 
+        private DrawableFile<?> drawableFile;
+
         UpdateFileTask(AbstractFile f, DrawableDB taskDB) {
             super(f, taskDB);
         }
 
+        /**
+         * Read the file to update from the case db
+         */
+        @Override
+        void prepare() {
+            try {
+                drawableFile = DrawableFile.create(getFile(), true, getTaskDB().isVideoFile(getFile()));
+            } catch (NullPointerException ex) {
+                // This is one of the places where we get many errors if the case is closed during processing.
+                // We don't want to print out a ton of exceptions if this is the case.
+                if (Case.isCaseOpen()) {
+                    Logger.getLogger(UpdateFileTask.class.getName()).log(Level.SEVERE, "Error in UpdateFile task");
+                }
+            }
+        }
+
         /**
          * Update a file in the database
          */
         @Override
-        public void run() {
+        void run(DrawableDB.DrawableTransaction tr) {
+            if (drawableFile == null) {
+                return;
+            }
             try {
-                DrawableFile<?> drawableFile = DrawableFile.create(getFile(), true, getTaskDB().isVideoFile(getFile()));
-                getTaskDB().updateFile(drawableFile);
+                getTaskDB().updateFile(drawableFile, tr);
             } catch (NullPointerException ex) {
                 // This is one of the places where we get many errors if the case is closed during processing.
                 // We don't want to print out a ton of exceptions if this is the case.
@@ -661,12 +768,12 @@ static private class RemoveFileTask extends FileTask {
         }
 
         /**
-         * Update a file in the database
+         * Remove a file from the database
          */
         @Override
-        public void run() {
+        void run(DrawableDB.DrawableTransaction tr) {
             try {
-                getTaskDB().removeFile(getFile().getId());
+                getTaskDB().removeFile(getFile().getId(), tr);
             } catch (NullPointerException ex) {
                 // This is one of the places where we get many errors if the case is closed during processing.
                 // We don't want to print out a ton of exceptions if this is the case.
@@ -37,8 +37,11 @@
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import javax.annotation.concurrent.GuardedBy;
@@ -82,9 +85,17 @@ public final class DrawableDB {
 
     private static final String HASH_SET_NAME = "hash_set_name";
 
-    private final PreparedStatement insertHashSetStmt;
+    /**
+     * the number of read only connections kept open in addition to the single
+     * writer connection
+     */
+    private static final int READER_POOL_SIZE = 4;
+
+    private static final String SELECT_HASH_SET_NAMES = "SELECT DISTINCT hash_set_name FROM hash_sets";
 
-    private final PreparedStatement groupSeenQueryStmt;
+    private static final String SELECT_GROUP_SEEN = "SELECT seen FROM groups WHERE value = ? AND attribute = ?";
+
+    private final PreparedStatement insertHashSetStmt;
 
     private final PreparedStatement insertGroupStmt;
 
@@ -96,44 +107,52 @@ public final class DrawableDB {
 
     private final PreparedStatement selectHashSetStmt;
 
-    private final PreparedStatement selectHashSetNamesStmt;
-
     private final PreparedStatement insertHashHitStmt;
 
     private final PreparedStatement updateFileStmt;
     private PreparedStatement insertFileStmt;
 
-    private final PreparedStatement pathGroupStmt;
-
-    private final PreparedStatement nameGroupStmt;
-
-    private final PreparedStatement created_timeGroupStmt;
-
-    private final PreparedStatement modified_timeGroupStmt;
-
-    private final PreparedStatement makeGroupStmt;
-
-    private final PreparedStatement modelGroupStmt;
-
-    private final PreparedStatement analyzedGroupStmt;
-
-    private final PreparedStatement hashSetGroupStmt;
-
     /**
-     * map from {@link DrawableAttribute} to the {@link PreparedStatement} thet
-     * is used to select groups for that attribute
+     * map from {@link DrawableAttribute} to the sql query that is used to
+     * select groups for that attribute. The queries are prepared on demand on
+     * each of the reader connections.
      */
-    private final Map<DrawableAttribute<?>, PreparedStatement> groupStatementMap = new HashMap<>();
+    private final Map<DrawableAttribute<?>, String> groupQueryMap = new HashMap<>();
 
     private GroupManager groupManager;
 
     private final Path dbPath;
 
+    /**
+     * the single connection used for all writes. The database is in WAL mode,
+     * so writes through this connection do not block the reader connections.
+     */
     volatile private Connection con;
 
+    /**
+     * pool of read only connections. Each reader sees the last committed
+     * snapshot of the db, so readers never wait on an open write transaction.
+     */
+    private final BlockingQueue<ReaderConnection> readerPool = new ArrayBlockingQueue<>(READER_POOL_SIZE);
+
+    /**
+     * true while the reader connections are not open. Set before the pool is
+     * drained, so that no reader waits for a connection that will not come
+     * back and connections returned afterwards are closed.
+     */
+    private volatile boolean readersClosed = true;
+
+    /**
+     * Readers share the read lock. The write lock of this pair is only taken
+     * to open or close the connections, so that no reader is using a
+     * connection while it is being closed.
+     */
     private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock(true); //use fairness policy
 
-    private final Lock DBLock = rwLock.writeLock(); //using exclusing lock for all db ops for now
+    /**
+     * serializes access to the writer connection and its statements
+     */
+    private final ReentrantLock writerLock = new ReentrantLock(true); //use fairness policy
 
     static {//make sure sqlite driver is loaded // possibly redundant
         try {
@@ -147,15 +166,15 @@ public final class DrawableDB {
 
     //////////////general database logic , mostly borrowed from sleuthkitcase
     /**
-     * Lock to protect against concurrent write accesses to case database and to
-     * block readers while database is in write transaction. Should be utilized
-     * by all db code where underlying storage supports max. 1 concurrent writer
-     * MUST always call dbWriteUnLock() as early as possible, in the same thread
-     * where dbWriteLock() was called
+     * Lock to protect against concurrent write accesses to the writer
+     * connection. Readers are not blocked by this lock, they read the last
+     * committed state of the db through their own connections. MUST always
+     * call dbWriteUnLock() as early as possible, in the same thread where
+     * dbWriteLock() was called
      */
     public void dbWriteLock() {
-        //Logger.getLogger("LOCK").log(Level.INFO, "Locking " + rwLock.toString());
-        DBLock.lock();
+        //Logger.getLogger("LOCK").log(Level.INFO, "Locking " + writerLock.toString());
+        writerLock.lock();
     }
 
     /**
@@ -164,18 +183,18 @@ public void dbWriteLock() {
      * released.
      */
     public void dbWriteUnlock() {
-        //Logger.getLogger("LOCK").log(Level.INFO, "UNLocking " + rwLock.toString());
-        DBLock.unlock();
+        //Logger.getLogger("LOCK").log(Level.INFO, "UNLocking " + writerLock.toString());
+        writerLock.unlock();
     }
 
     /**
-     * Lock to protect against read while it is in a write transaction state.
-     * Supports multiple concurrent readers if there is no writer. MUST always
-     * call dbReadUnLock() as early as possible, in the same thread where
-     * dbReadLock() was called.
+     * Shared lock that keeps the reader connections open while they are in
+     * use. Supports multiple concurrent readers, and does not wait for
+     * writers. MUST always call dbReadUnLock() as early as possible, in the
+     * same thread where dbReadLock() was called.
      */
     void dbReadLock() {
-        DBLock.lock();
+        rwLock.readLock().lock();
     }
 
     /**
@@ -184,7 +203,36 @@ void dbReadLock() {
      * released.
      */
     void dbReadUnlock() {
-        DBLock.unlock();
+        rwLock.readLock().unlock();
+    }
+
+    /**
+     * Take a reader connection from the pool, waiting for one to be returned
+     * if they are all in use. The caller must hold the read lock and must
+     * close the returned ReaderConnection (which returns it to the pool)
+     * before taking another one.
+     *
+     * @return a ReaderConnection
+     *
+     * @throws SQLException if the connections are closed, or are closed while
+     *                      waiting, or the thread was interrupted while
+     *                      waiting for a connection.
+     */
+    private ReaderConnection getReader() throws SQLException {
+        try {
+            while (true) {
+                if (readersClosed || isClosed()) {
+                    throw new SQLException("drawable.db is closed");
+                }
+                ReaderConnection reader = readerPool.poll(100, TimeUnit.MILLISECONDS);
+                if (reader != null) {
+                    return reader;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a drawable.db reader connection", ex);
+        }
     }
 
     /**
@@ -208,21 +256,18 @@ private DrawableDB(Path dbPath, ImageGalleryController controller) throws SQLExc
 
             removeFileStmt = prepareStatement("DELETE FROM drawable_files WHERE obj_id = ?");
 
-            pathGroupStmt = prepareStatement("SELECT obj_id , analyzed FROM drawable_files WHERE path  = ? ", DrawableAttribute.PATH);
-            nameGroupStmt = prepareStatement("SELECT obj_id , analyzed FROM drawable_files WHERE  name  = ? ", DrawableAttribute.NAME);
-            created_timeGroupStmt = prepareStatement("SELECT obj_id , analyzed FROM drawable_files WHERE created_time  = ? ", DrawableAttribute.CREATED_TIME);
-            modified_timeGroupStmt = prepareStatement("SELECT obj_id , analyzed FROM drawable_files WHERE  modified_time  = ? ", DrawableAttribute.MODIFIED_TIME);
-            makeGroupStmt = prepareStatement("SELECT obj_id , analyzed FROM drawable_files WHERE make  = ? ", DrawableAttribute.MAKE);
-            modelGroupStmt = prepareStatement("SELECT obj_id , analyzed FROM drawable_files WHERE model  = ? ", DrawableAttribute.MODEL);
-            analyzedGroupStmt = prepareStatement("SELECT obj_id , analyzed FROM drawable_files WHERE analyzed = ?", DrawableAttribute.ANALYZED);
-            hashSetGroupStmt = prepareStatement("SELECT drawable_files.obj_id AS obj_id, analyzed FROM drawable_files ,  hash_sets , hash_set_hits  WHERE drawable_files.obj_id = hash_set_hits.obj_id AND hash_sets.hash_set_id = hash_set_hits.hash_set_id AND hash_sets.hash_set_name = ?", DrawableAttribute.HASHSET);
+            groupQueryMap.put(DrawableAttribute.PATH, "SELECT obj_id , analyzed FROM drawable_files WHERE path  = ? ");
+            groupQueryMap.put(DrawableAttribute.NAME, "SELECT obj_id , analyzed FROM drawable_files WHERE  name  = ? ");
+            groupQueryMap.put(DrawableAttribute.CREATED_TIME, "SELECT obj_id , analyzed FROM drawable_files WHERE created_time  = ? ");
+            groupQueryMap.put(DrawableAttribute.MODIFIED_TIME, "SELECT obj_id , analyzed FROM drawable_files WHERE  modified_time  = ? ");
+            groupQueryMap.put(DrawableAttribute.MAKE, "SELECT obj_id , analyzed FROM drawable_files WHERE make  = ? ");
+            groupQueryMap.put(DrawableAttribute.MODEL, "SELECT obj_id , analyzed FROM drawable_files WHERE model  = ? ");
+            groupQueryMap.put(DrawableAttribute.ANALYZED, "SELECT obj_id , analyzed FROM drawable_files WHERE analyzed = ?");
+            groupQueryMap.put(DrawableAttribute.HASHSET, "SELECT drawable_files.obj_id AS obj_id, analyzed FROM drawable_files ,  hash_sets , hash_set_hits  WHERE drawable_files.obj_id = hash_set_hits.obj_id AND hash_sets.hash_set_id = hash_set_hits.hash_set_id AND hash_sets.hash_set_name = ?");
 
             updateGroupStmt = prepareStatement("insert or replace into groups (seen, value, attribute) values( ?, ? , ?)");
             insertGroupStmt = prepareStatement("insert or ignore into groups (value, attribute) values (?,?)");
 
-            groupSeenQueryStmt = prepareStatement("SELECT seen FROM groups WHERE value = ? AND attribute = ?");
-
-            selectHashSetNamesStmt = prepareStatement("SELECT DISTINCT hash_set_name FROM hash_sets");
             insertHashSetStmt = prepareStatement("INSERT OR IGNORE INTO hash_sets (hash_set_name)  VALUES (?)");
             selectHashSetStmt = prepareStatement("SELECT hash_set_id FROM hash_sets WHERE hash_set_name = ?");
 
@@ -255,28 +300,6 @@ private PreparedStatement prepareStatement(String stmtString) throws SQLExceptio
         return prepareStatement;
     }
 
-    /**
-     * calls {@link DrawableDB#prepareStatement(java.lang.String) ,
-     *  and then add the statement to the groupStatmentMap used to lookup
-     * statements by the attribute/column they group on
-     *
-     * @param stmtString the string representation of the sqlite statement to
-     *                   prepare
-     * @param attr       the {@link DrawableAttribute} this query groups by
-     *
-     * @return the prepared statement
-     *
-     * @throws SQLExceptionif unable to prepare the statement
-     */
-    private PreparedStatement prepareStatement(String stmtString, DrawableAttribute<?> attr) throws SQLException {
-        PreparedStatement prepareStatement = prepareStatement(stmtString);
-        if (attr != null) {
-            groupStatementMap.put(attr, prepareStatement);
-        }
-
-        return prepareStatement;
-    }
-
     /**
      * public factory method. Creates and opens a connection to a new database *
      * at the given path.
@@ -304,14 +327,13 @@ private void setPragmas() throws SQLException {
         try (Statement statement = con.createStatement()) {
             //reduce i/o operations, we have no OS crash recovery anyway
             statement.execute("PRAGMA synchronous = OFF;");
-            //allow to query while in transaction - no need read locks
-            statement.execute("PRAGMA read_uncommitted = True;");
 
             //TODO: do we need this?
             statement.execute("PRAGMA foreign_keys = ON");
 
-            //TODO: test this
-            statement.execute("PRAGMA journal_mode  = MEMORY");
+            //WAL lets the reader connections query the last committed state
+            //while the writer connection is in a transaction
+            statement.execute("PRAGMA journal_mode = WAL");
 //
             //we don't use this feature, so turn it off for minimal speed up on queries
             //this is deprecated and not recomended
@@ -346,6 +368,7 @@ private boolean initializeDBSchema() {
                 openDBCon();
             }
             setPragmas();
+            openReaders();
 
         } catch (SQLException ex) {
             LOGGER.log(Level.SEVERE, "problem accessing  database", ex);
@@ -449,15 +472,37 @@ public void finalize() throws Throwable {
     }
 
     public void closeDBCon() {
-        if (con != null) {
-            try {
-                closeStatements();
-                con.close();
-            } catch (SQLException ex) {
-                LOGGER.log(Level.WARNING, "Failed to close connection to drawable.db", ex);
+        //stop handing out reader connections before draining the pool
+        readersClosed = true;
+
+        //wait for any in progress reads to finish. The reader and writer locks
+        //are taken one after the other, never nested, so that this can not
+        //deadlock with a writer that reads inside its transaction.
+        rwLock.writeLock().lock();
+        try {
+            ReaderConnection reader;
+            while ((reader = readerPool.poll()) != null) {
+                reader.closeConnection();
+            }
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+
+        //wait for any in progress writes to finish
+        dbWriteLock();
+        try {
+            if (con != null) {
+                try {
+                    closeStatements();
+                    con.close();
+                } catch (SQLException ex) {
+                    LOGGER.log(Level.WARNING, "Failed to close connection to drawable.db", ex);
+                }
             }
+            con = null;
+        } finally {
+            dbWriteUnlock();
         }
-        con = null;
     }
 
     public void openDBCon() {
@@ -470,6 +515,24 @@ public void openDBCon() {
         }
     }
 
+    /**
+     * Fill the pool of reader connections. Must be called after the writer
+     * connection has put the db in WAL mode.
+     *
+     * @throws SQLException if a reader connection could not be opened
+     */
+    private void openReaders() throws SQLException {
+        rwLock.writeLock().lock();
+        try {
+            while (readerPool.size() < READER_POOL_SIZE) {
+                readerPool.add(new ReaderConnection());
+            }
+            readersClosed = false;
+        } finally {
+            rwLock.writeLock().unlock();
+        }
+    }
+
     public boolean isClosed() throws SQLException {
         if (con == null) {
             return true;
@@ -512,7 +575,8 @@ public Set<String> getHashSetNames() {
         Set<String> names = new HashSet<>();
         // "SELECT DISTINCT hash_set_name FROM hash_sets"
         dbReadLock();
-        try (ResultSet rs = selectHashSetNamesStmt.executeQuery();) {
+        try (ReaderConnection reader = getReader();
+                ResultSet rs = reader.prepareStatement(SELECT_HASH_SET_NAMES).executeQuery();) {
             while (rs.next()) {
                 names.add(rs.getString(HASH_SET_NAME));
             }
@@ -526,8 +590,8 @@ public Set<String> getHashSetNames() {
 
     public boolean isGroupSeen(GroupKey<?> groupKey) {
         dbReadLock();
-        try {
-            groupSeenQueryStmt.clearParameters();
+        try (ReaderConnection reader = getReader()) {
+            PreparedStatement groupSeenQueryStmt = reader.prepareStatement(SELECT_GROUP_SEEN);
             groupSeenQueryStmt.setString(1, groupKey.getValueDisplayName());
             groupSeenQueryStmt.setString(2, groupKey.getAttribute().attrName.toString());
             try (ResultSet rs = groupSeenQueryStmt.executeQuery()) {
@@ -674,7 +738,8 @@ public Boolean isFileAnalyzed(DrawableFile<?> f) {
 
     public Boolean isFileAnalyzed(long fileId) {
         dbReadLock();
-        try (Statement stmt = con.createStatement();
+        try (ReaderConnection reader = getReader();
+                Statement stmt = reader.createStatement();
                 ResultSet analyzedQuery = stmt.executeQuery("SELECT analyzed FROM drawable_files WHERE obj_id = " + fileId)) {
             while (analyzedQuery.next()) {
                 return analyzedQuery.getBoolean(ANALYZED);
@@ -692,7 +757,8 @@ public Boolean isFileAnalyzed(long fileId) {
     public Boolean areFilesAnalyzed(Collection<Long> fileIds) {
 
         dbReadLock();
-        try (Statement stmt = con.createStatement();
+        try (ReaderConnection reader = getReader();
+                Statement stmt = reader.createStatement();
                 //Can't make this a preprared statement because of the IN ( ... )
                 ResultSet analyzedQuery = stmt.executeQuery("SELECT COUNT(analyzed) AS analyzed FROM drawable_files WHERE analyzed = 1 AND obj_id IN (" + StringUtils.join(fileIds, ", ") + ")")) {
             while (analyzedQuery.next()) {
@@ -712,10 +778,10 @@ public Boolean isGroupAnalyzed(GroupKey<?> gk) {
         try {
             Set<Long> fileIDsInGroup = getFileIDsInGroup(gk);
 
-            try {
+            try (ReaderConnection reader = getReader()) {
                 // In testing, this method appears to be a lot faster than doing one large select statement
                 for (Long fileID : fileIDsInGroup) {
-                    Statement stmt = con.createStatement();
+                    Statement stmt = reader.createStatement();
                     ResultSet analyzedQuery = stmt.executeQuery("SELECT analyzed FROM drawable_files WHERE obj_id = " + fileID);
                     while (analyzedQuery.next()) {
                         if (analyzedQuery.getInt(ANALYZED) == 0) {
@@ -764,8 +830,8 @@ public Set<Long> findAllFileIdsWhere(String sqlWhereClause) throws TskCoreExcept
         ResultSet rs = null;
         Set<Long> ret = new HashSet<>();
         dbReadLock();
-        try {
-            statement = con.createStatement();
+        try (ReaderConnection reader = getReader()) {
+            statement = reader.createStatement();
             rs = statement.executeQuery("SELECT obj_id FROM drawable_files WHERE " + sqlWhereClause);
             while (rs.next()) {
                 ret.add(rs.getLong(1));
@@ -807,8 +873,8 @@ public long countFilesWhere(String sqlWhereClause) throws TskCoreException {
         Statement statement = null;
         ResultSet rs = null;
         dbReadLock();
-        try {
-            statement = con.createStatement();
+        try (ReaderConnection reader = getReader()) {
+            statement = reader.createStatement();
             rs = statement.executeQuery("SELECT COUNT (*) FROM drawable_files WHERE " + sqlWhereClause); //NON-NLS
             return rs.getLong(1);
         } catch (SQLException e) {
@@ -843,8 +909,8 @@ public long countFiles() throws TskCoreException {
         Statement statement = null;
         ResultSet rs = null;
         dbReadLock();
-        try {
-            statement = con.createStatement();
+        try (ReaderConnection reader = getReader()) {
+            statement = reader.createStatement();
             rs = statement.executeQuery("SELECT COUNT (*) FROM drawable_files"); //NON-NLS
             return rs.getLong(1);
         } catch (SQLException e) {
@@ -925,7 +991,8 @@ public <A extends Comparable<A>> List<A> findValuesForAttribute(DrawableAttribut
                     query.append(sortOrderClause);
                 }
 
-                try (Statement stmt = con.createStatement();
+                try (ReaderConnection reader = getReader();
+                        Statement stmt = reader.createStatement();
                         ResultSet valsResults = stmt.executeQuery(query.toString())) {
                     while (valsResults.next()) {
                         vals.add((A) valsResults.getObject(groupBy.attrName.toString()));
@@ -1009,8 +1076,8 @@ public Set<Long> getFileIDsInGroup(GroupKey<?> groupKey) throws TskCoreException
         }
         Set<Long> files = new HashSet<>();
         dbReadLock();
-        try {
-            PreparedStatement statement = getGroupStatment(groupKey.getAttribute());
+        try (ReaderConnection reader = getReader()) {
+            PreparedStatement statement = reader.prepareStatement(getGroupQuery(groupKey.getAttribute()));
             statement.setObject(1, groupKey.getValue());
 
             try (ResultSet valsResults = statement.executeQuery()) {
@@ -1028,23 +1095,20 @@ public Set<Long> getFileIDsInGroup(GroupKey<?> groupKey) throws TskCoreException
     }
 
     public List<DrawableFile<?>> getFilesInGroup(GroupKey<?> key) throws TskCoreException {
+        /*
+         * I hate this! not flexible/generic/maintainable we could have the
+         * DrawableAttribute provide/create/configure the correct statement but
+         * they shouldn't be coupled like that -jm
+         */
+        switch (key.getAttribute().attrName) {
+            case CATEGORY:
+                return getFilesWithCategory((Category) key.getValue());
+        }
+
         List<DrawableFile<?>> files = new ArrayList<>();
         dbReadLock();
-        try {
-            PreparedStatement statement = null;
-
-            /*
-             * I hate this! not flexible/generic/maintainable we could have the
-             * DrawableAttribute provide/create/configure the correct statement
-             * but they shouldn't be coupled like that -jm
-             */
-            switch (key.getAttribute().attrName) {
-                case CATEGORY:
-                    return getFilesWithCategory((Category) key.getValue());
-                default:
-                    statement = getGroupStatment(key.getAttribute());
-            }
-
+        try (ReaderConnection reader = getReader()) {
+            PreparedStatement statement = reader.prepareStatement(getGroupQuery(key.getAttribute()));
             statement.setObject(1, key.getValue());
 
             try (ResultSet valsResults = statement.executeQuery()) {
@@ -1084,15 +1148,20 @@ public List<DrawableFile<?>> getFilesWithCategory(Category cat) throws TskCoreEx
         }
     }
 
-    private PreparedStatement getGroupStatment(DrawableAttribute<?> groupBy) {
-        return groupStatementMap.get(groupBy);
-
+    private String getGroupQuery(DrawableAttribute<?> groupBy) throws SQLException {
+        String query = groupQueryMap.get(groupBy);
+        if (query == null) {
+            throw new SQLException("No group query for attribute " + groupBy.attrName.toString());
+        }
+        return query;
     }
 
     public int countAllFiles() {
         int result = -1;
         dbReadLock();
-        try (ResultSet rs = con.createStatement().executeQuery("SELECT COUNT(*) AS COUNT FROM drawable_files")) {
+        try (ReaderConnection reader = getReader();
+                Statement stmt = reader.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) AS COUNT FROM drawable_files")) {
             while (rs.next()) {
 
                 result = rs.getInt("COUNT");
@@ -1184,9 +1253,9 @@ public int getNumberOfImageFilesInList() {
     private void initializeImageList() {
         synchronized (fileIDsInDB) {
             dbReadLock();
-            try {
-                Statement stmt = con.createStatement();
-                ResultSet analyzedQuery = stmt.executeQuery("select obj_id from drawable_files");
+            try (ReaderConnection reader = getReader();
+                    Statement stmt = reader.createStatement();
+                    ResultSet analyzedQuery = stmt.executeQuery("select obj_id from drawable_files")) {
                 while (analyzedQuery.next()) {
                     addImageFileToList(analyzedQuery.getLong(OBJ_ID));
                 }
@@ -1251,6 +1320,72 @@ public long getCategoryCount(Category cat) {
         return -1;
     }
 
+    /**
+     * A read only connection to the db and the statements that have been
+     * prepared on it. Closing a ReaderConnection returns it to the pool, it
+     * does not close the underlying connection unless the readers have been
+     * closed.
+     */
+    private final class ReaderConnection implements AutoCloseable {
+
+        private final Connection readCon;
+
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private ReaderConnection() throws SQLException {
+            readCon = DriverManager.getConnection("jdbc:sqlite:" + dbPath.toString());
+            try (Statement statement = readCon.createStatement()) {
+                statement.execute("PRAGMA query_only = True");
+                statement.execute("PRAGMA temp_store = MEMORY");
+                statement.execute("PRAGMA cache_size = 50000");
+            }
+        }
+
+        /**
+         * get a cached prepared statement for the given sql, with its
+         * parameters cleared
+         */
+        private PreparedStatement prepareStatement(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = readCon.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            statement.clearParameters();
+            return statement;
+        }
+
+        private Statement createStatement() throws SQLException {
+            return readCon.createStatement();
+        }
+
+        @Override
+        public void close() {
+            if (readersClosed == false && readerPool.offer(this)) {
+                // if the pool was drained before this was put back, take it
+                // out again and close it. Only one of this and the drain
+                // gets it from the pool.
+                if (readersClosed && readerPool.remove(this)) {
+                    closeConnection();
+                }
+            } else {
+                closeConnection();
+            }
+        }
+
+        private void closeConnection() {
+            try {
+                for (PreparedStatement statement : statements.values()) {
+                    statement.close();
+                }
+                statements.clear();
+                readCon.close();
+            } catch (SQLException ex) {
+                LOGGER.log(Level.WARNING, "Failed to close reader connection to drawable.db", ex);
+            }
+        }
+    }
+
     /**
      * inner class that can reference access database connection
      */
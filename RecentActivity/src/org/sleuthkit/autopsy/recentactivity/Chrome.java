@@ -37,7 +37,6 @@
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
-import org.sleuthkit.autopsy.casemodule.services.FileManager;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.ingest.IngestJobContext;
 import org.sleuthkit.autopsy.ingest.ModuleDataEvent;
@@ -85,10 +84,9 @@ public void process(Content dataSource, IngestJobContext context) {
      * Query for history databases and add artifacts
      */
     private void getHistory() {
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> historyFiles;
         try {
-            historyFiles = fileManager.findFiles(dataSource, "History", "Chrome"); //NON-NLS
+            historyFiles = this.findFiles(dataSource, "History", "Chrome"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Chrome.getHistory.errMsg.errGettingFiles");
             logger.log(Level.SEVERE, msg, ex);
@@ -114,7 +112,7 @@ private void getHistory() {
         dataFound = true;
         int j = 0;
         while (j < historyFiles.size()) {
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome") + File.separator + historyFiles.get(j).getName().toString() + j + ".db"; //NON-NLS
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome", context.getJobId()) + File.separator + historyFiles.get(j).getName().toString() + j + ".db"; //NON-NLS
             final AbstractFile historyFile = historyFiles.get(j++);
             if (historyFile.getSize() == 0) {
                 continue;
@@ -132,31 +130,29 @@ private void getHistory() {
                 dbFile.delete();
                 break;
             }
-            List<HashMap<String, Object>> tempList;
-            tempList = this.dbConnect(temps, historyQuery);
-            logger.log(Level.INFO, "{0}- Now getting history from {1} with {2}artifacts identified.", new Object[]{moduleName, temps, tempList.size()}); //NON-NLS
-            for (HashMap<String, Object> result : tempList) {
+            int rowCount = this.dbStream(temps, historyQuery, context, (DbRow result) -> {
                 Collection<BlackboardAttribute> bbattributes = new ArrayList<BlackboardAttribute>();
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        ((result.get("url").toString() != null) ? result.get("url").toString() : ""))); //NON-NLS
+                        result.getString("url"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_ACCESSED.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        (Long.valueOf(result.get("last_visit_time").toString()) / 1000000) - Long.valueOf("11644473600"))); //NON-NLS
+                        (result.getLong("last_visit_time") / 1000000) - Long.valueOf("11644473600"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_REFERRER.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        ((result.get("from_visit").toString() != null) ? result.get("from_visit").toString() : ""))); //NON-NLS
+                        result.getString("from_visit"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_TITLE.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        ((result.get("title").toString() != null) ? result.get("title").toString() : ""))); //NON-NLS
+                        result.getString("title"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
                         NbBundle.getMessage(this.getClass(), "Chrome.moduleName")));
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        (Util.extractDomain((result.get("url").toString() != null) ? result.get("url").toString() : "")))); //NON-NLS
+                        (Util.extractDomain(result.getString("url"))))); //NON-NLS
                 this.addArtifact(ARTIFACT_TYPE.TSK_WEB_HISTORY, historyFile, bbattributes);
-            }
+            });
+            logger.log(Level.INFO, "{0}- Got history from {1} with {2}artifacts identified.", new Object[]{moduleName, temps, rowCount}); //NON-NLS
             dbFile.delete();
         }
 
@@ -168,10 +164,9 @@ private void getHistory() {
      * Search for bookmark files and make artifacts.
      */
     private void getBookmark() {
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> bookmarkFiles = null;
         try {
-            bookmarkFiles = fileManager.findFiles(dataSource, "Bookmarks", "Chrome"); //NON-NLS
+            bookmarkFiles = this.findFiles(dataSource, "Bookmarks", "Chrome"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Chrome.getBookmark.errMsg.errGettingFiles");
             logger.log(Level.SEVERE, msg, ex);
@@ -192,7 +187,7 @@ private void getBookmark() {
             if (bookmarkFile.getSize() == 0) {
                 continue;
             }
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome") + File.separator + bookmarkFile.getName().toString() + j + ".db"; //NON-NLS
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome", context.getJobId()) + File.separator + bookmarkFile.getName().toString() + j + ".db"; //NON-NLS
             try {
                 ContentUtils.writeToFile(bookmarkFile, new File(temps));
             } catch (IOException ex) {
@@ -307,10 +302,9 @@ private void getBookmark() {
      */
     private void getCookie() {
 
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> cookiesFiles;
         try {
-            cookiesFiles = fileManager.findFiles(dataSource, "Cookies", "Chrome"); //NON-NLS
+            cookiesFiles = this.findFiles(dataSource, "Cookies", "Chrome"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Chrome.getCookie.errMsg.errGettingFiles");
             logger.log(Level.SEVERE, msg, ex);
@@ -330,7 +324,7 @@ private void getCookie() {
             if (cookiesFile.getSize() == 0) {
                 continue;
             }
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome") + File.separator + cookiesFile.getName().toString() + j + ".db"; //NON-NLS
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome", context.getJobId()) + File.separator + cookiesFile.getName().toString() + j + ".db"; //NON-NLS
             try {
                 ContentUtils.writeToFile(cookiesFile, new File(temps));
             } catch (IOException ex) {
@@ -346,32 +340,31 @@ private void getCookie() {
                 break;
             }
 
-            List<HashMap<String, Object>> tempList = this.dbConnect(temps, cookieQuery);
-            logger.log(Level.INFO, "{0}- Now getting cookies from {1} with {2}artifacts identified.", new Object[]{moduleName, temps, tempList.size()}); //NON-NLS
-            for (HashMap<String, Object> result : tempList) {
+            int rowCount = this.dbStream(temps, cookieQuery, context, (DbRow result) -> {
                 Collection<BlackboardAttribute> bbattributes = new ArrayList<BlackboardAttribute>();
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        ((result.get("host_key").toString() != null) ? result.get("host_key").toString() : ""))); //NON-NLS
+                        result.getString("host_key"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        (Long.valueOf(result.get("last_access_utc").toString()) / 1000000) - Long.valueOf("11644473600"))); //NON-NLS
+                        (result.getLong("last_access_utc") / 1000000) - Long.valueOf("11644473600"))); //NON-NLS
 
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        ((result.get("name").toString() != null) ? result.get("name").toString() : ""))); //NON-NLS
+                        result.getString("name"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_VALUE.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        ((result.get("value").toString() != null) ? result.get("value").toString() : ""))); //NON-NLS
+                        result.getString("value"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
                         NbBundle.getMessage(this.getClass(), "Chrome.moduleName")));
-                String domain = result.get("host_key").toString(); //NON-NLS
+                String domain = result.getString("host_key"); //NON-NLS
                 domain = domain.replaceFirst("^\\.+(?!$)", "");
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"), domain));
                 this.addArtifact(ARTIFACT_TYPE.TSK_WEB_COOKIE, cookiesFile, bbattributes);
-            }
+            });
+            logger.log(Level.INFO, "{0}- Got cookies from {1} with {2}artifacts identified.", new Object[]{moduleName, temps, rowCount}); //NON-NLS
 
             dbFile.delete();
         }
@@ -383,10 +376,9 @@ private void getCookie() {
      * Queries for download files and adds artifacts
      */
     private void getDownload() {
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> downloadFiles = null;
         try {
-            downloadFiles = fileManager.findFiles(dataSource, "History", "Chrome"); //NON-NLS
+            downloadFiles = this.findFiles(dataSource, "History", "Chrome"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Chrome.getDownload.errMsg.errGettingFiles");
             logger.log(Level.SEVERE, msg, ex);
@@ -406,7 +398,7 @@ private void getDownload() {
             if (downloadFile.getSize() == 0) {
                 continue;
             }
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome") + File.separator + downloadFile.getName().toString() + j + ".db"; //NON-NLS
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome", context.getJobId()) + File.separator + downloadFile.getName().toString() + j + ".db"; //NON-NLS
             try {
                 ContentUtils.writeToFile(downloadFile, new File(temps));
             } catch (IOException ex) {
@@ -421,20 +413,17 @@ private void getDownload() {
                 break;
             }
 
-            List<HashMap<String, Object>> tempList;
-
+            String query;
             if (isChromePreVersion30(temps)) {
-                tempList = this.dbConnect(temps, downloadQuery);
+                query = downloadQuery;
             } else {
-                tempList = this.dbConnect(temps, downloadQueryVersion30);
+                query = downloadQueryVersion30;
             }
-
-            logger.log(Level.INFO, "{0}- Now getting downloads from {1} with {2}artifacts identified.", new Object[]{moduleName, temps, tempList.size()}); //NON-NLS
-            for (HashMap<String, Object> result : tempList) {
+            int rowCount = this.dbStream(temps, query, context, (DbRow result) -> {
                 Collection<BlackboardAttribute> bbattributes = new ArrayList<BlackboardAttribute>();
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PATH.getTypeID(),
-                        NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"), (result.get("full_path").toString()))); //NON-NLS
-                long pathID = Util.findID(dataSource, (result.get("full_path").toString())); //NON-NLS
+                        NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"), (result.getString("full_path")))); //NON-NLS
+                long pathID = Util.findID(dataSource, (result.getString("full_path"))); //NON-NLS
                 if (pathID != -1) {
                     bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PATH_ID.getTypeID(),
                             NbBundle.getMessage(this.getClass(),
@@ -442,22 +431,23 @@ private void getDownload() {
                 }
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
-                        ((result.get("url").toString() != null) ? result.get("url").toString() : ""))); //NON-NLS
+                        result.getString("url"))); //NON-NLS
                 //bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL_DECODED.getTypeID(), "Recent Activity", ((result.get("url").toString() != null) ? EscapeUtil.decodeURL(result.get("url").toString()) : "")));
-                Long time = (Long.valueOf(result.get("start_time").toString()) / 1000000) - Long.valueOf("11644473600"); //NON-NLS
+                Long time = (result.getLong("start_time") / 1000000) - Long.valueOf("11644473600"); //NON-NLS
 
                 //TODO Revisit usage of deprecated constructor as per TSK-583
                 //bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_LAST_ACCESSED.getTypeID(), "Recent Activity", "Last Visited", time));
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_ACCESSED.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"), time));
-                String domain = Util.extractDomain((result.get("url").toString() != null) ? result.get("url").toString() : ""); //NON-NLS
+                String domain = Util.extractDomain(result.getString("url")); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"), domain));
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(), "Chrome.parentModuleName"),
                         NbBundle.getMessage(this.getClass(), "Chrome.moduleName")));
                 this.addArtifact(ARTIFACT_TYPE.TSK_WEB_DOWNLOAD, downloadFile, bbattributes);
-            }
+            });
+            logger.log(Level.INFO, "{0}- Got downloads from {1} with {2}artifacts identified.", new Object[]{moduleName, temps, rowCount}); //NON-NLS
 
             dbFile.delete();
         }
@@ -470,10 +460,9 @@ private void getDownload() {
      * Queries for login files and adds artifacts
      */
     private void getLogin() {
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> signonFiles;
         try {
-            signonFiles = fileManager.findFiles(dataSource, "signons.sqlite", "Chrome"); //NON-NLS
+            signonFiles = this.findFiles(dataSource, "signons.sqlite", "Chrome"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Chrome.getLogin.errMsg.errGettingFiles");
             logger.log(Level.SEVERE, msg, ex);
@@ -493,7 +482,7 @@ private void getLogin() {
             if (signonFile.getSize() == 0) {
                 continue;
             }
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome") + File.separator + signonFile.getName().toString() + j + ".db"; //NON-NLS
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "chrome", context.getJobId()) + File.separator + signonFile.getName().toString() + j + ".db"; //NON-NLS
             try {
                 ContentUtils.writeToFile(signonFile, new File(temps));
             } catch (IOException ex) {
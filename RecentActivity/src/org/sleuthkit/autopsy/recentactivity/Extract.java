@@ -46,6 +46,7 @@ abstract class Extract {
     private final ArrayList<String> errorMessages = new ArrayList<>();
     String moduleName = "";
     boolean dataFound = false;
+    private SharedFileFinder fileFinder = new SharedFileFinder();
 
     Extract() {
     }
@@ -58,6 +59,47 @@ void init() throws IngestModuleException {
     void complete() {
     }
 
+    /**
+     * Sets the finder whose file searches are shared with the other extractors
+     * of the same ingest module.
+     *
+     * @param fileFinder the shared finder
+     */
+    void setFileFinder(SharedFileFinder fileFinder) {
+        this.fileFinder = fileFinder;
+    }
+
+    /**
+     * Finds files by name through the shared finder, so that a search that is
+     * also made by another extractor is only run once.
+     *
+     * @param dataSource the data source to search
+     * @param fileName   the name pattern, used in a LIKE SQL statement
+     *
+     * @return the matching files, not to be modified
+     *
+     * @throws TskCoreException if the search fails
+     */
+    protected List<AbstractFile> findFiles(Content dataSource, String fileName) throws TskCoreException {
+        return fileFinder.findFiles(dataSource, fileName, null);
+    }
+
+    /**
+     * Finds files by name and parent path through the shared finder, so that a
+     * search that is also made by another extractor is only run once.
+     *
+     * @param dataSource the data source to search
+     * @param fileName   the name pattern, used in a LIKE SQL statement
+     * @param parentName the parent path pattern, used in a LIKE SQL statement
+     *
+     * @return the matching files, not to be modified
+     *
+     * @throws TskCoreException if the search fails
+     */
+    protected List<AbstractFile> findFiles(Content dataSource, String fileName, String parentName) throws TskCoreException {
+        return fileFinder.findFiles(dataSource, fileName, parentName);
+    }
+
     /**
      * Returns a List of string error messages from the inheriting class
      *
@@ -143,6 +185,90 @@ protected List<HashMap<String, Object>> dbConnect(String path, String query) {
         return list;
     }
 
+    /**
+     * Runs a sql query against a sqlite database and passes each row of the
+     * result to a handler as it is read, so that the rows of large databases,
+     * such as browser histories, are never all held in memory at once.
+     *
+     * @param path    is the string path to the sqlite db file
+     * @param query   is a sql string query that is to be run
+     * @param context the ingest job context, checked for cancellation between
+     *                rows
+     * @param handler is called with each row of the result, the row is only
+     *                valid during the call
+     *
+     * @return the number of rows that were handled, or -1 if the database
+     *         could not be queried
+     */
+    protected int dbStream(String path, String query, IngestJobContext context, RowHandler handler) {
+        String connectionString = "jdbc:sqlite:" + path; //NON-NLS
+        SQLiteDBConnect tempdbconnect = null;
+        int rowCount = 0;
+        try {
+            tempdbconnect = new SQLiteDBConnect("org.sqlite.JDBC", connectionString); //NON-NLS
+            try (ResultSet resultSet = tempdbconnect.executeQry(query)) {
+                DbRow row = new DbRow(resultSet);
+                while (resultSet.next()) {
+                    if (context.dataSourceIngestIsCancelled()) {
+                        break;
+                    }
+                    handler.handleRow(row);
+                    rowCount++;
+                }
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Error while trying to read into a sqlite db." + connectionString, ex); //NON-NLS
+            errorMessages.add(NbBundle.getMessage(this.getClass(), "Extract.dbConn.errMsg.failedToQueryDb", getName()));
+            return -1;
+        } finally {
+            if (tempdbconnect != null) {
+                tempdbconnect.closeConnection();
+            }
+        }
+        return rowCount;
+    }
+
+    /**
+     * Handles the rows of a query run by dbStream().
+     */
+    @FunctionalInterface
+    interface RowHandler {
+
+        void handleRow(DbRow row) throws SQLException;
+    }
+
+    /**
+     * The current row of a query run by dbStream(), with typed accessors that
+     * treat SQL NULL the same way dbConnect() does.
+     */
+    static final class DbRow {
+
+        private final ResultSet resultSet;
+
+        private DbRow(ResultSet resultSet) {
+            this.resultSet = resultSet;
+        }
+
+        /**
+         * @param column the column name
+         *
+         * @return the value of the column, or an empty string if it is null
+         */
+        String getString(String column) throws SQLException {
+            String value = resultSet.getString(column);
+            return (value != null) ? value : "";
+        }
+
+        /**
+         * @param column the column name
+         *
+         * @return the value of the column, or 0 if it is null
+         */
+        long getLong(String column) throws SQLException {
+            return resultSet.getLong(column);
+        }
+    }
+
     /**
      * Returns a List of AbstractFile objects from TSK based on sql query.
      *
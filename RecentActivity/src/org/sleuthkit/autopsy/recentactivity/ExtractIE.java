@@ -25,14 +25,8 @@
 import java.io.BufferedReader;
 
 import org.openide.util.NbBundle;
-import org.sleuthkit.autopsy.coreutils.ExecUtil;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -40,10 +34,7 @@
 import java.util.logging.Level;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import java.util.Collection;
-import java.util.Scanner;
-import org.openide.modules.InstalledFileLocator;
-import org.sleuthkit.autopsy.casemodule.Case;
-import org.sleuthkit.autopsy.datamodel.ContentUtils;
+import java.util.function.Consumer;
 import org.sleuthkit.autopsy.ingest.IngestServices;
 import org.sleuthkit.autopsy.ingest.ModuleDataEvent;
 import org.sleuthkit.datamodel.BlackboardArtifact;
@@ -51,8 +42,6 @@
 import org.sleuthkit.datamodel.BlackboardAttribute;
 import org.sleuthkit.datamodel.BlackboardAttribute.ATTRIBUTE_TYPE;
 import org.sleuthkit.datamodel.Content;
-import org.sleuthkit.autopsy.coreutils.PlatformUtil;
-import org.sleuthkit.autopsy.ingest.DataSourceIngestModuleProcessTerminator;
 import org.sleuthkit.autopsy.ingest.IngestJobContext;
 import org.sleuthkit.datamodel.*;
 
@@ -64,17 +53,11 @@ class ExtractIE extends Extract {
 
     private static final Logger logger = Logger.getLogger(ExtractIE.class.getName());
     private IngestServices services = IngestServices.getInstance();
-    private String moduleTempResultsDir;
-    private String PASCO_LIB_PATH;
-    private String JAVA_PATH;
-    private static final SimpleDateFormat dateFormatter = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
     private Content dataSource;
     private IngestJobContext context;
 
     ExtractIE() {
         moduleName = NbBundle.getMessage(ExtractIE.class, "ExtractIE.moduleName.text");
-        moduleTempResultsDir = RAImageIngestModule.getRATempPath(Case.getCurrentCase(), "IE") + File.separator + "results"; //NON-NLS
-        JAVA_PATH = PlatformUtil.getJavaPath();
     }
 
     @Override
@@ -91,10 +74,9 @@ public void process(Content dataSource, IngestJobContext context) {
      * Finds the files storing bookmarks and creates artifacts
      */
     private void getBookmark() {
-        org.sleuthkit.autopsy.casemodule.services.FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> favoritesFiles;
         try {
-            favoritesFiles = fileManager.findFiles(dataSource, "%.url", "Favorites"); //NON-NLS
+            favoritesFiles = this.findFiles(dataSource, "%.url", "Favorites"); //NON-NLS
         } catch (TskCoreException ex) {
             logger.log(Level.WARNING, "Error fetching 'url' files for Internet Explorer bookmarks.", ex); //NON-NLS
             this.addErrorMessage(
@@ -186,10 +168,9 @@ private String getURLFromIEBookmarkFile(AbstractFile fav) {
      * Finds files that store cookies and adds artifacts for them.
      */
     private void getCookie() {
-        org.sleuthkit.autopsy.casemodule.services.FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> cookiesFiles;
         try {
-            cookiesFiles = fileManager.findFiles(dataSource, "%.txt", "Cookies"); //NON-NLS
+            cookiesFiles = this.findFiles(dataSource, "%.txt", "Cookies"); //NON-NLS
         } catch (TskCoreException ex) {
             logger.log(Level.WARNING, "Error getting cookie files for IE"); //NON-NLS
             this.addErrorMessage(
@@ -258,34 +239,15 @@ private void getCookie() {
     }
 
     /**
-     * Locates index.dat files, runs Pasco on them, and creates artifacts.
+     * Locates index.dat files, parses them, and creates artifacts.
      */
     private void getHistory() {
-        logger.log(Level.INFO, "Pasco results path: {0}", moduleTempResultsDir); //NON-NLS
         boolean foundHistory = false;
 
-        final File pascoRoot = InstalledFileLocator.getDefault().locate("pasco2", ExtractIE.class.getPackage().getName(), false); //NON-NLS
-        if (pascoRoot == null) {
-            this.addErrorMessage(
-                    NbBundle.getMessage(this.getClass(), "ExtractIE.getHistory.errMsg.unableToGetHist", this.getName()));
-            logger.log(Level.SEVERE, "Error finding pasco program "); //NON-NLS
-            return;
-        }
-
-        final String pascoHome = pascoRoot.getAbsolutePath();
-        logger.log(Level.INFO, "Pasco2 home: {0}", pascoHome); //NON-NLS
-
-        PASCO_LIB_PATH = pascoHome + File.separator + "pasco2.jar" + File.pathSeparator //NON-NLS
-                + pascoHome + File.separator + "*";
-
-        File resultsDir = new File(moduleTempResultsDir);
-        resultsDir.mkdirs();
-
         // get index.dat files
-        org.sleuthkit.autopsy.casemodule.services.FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> indexFiles;
         try {
-            indexFiles = fileManager.findFiles(dataSource, "index.dat"); //NON-NLS
+            indexFiles = this.findFiles(dataSource, "index.dat"); //NON-NLS
         } catch (TskCoreException ex) {
             this.addErrorMessage(NbBundle.getMessage(this.getClass(), "ExtractIE.getHistory.errMsg.errGettingHistFiles",
                     this.getName()));
@@ -300,50 +262,24 @@ private void getHistory() {
         }
 
         dataFound = true;
-        String temps;
-        String indexFileName;
         for (AbstractFile indexFile : indexFiles) {
-            // Since each result represent an index.dat file,
-            // just create these files with the following notation:
-            // index<Number>.dat (i.e. index0.dat, index1.dat,..., indexN.dat)
-            // Write each index.dat file to a temp directory.
-            //BlackboardArtifact bbart = fsc.newArtifact(ARTIFACT_TYPE.TSK_WEB_HISTORY);
-            indexFileName = "index" + Integer.toString((int) indexFile.getId()) + ".dat"; //NON-NLS
-            //indexFileName = "index" + Long.toString(bbart.getArtifactID()) + ".dat";
-            temps = RAImageIngestModule.getRATempPath(currentCase, "IE") + File.separator + indexFileName; //NON-NLS
-            File datFile = new File(temps);
             if (context.dataSourceIngestIsCancelled()) {
                 break;
             }
+
+            IEIndexDatParser parser;
             try {
-                ContentUtils.writeToFile(indexFile, datFile);
-            } catch (IOException e) {
-                logger.log(Level.SEVERE, "Error while trying to write index.dat file " + datFile.getAbsolutePath(), e); //NON-NLS
+                parser = new IEIndexDatParser(new ReadContentInputStream(indexFile), indexFile.getSize());
+            } catch (IOException ex) {
+                logger.log(Level.WARNING, "Error reading Internet Explorer history file " + indexFile.getName() //NON-NLS
+                        + " (id " + indexFile.getId() + ")", ex); //NON-NLS
                 this.addErrorMessage(
-                        NbBundle.getMessage(this.getClass(), "ExtractIE.getHistory.errMsg.errWriteFile", this.getName(),
-                                datFile.getAbsolutePath()));
+                        NbBundle.getMessage(this.getClass(), "ExtractIE.getHistory.errMsg.errProcHist", this.getName()));
                 continue;
             }
 
-            String filename = "pasco2Result." + indexFile.getId() + ".txt"; //NON-NLS
-            boolean bPascProcSuccess = executePasco(temps, filename);
-            if (context.dataSourceIngestIsCancelled()) {
-                return;
-            }
-
-            //At this point pasco2 proccessed the index files.
-            //Now fetch the results, parse them and the delete the files.
-            if (bPascProcSuccess) {
-                parsePascoOutput(indexFile, filename);
-                foundHistory = true;
-
-                //Delete index<n>.dat file since it was succcessfully by Pasco
-                datFile.delete();
-            } else {
-                logger.log(Level.WARNING, "pasco execution failed on: {0}", this.getName()); //NON-NLS
-                this.addErrorMessage(
-                        NbBundle.getMessage(this.getClass(), "ExtractIE.getHistory.errMsg.errProcHist", this.getName()));
-            }
+            parser.parse(new HistoryRecordHandler(indexFile));
+            foundHistory = true;
         }
 
         if (foundHistory) {
@@ -353,105 +289,33 @@ private void getHistory() {
     }
 
     /**
-     * Execute pasco on a single file that has been saved to disk.
-     *
-     * @param indexFilePath  Path to local index.dat file to analyze
-     * @param outputFileName Name of file to save output to
-     *
-     * @return false on error
-     */
-    private boolean executePasco(String indexFilePath, String outputFileName) {
-        boolean success = true;
-        try {
-            final String outputFileFullPath = moduleTempResultsDir + File.separator + outputFileName;
-            final String errFileFullPath = moduleTempResultsDir + File.separator + outputFileName + ".err"; //NON-NLS
-            logger.log(Level.INFO, "Writing pasco results to: {0}", outputFileFullPath); //NON-NLS   
-            List<String> commandLine = new ArrayList<>();
-            commandLine.add(JAVA_PATH);
-            commandLine.add("-cp"); //NON-NLS
-            commandLine.add(PASCO_LIB_PATH);
-            commandLine.add("isi.pasco2.Main"); //NON-NLS
-            commandLine.add("-T"); //NON-NLS
-            commandLine.add("history");  //NON-NLS
-            commandLine.add(indexFilePath);
-            ProcessBuilder processBuilder = new ProcessBuilder(commandLine);
-            processBuilder.redirectOutput(new File(outputFileFullPath));
-            processBuilder.redirectError(new File(errFileFullPath));
-            ExecUtil.execute(processBuilder, new DataSourceIngestModuleProcessTerminator(context));
-            // @@@ Investigate use of history versus cache as type.
-        } catch (IOException ex) {
-            success = false;
-            logger.log(Level.SEVERE, "Unable to execute Pasco to process Internet Explorer web history.", ex); //NON-NLS
-        }
-        return success;
-    }
-
-    /**
-     * parse Pasco output and create artifacts
-     *
-     * @param origFile            Original index.dat file that was analyzed to
-     *                            get this output
-     * @param pascoOutputFileName name of pasco output file
+     * Creates the artifacts for the URL records of one index.dat file.
      */
-    private void parsePascoOutput(AbstractFile origFile, String pascoOutputFileName) {
+    private class HistoryRecordHandler implements Consumer<IEIndexDatParser.UrlRecord> {
 
-        String fnAbs = moduleTempResultsDir + File.separator + pascoOutputFileName;
-
-        File file = new File(fnAbs);
-        if (file.exists() == false) {
-            this.addErrorMessage(
-                    NbBundle.getMessage(this.getClass(), "ExtractIE.parsePascoOutput.errMsg.notFound", this.getName(),
-                            file.getName()));
-            logger.log(Level.WARNING, "Pasco Output not found: {0}", file.getPath()); //NON-NLS
-            return;
-        }
-
-        // Make sure the file the is not empty or the Scanner will
-        // throw a "No Line found" Exception
-        if (file.length() == 0) {
-            return;
-        }
-
-        Scanner fileScanner;
-        try {
-            fileScanner = new Scanner(new FileInputStream(file.toString()));
-        } catch (FileNotFoundException ex) {
-            this.addErrorMessage(
-                    NbBundle.getMessage(this.getClass(), "ExtractIE.parsePascoOutput.errMsg.errParsing", this.getName(),
-                            file.getName()));
-            logger.log(Level.WARNING, "Unable to find the Pasco file at " + file.getPath(), ex); //NON-NLS
-            return;
-        }
+        private final AbstractFile origFile;
 
         // Keep a list of reported user accounts to avoid repeats
-        Set<String> reportedUserAccounts = new HashSet<String>();
+        private final Set<String> reportedUserAccounts = new HashSet<>();
 
-        while (fileScanner.hasNext()) {
-            String line = fileScanner.nextLine();
-            if (!line.startsWith("URL")) {   //NON-NLS
-                continue;
-            }
-
-            String[] lineBuff = line.split("\\t"); //NON-NLS
-
-            if (lineBuff.length < 4) {
-                logger.log(Level.INFO, "Found unrecognized IE history format."); //NON-NLS
-                continue;
-            }
+        /**
+         * @param origFile Original index.dat file that is being parsed
+         */
+        HistoryRecordHandler(AbstractFile origFile) {
+            this.origFile = origFile;
+        }
 
-            String ddtime = lineBuff[2];
-            String actime = lineBuff[3];
-            Long ftime = (long) 0;
-            String user = "";
-            String realurl = "";
-            String domain = "";
+        @Override
+        public void accept(IEIndexDatParser.UrlRecord record) {
+            String user;
+            String realurl;
 
             /*
-             * We've seen two types of lines: URL http://XYZ.com .... URL
+             * We've seen two types of locations: http://XYZ.com .... and
              * Visited: Joe@http://XYZ.com ....
              */
-            if (lineBuff[1].contains("@")) {
-                String url[] = lineBuff[1].split("@", 2);
+            if (record.getUrl().contains("@")) {
+                String url[] = record.getUrl().split("@", 2);
                 user = url[0];
                 user = user.replace("Visited:", ""); //NON-NLS
                 user = user.replace(":Host:", ""); //NON-NLS
@@ -464,28 +328,10 @@ private void parsePascoOutput(AbstractFile origFile, String pascoOutputFileName)
                 realurl = realurl.trim();
             } else {
                 user = "";
-                realurl = lineBuff[1].trim();
-            }
-
-            domain = Util.extractDomain(realurl);
-
-            if (!ddtime.isEmpty()) {
-                ddtime = ddtime.replace("T", " "); //NON-NLS
-                ddtime = ddtime.substring(ddtime.length() - 5);
+                realurl = record.getUrl().trim();
             }
 
-            if (!actime.isEmpty()) {
-                try {
-                    Long epochtime = dateFormatter.parse(actime).getTime();
-                    ftime = epochtime.longValue();
-                    ftime = ftime / 1000;
-                } catch (ParseException e) {
-                    this.addErrorMessage(
-                            NbBundle.getMessage(this.getClass(), "ExtractIE.parsePascoOutput.errMsg.errParsingEntry",
-                                    this.getName()));
-                    logger.log(Level.SEVERE, "Error parsing Pasco results.", e); //NON-NLS
-                }
-            }
+            String domain = Util.extractDomain(realurl);
 
             try {
                 BlackboardArtifact bbart = origFile.newArtifact(ARTIFACT_TYPE.TSK_WEB_HISTORY);
@@ -497,7 +343,7 @@ private void parsePascoOutput(AbstractFile origFile, String pascoOutputFileName)
 
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_ACCESSED.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
-                                "ExtractIE.parentModuleName.noSpace"), ftime));
+                                "ExtractIE.parentModuleName.noSpace"), record.getAccessedTime()));
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_REFERRER.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "ExtractIE.parentModuleName.noSpace"), ""));
@@ -516,7 +362,7 @@ private void parsePascoOutput(AbstractFile origFile, String pascoOutputFileName)
                 bbart.addAttributes(bbattributes);
 
                 // index the artifact for keyword search
-                this.indexArtifact(bbart);
+                indexArtifact(bbart);
 
                 if ((!user.isEmpty()) && (!reportedUserAccounts.contains(user))) {
                     BlackboardArtifact osAttr = origFile.newArtifact(ARTIFACT_TYPE.TSK_OS_ACCOUNT);
@@ -524,7 +370,7 @@ private void parsePascoOutput(AbstractFile origFile, String pascoOutputFileName)
                             NbBundle.getMessage(this.getClass(), "ExtractIE.parentModuleName.noSpace"), user));
 
                     // index the artifact for keyword search
-                    this.indexArtifact(osAttr);
+                    indexArtifact(osAttr);
 
                     reportedUserAccounts.add(user);
                 }
@@ -532,6 +378,5 @@ private void parsePascoOutput(AbstractFile origFile, String pascoOutputFileName)
                 logger.log(Level.SEVERE, "Error writing Internet Explorer web history artifact to the blackboard.", ex); //NON-NLS
             }
         }
-        fileScanner.close();
     }
 }
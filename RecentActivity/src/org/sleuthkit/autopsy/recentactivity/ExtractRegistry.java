@@ -22,15 +22,15 @@
  */
 package org.sleuthkit.autopsy.recentactivity;
 
-import java.io.*;
 import java.io.File;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.*;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import org.openide.modules.InstalledFileLocator;
 import org.openide.util.NbBundle;
 import org.sleuthkit.autopsy.coreutils.ExecUtil;
@@ -40,30 +40,24 @@
 import org.sleuthkit.autopsy.ingest.DataSourceIngestModuleProcessTerminator;
 import org.sleuthkit.autopsy.ingest.IngestJobContext;
 import org.sleuthkit.autopsy.recentactivity.UsbDeviceIdMapper.USBInfo;
-import org.sleuthkit.datamodel.*;
+import org.sleuthkit.datamodel.AbstractFile;
+import org.sleuthkit.datamodel.BlackboardArtifact;
 import org.sleuthkit.datamodel.BlackboardArtifact.ARTIFACT_TYPE;
+import org.sleuthkit.datamodel.BlackboardAttribute;
 import org.sleuthkit.datamodel.BlackboardAttribute.ATTRIBUTE_TYPE;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
+import org.sleuthkit.datamodel.Content;
+import org.sleuthkit.datamodel.TskCoreException;
 
 /**
- * Extract windows registry data using regripper. Runs two versions of
- * regripper. One is the generally available set of plug-ins and the second is a
- * set that were customized for Autopsy to produce a more structured output of
- * XML so that we can parse and turn into blackboard artifacts.
+ * Extract windows registry data. The hives are parsed in process to create
+ * blackboard artifacts, and the generally available set of regripper plug-ins
+ * is run on them to create reports.
  */
 class ExtractRegistry extends Extract {
 
     private Logger logger = Logger.getLogger(this.getClass().getName());
-    private String RR_PATH;
     private String RR_FULL_PATH;
-    private String rrHome;  // The current version of RegRipper need to be run from its own directory
-    private String rrFullHome;
-    private boolean rrFound = false;    // true if we found the Autopsy-specific version of regripper
+    private String rrFullHome;  // The current version of RegRipper need to be run from its own directory
     private boolean rrFullFound = false; // true if we found the full version of regripper    
     private Content dataSource;
     private IngestJobContext context;
@@ -71,24 +65,6 @@ class ExtractRegistry extends Extract {
 
     ExtractRegistry() {
         moduleName = NbBundle.getMessage(ExtractIE.class, "ExtractRegistry.moduleName.text");
-        final File rrRoot = InstalledFileLocator.getDefault().locate("rr", ExtractRegistry.class.getPackage().getName(), false); //NON-NLS
-        if (rrRoot == null) {
-            logger.log(Level.SEVERE, "RegRipper not found"); //NON-NLS
-            rrFound = false;
-            return;
-        } else {
-            rrFound = true;
-        }
-
-        rrHome = rrRoot.getAbsolutePath();
-        logger.log(Level.INFO, "RegRipper home: {0}", rrHome); //NON-NLS
-
-        if (PlatformUtil.isWindowsOS()) {
-            RR_PATH = rrHome + File.separator + "rip.exe"; //NON-NLS
-        } else {
-            RR_PATH = "perl " + rrHome + File.separator + "rip.pl"; //NON-NLS
-        }
-
         final File rrFullRoot = InstalledFileLocator.getDefault().locate("rr-full", ExtractRegistry.class.getPackage().getName(), false); //NON-NLS
         if (rrFullRoot == null) {
             logger.log(Level.SEVERE, "RegRipper Full not found"); //NON-NLS
@@ -116,11 +92,10 @@ class ExtractRegistry extends Extract {
      */
     private List<AbstractFile> findRegistryFiles() {
         List<AbstractFile> allRegistryFiles = new ArrayList<>();
-        org.sleuthkit.autopsy.casemodule.services.FileManager fileManager = currentCase.getServices().getFileManager();
 
         // find the user-specific ntuser-dat files
         try {
-            allRegistryFiles.addAll(fileManager.findFiles(dataSource, "ntuser.dat")); //NON-NLS
+            allRegistryFiles.addAll(this.findFiles(dataSource, "ntuser.dat")); //NON-NLS
         } catch (TskCoreException ex) {
             logger.log(Level.WARNING, "Error fetching 'ntuser.dat' file."); //NON-NLS
         }
@@ -129,7 +104,7 @@ private List<AbstractFile> findRegistryFiles() {
         String[] regFileNames = new String[]{"system", "software", "security", "sam"}; //NON-NLS
         for (String regFileName : regFileNames) {
             try {
-                allRegistryFiles.addAll(fileManager.findFiles(dataSource, regFileName, "/system32/config")); //NON-NLS
+                allRegistryFiles.addAll(this.findFiles(dataSource, regFileName, "/system32/config")); //NON-NLS
             } catch (TskCoreException ex) {
                 String msg = NbBundle.getMessage(this.getClass(),
                         "ExtractRegistry.findRegFiles.errMsg.errReadingFile", regFileName);
@@ -141,8 +116,9 @@ private List<AbstractFile> findRegistryFiles() {
     }
 
     /**
-     * Identifies registry files in the database by mtimeItem, runs regripper on
-     * them, and parses the output.
+     * Identifies registry files in the database, parses them in process to
+     * create blackboard artifacts and runs the full set of regripper plugins on
+     * them to create reports.
      */
     private void analyzeRegistryFiles() {
         List<AbstractFile> allRegistryFiles = findRegistryFiles();
@@ -150,31 +126,19 @@ private void analyzeRegistryFiles() {
         // open the log file
         FileWriter logFile = null;
         try {
-            logFile = new FileWriter(RAImageIngestModule.getRAOutputPath(currentCase, "reg") + File.separator + "regripper-info.txt"); //NON-NLS
+            logFile = new FileWriter(RAImageIngestModule.getRAOutputPath(currentCase, "reg", context.getJobId()) + File.separator + "regripper-info.txt"); //NON-NLS
         } catch (IOException ex) {
             logger.log(Level.SEVERE, null, ex);
         }
 
         int j = 0;
         for (AbstractFile regFile : allRegistryFiles) {
-            String regFileName = regFile.getName();
-            String regFileNameLocal = RAImageIngestModule.getRATempPath(currentCase, "reg") + File.separator + regFileName;
-            String outputPathBase = RAImageIngestModule.getRAOutputPath(currentCase, "reg") + File.separator + regFileName + "-regripper-" + Integer.toString(j++); //NON-NLS
-            File regFileNameLocalFile = new File(regFileNameLocal);
-            try {
-                ContentUtils.writeToFile(regFile, regFileNameLocalFile);
-            } catch (IOException ex) {
-                logger.log(Level.SEVERE, "Error writing the temp registry file. {0}", ex); //NON-NLS
-                this.addErrorMessage(
-                        NbBundle.getMessage(this.getClass(), "ExtractRegistry.analyzeRegFiles.errMsg.errWritingTemp",
-                                this.getName(), regFileName));
-                continue;
-            }
-
             if (context.dataSourceIngestIsCancelled()) {
                 break;
             }
 
+            String regFileName = regFile.getName();
+            String outputPathBase = RAImageIngestModule.getRAOutputPath(currentCase, "reg", context.getJobId()) + File.separator + regFileName + "-regripper-" + Integer.toString(j++); //NON-NLS
             try {
                 if (logFile != null) {
                     logFile.write(Integer.toString(j - 1) + "\t" + regFile.getUniquePath() + "\n");
@@ -183,32 +147,36 @@ private void analyzeRegistryFiles() {
                 logger.log(Level.SEVERE, null, ex);
             }
 
-            logger.log(Level.INFO, "{0}- Now getting registry information from {1}", new Object[]{moduleName, regFileNameLocal}); //NON-NLS
-            RegOutputFiles regOutputFiles = ripRegistryFile(regFileNameLocal, outputPathBase);
+            logger.log(Level.INFO, "{0}- Now getting registry information from {1}", new Object[]{moduleName, regFileName}); //NON-NLS
+            String lowerCaseName = regFileName.toLowerCase();
+            try {
+                RegistryHive hive = new RegistryHive(regFile);
+                if (lowerCaseName.contains("system")) { //NON-NLS
+                    analyzeSystemHive(hive, regFile);
+                } else if (lowerCaseName.contains("software")) { //NON-NLS
+                    analyzeSoftwareHive(hive, regFile);
+                } else if (lowerCaseName.contains("ntuser")) { //NON-NLS
+                    analyzeNtuserHive(hive, regFile);
+                }
+            } catch (IOException ex) {
+                logger.log(Level.SEVERE, "Error parsing registry file " + regFileName, ex); //NON-NLS
+                this.addErrorMessage(
+                        NbBundle.getMessage(this.getClass(), "ExtractRegistry.analyzeRegFiles.failedParsingResults",
+                                this.getName(), regFileName));
+            }
             if (context.dataSourceIngestIsCancelled()) {
                 break;
             }
 
-            // parse the autopsy-specific output
-            if (regOutputFiles.autopsyPlugins.isEmpty() == false) {
-                if (parseAutopsyPluginOutput(regOutputFiles.autopsyPlugins, regFile) == false) {
-                    this.addErrorMessage(
-                            NbBundle.getMessage(this.getClass(), "ExtractRegistry.analyzeRegFiles.failedParsingResults",
-                                    this.getName(), regFileName));
-                }
-            }
-
             // create a report for the full output
-            if (regOutputFiles.fullPlugins.isEmpty() == false) {
+            String fullOutputPath = ripRegistryFile(regFile, outputPathBase);
+            if (fullOutputPath.isEmpty() == false) {
                 try {
-                    currentCase.addReport(regOutputFiles.fullPlugins, NbBundle.getMessage(this.getClass(), "ExtractRegistry.parentModuleName.noSpace"), "RegRipper " + regFile.getUniquePath()); //NON-NLS
+                    currentCase.addReport(fullOutputPath, NbBundle.getMessage(this.getClass(), "ExtractRegistry.parentModuleName.noSpace"), "RegRipper " + regFile.getUniquePath()); //NON-NLS
                 } catch (TskCoreException e) {
                     this.addErrorMessage("Error adding regripper output as Autopsy report: " + e.getLocalizedMessage()); //NON-NLS
                 }
             }
-
-            // delete the hive
-            regFileNameLocalFile.delete();
         }
 
         try {
@@ -220,64 +188,60 @@ private void analyzeRegistryFiles() {
         }
     }
 
-    private class RegOutputFiles {
-
-        public String autopsyPlugins = "";
-        public String fullPlugins = "";
-    }
-
     /**
-     * Execute regripper on the given registry.
+     * Execute the full set of regripper plugins on the given registry file.
+     * regripper needs a local copy of the hive, which is deleted afterwards.
      *
-     * @param regFilePath     Path to local copy of registry
+     * @param regFile         the registry file
      * @param outFilePathBase Path to location to save output file to. Base
-     *                        mtimeItem that will be extended on
+     *                        name that will be extended on
+     *
+     * @return the path of the output file, or an empty string if regripper
+     *         was not run
      */
-    private RegOutputFiles ripRegistryFile(String regFilePath, String outFilePathBase) {
-        String autopsyType = "";    // Type argument for rr for autopsy-specific modules
+    private String ripRegistryFile(AbstractFile regFile, String outFilePathBase) {
         String fullType;   // Type argument for rr for full set of modules
-
-        RegOutputFiles regOutputFiles = new RegOutputFiles();
-
-        if (regFilePath.toLowerCase().contains("system")) { //NON-NLS
-            autopsyType = "autopsysystem"; //NON-NLS
+        String lowerCaseName = regFile.getName().toLowerCase();
+        if (lowerCaseName.contains("system")) { //NON-NLS
             fullType = "system"; //NON-NLS
-        } else if (regFilePath.toLowerCase().contains("software")) { //NON-NLS
-            autopsyType = "autopsysoftware"; //NON-NLS
+        } else if (lowerCaseName.contains("software")) { //NON-NLS
             fullType = "software"; //NON-NLS
-        } else if (regFilePath.toLowerCase().contains("ntuser")) { //NON-NLS
-            autopsyType = "autopsyntuser"; //NON-NLS
+        } else if (lowerCaseName.contains("ntuser")) { //NON-NLS
             fullType = "ntuser"; //NON-NLS
-        } else if (regFilePath.toLowerCase().contains("sam")) { //NON-NLS
+        } else if (lowerCaseName.contains("sam")) { //NON-NLS
             fullType = "sam"; //NON-NLS
-        } else if (regFilePath.toLowerCase().contains("security")) { //NON-NLS
+        } else if (lowerCaseName.contains("security")) { //NON-NLS
             fullType = "security"; //NON-NLS
         } else {
-            return regOutputFiles;
-        }
-
-        // run the autopsy-specific set of modules
-        if (!autopsyType.isEmpty() && rrFound) {
-            regOutputFiles.autopsyPlugins = outFilePathBase + "-autopsy.txt"; //NON-NLS
-            String errFilePath = outFilePathBase + "-autopsy.err.txt"; //NON-NLS
-            logger.log(Level.INFO, "Writing RegRipper results to: {0}", regOutputFiles.autopsyPlugins); //NON-NLS
-            executeRegRipper(RR_PATH, rrHome, regFilePath, autopsyType, regOutputFiles.autopsyPlugins, errFilePath);
+            return "";
         }
-        if (context.dataSourceIngestIsCancelled()) {
-            return regOutputFiles;
+        if (rrFullFound == false) {
+            return "";
         }
 
-        // run the full set of rr modules
-        if (!fullType.isEmpty() && rrFullFound) {
-            regOutputFiles.fullPlugins = outFilePathBase + "-full.txt"; //NON-NLS
-            String errFilePath = outFilePathBase + "-full.err.txt"; //NON-NLS
-            logger.log(Level.INFO, "Writing Full RegRipper results to: {0}", regOutputFiles.fullPlugins); //NON-NLS
-            executeRegRipper(RR_FULL_PATH, rrFullHome, regFilePath, fullType, regOutputFiles.fullPlugins, errFilePath);
+        String regFileNameLocal = RAImageIngestModule.getRATempPath(currentCase, "reg", context.getJobId()) + File.separator + regFile.getName();
+        File regFileNameLocalFile = new File(regFileNameLocal);
+        try {
+            ContentUtils.writeToFile(regFile, regFileNameLocalFile);
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Error writing the temp registry file. {0}", ex); //NON-NLS
+            this.addErrorMessage(
+                    NbBundle.getMessage(this.getClass(), "ExtractRegistry.analyzeRegFiles.errMsg.errWritingTemp",
+                            this.getName(), regFile.getName()));
+            return "";
         }
-        return regOutputFiles;
+
+        String outputFile = outFilePathBase + "-full.txt"; //NON-NLS
+        String errFilePath = outFilePathBase + "-full.err.txt"; //NON-NLS
+        logger.log(Level.INFO, "Writing Full RegRipper results to: {0}", outputFile); //NON-NLS
+        boolean succeeded = executeRegRipper(RR_FULL_PATH, rrFullHome, regFileNameLocal, fullType, outputFile, errFilePath);
+
+        // delete the hive
+        regFileNameLocalFile.delete();
+        return succeeded ? outputFile : "";
     }
 
-    private void executeRegRipper(String regRipperPath, String regRipperHomeDir, String hiveFilePath, String hiveFileType, String outputFile, String errFile) {
+    private boolean executeRegRipper(String regRipperPath, String regRipperHomeDir, String hiveFilePath, String hiveFileType, String outputFile, String errFile) {
         try {
             logger.log(Level.INFO, "Writing RegRipper results to: {0}", outputFile); //NON-NLS
             List<String> commandLine = new ArrayList<>();
@@ -292,414 +256,315 @@ private void executeRegRipper(String regRipperPath, String regRipperHomeDir, Str
             processBuilder.redirectOutput(new File(outputFile));
             processBuilder.redirectError(new File(errFile));
             ExecUtil.execute(processBuilder, new DataSourceIngestModuleProcessTerminator(context));
+            return true;
         } catch (IOException ex) {
             logger.log(Level.SEVERE, "Unable to run RegRipper", ex); //NON-NLS
             this.addErrorMessage(NbBundle.getMessage(this.getClass(), "ExtractRegistry.execRegRip.errMsg.failedAnalyzeRegFile", this.getName()));
+            return false;
         }
     }
 
     // @@@ VERIFY that we are doing the right thing when we parse multiple NTUSER.DAT
     /**
+     * Create the OS info, computer name and attached USB device artifacts of a
+     * SYSTEM hive.
      *
-     * @param regFilePath Path to the output file produced by RegRipper.
-     * @param regFile     File object for registry that we are parsing (to make
-     *                    blackboard artifacts with)
+     * @param hive    the parsed hive
+     * @param regFile the registry file, to make blackboard artifacts with
      *
-     * @return
+     * @throws IOException if the hive is malformed or cannot be read
      */
-    private boolean parseAutopsyPluginOutput(String regFilePath, AbstractFile regFile) {
-        FileInputStream fstream = null;
-        try {
-            SleuthkitCase tempDb = currentCase.getSleuthkitCase();
-
-            // Read the file in and create a Document and elements
-            File regfile = new File(regFilePath);
-            fstream = new FileInputStream(regfile);
-
-            String regString = new Scanner(fstream, "UTF-8").useDelimiter("\\Z").next(); //NON-NLS
-            String startdoc = "<?xml version=\"1.0\"?><document>"; //NON-NLS
-            String result = regString.replaceAll("----------------------------------------", "");
-            result = result.replaceAll("\\n", ""); //NON-NLS
-            result = result.replaceAll("\\r", ""); //NON-NLS
-            result = result.replaceAll("'", "&apos;"); //NON-NLS
-            result = result.replaceAll("&", "&amp;"); //NON-NLS
-            result = result.replace('\0', ' '); // NON-NLS
-            String enddoc = "</document>"; //NON-NLS
-            String stringdoc = startdoc + result + enddoc;
-            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            Document doc = builder.parse(new InputSource(new StringReader(stringdoc)));
-
-            // cycle through the elements in the doc
-            Element oroot = doc.getDocumentElement();
-            NodeList children = oroot.getChildNodes();
-            int len = children.getLength();
-            for (int i = 0; i < len; i++) {
-                Element tempnode = (Element) children.item(i);
-
-                String dataType = tempnode.getNodeName();
-
-                NodeList timenodes = tempnode.getElementsByTagName("mtime"); //NON-NLS
-                Long mtime = null;
-                if (timenodes.getLength() > 0) {
-                    Element timenode = (Element) timenodes.item(0);
-                    String etime = timenode.getTextContent();
-                    try {
-                        Long epochtime = new SimpleDateFormat("EEE MMM d HH:mm:ss yyyy").parse(etime).getTime();
-                        mtime = epochtime;
-                        String Tempdate = mtime.toString();
-                        mtime = Long.valueOf(Tempdate) / 1000;
-                    } catch (ParseException ex) {
-                        logger.log(Level.WARNING, "Failed to parse epoch time when parsing the registry."); //NON-NLS
-                    }
-                }
+    private void analyzeSystemHive(RegistryHive hive, AbstractFile regFile) throws IOException {
+        RegistryHive.Key root = hive.getRootKey();
+        RegistryHive.Key select = root.getSubkey("Select"); //NON-NLS
+        RegistryHive.Value current = (select != null) ? select.getValue("Current") : null; //NON-NLS
+        if (current == null) {
+            return;
+        }
+        RegistryHive.Key controlSet = root.getSubkey(String.format("ControlSet%03d", current.getDataAsLong())); //NON-NLS
+        if (controlSet == null) {
+            return;
+        }
+        String parentModuleName = NbBundle.getMessage(this.getClass(), "ExtractRegistry.parentModuleName.noSpace");
+
+        RegistryHive.Key environment = controlSet.getSubkey("Control\\Session Manager\\Environment"); //NON-NLS
+        if (environment != null) {
+            Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_VERSION.getTypeID(), parentModuleName, getValueString(environment, "OS"))); //NON-NLS
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROCESSOR_ARCHITECTURE.getTypeID(), parentModuleName, getValueString(environment, "PROCESSOR_ARCHITECTURE"))); //NON-NLS
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_TEMP_DIR.getTypeID(), parentModuleName, getValueString(environment, "TEMP"))); //NON-NLS
+            addOsInfoAttributes(regFile, bbattributes);
+        }
 
-                NodeList artroots = tempnode.getElementsByTagName("artifacts"); //NON-NLS
-                if (artroots.getLength() == 0) {
-                    // If there isn't an artifact node, skip this entry
-                    continue;
+        RegistryHive.Key computerName = controlSet.getSubkey("Control\\ComputerName\\ComputerName"); //NON-NLS
+        RegistryHive.Key tcpipParameters = controlSet.getSubkey("Services\\Tcpip\\Parameters"); //NON-NLS
+        if (computerName != null || tcpipParameters != null) {
+            Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_NAME.getTypeID(), parentModuleName, getValueString(computerName, "ComputerName"))); //NON-NLS
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(), parentModuleName, getValueString(tcpipParameters, "Domain"))); //NON-NLS
+            addOsInfoAttributes(regFile, bbattributes);
+        }
+
+        RegistryHive.Key usb = controlSet.getSubkey("Enum\\USB"); //NON-NLS
+        if (usb == null) {
+            return;
+        }
+        for (RegistryHive.Key deviceClass : usb.getSubkeys()) {
+            String dev = deviceClass.getName();
+            String make = "";
+            String model = dev;
+            if (dev.toLowerCase().contains("vid")) { //NON-NLS
+                USBInfo info = usbMapper.parseAndLookup(dev);
+                if (info.getVendor() != null) {
+                    make = info.getVendor();
+                }
+                if (info.getProduct() != null) {
+                    model = info.getProduct();
+                }
+            }
+            for (RegistryHive.Key device : deviceClass.getSubkeys()) {
+                try {
+                    Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
+                    bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME.getTypeID(), parentModuleName, device.getLastWrittenTime()));
+                    bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DEVICE_MAKE.getTypeID(), parentModuleName, make));
+                    bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DEVICE_MODEL.getTypeID(), parentModuleName, model));
+                    bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DEVICE_ID.getTypeID(), parentModuleName, device.getName()));
+                    BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_DEVICE_ATTACHED);
+                    bbart.addAttributes(bbattributes);
+
+                    // index the artifact for keyword search
+                    this.indexArtifact(bbart);
+                } catch (TskCoreException ex) {
+                    logger.log(Level.SEVERE, "Error adding device attached artifact to blackboard."); //NON-NLS
                 }
+            }
+        }
+    }
 
-                Element artroot = (Element) artroots.item(0);
-                NodeList myartlist = artroot.getChildNodes();
-                String parentModuleName = NbBundle.getMessage(this.getClass(), "ExtractRegistry.parentModuleName.noSpace");
-                String winver = "";
-
-                // If all artifact nodes should really go under one Blackboard artifact, need to process it differently
-                if (dataType.equals("WinVersion")) { //NON-NLS
-
-                    String version = "";
-                    String systemRoot = "";
-                    String productId = "";
-                    String regOwner = "";
-                    String regOrg = "";
-                    Long installtime = null;
-
-                    for (int j = 0; j < myartlist.getLength(); j++) {
-                        Node artchild = myartlist.item(j);
-                        // If it has attributes, then it is an Element (based off API)
-                        if (artchild.hasAttributes()) {
-                            Element artnode = (Element) artchild;
-
-                            String value = artnode.getTextContent().trim();
-                            String name = artnode.getAttribute("name"); //NON-NLS
-
-                            if (name.equals("ProductName")) { // NON_NLS
-                                version = value;
-                            } else if (name.equals("CSDVersion")) { // NON_NLS
-                                // This is dependant on the fact that ProductName shows up first in the module output
-                                version = version + " " + value;
-                            } else if (name.equals("SystemRoot")) { //NON-NLS
-                                systemRoot = value;
-                            } else if (name.equals("ProductId")) { //NON-NLS
-                                productId = value;
-                            } else if (name.equals("RegisteredOwner")) { //NON-NLS
-                                regOwner = value;
-                            } else if (name.equals("RegisteredOrganization")) { //NON-NLS
-                                regOrg = value;
-                            } else if (name.equals("InstallDate")) { //NON-NLS
-                                try {
-                                    Long epochtime = new SimpleDateFormat("EEE MMM d HH:mm:ss yyyy").parse(value).getTime();
-                                    installtime = epochtime;
-                                    String Tempdate = installtime.toString();
-                                    installtime = Long.valueOf(Tempdate) / 1000;
-                                } catch (ParseException e) {
-                                    logger.log(Level.SEVERE, "RegRipper::Conversion on DateTime -> ", e); //NON-NLS
-                                }
-                            }
-                        }
-                    }
+    /**
+     * Create the OS info, installed program and account artifacts of a
+     * SOFTWARE hive.
+     *
+     * @param hive    the parsed hive
+     * @param regFile the registry file, to make blackboard artifacts with
+     *
+     * @throws IOException if the hive is malformed or cannot be read
+     */
+    private void analyzeSoftwareHive(RegistryHive hive, AbstractFile regFile) throws IOException {
+        RegistryHive.Key root = hive.getRootKey();
+        String parentModuleName = NbBundle.getMessage(this.getClass(), "ExtractRegistry.parentModuleName.noSpace");
+
+        RegistryHive.Key currentVersion = root.getSubkey("Microsoft\\Windows NT\\CurrentVersion"); //NON-NLS
+        if (currentVersion != null) {
+            String version = getValueString(currentVersion, "ProductName"); //NON-NLS
+            String csdVersion = currentVersion.getValueString("CSDVersion"); //NON-NLS
+            if (csdVersion != null) {
+                version = version + " " + csdVersion;
+            }
+            Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(), parentModuleName, version));
+            RegistryHive.Value installDate = currentVersion.getValue("InstallDate"); //NON-NLS
+            if (installDate != null) {
+                bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME.getTypeID(), parentModuleName, installDate.getDataAsLong()));
+            }
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PATH.getTypeID(), parentModuleName, getValueString(currentVersion, "SystemRoot"))); //NON-NLS
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PRODUCT_ID.getTypeID(), parentModuleName, getValueString(currentVersion, "ProductId"))); //NON-NLS
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_OWNER.getTypeID(), parentModuleName, getValueString(currentVersion, "RegisteredOwner"))); //NON-NLS
+            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_ORGANIZATION.getTypeID(), parentModuleName, getValueString(currentVersion, "RegisteredOrganization"))); //NON-NLS
+            addOsInfoAttributes(regFile, bbattributes);
+        }
 
-                    try {
-                        Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(), parentModuleName, version));
-                        if (installtime != null) {
-                            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME.getTypeID(), parentModuleName, installtime));
-                        }
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PATH.getTypeID(), parentModuleName, systemRoot));
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PRODUCT_ID.getTypeID(), parentModuleName, productId));
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_OWNER.getTypeID(), parentModuleName, regOwner));
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_ORGANIZATION.getTypeID(), parentModuleName, regOrg));
-
-                        // Check if there is already an OS_INFO artifact for this file, and add to that if possible.
-                        ArrayList<BlackboardArtifact> results = tempDb.getBlackboardArtifacts(ARTIFACT_TYPE.TSK_OS_INFO, regFile.getId());
-                        if (results.isEmpty()) {
-                            BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_OS_INFO);
-                            bbart.addAttributes(bbattributes);
-                                                
-                            // index the artifact for keyword search
-                            this.indexArtifact(bbart);
-                        } else {
-                            results.get(0).addAttributes(bbattributes);
-                        }
-
-                    } catch (TskCoreException ex) {
-                        logger.log(Level.SEVERE, "Error adding installed program artifact to blackboard."); //NON-NLS                                    
-                    }
-                } else if (dataType.equals("Profiler")) { // NON-NLS
-
-                    String os = "";
-                    String procArch = "";
-                    String procId = "";
-                    String tempDir = "";
-
-                    for (int j = 0; j < myartlist.getLength(); j++) {
-                        Node artchild = myartlist.item(j);
-                        // If it has attributes, then it is an Element (based off API)
-                        if (artchild.hasAttributes()) {
-                            Element artnode = (Element) artchild;
-
-                            String value = artnode.getTextContent().trim();
-                            String name = artnode.getAttribute("name"); //NON-NLS
-
-                            if (name.equals("OS")) { // NON-NLS
-                                os = value;
-                            } else if (name.equals("PROCESSOR_ARCHITECTURE")) { // NON-NLS
-                                procArch = value;
-                            } else if (name.equals("PROCESSOR_IDENTIFIER")) {  //NON-NLS
-                                procId = value;
-                            } else if (name.equals("TEMP")) { //NON-NLS
-                                tempDir = value;
-                            }
-                        }
-                    }
+        String[] uninstallPaths = new String[]{"Microsoft\\Windows\\CurrentVersion\\Uninstall", //NON-NLS
+            "Wow6432Node\\Microsoft\\Windows\\CurrentVersion\\Uninstall"}; //NON-NLS
+        for (String uninstallPath : uninstallPaths) {
+            RegistryHive.Key uninstall = root.getSubkey(uninstallPath);
+            if (uninstall == null) {
+                continue;
+            }
+            // report the most recently written programs first
+            List<RegistryHive.Key> programs = new ArrayList<>(uninstall.getSubkeys());
+            Map<RegistryHive.Key, Long> installTimes = new HashMap<>();
+            for (RegistryHive.Key program : programs) {
+                installTimes.put(program, program.getLastWrittenTime());
+            }
+            programs.sort((a, b) -> Long.compare(installTimes.get(b), installTimes.get(a)));
+            for (RegistryHive.Key program : programs) {
+                String name = program.getValueString("DisplayName"); //NON-NLS
+                if (name == null || name.isEmpty()) {
+                    name = program.getName();
+                }
+                String displayVersion = program.getValueString("DisplayVersion"); //NON-NLS
+                if (displayVersion != null) {
+                    name = name + " v." + displayVersion; //NON-NLS
+                }
+                try {
+                    Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
+                    bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(), parentModuleName, name));
+                    bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME.getTypeID(), parentModuleName, installTimes.get(program)));
+                    BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_INSTALLED_PROG);
+                    bbart.addAttributes(bbattributes);
+
+                    // index the artifact for keyword search
+                    this.indexArtifact(bbart);
+                } catch (TskCoreException ex) {
+                    logger.log(Level.SEVERE, "Error adding installed program artifact to blackboard."); //NON-NLS
+                }
+            }
+        }
 
-                    try {
-                        Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_VERSION.getTypeID(), parentModuleName, os));
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROCESSOR_ARCHITECTURE.getTypeID(), parentModuleName, procArch));
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_TEMP_DIR.getTypeID(), parentModuleName, tempDir));
-
-                        // Check if there is already an OS_INFO artifact for this file and add to that if possible
-                        ArrayList<BlackboardArtifact> results = tempDb.getBlackboardArtifacts(ARTIFACT_TYPE.TSK_OS_INFO, regFile.getId());
-                        if (results.isEmpty()) {
-                            BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_OS_INFO);
-                            bbart.addAttributes(bbattributes);
-
-                            // index the artifact for keyword search
-                            this.indexArtifact(bbart);
-                        } else {
-                            results.get(0).addAttributes(bbattributes);
-                        }
-                    } catch (TskCoreException ex) {
-                        logger.log(Level.SEVERE, "Error adding os info artifact to blackboard."); //NON-NLS
-                    }
-                } else if (dataType.equals("CompName")) { // NON-NLS
-
-                    String compName = "";
-                    String domain = "";
-
-                    for (int j = 0; j < myartlist.getLength(); j++) {
-                        Node artchild = myartlist.item(j);
-                        // If it has attributes, then it is an Element (based off API)
-                        if (artchild.hasAttributes()) {
-                            Element artnode = (Element) artchild;
-
-                            String value = artnode.getTextContent().trim();
-                            String name = artnode.getAttribute("name"); //NON-NLS
-
-                            if (name.equals("ComputerName")) { // NON-NLS
-                                compName = value;
-                            } else if (name.equals("Domain")) { // NON-NLS
-                                domain = value;
-                            }
-                        }
-                    }
+        RegistryHive.Key profileList = root.getSubkey("Microsoft\\Windows NT\\CurrentVersion\\ProfileList"); //NON-NLS
+        if (profileList != null) {
+            for (RegistryHive.Key profile : profileList.getSubkeys()) {
+                String homeDir = getValueString(profile, "ProfileImagePath"); //NON-NLS
+                // the user name is the last component of the path, without the domain after the dot
+                String username = homeDir.substring(homeDir.lastIndexOf('\\') + 1).replaceFirst("\\..*", ""); //NON-NLS
+                try {
+                    BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_OS_ACCOUNT);
+                    bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_USER_NAME.getTypeID(),
+                            parentModuleName, username));
+                    bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_USER_ID.getTypeID(),
+                            parentModuleName, profile.getName()));
+                    bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PATH.getTypeID(),
+                            parentModuleName, homeDir));
+                    // index the artifact for keyword search
+                    this.indexArtifact(bbart);
+                } catch (TskCoreException ex) {
+                    logger.log(Level.SEVERE, "Error adding account artifact to blackboard."); //NON-NLS
+                }
+            }
+        }
+    }
 
-                    try {
-                        Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_NAME.getTypeID(), parentModuleName, compName));
-                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(), parentModuleName, domain));
-
-                        // Check if there is already an OS_INFO artifact for this file and add to that if possible
-                        ArrayList<BlackboardArtifact> results = tempDb.getBlackboardArtifacts(ARTIFACT_TYPE.TSK_OS_INFO, regFile.getId());
-                        if (results.isEmpty()) {
-                            BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_OS_INFO);
-                            bbart.addAttributes(bbattributes);
-                                                
-                            // index the artifact for keyword search
-                            this.indexArtifact(bbart);
-                        } else {
-                            results.get(0).addAttributes(bbattributes);
-                        }
-                    } catch (TskCoreException ex) {
-                        logger.log(Level.SEVERE, "Error adding os info artifact to blackboard."); //NON-NLS
-                    }
-                } else {
-                    for (int j = 0; j < myartlist.getLength(); j++) {
-                        Node artchild = myartlist.item(j);
-                        // If it has attributes, then it is an Element (based off API)
-                        if (artchild.hasAttributes()) {
-                            Element artnode = (Element) artchild;
-
-                            String value = artnode.getTextContent().trim();
-                            Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
-
-                            switch (dataType) {
-                                case "recentdocs": //NON-NLS                                
-                                    // BlackboardArtifact bbart = tempDb.getContentById(orgId).newArtifact(ARTIFACT_TYPE.TSK_RECENT_OBJECT);
-                                    // bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_LAST_ACCESSED.getTypeID(), "RecentActivity", dataType, mtime));
-                                    // bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_NAME.getTypeID(), "RecentActivity", dataType, mtimeItem));
-                                    // bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_VALUE.getTypeID(), "RecentActivity", dataType, value));
-                                    // bbart.addAttributes(bbattributes);
-                                    // @@@ BC: Why are we ignoring this...
-                                    break;
-                                case "usb": //NON-NLS
-                                    try {
-                                        Long usbMtime = Long.parseLong(artnode.getAttribute("mtime")); //NON-NLS
-                                        usbMtime = Long.valueOf(usbMtime.toString());
-
-                                        BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_DEVICE_ATTACHED);
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME.getTypeID(), parentModuleName, usbMtime));
-                                        String dev = artnode.getAttribute("dev"); //NON-NLS
-                                        String make = "";
-                                        String model = dev;
-                                        if (dev.toLowerCase().contains("vid")) { //NON-NLS
-                                            USBInfo info = usbMapper.parseAndLookup(dev);
-                                            if (info.getVendor() != null) {
-                                                make = info.getVendor();
-                                            }
-                                            if (info.getProduct() != null) {
-                                                model = info.getProduct();
-                                            }
-                                        }
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DEVICE_MAKE.getTypeID(), parentModuleName, make));
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DEVICE_MODEL.getTypeID(), parentModuleName, model));
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DEVICE_ID.getTypeID(), parentModuleName, value));
-                                        bbart.addAttributes(bbattributes);
-                                                            
-                                        // index the artifact for keyword search
-                                        this.indexArtifact(bbart);
-                                    } catch (TskCoreException ex) {
-                                        logger.log(Level.SEVERE, "Error adding device attached artifact to blackboard."); //NON-NLS
-                                    }
-                                    break;
-                                case "uninstall": //NON-NLS
-                                    Long itemMtime = null;
-                                    try {
-                                        Long epochtime = new SimpleDateFormat("EEE MMM d HH:mm:ss yyyy").parse(artnode.getAttribute("mtime")).getTime(); //NON-NLS
-                                        itemMtime = epochtime;
-                                        itemMtime = itemMtime / 1000;
-                                    } catch (ParseException e) {
-                                        logger.log(Level.WARNING, "Failed to parse epoch time for installed program artifact."); //NON-NLS
-                                    }
-
-                                    try {
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(), parentModuleName, value));
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME.getTypeID(), parentModuleName, itemMtime));
-                                        BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_INSTALLED_PROG);
-                                        bbart.addAttributes(bbattributes);
-                                                            
-                                        // index the artifact for keyword search
-                                        this.indexArtifact(bbart);
-                                    } catch (TskCoreException ex) {
-                                        logger.log(Level.SEVERE, "Error adding installed program artifact to blackboard."); //NON-NLS
-                                    }
-                                    break;
-                                case "office": //NON-NLS
-                                    String officeName = artnode.getAttribute("name"); //NON-NLS
-
-                                    try {
-                                        BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_RECENT_OBJECT);
-                                        // @@@ BC: Consider removing this after some more testing. It looks like an Mtime associated with the root key and not the individual item
-                                        if (mtime != null) {
-                                            bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_ACCESSED.getTypeID(), parentModuleName, mtime));
-                                        }
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_NAME.getTypeID(), parentModuleName, officeName));
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_VALUE.getTypeID(), parentModuleName, value));
-                                        bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(), parentModuleName, artnode.getNodeName()));
-                                        bbart.addAttributes(bbattributes);
-                                                            
-                                        // index the artifact for keyword search
-                                        this.indexArtifact(bbart);
-                                    } catch (TskCoreException ex) {
-                                        logger.log(Level.SEVERE, "Error adding recent object artifact to blackboard."); //NON-NLS
-                                    }
-                                    break;
-
-                                case "ProcessorArchitecture": //NON-NLS
-                                    // Architecture is now included under Profiler
-                                    //try {
-                                    //    String processorArchitecture = value;
-                                    //    if (processorArchitecture.equals("AMD64"))
-                                    //        processorArchitecture = "x86-64";
-
-                                    //    BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_OS_INFO);
-                                    //    bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROCESSOR_ARCHITECTURE.getTypeID(), parentModuleName, processorArchitecture));
-                                    //    bbart.addAttributes(bbattributes);
-                                    //} catch (TskCoreException ex) {
-                                    //    logger.log(Level.SEVERE, "Error adding os info artifact to blackboard."); //NON-NLS
-                                    //}
-                                    break;
-
-                                case "ProfileList": //NON-NLS
-                                    try {
-
-                                        String homeDir = value;
-                                        String sid = artnode.getAttribute("sid"); //NON-NLS
-                                        String username = artnode.getAttribute("username"); //NON-NLS
-
-                                        BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_OS_ACCOUNT);
-                                        bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_USER_NAME.getTypeID(),
-                                                parentModuleName, username));
-                                        bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_USER_ID.getTypeID(),
-                                                parentModuleName, sid));
-                                        bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PATH.getTypeID(),
-                                                parentModuleName, homeDir));
-                                        // index the artifact for keyword search
-                                        this.indexArtifact(bbart);
-                                    } catch (TskCoreException ex) {
-                                        logger.log(Level.SEVERE, "Error adding account artifact to blackboard."); //NON-NLS
-                                    }
-                                    break;
-
-                                case "NtuserNetwork": // NON-NLS
-                                    try {
-                                        String localPath = artnode.getAttribute("localPath"); //NON-NLS
-                                        String remoteName = value;
-                                        BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_REMOTE_DRIVE);
-                                        bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_LOCAL_PATH.getTypeID(),
-                                                parentModuleName, localPath));
-                                        bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_REMOTE_PATH.getTypeID(),
-                                                parentModuleName, remoteName));
-                                        // index the artifact for keyword search
-                                        this.indexArtifact(bbart);
-                                    } catch (TskCoreException ex) {
-                                        logger.log(Level.SEVERE, "Error adding network artifact to blackboard."); //NON-NLS
-                                    }
-                                    break;
-
-                                case "shellfolders": // NON-NLS
-                                    // The User Shell Folders subkey stores the paths to Windows Explorer folders for the current user of the computer
-                                    // (https://technet.microsoft.com/en-us/library/Cc962613.aspx).
-                                    // No useful information. Skip.
-                                    break;
-
-                                default:
-                                    logger.log(Level.WARNING, "Unrecognized node name: {0}", dataType); //NON-NLS
-                                    break;
-                            }
-                        }
+    /**
+     * Create the recent Office document and network drive artifacts of an
+     * NTUSER.DAT hive.
+     *
+     * @param hive    the parsed hive
+     * @param regFile the registry file, to make blackboard artifacts with
+     *
+     * @throws IOException if the hive is malformed or cannot be read
+     */
+    private void analyzeNtuserHive(RegistryHive hive, AbstractFile regFile) throws IOException {
+        RegistryHive.Key root = hive.getRootKey();
+        String parentModuleName = NbBundle.getMessage(this.getClass(), "ExtractRegistry.parentModuleName.noSpace");
+
+        RegistryHive.Key office = root.getSubkey("Software\\Microsoft\\Office"); //NON-NLS
+        if (office != null) {
+            RegistryHive.Key office2010 = office.getSubkey("14.0"); //NON-NLS
+            if (office2010 != null) {
+                for (String program : new String[]{"Word", "Excel", "Access", "PowerPoint"}) { //NON-NLS
+                    // the File MRU values look like "[F00000000][T01CC2E5C0B5A4D60]*C:\\path"
+                    addRecentOfficeDocuments(office2010, program, program + "\\File MRU", regFile); //NON-NLS
+                }
+            } else {
+                for (String version : new String[]{"12.0", "11.0", "10.0", "9.0", "8.0", "7.0"}) { //NON-NLS
+                    RegistryHive.Key officeVersion = office.getSubkey(version);
+                    if (officeVersion != null && officeVersion.getSubkey("Common\\Open Find") != null) { //NON-NLS
+                        addRecentOfficeDocuments(officeVersion, "Excel", "Excel\\Recent Files", regFile); //NON-NLS
+                        addRecentOfficeDocuments(officeVersion, "PowerPoint", "PowerPoint\\Recent File List", regFile); //NON-NLS
+                        break;
                     }
                 }
             }
-            return true;
-        } catch (FileNotFoundException ex) {
-            logger.log(Level.SEVERE, "Error finding the registry file."); //NON-NLS
-        } catch (SAXException ex) {
-            logger.log(Level.SEVERE, "Error parsing the registry XML: {0}", ex); //NON-NLS
-        } catch (IOException ex) {
-            logger.log(Level.SEVERE, "Error building the document parser: {0}", ex); //NON-NLS
-        } catch (ParserConfigurationException ex) {
-            logger.log(Level.SEVERE, "Error configuring the registry parser: {0}", ex); //NON-NLS
-        } finally {
+        }
+
+        RegistryHive.Key network = root.getSubkey("Network"); //NON-NLS
+        if (network != null) {
+            for (RegistryHive.Key drive : network.getSubkeys()) {
+                String remoteName = drive.getValueString("RemotePath"); //NON-NLS
+                if (remoteName == null) {
+                    continue;
+                }
+                try {
+                    BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_REMOTE_DRIVE);
+                    bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_LOCAL_PATH.getTypeID(),
+                            parentModuleName, "Network\\" + drive.getName())); //NON-NLS
+                    bbart.addAttribute(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_REMOTE_PATH.getTypeID(),
+                            parentModuleName, remoteName));
+                    // index the artifact for keyword search
+                    this.indexArtifact(bbart);
+                } catch (TskCoreException ex) {
+                    logger.log(Level.SEVERE, "Error adding network artifact to blackboard."); //NON-NLS
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a recent object artifact for each document in an Office most
+     * recently used list.
+     *
+     * @param officeVersion the key of the Office version
+     * @param programName   the name of the Office program
+     * @param mruPath       the path of the list, relative to officeVersion
+     * @param regFile       the registry file, to make blackboard artifacts with
+     */
+    private void addRecentOfficeDocuments(RegistryHive.Key officeVersion, String programName, String mruPath, AbstractFile regFile) throws IOException {
+        RegistryHive.Key mru = officeVersion.getSubkey(mruPath);
+        if (mru == null) {
+            return;
+        }
+        String parentModuleName = NbBundle.getMessage(this.getClass(), "ExtractRegistry.parentModuleName.noSpace");
+        // @@@ BC: Consider removing this after some more testing. It looks like an Mtime associated with the root key and not the individual item
+        long mtime = officeVersion.getLastWrittenTime();
+        for (RegistryHive.Value document : mru.getValues()) {
+            if (document.getName().equals("Max Display")) { //NON-NLS
+                continue;
+            }
+            String value = document.getDataAsString();
+            value = value.substring(value.indexOf('*') + 1);
             try {
-                if (fstream != null) {
-                    fstream.close();
+                Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
+                if (mtime != 0) {
+                    bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_ACCESSED.getTypeID(), parentModuleName, mtime));
                 }
-            } catch (IOException ex) {
+                bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_NAME.getTypeID(), parentModuleName, document.getName()));
+                bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_VALUE.getTypeID(), parentModuleName, value));
+                bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(), parentModuleName, programName));
+                BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_RECENT_OBJECT);
+                bbart.addAttributes(bbattributes);
+
+                // index the artifact for keyword search
+                this.indexArtifact(bbart);
+            } catch (TskCoreException ex) {
+                logger.log(Level.SEVERE, "Error adding recent object artifact to blackboard."); //NON-NLS
+            }
+        }
+    }
+
+    /**
+     * Add attributes to the OS info artifact of a registry file, creating the
+     * artifact if there is none yet.
+     */
+    private void addOsInfoAttributes(AbstractFile regFile, Collection<BlackboardAttribute> bbattributes) {
+        try {
+            // Check if there is already an OS_INFO artifact for this file, and add to that if possible.
+            ArrayList<BlackboardArtifact> results = tskCase.getBlackboardArtifacts(ARTIFACT_TYPE.TSK_OS_INFO, regFile.getId());
+            if (results.isEmpty()) {
+                BlackboardArtifact bbart = regFile.newArtifact(ARTIFACT_TYPE.TSK_OS_INFO);
+                bbart.addAttributes(bbattributes);
+
+                // index the artifact for keyword search
+                this.indexArtifact(bbart);
+            } else {
+                results.get(0).addAttributes(bbattributes);
             }
+        } catch (TskCoreException ex) {
+            logger.log(Level.SEVERE, "Error adding os info artifact to blackboard."); //NON-NLS
         }
-        return false;
+    }
+
+    /**
+     * Get the data of a value as a string.
+     *
+     * @param key       the key of the value, may be null
+     * @param valueName the name of the value
+     *
+     * @return the data, or an empty string if there is no such value
+     */
+    private static String getValueString(RegistryHive.Key key, String valueName) throws IOException {
+        String value = (key != null) ? key.getValueString(valueName) : null;
+        return (value != null) ? value.trim() : "";
     }
 
     @Override
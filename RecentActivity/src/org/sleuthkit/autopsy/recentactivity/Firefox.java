@@ -28,12 +28,11 @@
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import org.openide.util.NbBundle;
-import org.sleuthkit.autopsy.casemodule.services.FileManager;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.datamodel.ContentUtils;
 import org.sleuthkit.autopsy.ingest.IngestJobContext;
@@ -79,10 +78,9 @@ public void process(Content dataSource, IngestJobContext context) {
     }
 
     private void getHistory() {
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> historyFiles;
         try {
-            historyFiles = fileManager.findFiles(dataSource, "places.sqlite", "Firefox"); //NON-NLS
+            historyFiles = this.findFiles(dataSource, "places.sqlite", "Firefox"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Firefox.getHistory.errMsg.errFetchingFiles");
             logger.log(Level.WARNING, msg);
@@ -105,7 +103,7 @@ private void getHistory() {
             }
 
             String fileName = historyFile.getName();
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox") + File.separator + fileName + j + ".db"; //NON-NLS
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox", context.getJobId()) + File.separator + fileName + j + ".db"; //NON-NLS
             try {
                 ContentUtils.writeToFile(historyFile, new File(temps));
             } catch (IOException ex) {
@@ -120,36 +118,35 @@ private void getHistory() {
                 dbFile.delete();
                 break;
             }
-            List<HashMap<String, Object>> tempList = this.dbConnect(temps, historyQuery);
-            logger.log(Level.INFO, "{0} - Now getting history from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, tempList.size()}); //NON-NLS
-            for (HashMap<String, Object> result : tempList) {
+            int rowCount = this.dbStream(temps, historyQuery, context, (DbRow result) -> {
                 Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("url").toString() != null) ? result.get("url").toString() : ""))); //NON-NLS
+                        result.getString("url"))); //NON-NLS
                 //bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL_DECODED.getTypeID(), "RecentActivity", ((result.get("url").toString() != null) ? EscapeUtil.decodeURL(result.get("url").toString()) : "")));
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_ACCESSED.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        (Long.valueOf(result.get("visit_date").toString())))); //NON-NLS
+                        (result.getLong("visit_date")))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_REFERRER.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("ref").toString() != null) ? result.get("ref").toString() : ""))); //NON-NLS
+                        result.getString("ref"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_TITLE.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("title").toString() != null) ? result.get("title").toString() : ""))); //NON-NLS
+                        result.getString("title"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
                         NbBundle.getMessage(this.getClass(), "Firefox.moduleName")));
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
-                                "Firefox.parentModuleName.noSpace"), (Util.extractDomain((result.get("url").toString() != null) ? result.get("url").toString() : "")))); //NON-NLS
+                                "Firefox.parentModuleName.noSpace"), (Util.extractDomain(result.getString("url"))))); //NON-NLS
                 this.addArtifact(ARTIFACT_TYPE.TSK_WEB_HISTORY, historyFile, bbattributes);
-            }
+            });
+            logger.log(Level.INFO, "{0} - Got history from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, rowCount}); //NON-NLS
             ++j;
             dbFile.delete();
         }
@@ -163,10 +160,9 @@ private void getHistory() {
      */
     private void getBookmark() {
 
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> bookmarkFiles;
         try {
-            bookmarkFiles = fileManager.findFiles(dataSource, "places.sqlite", "Firefox"); //NON-NLS
+            bookmarkFiles = this.findFiles(dataSource, "places.sqlite", "Firefox"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Firefox.getBookmark.errMsg.errFetchFiles");
             logger.log(Level.WARNING, msg);
@@ -187,7 +183,7 @@ private void getBookmark() {
                 continue;
             }
             String fileName = bookmarkFile.getName();
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox") + File.separator + fileName + j + ".db"; //NON-NLS
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox", context.getJobId()) + File.separator + fileName + j + ".db"; //NON-NLS
             try {
                 ContentUtils.writeToFile(bookmarkFile, new File(temps));
             } catch (IOException ex) {
@@ -201,24 +197,22 @@ private void getBookmark() {
                 dbFile.delete();
                 break;
             }
-            List<HashMap<String, Object>> tempList = this.dbConnect(temps, bookmarkQuery);
-            logger.log(Level.INFO, "{0} - Now getting bookmarks from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, tempList.size()}); //NON-NLS
-            for (HashMap<String, Object> result : tempList) {
+            int rowCount = this.dbStream(temps, bookmarkQuery, context, (DbRow result) -> {
 
                 Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("url").toString() != null) ? result.get("url").toString() : ""))); //NON-NLS
+                        result.getString("url"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_TITLE.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("title").toString() != null) ? result.get("title").toString() : ""))); //NON-NLS
-                if (Long.valueOf(result.get("dateAdded").toString()) > 0) { //NON-NLS
+                        result.getString("title"))); //NON-NLS
+                if (result.getLong("dateAdded") > 0) { //NON-NLS
                     bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_CREATED.getTypeID(),
                             NbBundle.getMessage(this.getClass(),
                                     "Firefox.parentModuleName.noSpace"),
-                            (Long.valueOf(result.get("dateAdded").toString())))); //NON-NLS
+                            (result.getLong("dateAdded")))); //NON-NLS
                 }
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
@@ -227,10 +221,11 @@ private void getBookmark() {
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        (Util.extractDomain((result.get("url").toString() != null) ? result.get("url").toString() : "")))); //NON-NLS
+                        (Util.extractDomain(result.getString("url"))))); //NON-NLS
                 this.addArtifact(ARTIFACT_TYPE.TSK_WEB_BOOKMARK, bookmarkFile, bbattributes);
 
-            }
+            });
+            logger.log(Level.INFO, "{0} - Got bookmarks from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, rowCount}); //NON-NLS
             ++j;
             dbFile.delete();
         }
@@ -243,10 +238,9 @@ private void getBookmark() {
      * Queries for cookies file and adds artifacts
      */
     private void getCookie() {
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> cookiesFiles;
         try {
-            cookiesFiles = fileManager.findFiles(dataSource, "cookies.sqlite", "Firefox"); //NON-NLS
+            cookiesFiles = this.findFiles(dataSource, "cookies.sqlite", "Firefox"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Firefox.getCookie.errMsg.errFetchFile");
             logger.log(Level.WARNING, msg);
@@ -266,7 +260,7 @@ private void getCookie() {
                 continue;
             }
             String fileName = cookiesFile.getName();
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox") + File.separator + fileName + j + ".db"; //NON-NLS
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox", context.getJobId()) + File.separator + fileName + j + ".db"; //NON-NLS
             try {
                 ContentUtils.writeToFile(cookiesFile, new File(temps));
             } catch (IOException ex) {
@@ -289,27 +283,25 @@ private void getCookie() {
                 query = cookieQueryV3;
             }
 
-            List<HashMap<String, Object>> tempList = this.dbConnect(temps, query);
-            logger.log(Level.INFO, "{0} - Now getting cookies from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, tempList.size()}); //NON-NLS
-            for (HashMap<String, Object> result : tempList) {
+            int rowCount = this.dbStream(temps, query, context, (DbRow result) -> {
 
                 Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("host").toString() != null) ? result.get("host").toString() : ""))); //NON-NLS
+                        result.getString("host"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        (Long.valueOf(result.get("lastAccessed").toString())))); //NON-NLS
+                        (result.getLong("lastAccessed")))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("name").toString() != null) ? result.get("name").toString() : ""))); //NON-NLS
+                        result.getString("name"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_VALUE.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("value").toString() != null) ? result.get("value").toString() : ""))); //NON-NLS
+                        result.getString("value"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
@@ -319,15 +311,16 @@ private void getCookie() {
                     bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_CREATED.getTypeID(),
                             NbBundle.getMessage(this.getClass(),
                                     "Firefox.parentModuleName.noSpace"),
-                            (Long.valueOf(result.get("creationTime").toString())))); //NON-NLS
+                            (result.getLong("creationTime")))); //NON-NLS
                 }
-                String domain = Util.extractDomain(result.get("host").toString()); //NON-NLS
+                String domain = Util.extractDomain(result.getString("host")); //NON-NLS
                 domain = domain.replaceFirst("^\\.+(?!$)", "");
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"), domain));
                 this.addArtifact(ARTIFACT_TYPE.TSK_WEB_COOKIE, cookiesFile, bbattributes);
-            }
+            });
+            logger.log(Level.INFO, "{0} - Got cookies from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, rowCount}); //NON-NLS
             ++j;
             dbFile.delete();
         }
@@ -351,10 +344,9 @@ private void getDownload() {
      */
     private void getDownloadPreVersion24() {
 
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> downloadsFiles;
         try {
-            downloadsFiles = fileManager.findFiles(dataSource, "downloads.sqlite", "Firefox"); //NON-NLS
+            downloadsFiles = this.findFiles(dataSource, "downloads.sqlite", "Firefox"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Firefox.getDlPre24.errMsg.errFetchFiles");
             logger.log(Level.WARNING, msg);
@@ -374,8 +366,8 @@ private void getDownloadPreVersion24() {
                 continue;
             }
             String fileName = downloadsFile.getName();
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox") + File.separator + fileName + j + ".db"; //NON-NLS
-            int errors = 0;
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox", context.getJobId()) + File.separator + fileName + j + ".db"; //NON-NLS
+            AtomicInteger errors = new AtomicInteger();
             try {
                 ContentUtils.writeToFile(downloadsFile, new File(temps));
             } catch (IOException ex) {
@@ -390,23 +382,21 @@ private void getDownloadPreVersion24() {
                 break;
             }
 
-            List<HashMap<String, Object>> tempList = this.dbConnect(temps, downloadQuery);
-            logger.log(Level.INFO, "{0}- Now getting downloads from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, tempList.size()}); //NON-NLS
-            for (HashMap<String, Object> result : tempList) {
+            int rowCount = this.dbStream(temps, downloadQuery, context, (DbRow result) -> {
 
                 Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
 
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("source").toString() != null) ? result.get("source").toString() : ""))); //NON-NLS
+                        result.getString("source"))); //NON-NLS
                 //bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL_DECODED.getTypeID(), "RecentActivity", ((result.get("source").toString() != null) ? EscapeUtil.decodeURL(result.get("source").toString()) : "")));
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_ACCESSED.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        (Long.valueOf(result.get("startTime").toString())))); //NON-NLS
+                        (result.getLong("startTime")))); //NON-NLS
 
-                String target = result.get("target").toString(); //NON-NLS
+                String target = result.getString("target"); //NON-NLS
 
                 if (target != null) {
                     try {
@@ -424,7 +414,7 @@ private void getDownloadPreVersion24() {
                         }
                     } catch (UnsupportedEncodingException ex) {
                         logger.log(Level.SEVERE, "Error decoding Firefox download URL in " + temps, ex); //NON-NLS
-                        errors++;
+                        errors.incrementAndGet();
                     }
                 }
 
@@ -435,14 +425,15 @@ private void getDownloadPreVersion24() {
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        (Util.extractDomain((result.get("source").toString() != null) ? result.get("source").toString() : "")))); //NON-NLS
+                        (Util.extractDomain(result.getString("source"))))); //NON-NLS
                 this.addArtifact(ARTIFACT_TYPE.TSK_WEB_DOWNLOAD, downloadsFile, bbattributes);
 
-            }
-            if (errors > 0) {
+            });
+            logger.log(Level.INFO, "{0}- Got downloads from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, rowCount}); //NON-NLS
+            if (errors.get() > 0) {
                 this.addErrorMessage(
                         NbBundle.getMessage(this.getClass(), "Firefox.getDlPre24.errMsg.errParsingArtifacts",
-                                this.getName(), errors));
+                                this.getName(), errors.get()));
             }
             j++;
             dbFile.delete();
@@ -459,10 +450,9 @@ private void getDownloadPreVersion24() {
      * Downloads are stored in the places database.
      */
     private void getDownloadVersion24() {
-        FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> downloadsFiles;
         try {
-            downloadsFiles = fileManager.findFiles(dataSource, "places.sqlite", "Firefox"); //NON-NLS
+            downloadsFiles = this.findFiles(dataSource, "places.sqlite", "Firefox"); //NON-NLS
         } catch (TskCoreException ex) {
             String msg = NbBundle.getMessage(this.getClass(), "Firefox.getDlV24.errMsg.errFetchFiles");
             logger.log(Level.WARNING, msg);
@@ -482,8 +472,8 @@ private void getDownloadVersion24() {
                 continue;
             }
             String fileName = downloadsFile.getName();
-            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox") + File.separator + fileName + "-downloads" + j + ".db"; //NON-NLS
-            int errors = 0;
+            String temps = RAImageIngestModule.getRATempPath(currentCase, "firefox", context.getJobId()) + File.separator + fileName + "-downloads" + j + ".db"; //NON-NLS
+            AtomicInteger errors = new AtomicInteger();
             try {
                 ContentUtils.writeToFile(downloadsFile, new File(temps));
             } catch (IOException ex) {
@@ -499,22 +489,19 @@ private void getDownloadVersion24() {
                 break;
             }
 
-            List<HashMap<String, Object>> tempList = this.dbConnect(temps, downloadQueryVersion24);
-
-            logger.log(Level.INFO, "{0} - Now getting downloads from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, tempList.size()}); //NON-NLS
-            for (HashMap<String, Object> result : tempList) {
+            int rowCount = this.dbStream(temps, downloadQueryVersion24, context, (DbRow result) -> {
 
                 Collection<BlackboardAttribute> bbattributes = new ArrayList<>();
 
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        ((result.get("url").toString() != null) ? result.get("url").toString() : ""))); //NON-NLS
+                        result.getString("url"))); //NON-NLS
                 //bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_URL_DECODED.getTypeID(), "RecentActivity", ((result.get("source").toString() != null) ? EscapeUtil.decodeURL(result.get("source").toString()) : "")));
                 //TODO Revisit usage of deprecated constructor as per TSK-583
                 //bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_LAST_ACCESSED.getTypeID(), "RecentActivity", "Last Visited", (Long.valueOf(result.get("startTime").toString()))));
 
-                String target = result.get("target").toString(); //NON-NLS
+                String target = result.getString("target"); //NON-NLS
                 if (target != null) {
                     try {
                         String decodedTarget = URLDecoder.decode(target.toString().replaceAll("file:///", ""), "UTF-8"); //NON-NLS
@@ -531,13 +518,13 @@ private void getDownloadVersion24() {
                         }
                     } catch (UnsupportedEncodingException ex) {
                         logger.log(Level.SEVERE, "Error decoding Firefox download URL in " + temps, ex); //NON-NLS
-                        errors++;
+                        errors.incrementAndGet();
                     }
                 }
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DATETIME_ACCESSED.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        Long.valueOf(result.get("lastModified").toString()))); //NON-NLS
+                        result.getLong("lastModified"))); //NON-NLS
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_PROG_NAME.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
@@ -545,13 +532,14 @@ private void getDownloadVersion24() {
                 bbattributes.add(new BlackboardAttribute(ATTRIBUTE_TYPE.TSK_DOMAIN.getTypeID(),
                         NbBundle.getMessage(this.getClass(),
                                 "Firefox.parentModuleName.noSpace"),
-                        (Util.extractDomain((result.get("url").toString() != null) ? result.get("url").toString() : "")))); //NON-NLS
+                        (Util.extractDomain(result.getString("url"))))); //NON-NLS
                 this.addArtifact(ARTIFACT_TYPE.TSK_WEB_DOWNLOAD, downloadsFile, bbattributes);
 
-            }
-            if (errors > 0) {
+            });
+            logger.log(Level.INFO, "{0} - Got downloads from {1} with {2} artifacts identified.", new Object[]{moduleName, temps, rowCount}); //NON-NLS
+            if (errors.get() > 0) {
                 this.addErrorMessage(NbBundle.getMessage(this.getClass(), "Firefox.getDlV24.errMsg.errParsingArtifacts",
-                        this.getName(), errors));
+                        this.getName(), errors.get()));
             }
             j++;
             dbFile.delete();
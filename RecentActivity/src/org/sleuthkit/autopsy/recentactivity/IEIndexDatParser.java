@@ -0,0 +1,200 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.recentactivity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Parses the URL records of an Internet Explorer history index.dat file in
+ * process, reading the file into a buffer straight from its content.
+ *
+ * Only the records that are referenced from the hash tables and marked as
+ * allocated in the allocation bitmap are reported, which is what pasco2 does
+ * for history files. The layout is described at
+ * http://www.latenighthacking.com/projects/2003/reIndexDat/ and
+ * https://github.com/libyal/libmsiecf/blob/master/documentation/
+ */
+final class IEIndexDatParser {
+
+    private static final String SIGNATURE = "Client UrlCache MMF Ver "; //NON-NLS
+    private static final int BLOCK_SIZE = 0x80;
+    private static final int FILE_SIZE_OFFSET = 0x1C;
+    private static final int HASH_TABLE_OFFSET = 0x20;
+    private static final int ALLOCATION_BITMAP_OFFSET = 0x250;
+    private static final int HASH_ENTRIES_OFFSET = 16;
+    private static final int HASH_ENTRY_SIZE = 8;
+    private static final int UNUSED_HASH_ENTRY = 0x03;
+    private static final int UNALLOCATED_MEMORY = 0x0BADF00D;
+
+    /**
+     * the difference between the FILETIME epoch (1601-01-01) and the unix
+     * epoch, in seconds
+     */
+    private static final long FILETIME_EPOCH_DIFF = 11644473600L;
+
+    private final ByteBuffer buffer;
+    private final int fileSize;
+    private final int firstHashTableOffset;
+    private final int urlOffsetField;
+
+    /**
+     * A URL record of a history index.dat file.
+     */
+    static final class UrlRecord {
+
+        private final String url;
+        private final long accessedTime;
+
+        private UrlRecord(String url, long accessedTime) {
+            this.url = url;
+            this.accessedTime = accessedTime;
+        }
+
+        /**
+         * @return the location of the record, such as
+         *         "Visited: user@http://www.example.com/"
+         */
+        String getUrl() {
+            return url;
+        }
+
+        /**
+         * @return the last access time, in seconds since the unix epoch, or 0
+         */
+        long getAccessedTime() {
+            return accessedTime;
+        }
+    }
+
+    /**
+     * Read an index.dat file into memory.
+     *
+     * @param in     the content of the file
+     * @param length the size of the file
+     *
+     * @throws IOException if the file cannot be read or is not an index.dat
+     *                     file
+     */
+    IEIndexDatParser(InputStream in, long length) throws IOException {
+        if (length < ALLOCATION_BITMAP_OFFSET || length > Integer.MAX_VALUE) {
+            throw new IOException("Unexpected index.dat file size " + length); //NON-NLS
+        }
+        byte[] content = new byte[(int) length];
+        int total = 0;
+        while (total < content.length) {
+            int read = in.read(content, total, content.length - total);
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        String signature = new String(content, 0, SIGNATURE.length(), StandardCharsets.US_ASCII);
+        if (signature.equals(SIGNATURE) == false) {
+            throw new IOException("Not an index.dat file"); //NON-NLS
+        }
+        buffer = ByteBuffer.wrap(content, 0, total).order(ByteOrder.LITTLE_ENDIAN);
+        fileSize = Math.min(total, Math.max(0, buffer.getInt(FILE_SIZE_OFFSET)));
+        firstHashTableOffset = buffer.getInt(HASH_TABLE_OFFSET);
+        // the URL offset moved with format version 5
+        urlOffsetField = content[SIGNATURE.length()] >= '5' ? 0x34 : 0x38;
+    }
+
+    /**
+     * Walk the hash tables of the file and pass each allocated URL record to
+     * the consumer, in hash table order.
+     *
+     * @param consumer the consumer of the records
+     */
+    void parse(Consumer<UrlRecord> consumer) {
+        Set<Integer> seenRecords = new HashSet<>();
+        Set<Integer> seenHashTables = new HashSet<>();
+        int hashTableOffset = firstHashTableOffset;
+        while (isInFile(hashTableOffset, HASH_ENTRIES_OFFSET) && seenHashTables.add(hashTableOffset)) {
+            long tableSize = (long) buffer.getInt(hashTableOffset + 4) * BLOCK_SIZE;
+            int tableEnd = (int) Math.min(fileSize, hashTableOffset + Math.max(0, tableSize));
+            for (int entry = hashTableOffset + HASH_ENTRIES_OFFSET; entry + HASH_ENTRY_SIZE <= tableEnd; entry += HASH_ENTRY_SIZE) {
+                int flags = buffer.getInt(entry);
+                int recordOffset = buffer.getInt(entry + 4);
+                if ((flags & 0xFF) == UNUSED_HASH_ENTRY || recordOffset == UNALLOCATED_MEMORY
+                        || recordOffset <= firstHashTableOffset || isInFile(recordOffset, BLOCK_SIZE) == false) {
+                    continue;
+                }
+                if (isAllocated(recordOffset) && seenRecords.add(recordOffset)) {
+                    UrlRecord record = parseRecord(recordOffset);
+                    if (record != null) {
+                        consumer.accept(record);
+                    }
+                }
+            }
+            hashTableOffset = buffer.getInt(hashTableOffset + 8);
+        }
+    }
+
+    /**
+     * Parse the record at the given offset if it is a URL record.
+     *
+     * @return the record, or null if it is not a URL record
+     */
+    private UrlRecord parseRecord(int offset) {
+        if (buffer.get(offset) != 'U' || buffer.get(offset + 1) != 'R' || buffer.get(offset + 2) != 'L') {
+            return null;
+        }
+        int urlOffset = buffer.getInt(offset + urlOffsetField);
+        if (urlOffset <= 0 || isInFile(offset, urlOffset) == false) {
+            return null;
+        }
+        StringBuilder url = new StringBuilder();
+        for (int i = offset + urlOffset; i < fileSize && buffer.get(i) != 0; i++) {
+            url.append((char) (buffer.get(i) & 0xFF));
+        }
+        return new UrlRecord(url.toString(), fileTimeToUnixTime(buffer.getLong(offset + 16)));
+    }
+
+    /**
+     * Check the allocation bitmap for the block of a record. The bitmap has
+     * one bit per block, counting from the first hash table, and the bits of
+     * each 32 bit word are used from the most significant one down.
+     */
+    private boolean isAllocated(int recordOffset) {
+        int blockIndex = (recordOffset - firstHashTableOffset) / BLOCK_SIZE;
+        int wordOffset = ALLOCATION_BITMAP_OFFSET + (blockIndex / 32) * 4;
+        if (isInFile(wordOffset, 4) == false) {
+            return false;
+        }
+        return (buffer.getInt(wordOffset) & (1 << (31 - blockIndex % 32))) != 0;
+    }
+
+    private boolean isInFile(long offset, long length) {
+        return offset > 0 && offset + length <= fileSize;
+    }
+
+    private static long fileTimeToUnixTime(long fileTime) {
+        if (fileTime <= 0) {
+            return 0;
+        }
+        return fileTime / 10000000L - FILETIME_EPOCH_DIFF;
+    }
+}
@@ -24,7 +24,19 @@
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import org.openide.util.NbBundle;
 import org.sleuthkit.autopsy.casemodule.Case;
@@ -44,8 +56,14 @@
 public final class RAImageIngestModule implements DataSourceIngestModule {
 
     private static final Logger logger = Logger.getLogger(RAImageIngestModule.class.getName());
+
+    /**
+     * the maximum number of extractors that run at the same time
+     */
+    private static final int MAX_EXTRACTER_THREADS = 4;
     private final List<Extract> extracters = new ArrayList<>();
     private final List<Extract> browserExtracters = new ArrayList<>();
+    private final Map<Extract, List<Extract>> prerequisites = new HashMap<>();
     private IngestServices services = IngestServices.getInstance();
     private IngestJobContext context;
     private StringBuilder subCompleted = new StringBuilder();
@@ -64,17 +82,25 @@ public void startUp(IngestJobContext context) throws IngestModuleException {
         Extract firefox = new Firefox();
         Extract SEUQA = new SearchEngineURLQueryAnalyzer();
 
+        extracters.add(registry); // this is started first because it is slowest
         extracters.add(chrome);
         extracters.add(firefox);
         extracters.add(iexplore);
         extracters.add(recentDocuments);
-        extracters.add(SEUQA); // this needs to run after the web browser modules
-        extracters.add(registry); // this runs last because it is slowest
+        extracters.add(SEUQA);
 
         browserExtracters.add(chrome);
         browserExtracters.add(firefox);
         browserExtracters.add(iexplore);
 
+        // the search engine analyzer reads the artifacts of the web browser modules
+        prerequisites.put(SEUQA, browserExtracters);
+
+        SharedFileFinder fileFinder = new SharedFileFinder();
+        for (Extract extracter : extracters) {
+            extracter.setFileFinder(fileFinder);
+        }
+
         for (Extract extracter : extracters) {
             extracter.init();
         }
@@ -90,28 +116,7 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         progressBar.switchToDeterminate(extracters.size());
 
         ArrayList<String> errors = new ArrayList<>();
-
-        for (int i = 0; i < extracters.size(); i++) {
-            Extract extracter = extracters.get(i);
-            if (context.dataSourceIngestIsCancelled()) {
-                logger.log(Level.INFO, "Recent Activity has been canceled, quitting before {0}", extracter.getName()); //NON-NLS
-                break;
-            }
-
-            progressBar.progress(extracter.getName(), i);
-
-            try {
-                extracter.process(dataSource, context);
-            } catch (Exception ex) {
-                logger.log(Level.SEVERE, "Exception occurred in " + extracter.getName(), ex); //NON-NLS
-                subCompleted.append(NbBundle.getMessage(this.getClass(), "RAImageIngestModule.process.errModFailed",
-                        extracter.getName()));
-                errors.add(
-                        NbBundle.getMessage(this.getClass(), "RAImageIngestModule.process.errModErrs", RecentActivityExtracterModuleFactory.getModuleName()));
-            }
-            progressBar.progress(i + 1);
-            errors.addAll(extracter.getErrorMessages());
-        }
+        runExtracters(dataSource, progressBar, errors);
 
         // create the final message for inbox
         StringBuilder errorMessage = new StringBuilder();
@@ -179,6 +184,74 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
         return ProcessResult.OK;
     }
 
+    /**
+     * Runs the extractors on a pool of threads. Each extractor is started as
+     * soon as the extractors it depends on have finished, and the rest of them
+     * run concurrently. Waits for all the started extractors to finish.
+     *
+     * @param dataSource  the data source to analyze
+     * @param progressBar the progress bar of the module, advanced as each
+     *                    extractor finishes
+     * @param errors      the list to add the error messages of the extractors
+     *                    to
+     */
+    private void runExtracters(Content dataSource, DataSourceIngestModuleProgress progressBar, List<String> errors) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_EXTRACTER_THREADS, extracters.size()),
+                runnable -> new Thread(runnable, "recent-activity-extracter")); //NON-NLS
+        CompletionService<Extract> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<Extract>, Extract> runningExtracters = new HashMap<>();
+        List<Extract> waitingExtracters = new ArrayList<>(extracters);
+        Set<Extract> finishedExtracters = new HashSet<>();
+        try {
+            while (true) {
+                if (context.dataSourceIngestIsCancelled() == false) {
+                    Iterator<Extract> iterator = waitingExtracters.iterator();
+                    while (iterator.hasNext()) {
+                        Extract extracter = iterator.next();
+                        if (finishedExtracters.containsAll(prerequisites.getOrDefault(extracter, Collections.emptyList()))) {
+                            iterator.remove();
+                            Future<Extract> future = completionService.submit(() -> {
+                                extracter.process(dataSource, context);
+                                return extracter;
+                            });
+                            runningExtracters.put(future, extracter);
+                        }
+                    }
+                } else {
+                    for (Extract extracter : waitingExtracters) {
+                        logger.log(Level.INFO, "Recent Activity has been canceled, quitting before {0}", extracter.getName()); //NON-NLS
+                    }
+                    waitingExtracters.clear();
+                }
+
+                if (runningExtracters.isEmpty()) {
+                    break;
+                }
+
+                Future<Extract> future = completionService.take();
+                Extract extracter = runningExtracters.remove(future);
+                try {
+                    future.get();
+                } catch (ExecutionException ex) {
+                    logger.log(Level.SEVERE, "Exception occurred in " + extracter.getName(), ex.getCause()); //NON-NLS
+                    subCompleted.append(NbBundle.getMessage(this.getClass(), "RAImageIngestModule.process.errModFailed",
+                            extracter.getName()));
+                    errors.add(
+                            NbBundle.getMessage(this.getClass(), "RAImageIngestModule.process.errModErrs", RecentActivityExtracterModuleFactory.getModuleName()));
+                }
+                finishedExtracters.add(extracter);
+                progressBar.progress(extracter.getName(), finishedExtracters.size());
+                errors.addAll(extracter.getErrorMessages());
+            }
+        } catch (InterruptedException ex) {
+            logger.log(Level.WARNING, "Interrupted while waiting for Recent Activity extracters", ex); //NON-NLS
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /**
      * Get the temp path for a specific sub-module in recent activity. Will
      * create the dir if it doesn't exist.
@@ -186,11 +259,13 @@ public ProcessResult process(Content dataSource, DataSourceIngestModuleProgress
      * @param a_case Case that directory is for
      * @param mod    Module name that will be used for a sub folder in the temp
      *               folder to prevent name collisions
+     * @param jobId  Id of the ingest job, used for a sub folder of the module
+     *               folder so that concurrent jobs do not share files
      *
      * @return Path to directory
      */
-    protected static String getRATempPath(Case a_case, String mod) {
-        String tmpDir = a_case.getTempDirectory() + File.separator + "RecentActivity" + File.separator + mod; //NON-NLS
+    protected static String getRATempPath(Case a_case, String mod, long jobId) {
+        String tmpDir = a_case.getTempDirectory() + File.separator + "RecentActivity" + File.separator + mod + File.separator + jobId; //NON-NLS
         File dir = new File(tmpDir);
         if (dir.exists() == false) {
             dir.mkdirs();
@@ -205,11 +280,13 @@ protected static String getRATempPath(Case a_case, String mod) {
      * @param a_case Case that directory is for
      * @param mod    Module name that will be used for a sub folder in the temp
      *               folder to prevent name collisions
+     * @param jobId  Id of the ingest job, used for a sub folder of the module
+     *               folder so that concurrent jobs do not share files
      *
      * @return Path to directory
      */
-    protected static String getRAOutputPath(Case a_case, String mod) {
-        String tmpDir = a_case.getModuleDirectory() + File.separator + "RecentActivity" + File.separator + mod; //NON-NLS
+    protected static String getRAOutputPath(Case a_case, String mod, long jobId) {
+        String tmpDir = a_case.getModuleDirectory() + File.separator + "RecentActivity" + File.separator + mod + File.separator + jobId; //NON-NLS
         File dir = new File(tmpDir);
         if (dir.exists() == false) {
             dir.mkdirs();
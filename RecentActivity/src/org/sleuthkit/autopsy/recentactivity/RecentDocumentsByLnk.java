@@ -63,10 +63,9 @@ class RecentDocumentsByLnk extends Extract {
      */
     private void getRecentDocuments() {
 
-        org.sleuthkit.autopsy.casemodule.services.FileManager fileManager = currentCase.getServices().getFileManager();
         List<AbstractFile> recentFiles;
         try {
-            recentFiles = fileManager.findFiles(dataSource, "%.lnk", "Recent"); //NON-NLS
+            recentFiles = this.findFiles(dataSource, "%.lnk", "Recent"); //NON-NLS
         } catch (TskCoreException ex) {
             logger.log(Level.WARNING, "Error searching for .lnk files."); //NON-NLS
             this.addErrorMessage(
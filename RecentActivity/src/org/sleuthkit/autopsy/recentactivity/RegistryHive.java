@@ -0,0 +1,478 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.recentactivity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sleuthkit.datamodel.Content;
+import org.sleuthkit.datamodel.TskCoreException;
+
+/**
+ * A read-only parser of Windows registry hive (REGF) files that reads the hive
+ * straight from its content, a page at a time, so that the hive does not have
+ * to be copied to disk or read into memory as a whole.
+ *
+ * Only the allocated keys and values that are reachable from the root key are
+ * visible. The layout is described at
+ * https://github.com/msuhanov/regf/blob/master/Windows%20registry%20file%20format%20specification.md
+ */
+final class RegistryHive {
+
+    static final int REG_SZ = 1;
+    static final int REG_EXPAND_SZ = 2;
+    static final int REG_BINARY = 3;
+    static final int REG_DWORD = 4;
+    static final int REG_DWORD_BIG_ENDIAN = 5;
+    static final int REG_MULTI_SZ = 7;
+    static final int REG_QWORD = 11;
+
+    private static final int BASE_BLOCK_SIZE = 4096;
+    private static final int ROOT_CELL_OFFSET = 0x24;
+    private static final int HIVE_BINS_SIZE_OFFSET = 0x28;
+    private static final int MINOR_VERSION_OFFSET = 0x18;
+    private static final int KEY_COMP_NAME = 0x0020;
+    private static final int VALUE_COMP_NAME = 0x0001;
+    private static final int DATA_IN_OFFSET = 0x80000000;
+    private static final int BIG_DATA_MIN_SIZE = 16344;
+
+    /**
+     * the difference between the FILETIME epoch (1601-01-01) and the unix
+     * epoch, in seconds
+     */
+    private static final long FILETIME_EPOCH_DIFF = 11644473600L;
+
+    private static final int PAGE_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_PAGES = 64;
+
+    private final Content content;
+    private final long hiveBinsEnd;
+    private final int rootCellOffset;
+    private final int minorVersion;
+
+    /**
+     * the most recently read pages of the hive, by page number
+     */
+    private final Map<Long, byte[]> pages = new LinkedHashMap<Long, byte[]>(MAX_CACHED_PAGES, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    /**
+     * Opens a hive and checks its base block.
+     *
+     * @param content the hive file
+     *
+     * @throws IOException if the hive cannot be read or is not a REGF hive
+     */
+    RegistryHive(Content content) throws IOException {
+        this.content = content;
+        if (content.getSize() < BASE_BLOCK_SIZE || readInt(0) != 0x66676572) { // "regf"
+            throw new IOException("Not a registry hive: " + content.getName()); //NON-NLS
+        }
+        minorVersion = readInt(MINOR_VERSION_OFFSET);
+        rootCellOffset = readInt(ROOT_CELL_OFFSET);
+        long hiveBinsSize = readInt(HIVE_BINS_SIZE_OFFSET) & 0xFFFFFFFFL;
+        hiveBinsEnd = Math.min(content.getSize(), BASE_BLOCK_SIZE + hiveBinsSize);
+    }
+
+    /**
+     * @return the root key of the hive
+     *
+     * @throws IOException if the root key cannot be read
+     */
+    Key getRootKey() throws IOException {
+        return new Key(rootCellOffset);
+    }
+
+    /**
+     * A key of the hive.
+     */
+    final class Key {
+
+        private final int cellOffset;
+        private final String name;
+        private final int flags;
+
+        private Key(int cellOffset) throws IOException {
+            this.cellOffset = cellOffset;
+            if (readShort(cellData(cellOffset)) != 0x6B6E) { // "nk"
+                throw new IOException("Invalid key cell at offset " + cellOffset); //NON-NLS
+            }
+            long data = cellData(cellOffset);
+            flags = readShort(data + 2);
+            int nameLength = readShort(data + 0x48);
+            name = readName(data + 0x4C, nameLength, (flags & KEY_COMP_NAME) != 0);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return the last written time of the key, in seconds since the unix
+         *         epoch, or 0 if it is not set
+         */
+        long getLastWrittenTime() throws IOException {
+            return fileTimeToUnixTime(readLong(cellData(cellOffset) + 4));
+        }
+
+        /**
+         * @return the subkeys of the key, in the order they are stored
+         */
+        List<Key> getSubkeys() throws IOException {
+            long data = cellData(cellOffset);
+            int count = readInt(data + 0x14);
+            if (count <= 0) {
+                return Collections.emptyList();
+            }
+            List<Key> subkeys = new ArrayList<>(Math.min(count, 4096));
+            readSubkeyList(readInt(data + 0x1C), subkeys, new HashSet<>());
+            return subkeys;
+        }
+
+        /**
+         * Finds a subkey by path.
+         *
+         * @param path the path of the subkey relative to this key, with
+         *             backslash separators, matched case-insensitively
+         *
+         * @return the subkey, or null if there is no such subkey
+         */
+        Key getSubkey(String path) throws IOException {
+            Key key = this;
+            for (String component : path.split("\\\\")) {
+                if (component.isEmpty()) {
+                    continue;
+                }
+                Key next = null;
+                for (Key subkey : key.getSubkeys()) {
+                    if (subkey.getName().equalsIgnoreCase(component)) {
+                        next = subkey;
+                        break;
+                    }
+                }
+                if (next == null) {
+                    return null;
+                }
+                key = next;
+            }
+            return key;
+        }
+
+        /**
+         * @return the values of the key, in the order they are stored
+         */
+        List<Value> getValues() throws IOException {
+            long data = cellData(cellOffset);
+            int count = readInt(data + 0x24);
+            if (count <= 0) {
+                return Collections.emptyList();
+            }
+            long list = cellData(readInt(data + 0x28));
+            List<Value> values = new ArrayList<>(Math.min(count, 4096));
+            for (int i = 0; i < count; i++) {
+                values.add(new Value(readInt(list + 4L * i)));
+            }
+            return values;
+        }
+
+        /**
+         * Finds a value by name.
+         *
+         * @param valueName the name of the value, matched case-insensitively,
+         *                  or an empty string for the default value
+         *
+         * @return the value, or null if there is no such value
+         */
+        Value getValue(String valueName) throws IOException {
+            for (Value value : getValues()) {
+                if (value.getName().equalsIgnoreCase(valueName)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Gets the data of a value as a string.
+         *
+         * @param valueName the name of the value
+         *
+         * @return the data, or null if there is no such value
+         */
+        String getValueString(String valueName) throws IOException {
+            Value value = getValue(valueName);
+            return (value != null) ? value.getDataAsString() : null;
+        }
+
+        /**
+         * Reads a subkey list cell, following index roots to their leaves.
+         */
+        private void readSubkeyList(int listOffset, List<Key> subkeys, Set<Integer> visitedLists) throws IOException {
+            if (visitedLists.add(listOffset) == false) {
+                throw new IOException("Subkey list loop at offset " + listOffset); //NON-NLS
+            }
+            long list = cellData(listOffset);
+            int signature = readShort(list);
+            int count = readShort(list + 2);
+            switch (signature) {
+                case 0x666C: // "lf"
+                case 0x686C: // "lh"
+                    for (int i = 0; i < count; i++) {
+                        subkeys.add(new Key(readInt(list + 4 + 8L * i)));
+                    }
+                    break;
+                case 0x696C: // "li"
+                    for (int i = 0; i < count; i++) {
+                        subkeys.add(new Key(readInt(list + 4 + 4L * i)));
+                    }
+                    break;
+                case 0x6972: // "ri"
+                    for (int i = 0; i < count; i++) {
+                        readSubkeyList(readInt(list + 4 + 4L * i), subkeys, visitedLists);
+                    }
+                    break;
+                default:
+                    throw new IOException("Invalid subkey list at offset " + listOffset); //NON-NLS
+            }
+        }
+    }
+
+    /**
+     * A value of a key.
+     */
+    final class Value {
+
+        private final long data;
+        private final String name;
+
+        private Value(int cellOffset) throws IOException {
+            data = cellData(cellOffset);
+            if (readShort(data) != 0x6B76) { // "vk"
+                throw new IOException("Invalid value cell at offset " + cellOffset); //NON-NLS
+            }
+            int nameLength = readShort(data + 2);
+            int flags = readShort(data + 0x10);
+            name = (nameLength == 0) ? "" : readName(data + 0x14, nameLength, (flags & VALUE_COMP_NAME) != 0);
+        }
+
+        /**
+         * @return the name of the value, or an empty string for the default
+         *         value of a key
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return the data type, one of the REG_ constants
+         */
+        int getType() throws IOException {
+            return readInt(data + 0x0C);
+        }
+
+        /**
+         * @return the raw data of the value
+         */
+        byte[] getData() throws IOException {
+            int size = readInt(data + 4);
+            if ((size & DATA_IN_OFFSET) != 0) {
+                // data of up to four bytes is stored in the data offset field
+                int length = Math.min(size & ~DATA_IN_OFFSET, 4);
+                return read(data + 8, length);
+            }
+            long dataCell = cellData(readInt(data + 8));
+            if (size > BIG_DATA_MIN_SIZE && minorVersion >= 4 && readShort(dataCell) == 0x6264) { // "db"
+                return readBigData(dataCell, size);
+            }
+            return read(dataCell, size);
+        }
+
+        /**
+         * Gets the data as a string, the way it would be displayed. Numbers are
+         * formatted in decimal, multiple strings are joined with commas and
+         * other data is formatted as hex bytes.
+         */
+        String getDataAsString() throws IOException {
+            byte[] bytes = getData();
+            switch (getType()) {
+                case REG_SZ:
+                case REG_EXPAND_SZ:
+                    return trimAtNull(new String(bytes, StandardCharsets.UTF_16LE));
+                case REG_MULTI_SZ: {
+                    StringBuilder builder = new StringBuilder();
+                    for (String part : new String(bytes, StandardCharsets.UTF_16LE).split("\0")) {
+                        if (part.isEmpty() == false) {
+                            if (builder.length() > 0) {
+                                builder.append(',');
+                            }
+                            builder.append(part);
+                        }
+                    }
+                    return builder.toString();
+                }
+                case REG_DWORD:
+                case REG_DWORD_BIG_ENDIAN:
+                case REG_QWORD:
+                    return Long.toString(getDataAsLong());
+                default: {
+                    StringBuilder builder = new StringBuilder();
+                    for (byte b : bytes) {
+                        builder.append(String.format("%02x", b & 0xFF)); //NON-NLS
+                    }
+                    return builder.toString();
+                }
+            }
+        }
+
+        /**
+         * @return the data of a REG_DWORD or REG_QWORD value as an unsigned
+         *         number
+         */
+        long getDataAsLong() throws IOException {
+            byte[] bytes = getData();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(getType() == REG_DWORD_BIG_ENDIAN ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+            if (bytes.length >= 8 && getType() == REG_QWORD) {
+                return buffer.getLong();
+            } else if (bytes.length >= 4) {
+                return buffer.getInt() & 0xFFFFFFFFL;
+            }
+            return 0;
+        }
+
+        private byte[] readBigData(long dataCell, int size) throws IOException {
+            int segmentCount = readShort(dataCell + 2);
+            long segmentList = cellData(readInt(dataCell + 4));
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+            for (int i = 0; i < segmentCount && out.size() < size; i++) {
+                int segmentOffset = readInt(segmentList + 4L * i);
+                int length = Math.min(cellSize(segmentOffset) - 4, size - out.size());
+                out.write(read(cellData(segmentOffset), length));
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Gets the absolute offset of the data of a cell.
+     *
+     * @param cellOffset the offset of the cell, relative to the first hive bin
+     */
+    private long cellData(int cellOffset) throws IOException {
+        long offset = BASE_BLOCK_SIZE + (cellOffset & 0xFFFFFFFFL);
+        if (cellOffset == -1 || offset + 4 > hiveBinsEnd) {
+            throw new IOException("Cell offset out of range: " + cellOffset); //NON-NLS
+        }
+        return offset + 4;
+    }
+
+    /**
+     * Gets the size of a cell, including its size field.
+     */
+    private int cellSize(int cellOffset) throws IOException {
+        return Math.abs(readInt(cellData(cellOffset) - 4));
+    }
+
+    private String readName(long offset, int length, boolean compressed) throws IOException {
+        byte[] bytes = read(offset, length);
+        return compressed ? new String(bytes, StandardCharsets.ISO_8859_1) : new String(bytes, StandardCharsets.UTF_16LE);
+    }
+
+    private int readShort(long offset) throws IOException {
+        return ByteBuffer.wrap(read(offset, 2)).order(ByteOrder.LITTLE_ENDIAN).getShort() & 0xFFFF;
+    }
+
+    private int readInt(long offset) throws IOException {
+        return ByteBuffer.wrap(read(offset, 4)).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    }
+
+    private long readLong(long offset) throws IOException {
+        return ByteBuffer.wrap(read(offset, 8)).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    /**
+     * Reads bytes of the hive through the page cache.
+     */
+    private byte[] read(long offset, int length) throws IOException {
+        if (length < 0 || offset < 0 || offset + length > content.getSize()) {
+            throw new IOException("Read out of range at offset " + offset); //NON-NLS
+        }
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            long position = offset + copied;
+            byte[] page = getPage(position / PAGE_SIZE);
+            int pageOffset = (int) (position % PAGE_SIZE);
+            int count = Math.min(length - copied, page.length - pageOffset);
+            if (count <= 0) {
+                throw new IOException("Short read at offset " + position); //NON-NLS
+            }
+            System.arraycopy(page, pageOffset, bytes, copied, count);
+            copied += count;
+        }
+        return bytes;
+    }
+
+    private byte[] getPage(long pageNumber) throws IOException {
+        byte[] page = pages.get(pageNumber);
+        if (page == null) {
+            long pageStart = pageNumber * PAGE_SIZE;
+            int pageLength = (int) Math.min(PAGE_SIZE, content.getSize() - pageStart);
+            page = new byte[pageLength];
+            try {
+                int bytesRead = content.read(page, pageStart, pageLength);
+                if (bytesRead < pageLength) {
+                    byte[] shortPage = new byte[Math.max(0, bytesRead)];
+                    System.arraycopy(page, 0, shortPage, 0, shortPage.length);
+                    page = shortPage;
+                }
+            } catch (TskCoreException ex) {
+                throw new IOException("Error reading registry hive " + content.getName(), ex); //NON-NLS
+            }
+            pages.put(pageNumber, page);
+        }
+        return page;
+    }
+
+    private static String trimAtNull(String value) {
+        int end = value.indexOf('\0');
+        return (end >= 0) ? value.substring(0, end) : value;
+    }
+
+    private static long fileTimeToUnixTime(long fileTime) {
+        if (fileTime <= 0) {
+            return 0;
+        }
+        return fileTime / 10000000L - FILETIME_EPOCH_DIFF;
+    }
+}
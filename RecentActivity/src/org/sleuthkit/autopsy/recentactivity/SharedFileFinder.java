@@ -0,0 +1,93 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.recentactivity;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import org.sleuthkit.autopsy.casemodule.Case;
+import org.sleuthkit.datamodel.AbstractFile;
+import org.sleuthkit.datamodel.Content;
+import org.sleuthkit.datamodel.SleuthkitCase;
+import org.sleuthkit.datamodel.TskCoreException;
+
+/**
+ * Runs the file name searches of the recent activity extractors once per data
+ * source and shares the results between them. Several extractors look for the
+ * same files (the Chrome History database, the Firefox places database), and
+ * when they run concurrently a search that is already running is waited for
+ * rather than started again.
+ *
+ * The searches go to the case database directly rather than through the
+ * FileManager, whose methods are synchronized, so that the searches of
+ * concurrent extractors are not serialized.
+ */
+final class SharedFileFinder {
+
+    private final ConcurrentMap<String, CompletableFuture<List<AbstractFile>>> searches = new ConcurrentHashMap<>();
+
+    /**
+     * Finds the files whose name matches fileName and whose parent path
+     * contains parentName, see SleuthkitCase.findFiles(). Searches are only
+     * shared between callers that use the same patterns, with the same case,
+     * since the match is case sensitive on some case databases.
+     *
+     * @param dataSource the data source to search
+     * @param fileName   the name pattern, used in a LIKE SQL statement
+     * @param parentName the parent path pattern, or null to match any parent
+     *
+     * @return the matching files, shared by all callers and not to be modified
+     *
+     * @throws TskCoreException if the search fails
+     */
+    List<AbstractFile> findFiles(Content dataSource, String fileName, String parentName) throws TskCoreException {
+        String key = dataSource.getId() + "/" + fileName + "/" + (parentName == null ? "" : parentName); //NON-NLS
+        CompletableFuture<List<AbstractFile>> search = new CompletableFuture<>();
+        CompletableFuture<List<AbstractFile>> existingSearch = searches.putIfAbsent(key, search);
+        if (existingSearch != null) {
+            try {
+                return existingSearch.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new TskCoreException("Interrupted while waiting for file search", ex); //NON-NLS
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof TskCoreException) {
+                    throw (TskCoreException) ex.getCause();
+                }
+                throw new TskCoreException("Error searching for " + fileName, ex); //NON-NLS
+            }
+        }
+
+        try {
+            SleuthkitCase skCase = Case.getCurrentCase().getSleuthkitCase();
+            List<AbstractFile> files = (parentName == null)
+                    ? skCase.findFiles(dataSource, fileName)
+                    : skCase.findFiles(dataSource, fileName, parentName);
+            search.complete(files);
+            return files;
+        } catch (TskCoreException | RuntimeException ex) {
+            // let a later caller try again rather than fail it with this error
+            searches.remove(key, search);
+            search.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Autopsy Forensic Browser
+ *
+ * Copyright 2016 Basis Technology Corp.
+ * Contact: carrier <at> sleuthkit <dot> org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sleuthkit.autopsy.recentactivity;
+
+import isi.pasco2.handler.HistoryAccessHandler;
+import isi.pasco2.io.FastReadIndexFile;
+import isi.pasco2.parser.DateTime;
+import isi.pasco2.parser.IEHistoryFileParser;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Test;
+
+/**
+ * Compares the URL records read by IEIndexDatParser with the ones pasco2
+ * reports for the index.dat files of the pasco2 tests.
+ */
+public class IEIndexDatParserTest {
+
+    private static final String PASCO2_TEST_DIR = "../thirdparty/pasco2/test/isi/pasco2";
+
+    @Test
+    public void testHistoryFileMatchesPasco2() throws Exception {
+        List<String> records = parse("first.history.index.dat");
+        assertFalse(records.isEmpty());
+        assertEquals(parseWithPasco2("first.history.index.dat"), records);
+    }
+
+    @Test
+    public void testEmptyHistoryFileMatchesPasco2() throws Exception {
+        assertEquals(parseWithPasco2("empty.history.index.dat"), parse("empty.history.index.dat"));
+    }
+
+    /**
+     * @return the URL and access time of each record read by IEIndexDatParser,
+     *         sorted
+     */
+    private static List<String> parse(String fileName) throws IOException {
+        File file = new File(PASCO2_TEST_DIR, fileName);
+        final List<String> records = new ArrayList<>();
+        try (InputStream in = new FileInputStream(file)) {
+            new IEIndexDatParser(in, file.length()).parse(new Consumer<IEIndexDatParser.UrlRecord>() {
+                @Override
+                public void accept(IEIndexDatParser.UrlRecord record) {
+                    records.add(record.getUrl() + " " + record.getAccessedTime());
+                }
+            });
+        }
+        Collections.sort(records);
+        return records;
+    }
+
+    /**
+     * @return the URL and access time of each record reported by pasco2,
+     *         sorted
+     */
+    private static List<String> parseWithPasco2(String fileName) throws IOException {
+        String path = new File(PASCO2_TEST_DIR, fileName).getPath();
+        Pasco2Records handler = new Pasco2Records();
+        new IEHistoryFileParser(path, new FastReadIndexFile(path, "r"), handler).parseFile();
+        Collections.sort(handler.records);
+        return handler.records;
+    }
+
+    /**
+     * Collects the URL records reported by pasco2.
+     */
+    private static final class Pasco2Records implements HistoryAccessHandler {
+
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void URLRecord(DateTime localAccessTime, DateTime accessTime, DateTime modTime, String url) {
+            records.add(url + " " + accessTime.asDate().getTime() / 1000);
+        }
+
+        @Override
+        public void URLRecord(DateTime localAccessTime, DateTime accessTime, DateTime modTime, String url, int numberOfAccesses) {
+            URLRecord(localAccessTime, accessTime, modTime, url);
+        }
+
+        @Override
+        public void startDocument(String fileName, float version) {
+        }
+
+        @Override
+        public void endDocument() {
+        }
+
+        @Override
+        public void unknownRecord(String type, int offset, byte[] record) {
+        }
+
+        @Override
+        public void unusedRecord(int offset) {
+        }
+
+        @Override
+        public void invalidRecord(int offset) {
+        }
+
+        @Override
+        public void record(int currentOffset, byte[] rec) {
+        }
+
+        @Override
+        public void REDRRecord(String url) {
+        }
+    }
+}
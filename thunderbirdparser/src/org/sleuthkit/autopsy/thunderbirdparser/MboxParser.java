@@ -18,23 +18,17 @@
  */
 package org.sleuthkit.autopsy.thunderbirdparser;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.CharConversionException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetEncoder;
-import java.nio.charset.IllegalCharsetNameException;
-import java.nio.charset.StandardCharsets;
-import java.nio.charset.UnsupportedCharsetException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.apache.james.mime4j.dom.BinaryBody;
@@ -48,12 +42,8 @@
 import org.apache.james.mime4j.dom.address.MailboxList;
 import org.apache.james.mime4j.dom.field.ContentDispositionField;
 import org.apache.james.mime4j.dom.field.ContentTypeField;
-import org.apache.james.mime4j.mboxiterator.CharBufferWrapper;
-import org.apache.james.mime4j.mboxiterator.MboxIterator;
 import org.apache.james.mime4j.message.DefaultMessageBuilder;
 import org.apache.james.mime4j.stream.MimeConfig;
-import org.apache.tika.parser.txt.CharsetDetector;
-import org.apache.tika.parser.txt.CharsetMatch;
 import org.openide.util.NbBundle;
 import org.sleuthkit.autopsy.ingest.IngestServices;
 
@@ -75,6 +65,41 @@ class MboxParser {
      */
     private static final String HTML_TYPE = "text/html"; //NON-NLS
 
+    /**
+     * The start of the line that separates the messages in an mbox file.
+     */
+    private static final byte[] FROM_LINE_PREFIX = {'F', 'r', 'o', 'm', ' '};
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RETAINED_MESSAGE_BUFFER_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Messages bigger than this, or with a line longer than the max line
+     * length, are skipped so that a malformed mbox file can not use up the
+     * memory of the ingest thread.
+     */
+    private static final int MAX_MESSAGE_SIZE = 128 * 1024 * 1024;
+    private static final int MAX_LINE_LENGTH = 1024 * 1024;
+
+    /**
+     * The bytes read from the mbox file that have not been split into lines
+     * yet.
+     */
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private int readPosition;
+    private int readLimit;
+
+    /**
+     * The current line of the mbox file.
+     */
+    private byte[] lineBuffer = new byte[8 * 1024];
+
+    /**
+     * Whether the current line was longer than the max line length and was
+     * cut short.
+     */
+    private boolean lineTruncated;
+
     /**
      * The local path of the mbox file.
      */
@@ -95,61 +120,200 @@ static boolean isValidMimeTypeMbox(byte[] buffer) {
     }
 
     /**
-     * Parse the mbox file and get the email messages.
+     * Parse an mbox file one message at a time, reading it as a stream. Each
+     * email message is passed to the consumer as soon as it has been parsed,
+     * and its attachments have been written to disk, so only one message is
+     * held in memory at a time no matter how big the mbox file is.
      *
-     * @param mboxFile
+     * Messages are split on the "From " lines that start each message in the
+     * mbox format. The bytes of each message are passed to mime4j as they are,
+     * which decodes them according to the message headers. Messages that are
+     * too big to be held in memory are skipped with a warning.
      *
-     * @return a list of the email messages in the mbox file.
+     * @param mboxStream    the content of the mbox file
+     * @param emailConsumer called with each email message in the file
      */
-    List<EmailMessage> parse(File mboxFile) {
-        // Detect possible charsets
-        List<CharsetEncoder> encoders = getPossibleEncoders(mboxFile);
-
-        CharsetEncoder theEncoder = null;
-        Iterable<CharBufferWrapper> mboxIterator = null;
-        // Loop through the possible encoders and find the first one that works.
-        // That will usually be one of the first ones.
-        for (CharsetEncoder encoder : encoders) {
-            try {
-                mboxIterator = MboxIterator.fromFile(mboxFile).charset(encoder.charset()).build();
-                theEncoder = encoder;
-                break;
-            } catch (CharConversionException | UnsupportedCharsetException ex) {
-                // Not the right encoder
-            } catch (IllegalArgumentException ex) {
-                // Not the right encoder
-            } catch (IOException ex) {
-                logger.log(Level.WARNING, "couldn't find mbox file.", ex); //NON-NLS
-                addErrorMessage(NbBundle.getMessage(this.getClass(), "MboxParser.parse.errMsg.failedToReadFile"));
-                return new ArrayList<>();
+    void parse(InputStream mboxStream, Consumer<EmailMessage> emailConsumer) {
+        long failCount = 0;
+        long skipCount = 0;
+        MessageBuffer message = new MessageBuffer();
+        boolean skipMessage = false;
+        boolean previousLineBlank = true;
+        readPosition = 0;
+        readLimit = 0;
+        try (InputStream in = mboxStream) {
+            int length;
+            while ((length = readLine(in)) != -1) {
+                if (previousLineBlank && isFromLine(length)) {
+                    // the start of the next message
+                    if (skipMessage) {
+                        skipCount++;
+                    } else if (message.size() > 0 && parseMessage(message, emailConsumer) == false) {
+                        failCount++;
+                    }
+                    message = message.reset(MAX_RETAINED_MESSAGE_BUFFER_SIZE);
+                    skipMessage = false;
+                } else if (skipMessage == false) {
+                    if (lineTruncated || message.size() + length > MAX_MESSAGE_SIZE) {
+                        logger.log(Level.WARNING, "Skipping message in mbox file {0} that is bigger than {1} bytes or has a line longer than {2} bytes", //NON-NLS
+                                new Object[]{localPath, MAX_MESSAGE_SIZE, MAX_LINE_LENGTH});
+                        message = message.reset(MAX_RETAINED_MESSAGE_BUFFER_SIZE);
+                        skipMessage = true;
+                    } else {
+                        message.write(lineBuffer, 0, length);
+                    }
+                }
+                previousLineBlank = isBlankLine(length);
+            }
+            if (skipMessage) {
+                skipCount++;
+            } else if (message.size() > 0 && parseMessage(message, emailConsumer) == false) {
+                failCount++;
             }
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Failed to read mbox file.", ex); //NON-NLS
+            addErrorMessage(NbBundle.getMessage(this.getClass(), "MboxParser.parse.errMsg.failedToReadFile"));
         }
 
-        // If no encoders work, post an error message and return.
-        if (mboxIterator == null || theEncoder == null) {
-            addErrorMessage(NbBundle.getMessage(this.getClass(), "MboxParser.parse.errMsg.couldntFindCharset"));
-            return new ArrayList<>();
+        if (failCount > 0) {
+            addErrorMessage(
+                    NbBundle.getMessage(this.getClass(), "MboxParser.parse.errMsg.failedToParseNMsgs", failCount));
+        }
+        if (skipCount > 0) {
+            addErrorMessage(
+                    NbBundle.getMessage(this.getClass(), "MboxParser.parse.errMsg.skippedNLargeMsgs", skipCount));
         }
+    }
 
-        List<EmailMessage> emails = new ArrayList<>();
-        long failCount = 0;
+    /**
+     * Parse one message and pass it to the consumer.
+     *
+     * @param message       the bytes of the message, without its "From " line
+     * @param emailConsumer
+     *
+     * @return true if the message was parsed
+     */
+    private boolean parseMessage(MessageBuffer message, Consumer<EmailMessage> emailConsumer) {
+        EmailMessage email;
+        try {
+            Message msg = messageBuilder.parseMessage(message.asInputStream());
+            email = extractEmail(msg);
+        } catch (RuntimeException | IOException ex) {
+            logger.log(Level.WARNING, "Failed to get message from mbox: {0}", ex.getMessage()); //NON-NLS
+            return false;
+        }
+        emailConsumer.accept(email);
+        return true;
+    }
 
-        // Parse each message and extract an EmailMessage structure
-        for (CharBufferWrapper message : mboxIterator) {
-            try {
-                Message msg = messageBuilder.parseMessage(message.asInputStream(theEncoder.charset()));
-                emails.add(extractEmail(msg));
-            } catch (RuntimeException | IOException ex) {
-                logger.log(Level.WARNING, "Failed to get message from mbox: {0}", ex.getMessage()); //NON-NLS
-                failCount++;
+    /**
+     * Read the next line of the mbox file, including its line terminator, into
+     * the line buffer. At most the max line length is kept; the rest of a
+     * longer line is read and dropped, and lineTruncated is set.
+     *
+     * @param in
+     *
+     * @return the length of the line, or -1 at the end of the file
+     *
+     * @throws IOException
+     */
+    private int readLine(InputStream in) throws IOException {
+        int length = 0;
+        lineTruncated = false;
+        while (true) {
+            if (readPosition == readLimit) {
+                int count = in.read(readBuffer, 0, readBuffer.length);
+                if (count == -1) {
+                    readPosition = 0;
+                    readLimit = 0;
+                    return (length == 0 && lineTruncated == false) ? -1 : length;
+                }
+                readPosition = 0;
+                readLimit = count;
+            }
+
+            int end = readPosition;
+            while (end < readLimit && readBuffer[end] != '\n') {
+                end++;
+            }
+            boolean endOfLine = end < readLimit;
+            if (endOfLine) {
+                end++; // keep the line terminator
+            }
+
+            int count = end - readPosition;
+            int copyCount = Math.min(count, MAX_LINE_LENGTH - length);
+            if (copyCount < count) {
+                lineTruncated = true;
+            }
+            if (copyCount > 0) {
+                if (length + copyCount > lineBuffer.length) {
+                    lineBuffer = Arrays.copyOf(lineBuffer, Math.min(MAX_LINE_LENGTH, Math.max(lineBuffer.length * 2, length + copyCount)));
+                }
+                System.arraycopy(readBuffer, readPosition, lineBuffer, length, copyCount);
+                length += copyCount;
+            }
+            readPosition = end;
+
+            if (endOfLine) {
+                return length;
             }
         }
+    }
 
-        if (failCount > 0) {
-            addErrorMessage(
-                    NbBundle.getMessage(this.getClass(), "MboxParser.parse.errMsg.failedToParseNMsgs", failCount));
+    /**
+     * @param length the length of the line in the line buffer
+     *
+     * @return true if the line in the line buffer starts with "From "
+     */
+    private boolean isFromLine(int length) {
+        if (length < FROM_LINE_PREFIX.length) {
+            return false;
+        }
+        for (int i = 0; i < FROM_LINE_PREFIX.length; i++) {
+            if (lineBuffer[i] != FROM_LINE_PREFIX[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param length the length of the line in the line buffer
+     *
+     * @return true if the line in the line buffer is empty
+     */
+    private boolean isBlankLine(int length) {
+        return (length == 1 && lineBuffer[0] == '\n')
+                || (length == 2 && lineBuffer[0] == '\r' && lineBuffer[1] == '\n');
+    }
+
+    /**
+     * A buffer for the bytes of one message that can be read without copying
+     * them.
+     */
+    private static class MessageBuffer extends ByteArrayOutputStream {
+
+        InputStream asInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+
+        /**
+         * Empty the buffer for the next message. A buffer that grew beyond
+         * the given capacity for a big message is replaced with a new one, so
+         * that its memory is released.
+         *
+         * @param maxRetainedCapacity
+         *
+         * @return the buffer to use for the next message
+         */
+        MessageBuffer reset(int maxRetainedCapacity) {
+            if (buf.length > maxRetainedCapacity) {
+                return new MessageBuffer();
+            }
+            reset();
+            return this;
         }
-        return emails;
     }
 
     String getErrors() {
@@ -347,56 +511,6 @@ private String getAddresses(AddressList addressList) {
         return (addressList == null) ? "" : getAddresses(addressList.flatten());
     }
 
-    /**
-     * Get a list of the possible encoders for the given mboxFile using Tika's
-     * CharsetDetector. At a minimum, returns the standard built in charsets.
-     *
-     * @param mboxFile
-     *
-     * @return
-     */
-    private List<CharsetEncoder> getPossibleEncoders(File mboxFile) {
-        InputStream is;
-        List<CharsetEncoder> possibleEncoders = new ArrayList<>();
-
-        possibleEncoders.add(StandardCharsets.ISO_8859_1.newEncoder());
-        possibleEncoders.add(StandardCharsets.US_ASCII.newEncoder());
-        possibleEncoders.add(StandardCharsets.UTF_16.newEncoder());
-        possibleEncoders.add(StandardCharsets.UTF_16BE.newEncoder());
-        possibleEncoders.add(StandardCharsets.UTF_16LE.newEncoder());
-        possibleEncoders.add(StandardCharsets.UTF_8.newEncoder());
-
-        try {
-            is = new BufferedInputStream(new FileInputStream(mboxFile));
-        } catch (FileNotFoundException ex) {
-            logger.log(Level.WARNING, "Failed to find mbox file while detecting charset"); //NON-NLS
-            return possibleEncoders;
-        }
-
-        try {
-            CharsetDetector detector = new CharsetDetector();
-            detector.setText(is);
-            CharsetMatch[] matches = detector.detectAll();
-            for (CharsetMatch match : matches) {
-                try {
-                    possibleEncoders.add(Charset.forName(match.getName()).newEncoder());
-                } catch (UnsupportedCharsetException | IllegalCharsetNameException ex) {
-                    // Don't add unsupported charsets to the list
-                }
-            }
-            return possibleEncoders;
-        } catch (IOException | IllegalArgumentException ex) {
-            logger.log(Level.WARNING, "Failed to detect charset of mbox file.", ex); //NON-NLS
-            return possibleEncoders;
-        } finally {
-            try {
-                is.close();
-            } catch (IOException ex) {
-                logger.log(Level.INFO, "Failed to close input stream"); //NON-NLS
-            }
-        }
-    }
-
     private void addErrorMessage(String msg) {
         errors.append("<li>").append(msg).append("</li>"); //NON-NLS
     }
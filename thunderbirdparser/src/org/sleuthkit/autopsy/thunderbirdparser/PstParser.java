@@ -23,6 +23,7 @@
 import com.pff.PSTFile;
 import com.pff.PSTFolder;
 import com.pff.PSTMessage;
+import com.pff.PSTObject;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -30,6 +31,16 @@
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.openide.util.NbBundle;
@@ -51,16 +62,24 @@ class PstParser {
      * First four bytes of a pst file.
      */
     private static int PST_HEADER = 0x2142444E;
-    private IngestServices services;
     /**
-     * A map of PSTMessages to their Local path within the file's internal
-     * directory structure.
+     * The maximum number of threads that process the folders of a pst file.
+     */
+    private static final int MAX_FOLDER_THREADS = 4;
+    /**
+     * The maximum number of email messages that have been extracted but not yet
+     * passed to the consumer. The folder threads wait when it is reached.
+     */
+    private static final int MAX_PENDING_EMAILS = 200;
+    /**
+     * Serializes the opening of pst files. The PSTFile constructor fills a
+     * static, unsynchronized map in java-libpst.
      */
-    private List<EmailMessage> results;
-    private StringBuilder errors;
+    private static final Object PST_FILE_OPEN_LOCK = new Object();
+    private IngestServices services;
+    private final StringBuilder errors;
 
     PstParser(IngestServices services) {
-        results = new ArrayList<>();
         this.services = services;
         errors = new StringBuilder();
     }
@@ -73,60 +92,124 @@ enum ParseResult {
     /**
      * Parse and extract email messages from the pst/ost file.
      *
-     * @param file A pst or ost file.
+     * The folders of the file are processed in parallel by a small pool of
+     * threads, each with its own handle on the file since java-libpst is not
+     * thread safe. The handles are all opened on the calling thread before the
+     * threads are started. Attachments are written to disk as they are found, and each
+     * email message is passed to the consumer on the calling thread as soon as
+     * it has been extracted, so that the messages do not all have to be held
+     * in memory.
+     *
+     * @param file          A pst or ost file.
+     * @param emailConsumer called on the calling thread with each email
+     *                      message in the file
      *
      * @return ParseResult: OK on success, ERROR on an error, ENCRYPT if failed
      *         because the file is encrypted.
      */
-    ParseResult parse(File file) {
-        PSTFile pstFile;
-        long failures;
+    ParseResult parse(File file, Consumer<EmailMessage> emailConsumer) {
+        Queue<FolderInfo> folders = new ConcurrentLinkedQueue<>();
+        List<PSTFile> pstFiles = new ArrayList<>();
         try {
-            pstFile = new PSTFile(file);
-            failures = processFolder(pstFile.getRootFolder(), "\\", true);
-            if (failures > 0) {
-                addErrorMessage(
-                        NbBundle.getMessage(this.getClass(), "PstParser.parse.errMsg.failedToParseNMsgs", failures));
-            }
-            return ParseResult.OK;
+            PSTFile pstFile = openPstFile(file);
+            pstFiles.add(pstFile);
+            findFolders(pstFile.getRootFolder(), "\\", true, folders);
         } catch (PSTException | IOException ex) {
+            closePstFiles(pstFiles);
             String msg = file.getName() + ": Failed to create internal java-libpst PST file to parse:\n" + ex.getMessage(); //NON-NLS
             logger.log(Level.WARNING, msg);
             return ParseResult.ERROR;
         } catch (IllegalArgumentException ex) {
+            closePstFiles(pstFiles);
             logger.log(Level.INFO, "Found encrypted PST file."); //NON-NLS
             return ParseResult.ENCRYPT;
         }
+
+        // open a handle per worker up front, the first one is reused
+        int threadCount = Math.max(1, Math.min(MAX_FOLDER_THREADS, Math.min(folders.size(), Runtime.getRuntime().availableProcessors())));
+        while (pstFiles.size() < threadCount) {
+            try {
+                pstFiles.add(openPstFile(file));
+            } catch (PSTException | IOException | IllegalArgumentException ex) {
+                logger.log(Level.WARNING, file.getName() + ": Failed to open another java-libpst PST file, using " + pstFiles.size() + " folder threads", ex); //NON-NLS
+                break;
+            }
+        }
+
+        BlockingQueue<EmailMessage> emails = new ArrayBlockingQueue<>(MAX_PENDING_EMAILS);
+        AtomicLong failures = new AtomicLong();
+        AtomicInteger runningWorkers = new AtomicInteger(pstFiles.size());
+        ExecutorService executor = Executors.newFixedThreadPool(pstFiles.size(),
+                (Runnable runnable) -> new Thread(runnable, "pst-folder")); //NON-NLS
+        try {
+            for (PSTFile pstFile : pstFiles) {
+                executor.execute(new FolderWorker(pstFile, folders, emails, failures, runningWorkers));
+            }
+
+            // pass the messages to the consumer as the workers extract them
+            while (runningWorkers.get() > 0 || emails.isEmpty() == false) {
+                EmailMessage email = emails.poll(100, TimeUnit.MILLISECONDS);
+                if (email != null) {
+                    emailConsumer.accept(email);
+                }
+            }
+        } catch (InterruptedException ex) {
+            logger.log(Level.WARNING, "Interrupted while parsing pst file: " + file.getName(), ex); //NON-NLS
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            closePstFiles(pstFiles);
+        }
+
+        if (failures.get() > 0) {
+            addErrorMessage(
+                    NbBundle.getMessage(this.getClass(), "PstParser.parse.errMsg.failedToParseNMsgs", failures.get()));
+        }
+        if (folders.isEmpty() == false) {
+            logger.log(Level.WARNING, "{0}: {1} folders were not processed", new Object[]{file.getName(), folders.size()}); //NON-NLS
+            return ParseResult.ERROR;
+        }
+        return ParseResult.OK;
+    }
+
+    String getErrors() {
+        synchronized (errors) {
+            return errors.toString();
+        }
     }
 
     /**
-     * Get the results of the parsing.
-     *
-     * @return
+     * A folder of a pst file that contains email messages.
      */
-    List<EmailMessage> getResults() {
-        return results;
-    }
+    private static class FolderInfo {
 
-    String getErrors() {
-        return errors.toString();
+        private final long descriptorNodeId;
+        private final String path;
+
+        FolderInfo(long descriptorNodeId, String path) {
+            this.descriptorNodeId = descriptorNodeId;
+            this.path = path;
+        }
     }
 
     /**
-     * Process this folder and all subfolders, adding every email found to
-     * results. Accumulates the folder hierarchy path as it navigates the folder
+     * Find this folder and all subfolders that contain email messages.
+     * Accumulates the folder hierarchy path as it navigates the folder
      * structure.
      *
-     * @param folder The folder to navigate and process
-     * @param path   The path to the folder within the pst/ost file's directory
-     *               structure
-     *
-     * @throws PSTException
-     * @throws IOException
+     * @param folder  The folder to navigate
+     * @param path    The path to the folder within the pst/ost file's directory
+     *                structure
+     * @param root    True if the folder is the root folder
+     * @param folders The queue to add the folders to
      */
-    private long processFolder(PSTFolder folder, String path, boolean root) {
+    private void findFolders(PSTFolder folder, String path, boolean root, Queue<FolderInfo> folders) {
         String newPath = (root ? path : path + "\\" + folder.getDisplayName());
-        long failCount = 0L; // Number of emails that failed
         if (folder.hasSubfolders()) {
             List<PSTFolder> subFolders;
             try {
@@ -137,24 +220,103 @@ private long processFolder(PSTFolder folder, String path, boolean root) {
             }
 
             for (PSTFolder f : subFolders) {
-                failCount += processFolder(f, newPath, false);
+                findFolders(f, newPath, false, folders);
             }
         }
 
         if (folder.getContentCount() != 0) {
-            PSTMessage email;
-            // A folder's children are always emails, never other folders.
+            folders.add(new FolderInfo(folder.getDescriptorNodeId(), newPath));
+        }
+    }
+
+    /**
+     * Processes folders from a shared queue until it is empty, with its own
+     * handle on the pst file, putting the email messages it extracts on a
+     * bounded queue. The handle is closed by the caller.
+     */
+    private class FolderWorker implements Runnable {
+
+        private final PSTFile pstFile;
+        private final Queue<FolderInfo> folders;
+        private final BlockingQueue<EmailMessage> emails;
+        private final AtomicLong failures;
+        private final AtomicInteger runningWorkers;
+
+        FolderWorker(PSTFile pstFile, Queue<FolderInfo> folders, BlockingQueue<EmailMessage> emails, AtomicLong failures, AtomicInteger runningWorkers) {
+            this.pstFile = pstFile;
+            this.folders = folders;
+            this.emails = emails;
+            this.failures = failures;
+            this.runningWorkers = runningWorkers;
+        }
+
+        @Override
+        public void run() {
             try {
+                FolderInfo folderInfo;
+                while (Thread.currentThread().isInterrupted() == false && (folderInfo = folders.poll()) != null) {
+                    processFolder(pstFile, folderInfo);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                runningWorkers.decrementAndGet();
+            }
+        }
+
+        /**
+         * Process the email messages of a folder.
+         *
+         * @param pstFile    the handle on the pst file of this worker
+         * @param folderInfo the folder
+         *
+         * @throws InterruptedException
+         */
+        private void processFolder(PSTFile pstFile, FolderInfo folderInfo) throws InterruptedException {
+            try {
+                PSTFolder folder = (PSTFolder) PSTObject.detectAndLoadPSTObject(pstFile, folderInfo.descriptorNodeId);
+                PSTMessage email;
+                // A folder's children are always emails, never other folders.
                 while ((email = (PSTMessage) folder.getNextChild()) != null) {
-                    results.add(extractEmailMessage(email, newPath));
+                    emails.put(extractEmailMessage(email, folderInfo.path));
                 }
-            } catch (PSTException | IOException ex) {
-                failCount++;
+            } catch (PSTException | IOException | ClassCastException ex) {
+                failures.incrementAndGet();
                 logger.log(Level.INFO, "java-libpst exception while getting emails from a folder: {0}", ex.getMessage()); //NON-NLS
             }
         }
+    }
 
-        return failCount;
+    /**
+     * Open a pst file. Pst files are opened one at a time, since the PSTFile
+     * constructor is not thread safe.
+     *
+     * @param file A pst or ost file.
+     *
+     * @return the opened file
+     *
+     * @throws PSTException
+     * @throws IOException
+     */
+    private static PSTFile openPstFile(File file) throws PSTException, IOException {
+        synchronized (PST_FILE_OPEN_LOCK) {
+            return new PSTFile(file);
+        }
+    }
+
+    /**
+     * Close the file handles of PSTFiles.
+     *
+     * @param pstFiles
+     */
+    private static void closePstFiles(List<PSTFile> pstFiles) {
+        for (PSTFile pstFile : pstFiles) {
+            try {
+                pstFile.getFileHandle().close();
+            } catch (IOException ex) {
+                logger.log(Level.INFO, "Failed to close pst file.", ex); //NON-NLS
+            }
+        }
     }
 
     /**
@@ -315,6 +477,8 @@ public static boolean isPstFile(AbstractFile file) {
     }
 
     private void addErrorMessage(String msg) {
-        errors.append("<li>").append(msg).append("</li>"); //NON-NLS
+        synchronized (errors) {
+            errors.append("<li>").append(msg).append("</li>"); //NON-NLS
+        }
     }
 }
@@ -22,10 +22,12 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import org.openide.util.NbBundle;
 import org.sleuthkit.autopsy.casemodule.Case;
 import org.sleuthkit.autopsy.casemodule.services.Blackboard;
+import org.sleuthkit.autopsy.casemodule.services.DerivedFileStore;
 import org.sleuthkit.autopsy.casemodule.services.FileManager;
 import org.sleuthkit.autopsy.coreutils.Logger;
 import org.sleuthkit.autopsy.coreutils.MessageNotifyUtil;
@@ -43,6 +45,7 @@
 import org.sleuthkit.datamodel.BlackboardAttribute;
 import org.sleuthkit.datamodel.BlackboardAttribute.ATTRIBUTE_TYPE;
 import org.sleuthkit.datamodel.DerivedFile;
+import org.sleuthkit.datamodel.ReadContentInputStream;
 import org.sleuthkit.datamodel.TskCoreException;
 import org.sleuthkit.datamodel.TskData;
 import org.sleuthkit.datamodel.TskException;
@@ -60,6 +63,12 @@ public final class ThunderbirdMboxFileIngestModule implements FileIngestModule {
     private IngestJobContext context;
     private Blackboard blackboard;
 
+    /**
+     * The number of email messages from a mail file that are added to the
+     * case at a time.
+     */
+    private static final int EMAIL_BATCH_SIZE = 100;
+
     ThunderbirdMboxFileIngestModule() {
     }
 
@@ -143,13 +152,14 @@ private ProcessResult processPst(AbstractFile abstractFile) {
             return ProcessResult.OK;
         }
 
+        // the artifacts and attachments are added in batches as the parser
+        // extracts the email messages
         PstParser parser = new PstParser(services);
-        PstParser.ParseResult result = parser.parse(file);
+        EmailBatcher emailBatcher = new EmailBatcher(abstractFile);
+        PstParser.ParseResult result = parser.parse(file, emailBatcher);
+        emailBatcher.flush();
 
-        if (result == PstParser.ParseResult.OK) {
-            // parse success: Process email and add artifacts
-            processEmails(parser.getResults(), abstractFile);
-        } else if (result == PstParser.ParseResult.ENCRYPT) {
+        if (result == PstParser.ParseResult.ENCRYPT) {
             // encrypted pst: Add encrypted file artifact
             try {
                 BlackboardArtifact artifact = abstractFile.newArtifact(BlackboardArtifact.ARTIFACT_TYPE.TSK_ENCRYPTION_DETECTED);
@@ -168,7 +178,7 @@ private ProcessResult processPst(AbstractFile abstractFile) {
             } catch (TskCoreException ex) {
                 logger.log(Level.INFO, "Failed to add encryption attribute to file: {0}", abstractFile.getName()); //NON-NLS
             }
-        } else {
+        } else if (result == PstParser.ParseResult.ERROR) {
             // parsing error: log message
             postErrorMessage(
                     NbBundle.getMessage(this.getClass(), "ThunderbirdMboxFileIngestModule.processPst.errProcFile.msg",
@@ -215,36 +225,13 @@ private ProcessResult processMBox(AbstractFile abstractFile) {
         emailFolder = emailFolder + mboxFileName;
         emailFolder = emailFolder.replaceAll(".sbd", ""); //NON-NLS
 
-        String fileName = getTempPath() + File.separator + abstractFile.getName()
-                + "-" + String.valueOf(abstractFile.getId());
-        File file = new File(fileName);
-
-        long freeSpace = services.getFreeDiskSpace();
-        if ((freeSpace != IngestMonitor.DISK_FREE_SPACE_UNKNOWN) && (abstractFile.getSize() >= freeSpace)) {
-            logger.log(Level.WARNING, "Not enough disk space to write file to disk."); //NON-NLS
-            postErrorMessage(
-                    NbBundle.getMessage(this.getClass(), "ThunderbirdMboxFileIngestModule.processMBox.errProcFile.msg",
-                            abstractFile.getName()),
-                    NbBundle.getMessage(this.getClass(),
-                            "ThunderbirdMboxFileIngestModule.processMBox.errProfFile.details"));
-            return ProcessResult.OK;
-        }
-
-        try {
-            ContentUtils.writeToFile(abstractFile, file);
-        } catch (IOException ex) {
-            logger.log(Level.WARNING, "Failed writing mbox file to disk.", ex); //NON-NLS
-            return ProcessResult.OK;
-        }
-
+        // parse the mbox file straight from the image, one message at a time,
+        // and add the artifacts and attachments of each batch of messages as
+        // soon as it has been parsed
         MboxParser parser = new MboxParser(services, emailFolder);
-        List<EmailMessage> emails = parser.parse(file);
-
-        processEmails(emails, abstractFile);
-
-        if (file.delete() == false) {
-            logger.log(Level.INFO, "Failed to delete temp file: {0}", file.getName()); //NON-NLS
-        }
+        EmailBatcher emailBatcher = new EmailBatcher(abstractFile);
+        parser.parse(new ReadContentInputStream(abstractFile), emailBatcher);
+        emailBatcher.flush();
 
         String errors = parser.getErrors();
         if (errors.isEmpty() == false) {
@@ -286,6 +273,42 @@ public static String getRelModuleOutputPath() {
                 + EmailParserModuleFactory.getModuleName();
     }
 
+    /**
+     * Collects the email messages extracted by a parser and adds them to the
+     * case in batches, so that the messages of a big mail file are not all
+     * held in memory.
+     */
+    private class EmailBatcher implements Consumer<EmailMessage> {
+
+        private final AbstractFile abstractFile;
+        private final List<EmailMessage> emails = new ArrayList<>();
+
+        /**
+         * @param abstractFile the mail file the messages are extracted from
+         */
+        EmailBatcher(AbstractFile abstractFile) {
+            this.abstractFile = abstractFile;
+        }
+
+        @Override
+        public void accept(EmailMessage email) {
+            emails.add(email);
+            if (emails.size() >= EMAIL_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * Add the collected email messages to the case.
+         */
+        void flush() {
+            if (emails.isEmpty() == false) {
+                processEmails(emails, abstractFile);
+                emails.clear();
+            }
+        }
+    }
+
     /**
      * Take the extracted information in the email messages and add the
      * appropriate artifacts and derived files.
@@ -323,6 +346,7 @@ private void processEmails(List<EmailMessage> emails, AbstractFile abstractFile)
      */
     private List<AbstractFile> handleAttachments(List<EmailMessage.Attachment> attachments, AbstractFile abstractFile) {
         List<AbstractFile> files = new ArrayList<>();
+        DerivedFileStore derivedFileStore = Case.getCurrentCase().getServices().getDerivedFileStore();
         for (EmailMessage.Attachment attach : attachments) {
             String filename = attach.getName();
             long crTime = attach.getCrTime();
@@ -333,9 +357,12 @@ private List<AbstractFile> handleAttachments(List<EmailMessage.Attachment> attac
             long size = attach.getSize();
 
             try {
-                DerivedFile df = fileManager.addDerivedFile(filename, relPath,
+                // attachments that have already been extracted elsewhere in the case share the earlier copy
+                DerivedFileStore.StoredPayload payload = derivedFileStore.store(relPath);
+                DerivedFile df = fileManager.addDerivedFile(filename, payload.getLocalPath(),
                         size, cTime, crTime, aTime, mTime, true, abstractFile, "",
                         EmailParserModuleFactory.getModuleName(), EmailParserModuleFactory.getModuleVersion(), "");
+                derivedFileStore.addDerivedFile(df, payload);
                 files.add(df);
             } catch (TskCoreException ex) {
                 postErrorMessage(